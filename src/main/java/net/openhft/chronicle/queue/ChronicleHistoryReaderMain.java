@@ -71,6 +71,8 @@ public class ChronicleHistoryReaderMain {
             chronicleHistoryReader.withMeasurementWindow(Long.parseLong(commandLine.getOptionValue('w')));
         if (commandLine.hasOption('u'))
             chronicleHistoryReader.withSummaryOutput(Integer.parseInt(commandLine.getOptionValue('u')));
+        if (commandLine.hasOption('P'))
+            chronicleHistoryReader.withParallelism(Integer.parseInt(commandLine.getOptionValue('P')));
     }
 
     /**
@@ -157,6 +159,7 @@ public class ChronicleHistoryReaderMain {
         ChronicleReaderMain.addOption(options, "i", "ignore", true, "How many items to ignore from start", false);
         ChronicleReaderMain.addOption(options, "w", "window", true, "Window duration in time unit. Instead of one output at the end, will output every window period", false);
         ChronicleReaderMain.addOption(options, "u", "histo offset", true, "Summary output. Instead of histograms, will show one value only, in CSV format. Set this to 0 for 50th, 1 for 90th etc., -1 for worst", false);
+        ChronicleReaderMain.addOption(options, "P", "parallel", true, "Read cycles with this many threads, merging their histograms in cycle order", false);
         options.addOption(new Option("p", false, "Show progress"));
         options.addOption(new Option("m", false, "By method"));
         return options;
@@ -218,6 +218,21 @@ public class ChronicleReaderMain {
         if (commandLine.hasOption("named")) {
             chronicleReader.withTailerId(commandLine.getOptionValue("named"));
         }
+        if (commandLine.hasOption('p')) {
+            final String p = commandLine.getOptionValue('p');
+            final int parallelism;
+            try {
+                parallelism = Integer.parseInt(p);
+            } catch (NumberFormatException e) {
+                printHelpAndExit(options(), 1, "The number of threads to scan with must be a whole number, not " + p);
+                return;
+            }
+            if (parallelism < 1) {
+                printHelpAndExit(options(), 1, "The number of threads to scan with must be at least 1, not " + p);
+                return;
+            }
+            chronicleReader.withParallelism(parallelism);
+        }
     }
 
     /**
@@ -249,6 +264,7 @@ public class ChronicleReaderMain {
         addOption(options, "cbl", "content-based-limiter", true, "Specify a content-based limiter", false);
         addOption(options, "cblArg", "content-based-limiter-argument", true, "Specify an argument for use by the content-based limiter", false);
         addOption(options, "named", "named", true, "Named tailer ID", false);
+        addOption(options, "p", "parallel", true, "Scan cycles with this many threads, merging the results in index order", false);
         return options;
     }
 }
@@ -38,6 +38,37 @@ public interface ExcerptAppender extends ExcerptCommon<ExcerptAppender>, Marshal
         writeBytes((BytesStore) bytes);
     }
 
+    /**
+     * Writes (i.e. appends) each of the provided {@code batch} as a separate excerpt, in order.
+     * <p>
+     * Implementations may take the write lock and check for a roll once for the whole batch, in which case all the
+     * excerpts are written to the same cycle. {@link #lastIndexAppended()} returns the index of the last excerpt
+     * in the batch.
+     *
+     * @param batch  the excerpts to write
+     * @param offset the position in {@code batch} of the first excerpt to write
+     * @param length the number of excerpts to write
+     * @throws UnrecoverableTimeoutException if the operation times out.
+     * @throws IndexOutOfBoundsException     if {@code offset} and {@code length} are outside {@code batch}
+     */
+    default void writeBytes(@NotNull BytesStore<?, ?>[] batch, int offset, int length) {
+        if (offset < 0 || length < 0 || offset + length > batch.length)
+            throw new IndexOutOfBoundsException("offset: " + offset + ", length: " + length + ", batch.length: " + batch.length);
+        for (int i = offset; i < offset + length; i++)
+            writeBytes(batch[i]);
+    }
+
+    /**
+     * Writes (i.e. appends) each of the provided {@code batch} as a separate excerpt, in order.
+     *
+     * @param batch the excerpts to write
+     * @throws UnrecoverableTimeoutException if the operation times out.
+     * @see #writeBytes(BytesStore[], int, int)
+     */
+    default void writeBytes(@NotNull BytesStore<?, ?>[] batch) {
+        writeBytes(batch, 0, batch.length);
+    }
+
     /**
      * Returns the index last written.
      * <p>
@@ -0,0 +1,23 @@
+/*
+ * Copyright 2013-2025 chronicle.software; SPDX-License-Identifier: Apache-2.0
+ */
+package net.openhft.chronicle.queue;
+
+import net.openhft.chronicle.wire.Wire;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Callback used by {@link ExcerptTailer#drain(ExcerptHandler, int)} to process each excerpt read.
+ */
+@FunctionalInterface
+public interface ExcerptHandler {
+
+    /**
+     * Processes one excerpt. The wire is only valid for the duration of the call, and is positioned
+     * at the start of the excerpt with its read limit at the end of the excerpt.
+     *
+     * @param index the index of the excerpt
+     * @param wire  the wire to read the excerpt from
+     */
+    void onExcerpt(long index, @NotNull Wire wire);
+}
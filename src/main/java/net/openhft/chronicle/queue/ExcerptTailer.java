@@ -48,6 +48,30 @@ public interface ExcerptTailer extends ExcerptCommon<ExcerptTailer>, Marshallabl
     @NotNull
     DocumentContext readingDocument(boolean includeMetaData);
 
+    /**
+     * Reads up to {@code maxExcerpts} excerpts which are available now, passing each to {@code handler} in turn.
+     * Meta-data excerpts are skipped.
+     * <p>
+     * This is equivalent to calling {@link #readingDocument()} in a loop until no document is present, but
+     * implementations may read a run of complete excerpts in one pass and advance the index once at the end.
+     *
+     * @param handler     to process each excerpt
+     * @param maxExcerpts the maximum number of excerpts to read
+     * @return the number of excerpts read
+     */
+    default int drain(@NotNull ExcerptHandler handler, int maxExcerpts) {
+        int count = 0;
+        while (count < maxExcerpts) {
+            try (DocumentContext dc = readingDocument()) {
+                if (!dc.isPresent())
+                    break;
+                count++;
+                handler.onExcerpt(dc.index(), dc.wire());
+            }
+        }
+        return count;
+    }
+
     /**
      * Returns the current index of this Tailer.
      * <p>
@@ -65,6 +89,16 @@ public interface ExcerptTailer extends ExcerptCommon<ExcerptTailer>, Marshallabl
         return -1;
     }
 
+    /**
+     * Writes the index of a named tailer, so it carries on from here when created again, if its commit policy has not
+     * already. Does nothing for a tailer without a name, or when the index is written for every excerpt read, the
+     * default.
+     *
+     * @see net.openhft.chronicle.queue.impl.single.SingleChronicleQueueBuilder#tailerCommitPolicy
+     */
+    default void commit() {
+    }
+
     /**
      * Returns the current cycle for this Tailer.
      * <p>
@@ -103,6 +137,24 @@ public interface ExcerptTailer extends ExcerptCommon<ExcerptTailer>, Marshallabl
      */
     boolean moveToCycle(int cycle);
 
+    /**
+     * Moves this Tailer so the next excerpt read is the first excerpt written at or after a time, reading forwards.
+     * <p>
+     * This uses the times recorded when the queue is built with
+     * {@link net.openhft.chronicle.queue.impl.single.SingleChronicleQueueBuilder#timestampIndex(boolean)}, and doesn't
+     * read any excerpts. Times are only recorded for every index spacing excerpts, so up to that many excerpts written
+     * before the time may be read first. If the times of the cycle which was current at that time weren't recorded,
+     * this moves to the start of that cycle, or the next cycle after it.
+     *
+     * @param epochNanos the time in nanoseconds since the epoch
+     * @return {@code true} if there is an excerpt in or after the cycle which was current at that time, otherwise
+     * this Tailer is moved to the end and {@code false} is returned
+     * @throws UnsupportedOperationException if this Tailer doesn't support it
+     */
+    default boolean moveToTimestamp(long epochNanos) {
+        throw new UnsupportedOperationException("moveToTimestamp is not supported by " + getClass().getSimpleName());
+    }
+
     /**
      * Moves the index for this Tailer to the first existing excerpt in the queue.
      *
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2013-2025 chronicle.software; SPDX-License-Identifier: Apache-2.0
+ */
+package net.openhft.chronicle.queue;
+
+import net.openhft.chronicle.bytes.Bytes;
+import net.openhft.chronicle.bytes.BytesStore;
+import net.openhft.chronicle.queue.internal.util.PayloadDecoder;
+import net.openhft.chronicle.queue.internal.util.PayloadEncoder;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Codecs which compress the payload of each excerpt written to a queue, set with
+ * {@link net.openhft.chronicle.queue.impl.single.SingleChronicleQueueBuilder#compression(PayloadCodec, int)}.
+ * <p>
+ * Compressed excerpts are marked, so a queue may hold both compressed and uncompressed excerpts, and are decompressed
+ * when read by a queue with any codec set. Metadata excerpts are never compressed.
+ */
+public enum PayloadCodec {
+    /**
+     * {@link java.util.zip.Deflater} at its fastest level, for the best compression of text such as FIX or JSON.
+     */
+    DEFLATE(1),
+    /**
+     * A fast LZ77 codec, in the LZ4 block format, which compresses less but costs much less to write and read.
+     */
+    LZ(2);
+
+    /**
+     * The smallest payload compressed by default; smaller ones are rarely worth the time.
+     */
+    public static final int DEFAULT_MIN_SIZE = 256;
+
+    private final byte id;
+
+    PayloadCodec(int id) {
+        this.id = (byte) id;
+    }
+
+    /**
+     * @return the id written with each payload compressed with this codec
+     */
+    public byte id() {
+        return id;
+    }
+
+    /**
+     * @param minSize the smallest payload to compress
+     * @return a supplier of encoders compressing payloads with this codec, one for each appender
+     */
+    @NotNull
+    public Supplier<BiConsumer<BytesStore<?, ?>, Bytes<?>>> encodingSupplier(int minSize) {
+        return () -> new PayloadEncoder(this, minSize);
+    }
+
+    /**
+     * @return a supplier of decoders decompressing payloads compressed with any codec, one for each tailer
+     */
+    @NotNull
+    public static Supplier<BiConsumer<BytesStore<?, ?>, Bytes<?>>> decodingSupplier() {
+        return PayloadDecoder::new;
+    }
+}
@@ -0,0 +1,202 @@
+/*
+ * Copyright 2013-2025 chronicle.software; SPDX-License-Identifier: Apache-2.0
+ */
+package net.openhft.chronicle.queue.impl;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Formats and parses the UTC timestamps of cycle file names arithmetically, for the fixed-width formats used by the
+ * roll cycles, i.e. {@code yyyyMMdd}, optionally followed by {@code -HH}, {@code -HHmm} or {@code -HHmmss},
+ * optionally followed by a quoted literal such as {@code 'T4'}.
+ * <p>
+ * Names are converted without the {@code java.time} formatter, producing exactly what it would for years 1 to 9999.
+ * Outside that range, or for a name which isn't a valid date in the format, the caller falls back to the formatter.
+ */
+final class FixedDateFormatCodec {
+    /**
+     * Returned by {@link #parseEpochSecond(CharSequence)} for a name which can't be parsed arithmetically.
+     */
+    static final long INVALID = Long.MIN_VALUE;
+
+    private static final String DATE = "yyyyMMdd";
+    private static final int SECONDS_IN_DAY = 86400;
+    private static final int DAYS_0000_TO_1970 = 719468;
+    private static final int DAYS_PER_400_YEARS = 146097;
+
+    // how many of hours, minutes and seconds the format has, 0 to 3
+    private final int timeFields;
+    private final String suffix;
+    private final int length;
+
+    private FixedDateFormatCodec(int timeFields, String suffix) {
+        this.timeFields = timeFields;
+        this.suffix = suffix;
+        this.length = DATE.length() + (timeFields == 0 ? 0 : 1 + 2 * timeFields) + suffix.length();
+    }
+
+    /**
+     * @param format a {@link java.time.format.DateTimeFormatter} pattern
+     * @return a codec for the pattern, or {@code null} if it isn't one of the fixed formats
+     */
+    @Nullable
+    static FixedDateFormatCodec forFormat(@NotNull String format) {
+        if (!format.startsWith(DATE))
+            return null;
+        int pos = DATE.length();
+        int timeFields = 0;
+        if (format.startsWith("-HH", pos)) {
+            pos += 3;
+            timeFields = 1;
+            if (format.startsWith("mm", pos)) {
+                pos += 2;
+                timeFields = 2;
+                if (format.startsWith("ss", pos)) {
+                    pos += 2;
+                    timeFields = 3;
+                }
+            }
+        }
+        String suffix = "";
+        if (pos < format.length()) {
+            // a single quoted literal, without escaped quotes
+            if (format.length() - pos < 3 || format.charAt(pos) != '\'' || format.charAt(format.length() - 1) != '\'')
+                return null;
+            suffix = format.substring(pos + 1, format.length() - 1);
+            if (suffix.indexOf('\'') >= 0)
+                return null;
+        }
+        return new FixedDateFormatCodec(timeFields, suffix);
+    }
+
+    /**
+     * @param epochMillis a UTC timestamp
+     * @return the timestamp as formatted by the pattern, or {@code null} if its year is outside 1 to 9999
+     */
+    @Nullable
+    String format(long epochMillis) {
+        final long epochSecond = Math.floorDiv(epochMillis, 1000);
+        final long epochDay = Math.floorDiv(epochSecond, SECONDS_IN_DAY);
+        final int secondOfDay = (int) Math.floorMod(epochSecond, SECONDS_IN_DAY);
+
+        // civil date from days since 1970-01-01, with years starting in March
+        final long z = epochDay + DAYS_0000_TO_1970;
+        final long era = Math.floorDiv(z, DAYS_PER_400_YEARS);
+        final long dayOfEra = z - era * DAYS_PER_400_YEARS;
+        final long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        final long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        final long mp = (5 * dayOfYear + 2) / 153;
+        final int day = (int) (dayOfYear - (153 * mp + 2) / 5 + 1);
+        final int month = (int) (mp < 10 ? mp + 3 : mp - 9);
+        final long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+        if (year < 1 || year > 9999)
+            return null;
+
+        final char[] chars = new char[length];
+        appendDigits(chars, 0, (int) year, 4);
+        appendDigits(chars, 4, month, 2);
+        appendDigits(chars, 6, day, 2);
+        int pos = DATE.length();
+        if (timeFields > 0) {
+            chars[pos++] = '-';
+            appendDigits(chars, pos, secondOfDay / 3600, 2);
+            pos += 2;
+            if (timeFields > 1) {
+                appendDigits(chars, pos, secondOfDay / 60 % 60, 2);
+                pos += 2;
+                if (timeFields > 2) {
+                    appendDigits(chars, pos, secondOfDay % 60, 2);
+                    pos += 2;
+                }
+            }
+        }
+        suffix.getChars(0, suffix.length(), chars, pos);
+        return new String(chars);
+    }
+
+    /**
+     * @param name a name in the format
+     * @return the UTC timestamp of the name in seconds, or {@link #INVALID} if it isn't a valid date in the format
+     */
+    long parseEpochSecond(@NotNull CharSequence name) {
+        if (name.length() != length)
+            return INVALID;
+        final int year = parseDigits(name, 0, 4);
+        final int month = parseDigits(name, 4, 2);
+        final int day = parseDigits(name, 6, 2);
+        if (year < 1 || month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month))
+            return INVALID;
+        int pos = DATE.length();
+        int hour = 0;
+        int minute = 0;
+        int second = 0;
+        if (timeFields > 0) {
+            if (name.charAt(pos++) != '-')
+                return INVALID;
+            hour = parseDigits(name, pos, 2);
+            pos += 2;
+            if (timeFields > 1) {
+                minute = parseDigits(name, pos, 2);
+                pos += 2;
+                if (timeFields > 2) {
+                    second = parseDigits(name, pos, 2);
+                    pos += 2;
+                }
+            }
+            if (hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59)
+                return INVALID;
+        }
+        for (int i = 0; i < suffix.length(); i++)
+            if (name.charAt(pos + i) != suffix.charAt(i))
+                return INVALID;
+        return epochDay(year, month, day) * SECONDS_IN_DAY + hour * 3600 + minute * 60 + second;
+    }
+
+    /**
+     * @return the days since 1970-01-01 of a civil date
+     */
+    static long epochDay(int year, int month, int day) {
+        final long y = month <= 2 ? year - 1 : year;
+        final long era = Math.floorDiv(y, 400);
+        final long yearOfEra = y - era * 400;
+        final long dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        final long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * DAYS_PER_400_YEARS + dayOfEra - DAYS_0000_TO_1970;
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        switch (month) {
+            case 2:
+                return (year % 4 == 0 && year % 100 != 0) || year % 400 == 0 ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    private static void appendDigits(char[] chars, int pos, int value, int digits) {
+        for (int i = pos + digits - 1; i >= pos; i--) {
+            chars[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+
+    /**
+     * @return the value of the digits, or -1 if any character isn't a digit
+     */
+    private static int parseDigits(CharSequence name, int pos, int digits) {
+        int value = 0;
+        for (int i = pos; i < pos + digits; i++) {
+            final char ch = name.charAt(i);
+            if (ch < '0' || ch > '9')
+                return -1;
+            value = value * 10 + (ch - '0');
+        }
+        return value;
+    }
+}
@@ -7,6 +7,7 @@ import net.openhft.chronicle.core.Jvm;
 import net.openhft.chronicle.core.Maths;
 import net.openhft.chronicle.queue.RollCycle;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.io.File;
 import java.time.Instant;
@@ -21,6 +22,12 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.function.Function;
 
+/**
+ * Converts between cycle numbers and the names of cycle files, caching recently formatted names.
+ * <p>
+ * The fixed-width formats of the standard roll cycles are converted arithmetically by a {@link FixedDateFormatCodec},
+ * falling back to a {@link DateTimeFormatter} for other formats, or names the codec can't convert.
+ */
 public class RollingResourcesCache {
     public static final ParseCount NO_PARSE_COUNT = new ParseCount("", Integer.MIN_VALUE);
     private static final int CACHE_SIZE = Jvm.getInteger("chronicle.queue.rollingResourceCache.size", 128);
@@ -37,6 +44,8 @@ public class RollingResourcesCache {
     @NotNull
     private final Function<File, String> fileToName;
     private final String format;
+    @Nullable
+    private final FixedDateFormatCodec codec;
     private final ConcurrentMap<File, Long> filenameToTimestampCache =
             new ConcurrentHashMap<>(MAX_TIMESTAMP_CACHE_SIZE);
     private final long epoch;
@@ -45,13 +54,24 @@ public class RollingResourcesCache {
     public RollingResourcesCache(@NotNull final RollCycle cycle, long epoch,
                                  @NotNull Function<String, File> nameToFile,
                                  @NotNull Function<File, String> fileToName) {
-        this(cycle.lengthInMillis(), cycle.format(), epoch, nameToFile, fileToName);
+        this(cycle, epoch, nameToFile, fileToName, true);
+    }
+
+    /**
+     * @param arithmetic whether to convert the fixed-width formats arithmetically, or always with the formatter
+     */
+    RollingResourcesCache(@NotNull final RollCycle cycle, long epoch,
+                          @NotNull Function<String, File> nameToFile,
+                          @NotNull Function<File, String> fileToName,
+                          boolean arithmetic) {
+        this(cycle.lengthInMillis(), cycle.format(), epoch, nameToFile, fileToName, arithmetic);
     }
 
     private RollingResourcesCache(final int length,
                                   @NotNull String format, long epoch,
                                   @NotNull Function<String, File> nameToFile,
-                                  @NotNull Function<File, String> fileToName) {
+                                  @NotNull Function<File, String> fileToName,
+                                  boolean arithmetic) {
         this.length = length;
         this.fileToName = fileToName;
         this.values = new Resource[CACHE_SIZE];
@@ -61,6 +81,7 @@ public class RollingResourcesCache {
 
         this.format = format;
         this.formatter = DateTimeFormatter.ofPattern(this.format).withZone(ZoneId.of("UTC"));
+        this.codec = arithmetic ? FixedDateFormatCodec.forFormat(format) : null;
         this.fileFactory = nameToFile;
 
     }
@@ -79,8 +100,9 @@ public class RollingResourcesCache {
         int hash = (int) h & (CACHE_SIZE - 1);
         Resource dv = values[hash];
         if (dv == null || dv.millis != millisSinceBeginningOfEpoch) {
-            final Instant instant = Instant.ofEpochMilli(millisSinceBeginningOfEpoch + epoch);
-            @NotNull String text = formatter.format(instant);
+            String text = codec == null ? null : codec.format(millisSinceBeginningOfEpoch + epoch);
+            if (text == null)
+                text = formatter.format(Instant.ofEpochMilli(millisSinceBeginningOfEpoch + epoch));
             values[hash] = dv = new Resource(millisSinceBeginningOfEpoch, text, fileFactory.apply(text));
         }
         return dv;
@@ -96,6 +118,11 @@ public class RollingResourcesCache {
     }
 
     private int parseCount0(@NotNull String name) {
+        if (codec != null) {
+            final long epochSecond = codec.parseEpochSecond(name);
+            if (epochSecond != FixedDateFormatCodec.INVALID)
+                return Maths.toInt32((epochSecond - ((epoch) / 1000)) / (length / 1000));
+        }
         try {
             TemporalAccessor parse = formatter.parse(name);
             if (!parse.isSupported(ChronoField.EPOCH_DAY)) {
@@ -123,6 +150,11 @@ public class RollingResourcesCache {
     }
 
     public Long toLong(File file) {
+        if (codec != null) {
+            final long epochSecond = codec.parseEpochSecond(fileToName.apply(file));
+            if (epochSecond != FixedDateFormatCodec.INVALID)
+                return toLong(epochSecond);
+        }
         final Long cachedValue = filenameToTimestampCache.get(file);
         if (cachedValue != null) {
             return cachedValue;
@@ -148,6 +180,21 @@ public class RollingResourcesCache {
         return value;
     }
 
+    /**
+     * Converts the timestamp of a name as {@link #toLong(File)} does from the parsed name.
+     */
+    private long toLong(long epochSecond) {
+        if (length == ONE_DAY_IN_MILLIS) {
+            return Math.floorDiv(epochSecond, 86400);
+        } else if (length < ONE_DAY_IN_MILLIS) {
+            return epochSecond * 1000 / length;
+        } else {
+            long daysSinceEpoch = Math.floorDiv(epochSecond, 86400);
+            long adjShift = daysSinceEpoch < 0 ? -1 : 0;
+            return adjShift + ((daysSinceEpoch * 86400) / (length / 1000));
+        }
+    }
+
     static final class ParseCount {
         final String name;
         final int count;
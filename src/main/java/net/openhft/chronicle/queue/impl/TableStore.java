@@ -7,6 +7,7 @@ import net.openhft.chronicle.core.io.ManagedCloseable;
 import net.openhft.chronicle.core.values.LongValue;
 import net.openhft.chronicle.queue.impl.table.Metadata;
 import net.openhft.chronicle.queue.impl.table.TableStoreIterator;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.function.Function;
 
@@ -51,6 +52,18 @@ public interface TableStore<T extends Metadata> extends CommonStore, ManagedClos
      */
     LongValue acquireValueFor(CharSequence key, long defaultValue);
 
+    /**
+     * Acquires the {@link LongValue} for a key only if it already exists, never creating it.
+     * As nothing is written, this does not need to be wrapped in {@link #doWithExclusiveLock(Function)}.
+     *
+     * @param key the key of the value
+     * @return {@link LongValue} pointing to the existing value, or {@code null} if the key is not found
+     */
+    @Nullable
+    default LongValue acquireExistingValueFor(CharSequence key) {
+        return null;
+    }
+
     /**
      * Iterates over each key in the table store and applies the given {@link TableStoreIterator} on it.
      *
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2013-2025 chronicle.software; SPDX-License-Identifier: Apache-2.0
+ */
+package net.openhft.chronicle.queue.impl.sharded;
+
+import net.openhft.chronicle.core.io.AbstractCloseable;
+import net.openhft.chronicle.queue.ExcerptTailer;
+import net.openhft.chronicle.wire.DocumentContext;
+import net.openhft.chronicle.wire.NoDocumentContext;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+
+import static net.openhft.chronicle.core.io.Closeable.closeQuietly;
+import static net.openhft.chronicle.queue.impl.sharded.ShardedChronicleQueue.SHARD_TIMESTAMP;
+
+/**
+ * Reads the shards of a {@link ShardedChronicleQueue} as one queue, returning the excerpt written earliest among the
+ * next excerpt of each shard.
+ * <p>
+ * The time of each shard's next excerpt is read once and kept until that excerpt has been read. An excerpt appended to
+ * a shard after excerpts with later times have been read from other shards is read when it becomes the earliest
+ * available.
+ * <p>
+ * Like an {@link ExcerptTailer}, this should only be used by one thread.
+ */
+public final class MergedTailer extends AbstractCloseable {
+    private static final long NO_EXCERPT = Long.MIN_VALUE;
+
+    private final ExcerptTailer[] tailers;
+    // the time of the next excerpt of each shard, if read
+    private final long[] nextTimes;
+    private int lastReadShard = -1;
+    private long lastReadTime = NO_EXCERPT;
+
+    MergedTailer(@NotNull ExcerptTailer[] tailers) {
+        this.tailers = tailers;
+        this.nextTimes = new long[tailers.length];
+        Arrays.fill(nextTimes, NO_EXCERPT);
+    }
+
+    /**
+     * Starts reading the earliest excerpt available. The time it was written has already been read, and is available
+     * from {@link #lastReadTime()}.
+     *
+     * @return the context to read the excerpt from, which must be closed, and isn't present if no shard has an excerpt
+     */
+    @NotNull
+    public DocumentContext readingDocument() {
+        throwExceptionIfClosed();
+        int next = -1;
+        for (int i = 0; i < tailers.length; i++) {
+            if (nextTimes[i] == NO_EXCERPT)
+                nextTimes[i] = peekTime(tailers[i]);
+            if (nextTimes[i] != NO_EXCERPT && (next < 0 || nextTimes[i] < nextTimes[next]))
+                next = i;
+        }
+        if (next < 0)
+            return NoDocumentContext.INSTANCE;
+
+        final DocumentContext dc = tailers[next].readingDocument();
+        nextTimes[next] = NO_EXCERPT;
+        if (!dc.isPresent())
+            return dc;
+        lastReadTime = dc.wire().read(SHARD_TIMESTAMP).int64();
+        lastReadShard = next;
+        return dc;
+    }
+
+    private static long peekTime(ExcerptTailer tailer) {
+        try (DocumentContext dc = tailer.readingDocument()) {
+            if (!dc.isPresent())
+                return NO_EXCERPT;
+            dc.rollbackOnClose();
+            return dc.wire().read(SHARD_TIMESTAMP).int64();
+        }
+    }
+
+    /**
+     * @return the text of the next excerpt, as written by {@link ShardedAppender#writeText(CharSequence)}, or
+     * {@code null} if no shard has an excerpt
+     */
+    @Nullable
+    public String readText() {
+        try (DocumentContext dc = readingDocument()) {
+            return dc.isPresent() ? dc.wire().getValueIn().text() : null;
+        }
+    }
+
+    /**
+     * @return the shard of the last excerpt read, or -1 if none has been read
+     */
+    public int lastReadShard() {
+        return lastReadShard;
+    }
+
+    /**
+     * @return the index in its shard of the last excerpt read
+     */
+    public long lastReadIndex() {
+        if (lastReadShard < 0)
+            throw new IllegalStateException("Nothing has been read");
+        return tailers[lastReadShard].lastReadIndex();
+    }
+
+    /**
+     * @return the time in nanoseconds the last excerpt read was written
+     */
+    public long lastReadTime() {
+        return lastReadTime;
+    }
+
+    /**
+     * Moves every shard to its start.
+     *
+     * @return this
+     */
+    @NotNull
+    public MergedTailer toStart() {
+        for (ExcerptTailer tailer : tailers)
+            tailer.toStart();
+        Arrays.fill(nextTimes, NO_EXCERPT);
+        return this;
+    }
+
+    /**
+     * Moves every shard to its end, so only excerpts appended from now on are read.
+     *
+     * @return this
+     */
+    @NotNull
+    public MergedTailer toEnd() {
+        for (ExcerptTailer tailer : tailers)
+            tailer.toEnd();
+        Arrays.fill(nextTimes, NO_EXCERPT);
+        return this;
+    }
+
+    @Override
+    protected void performClose() {
+        closeQuietly((Object[]) tailers);
+    }
+}
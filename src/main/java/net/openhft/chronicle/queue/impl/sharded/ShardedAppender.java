@@ -0,0 +1,81 @@
+/*
+ * Copyright 2013-2025 chronicle.software; SPDX-License-Identifier: Apache-2.0
+ */
+package net.openhft.chronicle.queue.impl.sharded;
+
+import net.openhft.chronicle.core.io.AbstractCloseable;
+import net.openhft.chronicle.core.time.TimeProvider;
+import net.openhft.chronicle.queue.ExcerptAppender;
+import net.openhft.chronicle.wire.DocumentContext;
+import net.openhft.chronicle.wire.WriteMarshallable;
+import org.jetbrains.annotations.NotNull;
+
+import static net.openhft.chronicle.queue.impl.sharded.ShardedChronicleQueue.SHARD_TIMESTAMP;
+
+/**
+ * Appends to one shard of a {@link ShardedChronicleQueue}, starting each excerpt with the time it was written so that
+ * a {@link MergedTailer} can order it among the other shards.
+ * <p>
+ * Like an {@link ExcerptAppender}, this should only be used by one thread.
+ */
+public final class ShardedAppender extends AbstractCloseable {
+    private final int shard;
+    private final ExcerptAppender appender;
+    private final TimeProvider time;
+
+    ShardedAppender(int shard, @NotNull ExcerptAppender appender, @NotNull TimeProvider time) {
+        this.shard = shard;
+        this.appender = appender;
+        this.time = time;
+    }
+
+    /**
+     * Starts writing an excerpt. The time is written first, once the shard's write lock is held.
+     *
+     * @return the context to write the excerpt in, which must be closed
+     */
+    @NotNull
+    public DocumentContext writingDocument() {
+        throwExceptionIfClosed();
+        final DocumentContext dc = appender.writingDocument();
+        dc.wire().write(SHARD_TIMESTAMP).int64(time.currentTimeNanos());
+        return dc;
+    }
+
+    /**
+     * @param writer writes the excerpt
+     */
+    public void writeDocument(@NotNull WriteMarshallable writer) {
+        try (DocumentContext dc = writingDocument()) {
+            writer.writeMarshallable(dc.wire());
+        }
+    }
+
+    /**
+     * @param text the text of the excerpt, read by {@link MergedTailer#readText()}
+     */
+    public void writeText(@NotNull CharSequence text) {
+        try (DocumentContext dc = writingDocument()) {
+            dc.wire().getValueOut().text(text);
+        }
+    }
+
+    /**
+     * @return the shard this appends to
+     */
+    public int shard() {
+        return shard;
+    }
+
+    /**
+     * @return the index in the shard of the last excerpt appended
+     */
+    public long lastIndexAppended() {
+        return appender.lastIndexAppended();
+    }
+
+    @Override
+    protected void performClose() {
+        appender.close();
+    }
+}
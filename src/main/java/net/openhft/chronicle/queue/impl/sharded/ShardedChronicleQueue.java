@@ -0,0 +1,112 @@
+/*
+ * Copyright 2013-2025 chronicle.software; SPDX-License-Identifier: Apache-2.0
+ */
+package net.openhft.chronicle.queue.impl.sharded;
+
+import net.openhft.chronicle.core.io.AbstractCloseable;
+import net.openhft.chronicle.queue.ExcerptTailer;
+import net.openhft.chronicle.queue.impl.single.SingleChronicleQueue;
+import net.openhft.chronicle.queue.impl.single.SingleChronicleQueueBuilder;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.File;
+import java.util.function.UnaryOperator;
+
+import static net.openhft.chronicle.core.io.Closeable.closeQuietly;
+
+/**
+ * A queue made of several {@link SingleChronicleQueue} shards, so that groups of writers append without sharing
+ * a write lock, read back as one queue by a {@link MergedTailer}.
+ * <p>
+ * Each writer group appends to one shard with a {@link ShardedAppender}, which starts every excerpt with the time it
+ * was written, taken while holding the shard's write lock. A {@link MergedTailer} reads the shards together, returning
+ * the excerpt with the earliest time next. Excerpts in one shard are read in the order they were written; excerpts
+ * written to different shards within the resolution of the clock may be read in either order.
+ * <p>
+ * The shards are in the directories {@code shard-0} to {@code shard-<n-1>} of the queue's directory, and every
+ * process using the queue must use the same number of shards.
+ */
+public final class ShardedChronicleQueue extends AbstractCloseable {
+    /**
+     * The field each excerpt starts with, holding the time it was written in nanoseconds.
+     */
+    public static final String SHARD_TIMESTAMP = "shardTs";
+
+    private final SingleChronicleQueue[] shards;
+
+    private ShardedChronicleQueue(SingleChronicleQueue[] shards) {
+        this.shards = shards;
+        singleThreadedCheckDisabled(true);
+    }
+
+    /**
+     * Opens or creates a sharded queue.
+     *
+     * @param path          the directory of the queue
+     * @param shards        the number of shards
+     * @param configuration configures the builder of each shard, e.g. its roll cycle
+     * @return the queue
+     */
+    @NotNull
+    public static ShardedChronicleQueue of(@NotNull File path, int shards,
+                                           @NotNull UnaryOperator<SingleChronicleQueueBuilder> configuration) {
+        if (shards < 1)
+            throw new IllegalArgumentException("shards: " + shards);
+        final SingleChronicleQueue[] queues = new SingleChronicleQueue[shards];
+        try {
+            for (int i = 0; i < shards; i++)
+                queues[i] = configuration.apply(SingleChronicleQueueBuilder.binary(new File(path, "shard-" + i))).build();
+        } catch (RuntimeException e) {
+            closeQuietly((Object[]) queues);
+            throw e;
+        }
+        return new ShardedChronicleQueue(queues);
+    }
+
+    /**
+     * @return the number of shards
+     */
+    public int shards() {
+        return shards.length;
+    }
+
+    /**
+     * @param shard the number of a shard
+     * @return the queue of the shard
+     */
+    @NotNull
+    public SingleChronicleQueue shard(int shard) {
+        return shards[shard];
+    }
+
+    /**
+     * Creates an appender for a writer group. Groups are spread over the shards, so writers in different groups only
+     * contend for a write lock when there are more groups than shards.
+     *
+     * @param writerGroup the writer group, any number
+     * @return an appender to the shard of the group
+     */
+    @NotNull
+    public ShardedAppender createAppender(int writerGroup) {
+        throwExceptionIfClosed();
+        final int shard = Math.floorMod(writerGroup, shards.length);
+        return new ShardedAppender(shard, shards[shard].createAppender(), shards[shard].time());
+    }
+
+    /**
+     * @return a tailer reading every shard, from the start
+     */
+    @NotNull
+    public MergedTailer createTailer() {
+        throwExceptionIfClosed();
+        final ExcerptTailer[] tailers = new ExcerptTailer[shards.length];
+        for (int i = 0; i < shards.length; i++)
+            tailers[i] = shards[i].createTailer();
+        return new MergedTailer(tailers);
+    }
+
+    @Override
+    protected void performClose() {
+        closeQuietly((Object[]) shards);
+    }
+}
@@ -0,0 +1,239 @@
+/*
+ * Copyright 2013-2025 chronicle.software; SPDX-License-Identifier: Apache-2.0
+ */
+package net.openhft.chronicle.queue.impl.single;
+
+import net.openhft.chronicle.bytes.Bytes;
+import net.openhft.chronicle.bytes.BytesStore;
+import net.openhft.chronicle.core.Jvm;
+import net.openhft.chronicle.core.io.AbstractCloseable;
+import net.openhft.chronicle.queue.ChronicleQueue;
+import net.openhft.chronicle.queue.ExcerptAppender;
+import net.openhft.chronicle.wire.DocumentContext;
+import net.openhft.chronicle.wire.Wire;
+import net.openhft.chronicle.wire.WriteDocumentContext;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * An appender which copies each excerpt into the queue's {@link AsyncWriteBuffer}, for a queue built with
+ * {@link net.openhft.chronicle.queue.BufferMode#Asynchronous} write buffering.
+ * <p>
+ * Documents are written to a buffer owned by this appender, then copied into the write buffer when closed. The
+ * excerpts are written to the queue later by the buffer's drainer, so their indexes are not known when they are
+ * appended; {@link ChronicleQueue#awaitAsync()} waits for them to be written.
+ */
+final class AsyncAppender extends AbstractCloseable implements ExcerptAppender {
+    @NotNull
+    private final SingleChronicleQueue queue;
+    @NotNull
+    private final AsyncWriteBuffer buffer;
+    @NotNull
+    private final Wire wire;
+    private final AsyncAppenderContext context = new AsyncAppenderContext();
+    private int count = 0;
+
+    AsyncAppender(@NotNull SingleChronicleQueue queue, @NotNull AsyncWriteBuffer buffer) {
+        this.queue = queue;
+        this.buffer = buffer;
+        this.wire = queue.wireType().apply(Bytes.allocateElasticDirect());
+
+        // always put references to "this" last.
+        queue.addCloseListener(this);
+    }
+
+    @Override
+    public void writeBytes(@NotNull BytesStore<?, ?> bytes) {
+        throwExceptionIfClosed();
+        buffer.write(bytes, bytes.readPosition(), bytes.readRemaining(), false);
+    }
+
+    @NotNull
+    @Override
+    public DocumentContext writingDocument(boolean metaData) {
+        throwExceptionIfClosed();
+        if (count++ > 0) {
+            assert metaData == context.metaData;
+            return context;
+        }
+        context.open(metaData);
+        return context;
+    }
+
+    @Override
+    public DocumentContext acquireWritingDocument(boolean metaData) {
+        if (context.isOpen() && context.chainedElement())
+            return context;
+        return writingDocument(metaData);
+    }
+
+    /**
+     * The index of an excerpt is only known once it has been drained to the queue.
+     *
+     * @throws IndexNotAvailableException always
+     */
+    @Override
+    public long lastIndexAppended() {
+        throw new IndexNotAvailableException("Index is unavailable when writing asynchronously, until the excerpt is written to the queue");
+    }
+
+    @Override
+    public int cycle() {
+        return queue.cycle();
+    }
+
+    /**
+     * @return the wire excerpts are written to before they are copied into the write buffer
+     */
+    @Override
+    public Wire wire() {
+        return wire;
+    }
+
+    @Override
+    public int sourceId() {
+        return queue.sourceId();
+    }
+
+    @Override
+    public boolean recordHistory() {
+        return sourceId() != 0;
+    }
+
+    @NotNull
+    @Override
+    public SingleChronicleQueue queue() {
+        return queue;
+    }
+
+    @Override
+    protected void performClose() {
+        wire.bytes().releaseLast();
+    }
+
+    @Override
+    public String toString() {
+        return "AsyncAppender{" +
+                "queue=" + queue +
+                '}';
+    }
+
+    /**
+     * The context of a document being written to this appender's buffer.
+     */
+    final class AsyncAppenderContext implements WriteDocumentContext {
+        private boolean isClosed = true;
+        private boolean metaData = false;
+        private boolean rollbackOnClose = false;
+        private boolean chainedElement = false;
+
+        void open(boolean metaData) {
+            this.isClosed = false;
+            this.metaData = metaData;
+            this.rollbackOnClose = false;
+            this.chainedElement = false;
+            wire.clear();
+        }
+
+        @Override
+        public void reset() {
+            isClosed = true;
+            metaData = false;
+            rollbackOnClose = false;
+            chainedElement = false;
+        }
+
+        @Override
+        public int sourceId() {
+            return AsyncAppender.this.sourceId();
+        }
+
+        @Override
+        public boolean isPresent() {
+            return false;
+        }
+
+        @Override
+        public Wire wire() {
+            return wire;
+        }
+
+        @Override
+        public boolean isMetaData() {
+            return metaData;
+        }
+
+        @Override
+        public void rollbackOnClose() {
+            this.rollbackOnClose = true;
+        }
+
+        /**
+         * Copies the document into the write buffer, unless it is to be rolled back.
+         */
+        @Override
+        public void close() {
+            if (chainedElement)
+                return;
+            if (isClosed) {
+                Jvm.warn().on(getClass(), "Already Closed, close was called twice.");
+                return;
+            }
+            count--;
+            if (count > 0)
+                return;
+
+            isClosed = true;
+            try {
+                if (!rollbackOnClose) {
+                    final Bytes<?> bytes = wire.bytes();
+                    buffer.write(bytes, bytes.readPosition(), bytes.readRemaining(), metaData);
+                }
+            } finally {
+                wire.clear();
+            }
+        }
+
+        /**
+         * @throws IndexNotAvailableException always, as the index is only known once drained to the queue
+         */
+        @Override
+        public long index() {
+            throw new IndexNotAvailableException("Index is unavailable when writing asynchronously");
+        }
+
+        @Override
+        public boolean isOpen() {
+            return !isClosed;
+        }
+
+        @Override
+        public boolean isNotComplete() {
+            return !isClosed;
+        }
+
+        @Override
+        public void start(boolean metaData) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean chainedElement() {
+            return chainedElement;
+        }
+
+        @Override
+        public void chainedElement(boolean chainedElement) {
+            this.chainedElement = chainedElement;
+        }
+
+        @Override
+        public void rollbackIfNotComplete() {
+            if (isClosed)
+                return;
+            chainedElement = false;
+            count = 1;
+            rollbackOnClose = true;
+            close();
+        }
+    }
+}
@@ -0,0 +1,320 @@
+/*
+ * Copyright 2013-2025 chronicle.software; SPDX-License-Identifier: Apache-2.0
+ */
+package net.openhft.chronicle.queue.impl.single;
+
+import net.openhft.chronicle.bytes.*;
+import net.openhft.chronicle.core.Jvm;
+import net.openhft.chronicle.core.Maths;
+import net.openhft.chronicle.core.io.AbstractCloseable;
+import net.openhft.chronicle.core.threads.EventHandler;
+import net.openhft.chronicle.core.threads.HandlerPriority;
+import net.openhft.chronicle.core.threads.InvalidEventHandlerException;
+import net.openhft.chronicle.queue.BufferMode;
+import net.openhft.chronicle.queue.ExcerptAppender;
+import net.openhft.chronicle.wire.DocumentContext;
+import net.openhft.chronicle.wire.UnrecoverableTimeoutException;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * A ring buffer in native memory which the appenders of a queue built with
+ * {@link SingleChronicleQueueBuilder#writeBufferMode(BufferMode)} {@link BufferMode#Asynchronous} copy their excerpts
+ * into, drained to the queue in batches by this handler on the queue's event loop. The appending threads don't touch
+ * the queue file or its write lock, so they don't wait for page faults, other writers or rolls, only for space in the
+ * buffer when the drainer falls behind.
+ * <p>
+ * Each record is a four byte header holding the length of the excerpt and whether it is metadata, followed by the
+ * excerpt, padded to eight bytes. Writers claim space by advancing a shared counter with a CAS, copy the excerpt in
+ * and then publish the header with an ordered write, so any number of threads may write at once without a lock. A
+ * record which would run past the end of the ring is preceded by a padding record filling the rest of it.
+ * <p>
+ * The drainer reads records in order until one is not yet published, writes them to the queue with a single appender,
+ * then zeroes their space before making it available to writers again. Excerpts are written in the order their space
+ * was claimed. The queue's appender listener, and so its key indexes, see each excerpt as it is drained rather than
+ * when it is copied into the ring.
+ */
+final class AsyncWriteBuffer extends AbstractCloseable implements EventHandler, BytesRingBufferStats {
+    private static final int HEADER_SIZE = 4;
+    private static final int READY = 1 << 31;
+    private static final int META_DATA = 1 << 30;
+    private static final int PADDING = 1 << 29;
+    private static final int LENGTH_MASK = PADDING - 1;
+    private static final int MAX_BATCH = 256;
+    private static final long STATS_INTERVAL_MS = 1_000;
+
+    private final SingleChronicleQueue queue;
+    private final BytesStore<?, ?> ring;
+    private final long capacity;
+    private final long mask;
+    private final long maxLength;
+    private final HandlerPriority priority;
+    private final long timeoutNanos;
+    @Nullable
+    private final Consumer<BytesRingBufferStats> onRingBufferStats;
+
+    // the total bytes claimed by writers, and drained and made available to them again
+    private final AtomicLong claimed = new AtomicLong();
+    private volatile long drained;
+
+    private final LongAdder writes = new LongAdder();
+    private final LongAdder fullWrites = new LongAdder();
+    private final LongAdder contentions = new LongAdder();
+    private volatile long minRemaining;
+    private long lastStatsMillis;
+
+    // used while synchronized on this
+    private final Bytes<?>[] batch = new Bytes<?>[MAX_BATCH];
+    private ExcerptAppender appender;
+
+    /**
+     * @param queue             the queue to drain to
+     * @param bufferCapacity    the size of the ring in bytes, rounded up to a power of two
+     * @param priority          the priority of the drainer on the event loop
+     * @param timeoutMS         how long a writer waits for space in the ring
+     * @param onRingBufferStats called with the ring's statistics about every second, if not null
+     */
+    AsyncWriteBuffer(@NotNull SingleChronicleQueue queue,
+                     long bufferCapacity,
+                     @NotNull HandlerPriority priority,
+                     long timeoutMS,
+                     @Nullable Consumer<BytesRingBufferStats> onRingBufferStats) {
+        this.queue = queue;
+        this.capacity = Maths.nextPower2(bufferCapacity, 1L << 12);
+        this.mask = capacity - 1;
+        // no larger than half the ring, so it always fits once the ring has been drained, with or without padding
+        this.maxLength = Math.min(LENGTH_MASK, capacity / 2 - HEADER_SIZE - 8);
+        this.priority = priority;
+        this.timeoutNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMS);
+        this.onRingBufferStats = onRingBufferStats;
+        this.minRemaining = capacity;
+        this.ring = BytesStore.nativeStoreWithFixedCapacity(capacity);
+        ring.zeroOut(0, capacity);
+        for (int i = 0; i < MAX_BATCH; i++)
+            batch[i] = ring.bytesForRead();
+        singleThreadedCheckDisabled(true);
+    }
+
+    /**
+     * Copies an excerpt into the ring, waiting for space if it is full. May be called by any thread.
+     *
+     * @param bytes    holds the excerpt
+     * @param offset   where the excerpt starts in {@code bytes}
+     * @param length   the length of the excerpt
+     * @param metaData whether the excerpt is metadata
+     * @throws IllegalArgumentException      if the excerpt is larger than half the ring
+     * @throws UnrecoverableTimeoutException if the ring stays full for the drainer timeout
+     */
+    void write(@NotNull BytesStore<?, ?> bytes, long offset, long length, boolean metaData) {
+        if (length > maxLength)
+            throw new IllegalArgumentException("An excerpt of " + length + " bytes is larger than the asynchronous write buffer allows, " + maxLength + " bytes. Increase bufferCapacity");
+        final long size = align(HEADER_SIZE + length);
+        long deadline = Long.MIN_VALUE;
+        for (; ; ) {
+            throwExceptionIfClosed();
+            final long claim = claimed.get();
+            final long position = claim & mask;
+            final long padding = position + size > capacity ? capacity - position : 0;
+            final long end = claim + padding + size;
+            if (end - drained > capacity) {
+                deadline = waitForSpace(deadline);
+                continue;
+            }
+            if (!claimed.compareAndSet(claim, end)) {
+                contentions.increment();
+                continue;
+            }
+            long start = position;
+            if (padding > 0) {
+                ring.writeOrderedInt(position, READY | PADDING);
+                start = 0;
+            }
+            ring.write(start + HEADER_SIZE, bytes, offset, length);
+            ring.writeOrderedInt(start, READY | (metaData ? META_DATA : 0) | (int) length);
+
+            writes.increment();
+            final long remaining = capacity - (end - drained);
+            if (remaining < minRemaining)
+                minRemaining = remaining;
+            return;
+        }
+    }
+
+    private long waitForSpace(long deadline) {
+        final long now = System.nanoTime();
+        if (deadline == Long.MIN_VALUE) {
+            fullWrites.increment();
+            return now + timeoutNanos;
+        }
+        if (now > deadline)
+            throw new UnrecoverableTimeoutException(new TimeoutException("The asynchronous write buffer of " + capacity + " bytes was not drained for " + TimeUnit.NANOSECONDS.toMillis(timeoutNanos) + " ms"));
+        Jvm.nanoPause();
+        return deadline;
+    }
+
+    private static long align(long size) {
+        return (size + 7) & ~7L;
+    }
+
+    @Override
+    public boolean action() throws InvalidEventHandlerException {
+        if (isClosing())
+            throw InvalidEventHandlerException.reusable();
+        final boolean busy = drain() > 0;
+        if (onRingBufferStats != null) {
+            final long now = System.currentTimeMillis();
+            if (now >= lastStatsMillis + STATS_INTERVAL_MS) {
+                lastStatsMillis = now;
+                onRingBufferStats.accept(this);
+                minRemaining = capacity;
+            }
+        }
+        return busy;
+    }
+
+    @Override
+    public @NotNull HandlerPriority priority() {
+        return priority;
+    }
+
+    /**
+     * Writes up to a batch of published excerpts to the queue, data excerpts with a single call to
+     * {@link ExcerptAppender#writeBytes(BytesStore[], int, int)}. That calls the queue's appender listener, and so adds
+     * to its key indexes, for each excerpt on the draining thread.
+     *
+     * @return the number of excerpts written
+     */
+    synchronized int drain() {
+        if (isClosing())
+            return 0;
+        final long from = drained;
+        long read = from;
+        int records = 0;
+        int batched = 0;
+        while (records < MAX_BATCH) {
+            final long position = read & mask;
+            final int header = ring.readVolatileInt(position);
+            if ((header & READY) == 0)
+                break;
+            if ((header & PADDING) != 0) {
+                read += capacity - position;
+                continue;
+            }
+            final int length = header & LENGTH_MASK;
+            if ((header & META_DATA) != 0) {
+                batched = writeBatch(batched);
+                writeMetaData(position + HEADER_SIZE, length);
+            } else {
+                batch[batched++].readPositionRemaining(position + HEADER_SIZE, length);
+            }
+            read += align(HEADER_SIZE + length);
+            records++;
+        }
+        if (read == from)
+            return 0;
+        writeBatch(batched);
+
+        // clear the space before writers can claim it again, so a header is only ever seen once published
+        final long start = from & mask;
+        final long length = read - from;
+        final long first = Math.min(length, capacity - start);
+        ring.zeroOut(start, start + first);
+        if (length > first)
+            ring.zeroOut(0, length - first);
+        drained = read;
+        return records;
+    }
+
+    private int writeBatch(int batched) {
+        if (batched > 0)
+            appender().writeBytes(batch, 0, batched);
+        return 0;
+    }
+
+    private void writeMetaData(long position, int length) {
+        final Bytes<?> excerpt = batch[0];
+        excerpt.readPositionRemaining(position, length);
+        try (DocumentContext dc = appender().writingDocument(true)) {
+            dc.wire().bytes().write(excerpt);
+        }
+    }
+
+    private ExcerptAppender appender() {
+        if (appender == null) {
+            appender = queue.storeAppender();
+            // drained by the event loop, or by threads waiting for the drain
+            appender.singleThreadedCheckDisabled(true);
+        }
+        return appender;
+    }
+
+    /**
+     * Waits up to the drainer timeout for every excerpt written to the ring before this was called to be written to
+     * the queue, draining it on this thread while the drainer isn't.
+     *
+     * @return true if they were all written, false on timeout or if this was closed
+     */
+    boolean awaitDrained() {
+        final long target = claimed.get();
+        final long deadline = System.nanoTime() + timeoutNanos;
+        while (drained < target) {
+            if (isClosing())
+                return false;
+            if (drain() == 0) {
+                if (System.nanoTime() > deadline)
+                    return false;
+                Jvm.nanoPause();
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public long minNumberOfWriteBytesRemaining() {
+        return minRemaining;
+    }
+
+    @Override
+    public long capacity() {
+        return capacity;
+    }
+
+    @Override
+    public long getAndClearWriteCount() {
+        return writes.sumThenReset();
+    }
+
+    @Override
+    public long getAndClearMissedWriteCount() {
+        return fullWrites.sumThenReset();
+    }
+
+    @Override
+    public long getAndClearContentionCount() {
+        return contentions.sumThenReset();
+    }
+
+    @Override
+    public List<RingBufferReaderStats> readers() {
+        return Collections.emptyList();
+    }
+
+    @Override
+    protected synchronized void performClose() {
+        if (appender != null) {
+            appender.close();
+            appender = null;
+        }
+        for (Bytes<?> bytes : batch)
+            bytes.releaseLast();
+        ring.releaseLast();
+    }
+}
@@ -3,14 +3,16 @@
  */
 package net.openhft.chronicle.queue.impl.single;
 
+import net.openhft.chronicle.bytes.Bytes;
 import net.openhft.chronicle.queue.ExcerptTailer;
 import net.openhft.chronicle.queue.RollCycle;
 import net.openhft.chronicle.wire.DocumentContext;
 import net.openhft.chronicle.wire.Wire;
+import net.openhft.chronicle.wire.WireType;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.Comparator;
-import java.util.Iterator;
 import java.util.NavigableSet;
 
 /**
@@ -43,6 +45,23 @@ public enum BinarySearch {
     public static long search(@NotNull ExcerptTailer tailer,
                               @NotNull Wire key,
                               @NotNull Comparator<Wire> c) {
+        return search(tailer, key, c, null);
+    }
+
+    /**
+     * Performs a binary search using the provided key and comparator, as {@link #search(ExcerptTailer, Wire, Comparator)},
+     * reusing the first comparable excerpt of each cycle remembered by {@code cycleKeys} from earlier searches.
+     *
+     * @param tailer    The {@link ExcerptTailer} used to read from the queue.
+     * @param key       The {@link Wire} key used for comparison.
+     * @param c         The {@link Comparator} to compare entries.
+     * @param cycleKeys The cache of each cycle's first comparable excerpt, or {@code null} to use a cache for this search only.
+     * @return The index if an exact match is found, otherwise {@code -approximateIndex} or {@code -1} if no match is found.
+     */
+    public static long search(@NotNull ExcerptTailer tailer,
+                              @NotNull Wire key,
+                              @NotNull Comparator<Wire> c,
+                              @Nullable CycleKeyCache cycleKeys) {
         final long readPosition = key.bytes().readPosition();
         try {
             final long start = tailer.toStart().index();
@@ -55,8 +74,12 @@ public enum BinarySearch {
             if (startCycle == endCycle)
                 return findWithinCycle(key, c, startCycle, tailer, rollCycle);
 
-            final NavigableSet<Long> cycles = ((SingleChronicleQueue) tailer.queue()).listCyclesBetween(startCycle, endCycle);
-            final int cycle = (int) findCycleLinearSearch(cycles, key, c, tailer);
+            final SingleChronicleQueue queue = (SingleChronicleQueue) tailer.queue();
+            final CycleKeyCache cache = cycleKeys == null ? new CycleKeyCache() : cycleKeys;
+            cache.bindTo(queue.file(), c.getClass());
+
+            final NavigableSet<Long> cycles = queue.listCyclesBetween(startCycle, endCycle);
+            final int cycle = (int) findCycleBinarySearch(cycles, key, c, tailer, cache);
 
             if (cycle == -1)
                 return -1;
@@ -67,59 +90,122 @@ public enum BinarySearch {
     }
 
     /**
-     * Performs a linear search through the available cycles to find the one that may contain the key.
+     * Performs a binary search over the available cycles, comparing the key with the first comparable excerpt
+     * of each cycle probed, to find the one that may contain the key.
+     * <p>
+     * The first cycle is never compared; it is returned if the key precedes every other cycle.
      *
-     * @param cycles The set of available cycles.
-     * @param key    The key to search for.
-     * @param c      The comparator for comparing keys.
-     * @param tailer The tailer used for reading the queue.
-     * @return The found cycle or the previous cycle if no exact match was found.
+     * @param cycles    The set of available cycles.
+     * @param key       The key to search for.
+     * @param c         The comparator for comparing keys.
+     * @param tailer    The tailer used for reading the queue.
+     * @param cycleKeys The cache of each cycle's first comparable excerpt.
+     * @return The first cycle which starts with the key, otherwise the last cycle which starts before it.
      */
-    private static long findCycleLinearSearch(@NotNull NavigableSet<Long> cycles, Wire key,
+    private static long findCycleBinarySearch(@NotNull NavigableSet<Long> cycles,
+                                              @NotNull Wire key,
                                               @NotNull Comparator<Wire> c,
-                                              @NotNull ExcerptTailer tailer) {
-        long readPosition = key.bytes().readPosition();
-
-        final Iterator<Long> iterator = cycles.iterator();
-        if (!iterator.hasNext())
+                                              @NotNull ExcerptTailer tailer,
+                                              @NotNull CycleKeyCache cycleKeys) {
+        if (cycles.isEmpty())
             return -1;
-        final RollCycle rollCycle = tailer.queue().rollCycle();
-        long prevIndex = iterator.next();
+        final long readPosition = key.bytes().readPosition();
+        final long[] array = cycles.stream().mapToLong(i -> i).toArray();
+        final int lastCycle = (int) array[array.length - 1];
 
-        cycleLoop:
-        while (iterator.hasNext()) {
+        long before = array[0];
+        long matching = -1;
+        int low = 1;
+        int high = array.length - 1;
+        while (low <= high) {
+            final int mid = (low + high) >>> 1;
 
-            final Long current = iterator.next();
+            // the nearest cycle at or after mid with a comparable excerpt
+            int probe = mid;
+            int compare = 0;
+            boolean compared = false;
+            while (!compared && probe <= high) {
+                final int cycle = (int) array[probe];
+                final Wire firstKey = firstComparableKey(cycle, cycle == lastCycle, key, c, tailer, cycleKeys);
+                if (firstKey == null) {
+                    probe++;
+                    continue;
+                }
+                try {
+                    compare = c.compare(firstKey, key);
+                    compared = true;
+                } catch (NotComparableException e) {
+                    // treat as a cycle without a comparable excerpt
+                    probe++;
+                } finally {
+                    key.bytes().readPosition(readPosition);
+                }
+            }
 
-            final boolean b = tailer.moveToIndex(rollCycle.toIndex((int) (long) current, 0));
-            if (!b)
-                return prevIndex;
+            if (!compared) {
+                high = mid - 1;
+            } else if (compare < 0) {
+                before = array[probe];
+                low = probe + 1;
+            } else {
+                if (compare == 0)
+                    matching = array[probe];
+                high = mid - 1;
+            }
+        }
+        return matching == -1 ? before : matching;
+    }
 
-            while (true) {
-                try (final DocumentContext dc = tailer.readingDocument()) {
-                    if (!dc.isPresent()) {
-                        return prevIndex;
-                    }
-                    if (rollCycle.toCycle(dc.index()) > current) {
-                        continue cycleLoop;
-                    }
-                    try {
-                        final int compare = c.compare(dc.wire(), key);
-                        if (compare == 0)
-                            return current;
-                        else if (compare > 0)
-                            return prevIndex;
-                        prevIndex = current;
-                        break;
-                    } catch (NotComparableException e) {
-                        // Keep scanning forward
-                    } finally {
-                        key.bytes().readPosition(readPosition);
-                    }
+    /**
+     * Returns the first excerpt of a cycle which the comparator can compare with the key, from the cache if possible.
+     *
+     * @param cycle      The cycle to look in.
+     * @param appendable Whether excerpts may still be appended to the cycle.
+     * @param key        The key to search for.
+     * @param c          The comparator for comparing keys.
+     * @param tailer     The tailer used for reading the queue.
+     * @param cycleKeys  The cache of each cycle's first comparable excerpt.
+     * @return A copy of the first comparable excerpt positioned for reading, or {@code null} if there is none.
+     */
+    @Nullable
+    private static Wire firstComparableKey(int cycle,
+                                           boolean appendable,
+                                           @NotNull Wire key,
+                                           @NotNull Comparator<Wire> c,
+                                           @NotNull ExcerptTailer tailer,
+                                           @NotNull CycleKeyCache cycleKeys) {
+        final Wire cached = cycleKeys.firstKey(cycle);
+        if (cached != null || cycleKeys.hasNoKey(cycle))
+            return cached;
+
+        final RollCycle rollCycle = tailer.queue().rollCycle();
+        if (!tailer.moveToIndex(rollCycle.toIndex(cycle, 0)))
+            return null;
+
+        final long readPosition = key.bytes().readPosition();
+        final WireType wireType = tailer.queue().wireType();
+        while (true) {
+            try (final DocumentContext dc = tailer.readingDocument()) {
+                if (!dc.isPresent() || rollCycle.toCycle(dc.index()) > cycle) {
+                    if (!appendable)
+                        cycleKeys.putNoKey(cycle);
+                    return null;
+                }
+                final Bytes<?> bytes = dc.wire().bytes();
+                final long start = bytes.readPosition();
+                try {
+                    c.compare(dc.wire(), key);
+                } catch (NotComparableException e) {
+                    // Keep scanning forward
+                    continue;
+                } finally {
+                    key.bytes().readPosition(readPosition);
                 }
+                bytes.readPosition(start);
+                cycleKeys.putFirstKey(cycle, dc.wire(), wireType);
+                return cycleKeys.firstKey(cycle);
             }
         }
-        return prevIndex;
     }
 
     /**
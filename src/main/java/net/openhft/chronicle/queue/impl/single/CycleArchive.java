@@ -0,0 +1,230 @@
+/*
+ * Copyright 2013-2025 chronicle.software; SPDX-License-Identifier: Apache-2.0
+ */
+package net.openhft.chronicle.queue.impl.single;
+
+import net.openhft.chronicle.bytes.Bytes;
+import net.openhft.chronicle.bytes.BytesStore;
+import net.openhft.chronicle.bytes.BytesUtil;
+import net.openhft.chronicle.bytes.MappedBytes;
+import net.openhft.chronicle.core.io.IORuntimeException;
+import net.openhft.chronicle.core.io.IOTools;
+import net.openhft.chronicle.queue.ExcerptTailer;
+import net.openhft.chronicle.queue.PayloadCodec;
+import net.openhft.chronicle.queue.RollCycle;
+import net.openhft.chronicle.wire.DocumentContext;
+import net.openhft.chronicle.wire.Wire;
+import net.openhft.chronicle.wire.Wires;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.function.BiConsumer;
+
+/**
+ * Archives sealed cycles of a queue, i.e. cycles before the last, which are never written to again.
+ * <p>
+ * Each data excerpt of the cycle is copied at the same index to a new queue file with its payload compressed by a
+ * {@link PayloadCodec}, which is truncated to the length used and replaces the original file. The archived file has
+ * the same format, sequence numbers and indexes, so tailers move to an index, read in either direction and count the
+ * excerpts of the cycle as before, reading fewer pages.
+ * <p>
+ * A marker file named {@code <cycle>}{@value #SUFFIX} is created next to the queue file before it is replaced. Tailers
+ * decompress the excerpts of a cycle with a marker even if their queue was built without a codec.
+ */
+public final class CycleArchive {
+    static final String SUFFIX = ".archived";
+    private static final String WORK_DIR = "archiving.tmp";
+
+    private CycleArchive() {
+    }
+
+    /**
+     * @param queue the queue
+     * @param cycle the cycle
+     * @return true if the cycle has been archived
+     */
+    public static boolean isArchived(@NotNull SingleChronicleQueue queue, int cycle) {
+        return isArchived(queue.fileForCycle(cycle));
+    }
+
+    /**
+     * @param cycleFile the queue file of a cycle
+     * @return true if the cycle has been archived
+     */
+    static boolean isArchived(@NotNull File cycleFile) {
+        return markerFor(cycleFile).exists();
+    }
+
+    /**
+     * @param cycleFile the queue file of a cycle
+     * @return the file marking the cycle as archived
+     */
+    @NotNull
+    static File markerFor(@NotNull File cycleFile) {
+        final String name = cycleFile.getName();
+        return new File(cycleFile.getParentFile(), name.substring(0, name.length() - SingleChronicleQueue.SUFFIX.length()) + SUFFIX);
+    }
+
+    /**
+     * @param queue the queue
+     * @param cycle the cycle
+     * @return true if the queue file of the cycle ends with an EOF, so is never written to again
+     */
+    public static boolean isSealed(@NotNull SingleChronicleQueue queue, int cycle) {
+        final SingleChronicleQueueStore store = queue.storeForCycle(cycle, queue.epoch(), false, null);
+        if (store == null)
+            return false;
+        try {
+            final MappedBytes bytes = store.bytes();
+            try {
+                return endOfFile(store, bytes) >= 0;
+            } finally {
+                bytes.releaseLast();
+            }
+        } finally {
+            queue.closeStore(store);
+        }
+    }
+
+    /**
+     * Archives a sealed cycle of a queue. Metadata excerpts are not copied. Payloads which were already compressed are
+     * decompressed first, so a cycle may be archived with another codec.
+     * <p>
+     * No process should append to the cycle while it is archived. Tailers which have the original file mapped keep
+     * reading it until they next map it.
+     *
+     * @param queue   the queue
+     * @param cycle   a cycle before the last cycle of the queue, which ends with an EOF
+     * @param codec   compresses the payloads
+     * @param minSize the smallest payload to compress
+     * @return the number of excerpts archived, 0 if the cycle has none and was left as it was
+     * @throws IllegalArgumentException if the cycle is not sealed
+     * @throws IORuntimeException       if the archived file could not be written or replace the original
+     */
+    public static long archive(@NotNull SingleChronicleQueue queue, int cycle, @NotNull PayloadCodec codec, int minSize) {
+        if (cycle >= queue.lastCycle())
+            throw new IllegalArgumentException("Only cycles before the last cycle " + queue.lastCycle() + " are sealed, was " + cycle);
+        // e.g. the appender stopped before it rolled from the cycle, and may still be writing to it
+        if (!isSealed(queue, cycle))
+            throw new IllegalArgumentException("The cycle " + cycle + " does not end with an EOF, so is not sealed");
+        final File file = queue.fileForCycle(cycle);
+        final File workDir = new File(queue.file(), WORK_DIR);
+        IOTools.deleteDirWithFiles(workDir.getPath(), 2);
+        try {
+            final File archived;
+            final long excerpts;
+            final long length;
+            try (SingleChronicleQueue target = SingleChronicleQueueBuilder.builder(workDir, queue.wireType())
+                    .rollCycle(queue.rollCycle())
+                    .epoch(queue.epoch())
+                    .indexCount(queue.indexCount())
+                    .indexSpacing(queue.indexSpacing())
+                    .blockSize(queue.blockSize())
+                    .compression(codec, minSize)
+                    .build()) {
+                excerpts = copy(queue, target, cycle);
+                if (excerpts == 0)
+                    return 0;
+                length = writeEOF(target, cycle);
+                archived = target.fileForCycle(cycle);
+            }
+            try (RandomAccessFile raf = new RandomAccessFile(archived, "rw")) {
+                raf.setLength(length);
+            }
+            // marked first, so the archived file is never read without decoding
+            final File marker = markerFor(file);
+            if (!marker.exists() && !marker.createNewFile())
+                throw new IORuntimeException("Unable to create " + marker);
+            Files.move(archived.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE);
+            return excerpts;
+        } catch (IOException e) {
+            throw new IORuntimeException("Unable to archive " + file, e);
+        } finally {
+            IOTools.deleteDirWithFiles(workDir.getPath(), 2);
+        }
+    }
+
+    private static long copy(SingleChronicleQueue queue, SingleChronicleQueue target, int cycle) {
+        final RollCycle rollCycle = queue.rollCycle();
+        // a tailer without a decoder reads the payloads of unarchived cycles as written
+        final BiConsumer<BytesStore<?, ?>, Bytes<?>> decoder = queue.decodingSupplier == null
+                ? PayloadCodec.decodingSupplier().get()
+                : null;
+        final Bytes<?> plain = Bytes.allocateElasticDirect();
+        final boolean decode = decoder != null && !isArchived(queue, cycle);
+        long excerpts = 0;
+        try (ExcerptTailer tailer = queue.createTailer();
+             InternalAppender appender = (InternalAppender) target.createAppender()) {
+            if (!tailer.moveToIndex(rollCycle.toIndex(cycle, 0)))
+                return 0;
+            for (; ; ) {
+                try (DocumentContext dc = tailer.readingDocument()) {
+                    if (!dc.isPresent() || rollCycle.toCycle(dc.index()) != cycle)
+                        return excerpts;
+                    BytesStore<?, ?> payload = dc.wire().bytes();
+                    if (decode) {
+                        plain.clear();
+                        decoder.accept(payload, plain);
+                        payload = plain;
+                    }
+                    appender.writeBytes(dc.index(), payload);
+                    excerpts++;
+                }
+            }
+        } finally {
+            plain.releaseLast();
+        }
+    }
+
+    /**
+     * Writes the EOF of a cycle of the target queue.
+     *
+     * @return the length of the cycle's file up to the end of the EOF
+     */
+    private static long writeEOF(SingleChronicleQueue target, int cycle) {
+        final SingleChronicleQueueStore store = target.storeForCycle(cycle, target.epoch(), false, null);
+        if (store == null)
+            throw new IllegalStateException("The archived cycle " + cycle + " was not written");
+        try {
+            final MappedBytes bytes = store.bytes();
+            try {
+                final Wire wire = target.wireType().apply(bytes);
+                wire.usePadding(store.dataVersion() > 0);
+                store.writeEOF(wire, target.timeoutMS);
+                final long position = endOfFile(store, bytes);
+                if (position < 0)
+                    throw new IllegalStateException("Unable to write the EOF of the archived cycle " + cycle);
+                return position + 4;
+            } finally {
+                bytes.releaseLast();
+            }
+        } finally {
+            target.closeStore(store);
+        }
+    }
+
+    /**
+     * Walks the headers of a store from its write position to its EOF.
+     *
+     * @return the position of the EOF, or -1 if the store doesn't end with one
+     */
+    private static long endOfFile(SingleChronicleQueueStore store, MappedBytes bytes) {
+        final boolean padding = store.dataVersion() > 0;
+        long position = store.writePosition();
+        for (; ; ) {
+            final int header = bytes.readVolatileInt(position);
+            if (Wires.isEndOfFile(header))
+                return position;
+            if (header == 0 || Wires.isNotComplete(header))
+                return -1;
+            int length = Wires.lengthOf(header) + 4;
+            if (padding)
+                length += (int) BytesUtil.padOffset(length);
+            position += length;
+        }
+    }
+}
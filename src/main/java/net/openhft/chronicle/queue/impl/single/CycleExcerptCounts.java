@@ -0,0 +1,98 @@
+/*
+ * Copyright 2013-2025 chronicle.software; SPDX-License-Identifier: Apache-2.0
+ */
+package net.openhft.chronicle.queue.impl.single;
+
+import java.util.Arrays;
+
+/**
+ * The number of excerpts in each sealed cycle of a queue, held in one array indexed by cycle so that counting the
+ * excerpts between two indexes doesn't map every cycle file in between.
+ * <p>
+ * A count is recorded when an appender seals a cycle with an EOF, or when a sealed cycle is first counted. The array
+ * spans from the first to the last cycle recorded, which is at most one {@code long} per cycle of the queue, and cycles
+ * which have been deleted are dropped from its start.
+ * <p>
+ * This class is thread-safe.
+ */
+final class CycleExcerptCounts {
+    static final long NOT_RECORDED = -1;
+
+    // counts[i] is the count of cycle base + i, or NOT_RECORDED
+    private long[] counts = {};
+    private int base;
+    private int size;
+
+    /**
+     * Returns the number of excerpts recorded for a cycle.
+     *
+     * @param cycle the cycle
+     * @return the recorded number of excerpts, or {@link #NOT_RECORDED}
+     */
+    synchronized long get(int cycle) {
+        final long offset = (long) cycle - base;
+        return offset >= 0 && offset < size ? counts[(int) offset] : NOT_RECORDED;
+    }
+
+    /**
+     * Records the number of excerpts in a sealed cycle, dropping any counts of cycles before the first cycle.
+     *
+     * @param cycle      the cycle which has been sealed
+     * @param excerpts   the number of excerpts in the cycle
+     * @param firstCycle the first cycle of the queue
+     */
+    synchronized void record(int cycle, long excerpts, int firstCycle) {
+        if (cycle < firstCycle)
+            return;
+        final int from;
+        final int to;
+        if (size == 0) {
+            from = cycle;
+            to = cycle + 1;
+        } else {
+            final int firstKept = Math.max(base, firstCycle);
+            // leave as much room below as is in use, so recording cycles in descending order is amortised too
+            from = cycle < firstKept ? Math.max(firstCycle, cycle - size) : firstKept;
+            to = Math.max(base + size, cycle + 1);
+        }
+        if (from != base || to - from > counts.length)
+            resize(from, to);
+        size = to - from;
+        counts[cycle - base] = excerpts;
+    }
+
+    /**
+     * Discards any count recorded for a cycle, e.g. when its file has been created again.
+     *
+     * @param cycle the cycle
+     */
+    synchronized void forget(int cycle) {
+        final long offset = (long) cycle - base;
+        if (offset >= 0 && offset < size)
+            counts[(int) offset] = NOT_RECORDED;
+    }
+
+    /**
+     * Discards every recorded count.
+     */
+    synchronized void clear() {
+        counts = new long[0];
+        base = 0;
+        size = 0;
+    }
+
+    /**
+     * Moves the recorded counts into an array spanning the cycles {@code from} (inclusive) to {@code to} (exclusive),
+     * growing it geometrically so that recording one cycle after another is amortised.
+     */
+    private void resize(int from, int to) {
+        final long[] resized = new long[Math.max(to - from, from == base ? counts.length * 2 : 0)];
+        Arrays.fill(resized, NOT_RECORDED);
+        final int keepFrom = Math.max(from, base);
+        final int keepTo = Math.min(to, base + size);
+        if (keepFrom < keepTo)
+            System.arraycopy(counts, keepFrom - base, resized, keepFrom - from, keepTo - keepFrom);
+        counts = resized;
+        base = from;
+    }
+}
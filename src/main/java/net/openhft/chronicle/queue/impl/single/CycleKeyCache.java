@@ -0,0 +1,112 @@
+/*
+ * Copyright 2013-2025 chronicle.software; SPDX-License-Identifier: Apache-2.0
+ */
+package net.openhft.chronicle.queue.impl.single;
+
+import net.openhft.chronicle.bytes.Bytes;
+import net.openhft.chronicle.wire.Wire;
+import net.openhft.chronicle.wire.WireType;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Remembers the first comparable excerpt of each cycle visited by {@link BinarySearch}, so that repeated searches
+ * of the same queue with the same comparator don't have to map the start of every cycle file again.
+ * <p>
+ * Excerpts are never rewritten, so the first comparable excerpt of a cycle stays valid once found. A cycle is only
+ * remembered as having no comparable excerpt once a later cycle exists. The cache clears itself when it is used for
+ * a different queue directory or comparator type.
+ * <p>
+ * This class is not thread-safe. Each thread performing searches should use its own instance.
+ */
+public final class CycleKeyCache {
+    private final Map<Integer, Wire> firstKeys = new HashMap<>();
+    private final Set<Integer> cyclesWithoutKey = new HashSet<>();
+    private File queueDir;
+    private Class<?> comparatorType;
+
+    /**
+     * Associates the cache with a queue directory and comparator type, discarding its contents if either differs
+     * from the previous search.
+     *
+     * @param queueDir       the directory of the queue being searched
+     * @param comparatorType the type of the comparator being used
+     */
+    void bindTo(@NotNull File queueDir, @NotNull Class<?> comparatorType) {
+        if (queueDir.equals(this.queueDir) && comparatorType == this.comparatorType)
+            return;
+        clear();
+        this.queueDir = queueDir;
+        this.comparatorType = comparatorType;
+    }
+
+    /**
+     * Returns the cached copy of the first comparable excerpt of a cycle, positioned for reading.
+     *
+     * @param cycle the cycle
+     * @return the first comparable excerpt, or {@code null} if it isn't cached
+     */
+    @Nullable
+    Wire firstKey(int cycle) {
+        final Wire wire = firstKeys.get(cycle);
+        if (wire != null)
+            wire.bytes().readPosition(0);
+        return wire;
+    }
+
+    /**
+     * @param cycle the cycle
+     * @return {@code true} if the cycle is known to contain no comparable excerpt
+     */
+    boolean hasNoKey(int cycle) {
+        return cyclesWithoutKey.contains(cycle);
+    }
+
+    /**
+     * Copies the excerpt currently being read from {@code source} as the first comparable excerpt of a cycle.
+     *
+     * @param cycle    the cycle the excerpt belongs to
+     * @param source   the wire of the excerpt, positioned at the start of its content
+     * @param wireType the wire type of the queue
+     * @return the cached copy, positioned for reading
+     */
+    @NotNull
+    Wire putFirstKey(int cycle, @NotNull Wire source, @NotNull WireType wireType) {
+        final Bytes<?> bytes = source.bytes();
+        final Wire copy = wireType.apply(Bytes.allocateElasticOnHeap((int) bytes.readRemaining()));
+        copy.usePadding(source.usePadding());
+        copy.bytes().write(bytes, bytes.readPosition(), bytes.readRemaining());
+        firstKeys.put(cycle, copy);
+        return copy;
+    }
+
+    /**
+     * Records that a cycle, which can no longer be appended to, contains no comparable excerpt.
+     *
+     * @param cycle the cycle
+     */
+    void putNoKey(int cycle) {
+        cyclesWithoutKey.add(cycle);
+    }
+
+    /**
+     * @return the number of cycles with cached information
+     */
+    public int size() {
+        return firstKeys.size() + cyclesWithoutKey.size();
+    }
+
+    /**
+     * Discards all cached keys.
+     */
+    public void clear() {
+        firstKeys.clear();
+        cyclesWithoutKey.clear();
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2013-2025 chronicle.software; SPDX-License-Identifier: Apache-2.0
+ */
+package net.openhft.chronicle.queue.impl.single;
+
+import net.openhft.chronicle.core.Jvm;
+import net.openhft.chronicle.core.io.AbstractCloseable;
+import net.openhft.chronicle.core.threads.EventHandler;
+import net.openhft.chronicle.core.threads.InvalidEventHandlerException;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.File;
+
+/**
+ * Creates the file for the next cycle shortly before the queue rolls to it, so that the first appender to write in
+ * the new cycle doesn't have to create, map, size and index a new file on its critical path.
+ * <p>
+ * The file is written with its header and index under a temporary name, then renamed to its
+ * {@link PrecreatedFiles#preCreatedFile(File) pre-created} name, which the queue renames to the cycle file
+ * when the cycle is first acquired for writing. Readers never see a cycle before it has been written to.
+ * <p>
+ * A queue built with {@link SingleChronicleQueueBuilder#precreateNextCycle(long)} runs one on its event loop,
+ * available from {@link SingleChronicleQueue#cyclePrecreator()}.
+ */
+public final class CyclePrecreator extends AbstractCloseable implements EventHandler {
+    private final SingleChronicleQueue queue;
+    private final long leadMillis;
+    private final long presizeBytes;
+
+    private int lastPrecreatedCycle = Integer.MIN_VALUE;
+    private volatile int filesPrecreated;
+
+    /**
+     * @param queue        the queue to create cycle files for
+     * @param leadMillis   how long before the end of the current cycle to create the next one
+     * @param presizeBytes how many bytes of the new file to touch, so they are allocated before the roll
+     */
+    public CyclePrecreator(@NotNull SingleChronicleQueue queue, long leadMillis, long presizeBytes) {
+        if (leadMillis <= 0)
+            throw new IllegalArgumentException("leadMillis: " + leadMillis);
+        if (presizeBytes < 0)
+            throw new IllegalArgumentException("presizeBytes: " + presizeBytes);
+        this.queue = queue;
+        this.leadMillis = leadMillis;
+        this.presizeBytes = presizeBytes;
+        singleThreadedCheckDisabled(true);
+    }
+
+    @Override
+    public boolean action() throws InvalidEventHandlerException {
+        return precreate();
+    }
+
+    /**
+     * @return the number of cycle files this has created
+     */
+    public int filesPrecreated() {
+        return filesPrecreated;
+    }
+
+    /**
+     * Creates the file for the next cycle if the current cycle ends within the lead time and the next cycle
+     * hasn't been created yet.
+     *
+     * @return {@code true} if a file was created
+     * @throws InvalidEventHandlerException if this or the queue has been closed
+     */
+    synchronized boolean precreate() throws InvalidEventHandlerException {
+        if (isClosing() || queue.isClosing())
+            throw InvalidEventHandlerException.reusable();
+        if (queue.isReadOnly())
+            return false;
+
+        final int nextCycle = queue.cycleAfter(leadMillis);
+        if (nextCycle <= lastPrecreatedCycle || nextCycle == queue.cycle())
+            return false;
+        try {
+            final boolean created = queue.precreateCycleFile(nextCycle, presizeBytes);
+            lastPrecreatedCycle = nextCycle;
+            if (created)
+                filesPrecreated++;
+            return created;
+
+        } catch (Exception e) {
+            if (queue.isClosing())
+                throw InvalidEventHandlerException.reusable();
+            Jvm.warn().on(getClass(), "Unable to pre-create cycle " + nextCycle, e);
+            lastPrecreatedCycle = nextCycle;
+            return false;
+        }
+    }
+
+    @Override
+    protected void performClose() {
+        // nothing is held between runs
+    }
+}
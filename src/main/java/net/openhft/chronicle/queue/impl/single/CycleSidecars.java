@@ -0,0 +1,178 @@
+/*
+ * Copyright 2013-2025 chronicle.software; SPDX-License-Identifier: Apache-2.0
+ */
+package net.openhft.chronicle.queue.impl.single;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+import static net.openhft.chronicle.core.io.Closeable.closeQuietly;
+
+/**
+ * The {@link KeyIndexFile}s an index keeps next to the queue file of each cycle: the file of the cycle being appended
+ * to, and the files mapped for lookups, of which at most {@link #MAX_READERS} are kept. Lookups of one cycle close the
+ * least recently used; passes over many cycles only open the files they can't keep for as long as they use them.
+ * <p>
+ * The append file is used while holding the queue's write lock. Readers are used while synchronized on the index.
+ */
+final class CycleSidecars {
+    static final int MAX_READERS = 16;
+
+    private final IntFunction<File> fileFor;
+    private int appendCycle = Integer.MIN_VALUE;
+    private KeyIndexFile appendFile;
+    private final LinkedHashMap<Integer, KeyIndexFile> readers = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * @param fileFor the file of a cycle
+     */
+    CycleSidecars(@NotNull IntFunction<File> fileFor) {
+        this.fileFor = fileFor;
+    }
+
+    /**
+     * @param cycle the cycle
+     * @return the file of the cycle
+     */
+    @NotNull
+    File fileFor(int cycle) {
+        return fileFor.apply(cycle);
+    }
+
+    /**
+     * @return the cycle of the append file, or {@link Integer#MIN_VALUE} if none is open
+     */
+    int appendCycle() {
+        return appendCycle;
+    }
+
+    /**
+     * Returns the file to append the entries of a cycle to, closing the file of the previous cycle appended to.
+     *
+     * @param cycle the cycle
+     * @return the file of the cycle, opened for appending
+     */
+    @NotNull
+    KeyIndexFile forAppending(int cycle) {
+        if (cycle != appendCycle) {
+            closeAppending(appendCycle);
+            appendFile = KeyIndexFile.forAppending(fileFor(cycle));
+            appendCycle = cycle;
+        }
+        return appendFile;
+    }
+
+    /**
+     * Closes the append file if it is the file of a cycle, e.g. before the file is replaced.
+     *
+     * @param cycle the cycle
+     */
+    void closeAppending(int cycle) {
+        if (cycle != appendCycle)
+            return;
+        closeQuietly(appendFile);
+        appendFile = null;
+        appendCycle = Integer.MIN_VALUE;
+    }
+
+    /**
+     * @param cycle the cycle
+     * @return the file of the cycle opened for reading, or {@code null} if it doesn't exist
+     */
+    @Nullable
+    KeyIndexFile forReading(int cycle) {
+        KeyIndexFile file = readers.get(cycle);
+        if (file == null) {
+            file = KeyIndexFile.forReading(fileFor(cycle));
+            if (file != null) {
+                readers.put(cycle, file);
+                final Iterator<Map.Entry<Integer, KeyIndexFile>> leastRecentlyUsed = readers.entrySet().iterator();
+                while (readers.size() > MAX_READERS) {
+                    closeQuietly(leastRecentlyUsed.next().getValue());
+                    leastRecentlyUsed.remove();
+                }
+            }
+        }
+        return file;
+    }
+
+    /**
+     * Returns the file of a cycle for one pass over many cycles. Unlike {@link #forReading(int)}, opening a file never
+     * closes another: a file which isn't open already is only kept open while fewer than {@link #MAX_READERS} are, so a
+     * pass over more cycles than that doesn't close the files the next pass will use again. Pass the file to
+     * {@link #release(int, KeyIndexFile)} once done with it.
+     *
+     * @param cycle the cycle
+     * @return the file of the cycle opened for reading, or {@code null} if it doesn't exist
+     */
+    @Nullable
+    KeyIndexFile forScanning(int cycle) {
+        KeyIndexFile file = readers.get(cycle);
+        if (file == null) {
+            file = KeyIndexFile.forReading(fileFor(cycle));
+            if (file != null && readers.size() < MAX_READERS)
+                readers.put(cycle, file);
+        }
+        return file;
+    }
+
+    /**
+     * Closes a file returned by {@link #forScanning(int)} unless it is kept open.
+     *
+     * @param cycle the cycle
+     * @param file  the file of the cycle
+     */
+    void release(int cycle, @NotNull KeyIndexFile file) {
+        if (readers.get(cycle) != file)
+            closeQuietly(file);
+    }
+
+    /**
+     * Closes the files opened for reading of the cycles before a cycle, e.g. once they have been deleted.
+     *
+     * @param cycle the first cycle to keep open
+     */
+    void closeReadersBefore(int cycle) {
+        final Iterator<Map.Entry<Integer, KeyIndexFile>> iterator = readers.entrySet().iterator();
+        while (iterator.hasNext()) {
+            final Map.Entry<Integer, KeyIndexFile> entry = iterator.next();
+            if (entry.getKey() < cycle) {
+                closeQuietly(entry.getValue());
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Closes the file of a cycle opened for reading, e.g. after the file has been replaced.
+     *
+     * @param cycle the cycle
+     */
+    void closeReader(int cycle) {
+        closeQuietly(readers.remove(cycle));
+    }
+
+    /**
+     * @return the number of files opened for reading
+     */
+    int readers() {
+        return readers.size();
+    }
+
+    /**
+     * Closes every file.
+     */
+    void close() {
+        closeQuietly(appendFile);
+        appendFile = null;
+        appendCycle = Integer.MIN_VALUE;
+        closeQuietly(readers.values());
+        readers.clear();
+    }
+}
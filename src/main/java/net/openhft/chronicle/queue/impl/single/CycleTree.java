@@ -0,0 +1,175 @@
+/*
+ * Copyright 2013-2025 chronicle.software; SPDX-License-Identifier: Apache-2.0
+ */
+package net.openhft.chronicle.queue.impl.single;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+/**
+ * An immutable, sorted view of the cycle files of a queue, keyed as by {@link net.openhft.chronicle.queue.impl.RollingResourcesCache#toLong(File)}.
+ * <p>
+ * Keys and files are held in primitive sorted arrays. New cycles are appended and the oldest dropped without
+ * copying, by sharing the arrays with the previous view, so a roll costs O(1) rather than a relist of the directory.
+ * Every view only reads the part of the arrays it was created with, so the arrays may be shared safely provided
+ * views are only derived from the latest one, by one thread at a time.
+ */
+final class CycleTree {
+    private final long[] keys;
+    private final File[] files;
+    private final int from;
+    private final int to;
+    // the directory listing state this view reflects
+    final long directoryModCount;
+    final int minCycle;
+    final int maxCycle;
+    final long listedAtMillis;
+
+    private CycleTree(long[] keys, File[] files, int from, int to,
+                      long directoryModCount, int minCycle, int maxCycle, long listedAtMillis) {
+        this.keys = keys;
+        this.files = files;
+        this.from = from;
+        this.to = to;
+        this.directoryModCount = directoryModCount;
+        this.minCycle = minCycle;
+        this.maxCycle = maxCycle;
+        this.listedAtMillis = listedAtMillis;
+    }
+
+    /**
+     * Creates a view from a full listing of the directory.
+     *
+     * @param listing           the cycle files, by key
+     * @param directoryModCount the directory listing's modification count when listed
+     * @param minCycle          the directory listing's lowest cycle when listed
+     * @param maxCycle          the directory listing's highest cycle when listed
+     * @param listedAtMillis    when the directory was listed
+     * @return the view
+     */
+    static CycleTree of(@NotNull NavigableMap<Long, File> listing, long directoryModCount,
+                        int minCycle, int maxCycle, long listedAtMillis) {
+        final int size = listing.size();
+        final long[] keys = new long[Math.max(16, size + (size >> 1))];
+        final File[] files = new File[keys.length];
+        int i = 0;
+        for (Map.Entry<Long, File> entry : listing.entrySet()) {
+            keys[i] = entry.getKey();
+            files[i++] = entry.getValue();
+        }
+        return new CycleTree(keys, files, 0, size, directoryModCount, minCycle, maxCycle, listedAtMillis);
+    }
+
+    /**
+     * @return the number of cycle files
+     */
+    int size() {
+        return to - from;
+    }
+
+    /**
+     * @return the highest key, or {@link Long#MIN_VALUE} if there are no cycle files
+     */
+    long lastKey() {
+        return to == from ? Long.MIN_VALUE : keys[to - 1];
+    }
+
+    /**
+     * @param key the key of a cycle
+     * @return the file for the key, or {@code null} if it isn't in the view
+     */
+    @Nullable
+    File get(long key) {
+        final int i = Arrays.binarySearch(keys, from, to, key);
+        return i < 0 ? null : files[i];
+    }
+
+    /**
+     * @param key the key of a cycle
+     * @return the file with the next higher key, or {@code null} if there isn't one
+     */
+    @Nullable
+    File higher(long key) {
+        int i = Arrays.binarySearch(keys, from, to, key);
+        i = i < 0 ? -i - 1 : i + 1;
+        return i < to ? files[i] : null;
+    }
+
+    /**
+     * @param key the key of a cycle
+     * @return the file with the next lower key, or {@code null} if there isn't one
+     */
+    @Nullable
+    File lower(long key) {
+        int i = Arrays.binarySearch(keys, from, to, key);
+        i = i < 0 ? -i - 2 : i - 1;
+        return i >= from ? files[i] : null;
+    }
+
+    /**
+     * @param lowerKey the lowest key, inclusive
+     * @param upperKey the highest key, inclusive
+     * @return the keys in the range
+     */
+    @NotNull
+    NavigableSet<Long> keysBetween(long lowerKey, long upperKey) {
+        final NavigableSet<Long> set = new TreeSet<>();
+        int i = Arrays.binarySearch(keys, from, to, lowerKey);
+        for (i = i < 0 ? -i - 1 : i; i < to && keys[i] <= upperKey; i++)
+            set.add(keys[i]);
+        return set;
+    }
+
+    /**
+     * @return a view with the same cycle files, reflecting a later state of the directory listing
+     */
+    @NotNull
+    CycleTree withListingState(long directoryModCount, int minCycle, int maxCycle) {
+        return new CycleTree(keys, files, from, to, directoryModCount, minCycle, maxCycle, listedAtMillis);
+    }
+
+    /**
+     * @param key the lowest key to keep
+     * @return a view without the cycle files with lower keys
+     */
+    @NotNull
+    CycleTree withoutKeysBelow(long key) {
+        int i = Arrays.binarySearch(keys, from, to, key);
+        i = i < 0 ? -i - 1 : i;
+        return new CycleTree(keys, files, i, to, directoryModCount, minCycle, maxCycle, listedAtMillis);
+    }
+
+    /**
+     * Appends a cycle file with a key higher than any in this view. The arrays are only copied when full.
+     *
+     * @param key  the key of the new cycle file
+     * @param file the new cycle file
+     * @return a view with the file added
+     */
+    @NotNull
+    CycleTree append(long key, @NotNull File file) {
+        assert key > lastKey();
+        long[] keys = this.keys;
+        File[] files = this.files;
+        int from = this.from;
+        int to = this.to;
+        if (to == keys.length) {
+            final int size = to - from;
+            final int capacity = Math.max(16, size * 2);
+            keys = Arrays.copyOfRange(keys, from, from + capacity);
+            files = Arrays.copyOfRange(files, from, from + capacity);
+            from = 0;
+            to = size;
+        }
+        keys[to] = key;
+        files[to] = file;
+        return new CycleTree(keys, files, from, to + 1, directoryModCount, minCycle, maxCycle, listedAtMillis);
+    }
+}
@@ -0,0 +1,28 @@
+/*
+ * Copyright 2013-2025 chronicle.software; SPDX-License-Identifier: Apache-2.0
+ */
+package net.openhft.chronicle.queue.impl.single;
+
+import net.openhft.chronicle.wire.Wire;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Extracts the key a {@link KeyIndex} finds an excerpt by, such as an order id.
+ *
+ * @see SingleChronicleQueueBuilder#keyIndex(String, KeyExtractor)
+ */
+@FunctionalInterface
+public interface KeyExtractor {
+    /**
+     * Returned for an excerpt which should not be indexed.
+     */
+    long NO_KEY = Long.MIN_VALUE;
+
+    /**
+     * Reads the key of an excerpt. The wire may be read from freely, its read position is restored afterwards.
+     *
+     * @param wire the excerpt, positioned at the start of its content
+     * @return the key of the excerpt, or {@link #NO_KEY} if it should not be indexed
+     */
+    long keyOf(@NotNull Wire wire);
+}
@@ -0,0 +1,442 @@
+/*
+ * Copyright 2013-2025 chronicle.software; SPDX-License-Identifier: Apache-2.0
+ */
+package net.openhft.chronicle.queue.impl.single;
+
+import net.openhft.chronicle.bytes.Bytes;
+import net.openhft.chronicle.core.io.AbstractCloseable;
+import net.openhft.chronicle.queue.AppenderListener;
+import net.openhft.chronicle.queue.ExcerptTailer;
+import net.openhft.chronicle.queue.RollCycle;
+import net.openhft.chronicle.wire.DocumentContext;
+import net.openhft.chronicle.wire.Wire;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.LongUnaryOperator;
+import java.util.regex.Pattern;
+
+/**
+ * A secondary index of a queue's excerpts by a key, such as an order id, to find excerpts without scanning the queue.
+ * <p>
+ * Each cycle has its own index file next to its queue file, named {@code <cycle>.<name>}{@value #SUFFIX}. When the
+ * queue is configured with {@link SingleChronicleQueueBuilder#keyIndex(String, KeyExtractor)}, each excerpt appended
+ * through it is added to the index of its cycle while the write lock is held. Excerpts appended by processes without
+ * the index configured, or appended before it was, are only indexed by {@link #rebuild(int)}.
+ * <p>
+ * Lookups binary search the index file of each cycle. Entries are appended in the order their excerpts were written,
+ * so the first lookup of a cycle which is not sorted yet sorts its entries in memory, and sorts entries added since on
+ * later lookups; the sorted entries of at most {@value #MAX_UNSORTED_CYCLES} cycles are kept. {@link #seal(int)} and
+ * {@link #rebuild(int)} write the index of a cycle sorted, so that lookups of it search the file directly. A cycle
+ * appended to through this index is sealed once the queue rolls from it, by the next lookup or when this is closed,
+ * rather than by the appending thread. Use {@link net.openhft.chronicle.queue.main.KeyIndexMain} to rebuild or seal the
+ * indexes of an existing queue.
+ * <p>
+ * The lowest and highest keys of each cycle before the last are kept once the cycle has been searched, so later
+ * lookups skip the cycles which can't hold the key without opening their files.
+ * <p>
+ * Appends happen on the appending thread. Lookups, sealing and rebuilding are synchronized, and may be used by any
+ * thread.
+ */
+public final class KeyIndex extends AbstractCloseable implements AppenderListener {
+    /**
+     * The suffix of index files.
+     */
+    public static final String SUFFIX = ".kidx";
+    private static final Pattern NAME = Pattern.compile("[A-Za-z0-9_-]+");
+    private static final long[] NO_INDEXES = {};
+    static final int MAX_UNSORTED_CYCLES = 4;
+
+    private final SingleChronicleQueue queue;
+    private final String name;
+    private final KeyExtractor extractor;
+    private final RollCycle rollCycle;
+    private final CycleSidecars files;
+    // cycles rolled from while appending, to be sealed off the appending thread
+    private final Queue<Integer> cyclesToSeal = new ConcurrentLinkedQueue<>();
+    // used while synchronized on this, least recently used first
+    private final LinkedHashMap<Integer, SortedEntries> unsortedCycles = new LinkedHashMap<>(16, 0.75f, true);
+    // the range of keys of each cycle which can't change, used while synchronized on this
+    private final TreeMap<Integer, KeyRange> keyRanges = new TreeMap<>();
+
+    KeyIndex(@NotNull SingleChronicleQueue queue, @NotNull String name, @NotNull KeyExtractor extractor) {
+        this.queue = queue;
+        this.name = checkName(name);
+        this.extractor = extractor;
+        this.rollCycle = queue.rollCycle();
+        this.files = new CycleSidecars(this::fileFor);
+        singleThreadedCheckDisabled(true);
+    }
+
+    @NotNull
+    static String checkName(@NotNull String name) {
+        if (!NAME.matcher(name).matches())
+            throw new IllegalArgumentException("A key index name must only contain letters, digits, '_' and '-', was: " + name);
+        return name;
+    }
+
+    /**
+     * @return the name of the index
+     */
+    @NotNull
+    public String name() {
+        return name;
+    }
+
+    /**
+     * Adds an appended excerpt to the index, called while the queue's write lock is held.
+     */
+    @Override
+    public void onExcerpt(@NotNull Wire wire, long index) {
+        final long key = keyOf(wire);
+        if (key == KeyExtractor.NO_KEY || isClosing())
+            return;
+        final int cycle = rollCycle.toCycle(index);
+        final int previousCycle = files.appendCycle();
+        files.forAppending(cycle).append(key, index);
+        if (previousCycle != Integer.MIN_VALUE && previousCycle < cycle)
+            cyclesToSeal.add(previousCycle);
+    }
+
+    private long keyOf(@NotNull Wire wire) {
+        final Bytes<?> bytes = wire.bytes();
+        final long readPosition = bytes.readPosition();
+        try {
+            return extractor.keyOf(wire);
+        } finally {
+            bytes.readPosition(readPosition);
+        }
+    }
+
+    /**
+     * Finds the excerpts with a key.
+     *
+     * @param key the key
+     * @return the indexes of the excerpts with the key, in ascending order
+     */
+    @NotNull
+    public long[] lookup(long key) {
+        return find(key, key);
+    }
+
+    /**
+     * Finds the excerpts with keys in a range.
+     *
+     * @param fromKey the lowest key, inclusive
+     * @param toKey   the highest key, exclusive
+     * @return the indexes of the excerpts with keys in the range, in ascending order
+     */
+    @NotNull
+    public long[] range(long fromKey, long toKey) {
+        return fromKey < toKey ? find(fromKey, toKey - 1) : NO_INDEXES;
+    }
+
+    @NotNull
+    private synchronized long[] find(long fromKey, long lastKey) {
+        throwExceptionIfClosed();
+        sealRolledCycles();
+        final int firstCycle = queue.firstCycle();
+        final int lastCycle = queue.lastCycle();
+        if (firstCycle > lastCycle)
+            return NO_INDEXES;
+        forgetCyclesBefore(firstCycle);
+
+        long[] found = NO_INDEXES;
+        int count = 0;
+        for (Long c : queue.listCyclesBetween(firstCycle, lastCycle)) {
+            final int cycle = c.intValue();
+            final KeyRange range = keyRanges.get(cycle);
+            if (range != null && !range.overlaps(fromKey, lastKey))
+                continue;
+            final KeyIndexFile file = files.forScanning(cycle);
+            if (file == null)
+                continue;
+            try {
+                final long entries;
+                final LongUnaryOperator keyAt;
+                final LongUnaryOperator indexAt;
+                if (file.sorted()) {
+                    entries = file.count();
+                    keyAt = file::key;
+                    indexAt = file::index;
+                } else {
+                    final SortedEntries sorted = unsortedEntries(cycle);
+                    sorted.catchUp(file);
+                    entries = sorted.count;
+                    keyAt = i -> sorted.keys[(int) i];
+                    indexAt = i -> sorted.indexes[(int) i];
+                }
+                // only the last cycle may still be appended to
+                if (range == null && cycle < lastCycle) {
+                    final KeyRange keys = entries == 0 ? KeyRange.EMPTY : new KeyRange(keyAt.applyAsLong(0), keyAt.applyAsLong(entries - 1));
+                    keyRanges.put(cycle, keys);
+                    if (!keys.overlaps(fromKey, lastKey))
+                        continue;
+                }
+                for (long i = lowerBound(keyAt, entries, fromKey); i < entries && keyAt.applyAsLong(i) <= lastKey; i++) {
+                    if (count == found.length)
+                        found = Arrays.copyOf(found, Math.max(16, count * 2));
+                    found[count++] = indexAt.applyAsLong(i);
+                }
+            } finally {
+                files.release(cycle, file);
+            }
+        }
+        final long[] indexes = Arrays.copyOf(found, count);
+        Arrays.sort(indexes);
+        return indexes;
+    }
+
+    // drops what is kept of cycles which have been deleted
+    private void forgetCyclesBefore(int firstCycle) {
+        keyRanges.headMap(firstCycle).clear();
+        unsortedCycles.keySet().removeIf(cycle -> cycle < firstCycle);
+        files.closeReadersBefore(firstCycle);
+    }
+
+    private static long lowerBound(LongUnaryOperator keyAt, long entries, long key) {
+        long low = 0;
+        long high = entries;
+        while (low < high) {
+            final long mid = (low + high) >>> 1;
+            if (keyAt.applyAsLong(mid) < key)
+                low = mid + 1;
+            else
+                high = mid;
+        }
+        return low;
+    }
+
+    private SortedEntries unsortedEntries(int cycle) {
+        SortedEntries sorted = unsortedCycles.get(cycle);
+        if (sorted == null) {
+            sorted = new SortedEntries();
+            unsortedCycles.put(cycle, sorted);
+            final Iterator<Integer> leastRecentlyUsed = unsortedCycles.keySet().iterator();
+            while (unsortedCycles.size() > MAX_UNSORTED_CYCLES) {
+                leastRecentlyUsed.next();
+                leastRecentlyUsed.remove();
+            }
+        }
+        return sorted;
+    }
+
+    // seals the cycles the appending thread has rolled from
+    private void sealRolledCycles() {
+        for (Integer cycle; (cycle = cyclesToSeal.poll()) != null; )
+            sealCycle(cycle);
+    }
+
+    /**
+     * Rewrites the index of a cycle with its entries sorted, so lookups of the cycle search the file directly.
+     * No excerpts may be appended to the cycle while it is sealed.
+     *
+     * @param cycle the cycle
+     */
+    public synchronized void seal(int cycle) {
+        throwExceptionIfClosed();
+        sealCycle(cycle);
+    }
+
+    private void sealCycle(int cycle) {
+        final KeyIndexFile file = files.forReading(cycle);
+        if (file == null || file.sorted())
+            return;
+        final boolean lastCycle = cycle >= queue.lastCycle() && !queue.isReadOnly();
+        final WriteLock writeLock = queue.writeLock();
+        if (lastCycle)
+            writeLock.lock();
+        try {
+            final SortedEntries sorted = new SortedEntries();
+            sorted.catchUp(file);
+            replace(cycle, sorted, lastCycle);
+        } finally {
+            if (lastCycle)
+                writeLock.unlock();
+        }
+    }
+
+    /**
+     * Indexes every excerpt of a cycle again and writes its index sorted, replacing any index the cycle had.
+     * If the cycle is the last cycle, appending is blocked while it is rebuilt; no other process should append to
+     * the queue with this index configured while the last cycle is rebuilt.
+     *
+     * @param cycle the cycle
+     */
+    public synchronized void rebuild(int cycle) {
+        throwExceptionIfClosed();
+        if (queue.isReadOnly())
+            throw new IllegalStateException("Cannot rebuild the key index " + name + " of a read only queue");
+        final boolean lastCycle = cycle >= queue.lastCycle();
+        final WriteLock writeLock = queue.writeLock();
+        if (lastCycle)
+            writeLock.lock();
+        try {
+            final SortedEntries sorted = new SortedEntries();
+            try (ExcerptTailer tailer = queue.createTailer()) {
+                if (tailer.moveToCycle(cycle)) {
+                    while (true) {
+                        try (DocumentContext dc = tailer.readingDocument()) {
+                            if (!dc.isPresent())
+                                break;
+                            if (rollCycle.toCycle(dc.index()) != cycle) {
+                                dc.rollbackOnClose();
+                                break;
+                            }
+                            final long key = extractor.keyOf(dc.wire());
+                            if (key != KeyExtractor.NO_KEY)
+                                sorted.add(key, dc.index());
+                        }
+                    }
+                }
+            }
+            sorted.sortAdded();
+            replace(cycle, sorted, lastCycle);
+        } finally {
+            if (lastCycle)
+                writeLock.unlock();
+        }
+    }
+
+    /**
+     * Replaces the index file of a cycle.
+     *
+     * @param locked true if the write lock is held, so the append file may be closed
+     */
+    private void replace(int cycle, SortedEntries sorted, boolean locked) {
+        // entries appended to the replaced file would be lost
+        if (locked)
+            files.closeAppending(cycle);
+        KeyIndexFile.writeSorted(fileFor(cycle), sorted.keys, sorted.indexes, sorted.count);
+        files.closeReader(cycle);
+        unsortedCycles.remove(cycle);
+        keyRanges.remove(cycle);
+    }
+
+    /**
+     * @param cycle the cycle
+     * @return the index file of the cycle
+     */
+    @NotNull
+    public File fileFor(int cycle) {
+        final String cycleFile = queue.fileForCycle(cycle).getName();
+        final String cycleName = cycleFile.substring(0, cycleFile.length() - SingleChronicleQueue.SUFFIX.length());
+        return new File(queue.file(), cycleName + '.' + name + SUFFIX);
+    }
+
+    // the number of index files mapped for lookups
+    synchronized int readers() {
+        return files.readers();
+    }
+
+    @Override
+    protected synchronized void performClose() {
+        try {
+            if (!queue.isReadOnly())
+                sealRolledCycles();
+        } finally {
+            files.close();
+            unsortedCycles.clear();
+            keyRanges.clear();
+        }
+    }
+
+    /**
+     * The lowest and highest keys of a cycle, so lookups of keys outside them skip the cycle without opening its file.
+     */
+    private static final class KeyRange {
+        static final KeyRange EMPTY = new KeyRange(Long.MAX_VALUE, Long.MIN_VALUE);
+
+        final long lowest;
+        final long highest;
+
+        KeyRange(long lowest, long highest) {
+            this.lowest = lowest;
+            this.highest = highest;
+        }
+
+        boolean overlaps(long fromKey, long lastKey) {
+            return lowest <= lastKey && highest >= fromKey;
+        }
+    }
+
+    /**
+     * The entries of an index file which isn't sorted, sorted by key then index.
+     */
+    private static final class SortedEntries {
+        long[] keys = NO_INDEXES;
+        long[] indexes = NO_INDEXES;
+        int count;
+        // entries added but not sorted yet start from here
+        int sortedCount;
+
+        void add(long key, long index) {
+            if (count == keys.length) {
+                final int capacity = Math.max(64, count * 2);
+                keys = Arrays.copyOf(keys, capacity);
+                indexes = Arrays.copyOf(indexes, capacity);
+            }
+            keys[count] = key;
+            indexes[count] = index;
+            count++;
+        }
+
+        /**
+         * Adds and sorts the entries appended to a file since it was last caught up with.
+         */
+        void catchUp(KeyIndexFile file) {
+            final long fileCount = file.count();
+            for (long i = count; i < fileCount; i++)
+                add(file.key(i), file.index(i));
+            sortAdded();
+        }
+
+        /**
+         * Sorts the entries added since the last sort, and merges them with those sorted before. Entries are added in
+         * the order of their indexes, so a stable sort by key orders them by key then index.
+         */
+        void sortAdded() {
+            if (sortedCount == count)
+                return;
+            final long[] tmpKeys = new long[count];
+            final long[] tmpIndexes = new long[count];
+            mergeSort(keys, indexes, tmpKeys, tmpIndexes, sortedCount, count);
+            merge(keys, indexes, tmpKeys, tmpIndexes, 0, sortedCount, count);
+            sortedCount = count;
+        }
+
+        private static void mergeSort(long[] keys, long[] indexes, long[] tmpKeys, long[] tmpIndexes, int from, int to) {
+            if (to - from < 2)
+                return;
+            final int mid = (from + to) >>> 1;
+            mergeSort(keys, indexes, tmpKeys, tmpIndexes, from, mid);
+            mergeSort(keys, indexes, tmpKeys, tmpIndexes, mid, to);
+            merge(keys, indexes, tmpKeys, tmpIndexes, from, mid, to);
+        }
+
+        // merges the sorted runs [from, mid) and [mid, to), taking from the first run for equal keys
+        private static void merge(long[] keys, long[] indexes, long[] tmpKeys, long[] tmpIndexes, int from, int mid, int to) {
+            if (from == mid || mid == to || keys[mid - 1] <= keys[mid])
+                return;
+            System.arraycopy(keys, from, tmpKeys, from, to - from);
+            System.arraycopy(indexes, from, tmpIndexes, from, to - from);
+            int left = from;
+            int right = mid;
+            for (int i = from; i < to; i++) {
+                if (right >= to || left < mid && tmpKeys[left] <= tmpKeys[right]) {
+                    keys[i] = tmpKeys[left];
+                    indexes[i] = tmpIndexes[left++];
+                } else {
+                    keys[i] = tmpKeys[right];
+                    indexes[i] = tmpIndexes[right++];
+                }
+            }
+        }
+    }
+}
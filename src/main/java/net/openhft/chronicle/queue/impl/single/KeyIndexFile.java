@@ -0,0 +1,169 @@
+/*
+ * Copyright 2013-2025 chronicle.software; SPDX-License-Identifier: Apache-2.0
+ */
+package net.openhft.chronicle.queue.impl.single;
+
+import net.openhft.chronicle.bytes.MappedBytes;
+import net.openhft.chronicle.core.OS;
+import net.openhft.chronicle.core.io.AbstractCloseable;
+import net.openhft.chronicle.core.io.IORuntimeException;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * The memory mapped file holding the entries of a {@link KeyIndex} or {@link TimestampIndex} for one cycle, next to
+ * the cycle's queue file.
+ * <p>
+ * The file starts with a header of {@value #HEADER_SIZE} bytes holding a magic number, flags and the number of
+ * entries, followed by the entries. Each entry is a key followed by the index of its excerpt. Entries are appended in
+ * the order their excerpts were written, and the count is updated after each entry is written, so readers never see
+ * a partly written entry. A file written by {@link #writeSorted} has its entries sorted by key then index, and is
+ * never appended to.
+ * <p>
+ * An instance is not thread-safe.
+ */
+final class KeyIndexFile extends AbstractCloseable {
+    static final int HEADER_SIZE = 64;
+    static final int ENTRY_SIZE = 16;
+    private static final long MAGIC = 0x3130_5844_4930_5143L; // "CQ0IDX01"
+    private static final int MAGIC_OFFSET = 0;
+    private static final int FLAGS_OFFSET = 8;
+    private static final int COUNT_OFFSET = 16;
+    private static final long SORTED = 1;
+    private static final long CHUNK_SIZE = 1 << 20;
+
+    private final File file;
+    private final MappedBytes bytes;
+
+    private KeyIndexFile(File file, MappedBytes bytes) {
+        this.file = file;
+        this.bytes = bytes;
+        bytes.singleThreadedCheckDisabled(true);
+        singleThreadedCheckDisabled(true);
+    }
+
+    /**
+     * Opens the file for appending, creating it if needed. A sorted file is marked as no longer sorted.
+     *
+     * @param file the file
+     * @return the opened file
+     */
+    @NotNull
+    static KeyIndexFile forAppending(@NotNull File file) {
+        final KeyIndexFile indexFile = new KeyIndexFile(file, map(file, false));
+        if (indexFile.bytes.readLong(MAGIC_OFFSET) == 0)
+            indexFile.bytes.writeLong(MAGIC_OFFSET, MAGIC);
+        indexFile.checkMagic();
+        // appended entries may not be in order
+        if (indexFile.sorted())
+            indexFile.bytes.writeLong(FLAGS_OFFSET, 0);
+        return indexFile;
+    }
+
+    /**
+     * Opens an existing file for reading.
+     *
+     * @param file the file
+     * @return the opened file, or {@code null} if it doesn't exist
+     */
+    static KeyIndexFile forReading(@NotNull File file) {
+        if (!file.exists())
+            return null;
+        final KeyIndexFile indexFile = new KeyIndexFile(file, map(file, true));
+        indexFile.checkMagic();
+        return indexFile;
+    }
+
+    @NotNull
+    private static MappedBytes map(File file, boolean readOnly) {
+        try {
+            return MappedBytes.mappedBytes(file, CHUNK_SIZE, OS.SAFE_PAGE_SIZE, readOnly);
+        } catch (FileNotFoundException e) {
+            throw new IORuntimeException(e);
+        }
+    }
+
+    private void checkMagic() {
+        final long magic = bytes.readLong(MAGIC_OFFSET);
+        if (magic != MAGIC) {
+            close();
+            throw new IllegalStateException("Not a key index file " + file + ", magic: " + Long.toHexString(magic));
+        }
+    }
+
+    /**
+     * Writes a complete file with sorted entries, replacing the file atomically so that readers which have it mapped
+     * keep reading the previous file.
+     *
+     * @param file    the file to write
+     * @param keys    the keys, sorted
+     * @param indexes the index of each key, sorted for each key
+     * @param count   the number of entries
+     */
+    static void writeSorted(@NotNull File file, long[] keys, long[] indexes, int count) {
+        final File tmp = new File(file.getParentFile(), file.getName() + ".tmp");
+        if (tmp.exists() && !tmp.delete())
+            throw new IORuntimeException("Unable to delete " + tmp);
+        try (MappedBytes out = map(tmp, false)) {
+            out.writeLong(MAGIC_OFFSET, MAGIC);
+            out.writeLong(FLAGS_OFFSET, SORTED);
+            for (int i = 0; i < count; i++) {
+                final long position = HEADER_SIZE + (long) i * ENTRY_SIZE;
+                out.writeLong(position, keys[i]);
+                out.writeLong(position + 8, indexes[i]);
+            }
+            out.writeOrderedLong(COUNT_OFFSET, count);
+        }
+        try {
+            Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new IORuntimeException("Unable to replace " + file, e);
+        }
+    }
+
+    /**
+     * Appends an entry. The caller must hold the queue's write lock.
+     *
+     * @param key   the key
+     * @param index the index of the excerpt
+     */
+    void append(long key, long index) {
+        final long count = count();
+        final long position = HEADER_SIZE + count * ENTRY_SIZE;
+        bytes.writeLong(position, key);
+        bytes.writeLong(position + 8, index);
+        bytes.writeOrderedLong(COUNT_OFFSET, count + 1);
+    }
+
+    /**
+     * @return the number of complete entries
+     */
+    long count() {
+        return bytes.readVolatileLong(COUNT_OFFSET);
+    }
+
+    /**
+     * @return {@code true} if the entries are sorted by key then index
+     */
+    boolean sorted() {
+        return (bytes.readLong(FLAGS_OFFSET) & SORTED) != 0;
+    }
+
+    long key(long entry) {
+        return bytes.readLong(HEADER_SIZE + entry * ENTRY_SIZE);
+    }
+
+    long index(long entry) {
+        return bytes.readLong(HEADER_SIZE + entry * ENTRY_SIZE + 8);
+    }
+
+    @Override
+    protected void performClose() {
+        bytes.close();
+    }
+}
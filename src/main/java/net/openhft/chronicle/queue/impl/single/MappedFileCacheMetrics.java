@@ -0,0 +1,76 @@
+/*
+ * Copyright 2013-2025 chronicle.software; SPDX-License-Identifier: Apache-2.0
+ */
+package net.openhft.chronicle.queue.impl.single;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Counts how often a queue found a cycle file already mapped when acquiring its store, and how many unused mapped
+ * cycle files it released to keep within its bounds. See {@link SingleChronicleQueueBuilder#maxMappedFiles(int)} and
+ * {@link SingleChronicleQueueBuilder#maxMappedBytes(long)} for how many unused files are kept mapped.
+ * <p>
+ * The values are read from the queue's cache when called, and may be read by any thread at any time.
+ */
+public final class MappedFileCacheMetrics {
+    private final ReferenceCountedCache<?, ?, ?, ?> cache;
+
+    MappedFileCacheMetrics(@NotNull ReferenceCountedCache<?, ?, ?, ?> cache) {
+        this.cache = cache;
+    }
+
+    /**
+     * @return the number of times a cycle file was already mapped when its store was acquired
+     */
+    public long hits() {
+        return cache.hits();
+    }
+
+    /**
+     * @return the number of times a cycle file was mapped because it was not already
+     */
+    public long misses() {
+        return cache.misses();
+    }
+
+    /**
+     * @return the number of unused mapped cycle files released to keep within the bounds, the least recently used
+     * first. Files unmapped as soon as they are unused, when no unused files are kept, aren't counted.
+     */
+    public long evictions() {
+        return cache.evictions();
+    }
+
+    /**
+     * @return the number of cycle files currently mapped, including those kept while unused
+     */
+    public int mappedFiles() {
+        return cache.size();
+    }
+
+    /**
+     * @return the total size of the cycle files currently mapped, in bytes, as of when each was mapped or last stopped
+     * being used. As files are mapped a chunk at a time this is an upper bound on the address space mapped for them.
+     */
+    public long mappedBytes() {
+        return cache.weight();
+    }
+
+    /**
+     * Sets the counts of hits, misses and evictions to zero. Counts recorded concurrently with a reset may be lost.
+     */
+    public void reset() {
+        cache.resetCounts();
+    }
+
+    @Override
+    public String toString() {
+        return "MappedFileCacheMetrics{" +
+                "hits=" + hits() +
+                ", misses=" + misses() +
+                ", evictions=" + evictions() +
+                ", mappedFiles=" + mappedFiles() +
+                ", mappedBytes=" + mappedBytes() +
+                '}';
+    }
+}
@@ -25,12 +25,25 @@ public enum PrecreatedFiles {
      * @param requiredQueueFile The queue file that the pre-created file should be renamed to.
      */
     public static void renamePreCreatedFileToRequiredFile(final File requiredQueueFile) {
+        tryRenamePreCreatedFileToRequiredFile(requiredQueueFile);
+    }
+
+    /**
+     * Renames a pre-created queue file to the required queue file name, if there is one.
+     * <p>
+     * If the pre-created file exists and the rename operation fails, a warning is logged.
+     *
+     * @param requiredQueueFile The queue file that the pre-created file should be renamed to.
+     * @return {@code true} if a pre-created file was renamed to the required queue file.
+     */
+    public static boolean tryRenamePreCreatedFileToRequiredFile(final File requiredQueueFile) {
         final File preCreatedFile = preCreatedFile(requiredQueueFile);
         if (preCreatedFile.exists()) {
-            if (!preCreatedFile.renameTo(requiredQueueFile)) {
-                Jvm.warn().on(PrecreatedFiles.class, "Failed to rename pre-created queue file");
-            }
+            if (preCreatedFile.renameTo(requiredQueueFile))
+                return true;
+            Jvm.warn().on(PrecreatedFiles.class, "Failed to rename pre-created queue file");
         }
+        return false;
     }
 
     /**
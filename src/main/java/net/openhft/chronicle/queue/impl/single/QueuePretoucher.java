@@ -0,0 +1,163 @@
+/*
+ * Copyright 2013-2025 chronicle.software; SPDX-License-Identifier: Apache-2.0
+ */
+package net.openhft.chronicle.queue.impl.single;
+
+import net.openhft.chronicle.bytes.MappedBytes;
+import net.openhft.chronicle.core.Jvm;
+import net.openhft.chronicle.core.OS;
+import net.openhft.chronicle.core.io.AbstractCloseable;
+import net.openhft.chronicle.core.threads.EventHandler;
+import net.openhft.chronicle.core.threads.InvalidEventHandlerException;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A {@link Pretoucher} which touches the pages of the latest cycle file from the write position up to a configurable
+ * distance ahead of it, so that appenders find them already mapped and allocated.
+ * <p>
+ * It can be called directly via {@link #execute()}, or added to an {@link net.openhft.chronicle.core.threads.EventLoop}
+ * as an {@link EventHandler}, in which case it runs at most once per interval. A queue built with
+ * {@link SingleChronicleQueueBuilder#enablePreloader(long)} runs one on its event loop, available from
+ * {@link SingleChronicleQueue#backgroundPretoucher()}.
+ * <p>
+ * {@link #pagesTouched()} and {@link #bytesAhead()} may be read from any thread to monitor it.
+ */
+public final class QueuePretoucher extends AbstractCloseable implements Pretoucher, EventHandler {
+    // bounds the time spent in one call when a long way behind, e.g. after a roll
+    private static final int MAX_PAGES_PER_CALL = 1024;
+
+    private final SingleChronicleQueue queue;
+    private final long aheadBytes;
+    private final long intervalMillis;
+    private final int pageSize = OS.pageSize();
+
+    private int cycle = Integer.MIN_VALUE;
+    private SingleChronicleQueueStore store;
+    private MappedBytes bytes;
+    private long touchedUpTo;
+    private long lastRunMillis = Long.MIN_VALUE;
+
+    private volatile long pagesTouched;
+    private volatile long bytesAhead;
+
+    /**
+     * Creates a pretoucher which touches pages every time it is called.
+     *
+     * @param queue the queue to pretouch
+     */
+    public QueuePretoucher(@NotNull SingleChronicleQueue queue) {
+        this(queue, queue.pretouchAheadBytes(), 0);
+    }
+
+    /**
+     * @param queue          the queue to pretouch
+     * @param aheadBytes     how far ahead of the write position to touch pages
+     * @param intervalMillis the minimum time between runs when called as an {@link EventHandler}, or 0 for every call
+     */
+    public QueuePretoucher(@NotNull SingleChronicleQueue queue, long aheadBytes, long intervalMillis) {
+        if (aheadBytes < 0)
+            throw new IllegalArgumentException("aheadBytes: " + aheadBytes);
+        this.queue = queue;
+        this.aheadBytes = aheadBytes;
+        this.intervalMillis = intervalMillis;
+        singleThreadedCheckDisabled(true);
+    }
+
+    @Override
+    public void execute() throws InvalidEventHandlerException {
+        touch();
+    }
+
+    @Override
+    public boolean action() throws InvalidEventHandlerException {
+        if (intervalMillis > 0) {
+            final long now = queue.time().currentTimeMillis();
+            if (now < lastRunMillis + intervalMillis)
+                return false;
+            lastRunMillis = now;
+        }
+        return touch() > 0;
+    }
+
+    /**
+     * @return the total number of pages touched
+     */
+    public long pagesTouched() {
+        return pagesTouched;
+    }
+
+    /**
+     * @return how far the touched pages extend beyond the write position of the latest cycle, as of the last run
+     */
+    public long bytesAhead() {
+        return bytesAhead;
+    }
+
+    /**
+     * Touches the pages not yet touched between the write position and {@code aheadBytes} beyond it.
+     *
+     * @return the number of pages touched
+     * @throws InvalidEventHandlerException if this or the queue has been closed
+     */
+    synchronized int touch() throws InvalidEventHandlerException {
+        if (isClosing() || queue.isClosing()) {
+            releaseStore();
+            throw InvalidEventHandlerException.reusable();
+        }
+        final int lastCycle = queue.lastCycle();
+        if (lastCycle == Integer.MIN_VALUE || queue.isReadOnly())
+            return 0;
+        try {
+            if (lastCycle != cycle)
+                acquireStore(lastCycle);
+            if (store == null)
+                return 0;
+
+            final long writePosition = store.writePosition();
+            final long target = writePosition + aheadBytes;
+            long position = Math.max(touchedUpTo, writePosition - writePosition % pageSize);
+            int touched = 0;
+            for (; position < target && touched < MAX_PAGES_PER_CALL; position += pageSize, touched++)
+                bytes.compareAndSwapLong(position, 0, 0);
+            touchedUpTo = position;
+            if (touched > 0)
+                pagesTouched += touched;
+            bytesAhead = Math.max(0, touchedUpTo - writePosition);
+            return touched;
+
+        } catch (Exception e) {
+            if (queue.isClosing())
+                throw InvalidEventHandlerException.reusable();
+            Jvm.warn().on(getClass(), "Unable to pretouch cycle " + lastCycle, e);
+            releaseStore();
+            return 0;
+        }
+    }
+
+    private void acquireStore(int newCycle) {
+        releaseStore();
+        store = queue.storeForCycle(newCycle, queue.epoch(), false, null);
+        if (store == null)
+            return;
+        bytes = store.bytes();
+        cycle = newCycle;
+        touchedUpTo = 0;
+    }
+
+    private void releaseStore() {
+        if (bytes != null) {
+            bytes.releaseLast();
+            bytes = null;
+        }
+        if (store != null) {
+            queue.closeStore(store);
+            store = null;
+        }
+        cycle = Integer.MIN_VALUE;
+    }
+
+    @Override
+    protected synchronized void performClose() {
+        releaseStore();
+    }
+}
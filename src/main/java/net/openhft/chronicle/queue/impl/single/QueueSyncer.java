@@ -0,0 +1,211 @@
+/*
+ * Copyright 2013-2025 chronicle.software; SPDX-License-Identifier: Apache-2.0
+ */
+package net.openhft.chronicle.queue.impl.single;
+
+import net.openhft.chronicle.bytes.BytesStore;
+import net.openhft.chronicle.bytes.MappedBytes;
+import net.openhft.chronicle.core.Jvm;
+import net.openhft.chronicle.core.OS;
+import net.openhft.chronicle.core.io.AbstractCloseable;
+import net.openhft.chronicle.core.io.IORuntimeException;
+import net.openhft.chronicle.core.threads.EventHandler;
+import net.openhft.chronicle.core.threads.InvalidEventHandlerException;
+import net.openhft.chronicle.wire.Wire;
+import net.openhft.posix.MSyncFlag;
+import net.openhft.posix.PosixAPI;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Flushes the excerpts written to a queue to disk with {@code msync(MS_SYNC)}, away from the appending threads, and
+ * records the last index flushed in {@link SingleChronicleQueue#lastIndexMSynced()}.
+ * <p>
+ * When run as an {@link EventHandler} it syncs once at least {@code intervalBytes} have been written, or
+ * {@code intervalMillis} have passed, since the last sync, bounding how much data a crash of the machine could
+ * lose. A queue built with {@link SingleChronicleQueueBuilder#asyncMSync(long, long)} runs one on its event loop,
+ * available from {@link SingleChronicleQueue#queueSyncer()}, and
+ * {@link SingleChronicleQueue#awaitMSynced(long, long)} waits for a given index to be synced.
+ * <p>
+ * Syncing starts from the cycle which was last when it first runs. When the queue rolls, the rest of the previous
+ * cycle, and of any cycle rolled past since the last sync, is synced before the new one.
+ * <p>
+ * Each sync covers the bytes written since the previous one. The store header's write position and the index arrays,
+ * which are updated in place below that, are not synced again, so after a crash of the machine they may lag the
+ * excerpts synced. Readers find those excerpts by scanning from the last position and index entry synced, as they do
+ * for any excerpt which is not indexed.
+ */
+public final class QueueSyncer extends AbstractCloseable implements EventHandler {
+    private final SingleChronicleQueue queue;
+    private final long intervalBytes;
+    private final long intervalMillis;
+    private final int pageSize = OS.pageSize();
+
+    private int cycle = Integer.MIN_VALUE;
+    private SingleChronicleQueueStore store;
+    private MappedBytes bytes;
+    private Wire wire;
+    private long syncedUpTo;
+    private long lastSyncMillis;
+
+    private volatile long syncs;
+    private volatile long bytesSynced;
+
+    /**
+     * @param queue          the queue to sync
+     * @param intervalBytes  how many bytes can be written before they are synced
+     * @param intervalMillis how long written bytes can wait before they are synced
+     */
+    public QueueSyncer(@NotNull SingleChronicleQueue queue, long intervalBytes, long intervalMillis) {
+        if (intervalBytes <= 0)
+            throw new IllegalArgumentException("intervalBytes: " + intervalBytes);
+        if (intervalMillis <= 0)
+            throw new IllegalArgumentException("intervalMillis: " + intervalMillis);
+        this.queue = queue;
+        this.intervalBytes = intervalBytes;
+        this.intervalMillis = intervalMillis;
+        singleThreadedCheckDisabled(true);
+    }
+
+    @Override
+    public boolean action() throws InvalidEventHandlerException {
+        return sync(false);
+    }
+
+    /**
+     * @return the number of msync calls made
+     */
+    public long syncs() {
+        return syncs;
+    }
+
+    /**
+     * @return the total number of bytes synced
+     */
+    public long bytesSynced() {
+        return bytesSynced;
+    }
+
+    /**
+     * Syncs the excerpts written since the last sync, if either interval has been reached or {@code force} is set.
+     *
+     * @param force whether to sync regardless of the intervals
+     * @return {@code true} if anything was synced
+     * @throws InvalidEventHandlerException if this or the queue has been closed
+     */
+    synchronized boolean sync(boolean force) throws InvalidEventHandlerException {
+        if (isClosing() || queue.isClosing()) {
+            releaseStore();
+            throw InvalidEventHandlerException.reusable();
+        }
+        final int lastCycle = queue.lastCycle();
+        if (lastCycle == Integer.MIN_VALUE || queue.isReadOnly())
+            return false;
+        try {
+            boolean synced = false;
+            if (lastCycle != cycle) {
+                // finish the cycle the queue has rolled from before moving on
+                if (store != null) {
+                    synced = syncToEnd();
+                    // the queue may have rolled more than once since the last sync
+                    if (lastCycle > cycle + 1)
+                        synced |= syncCyclesBetween(cycle + 1, lastCycle - 1);
+                }
+                acquireStore(lastCycle);
+                if (store == null)
+                    return synced;
+            }
+            if (!force && !intervalReached())
+                return synced;
+            return syncToEnd() | synced;
+
+        } catch (Exception e) {
+            if (queue.isClosing())
+                throw InvalidEventHandlerException.reusable();
+            Jvm.warn().on(getClass(), "Unable to msync cycle " + lastCycle, e);
+            releaseStore();
+            return false;
+        }
+    }
+
+    private boolean syncCyclesBetween(int fromCycle, int toCycle) {
+        boolean synced = false;
+        for (Long between : queue.listCyclesBetween(fromCycle, toCycle)) {
+            acquireStore(between.intValue());
+            if (store != null)
+                synced |= syncToEnd();
+        }
+        return synced;
+    }
+
+    private boolean intervalReached() {
+        if (queue.time().currentTimeMillis() >= lastSyncMillis + intervalMillis)
+            return true;
+        return store.writePosition() - syncedUpTo >= intervalBytes;
+    }
+
+    /**
+     * Syncs up to the end of the last complete excerpt of the current cycle, then records its index.
+     */
+    private boolean syncToEnd() {
+        lastSyncMillis = queue.time().currentTimeMillis();
+        final long sequence = store.moveToEndForRead(wire);
+        if (sequence < 0)
+            return false;
+        final long end = bytes.readPosition();
+        if (end <= syncedUpTo)
+            return false;
+
+        msync(syncedUpTo, end);
+        bytesSynced += end - syncedUpTo;
+        syncs++;
+        syncedUpTo = end;
+        if (sequence > 0)
+            queue.lastIndexMSynced(queue.rollCycle().toIndex(cycle, sequence - 1));
+        return true;
+    }
+
+    private void msync(long from, long to) {
+        long position = from - from % pageSize;
+        while (position < to) {
+            // maps the chunk containing the position
+            final long address = bytes.addressForRead(position);
+            final BytesStore<?, ?> bs = bytes.bytesStore();
+            final long end = Math.min(to, bs.safeLimit());
+            if (end <= position)
+                throw new IORuntimeException("Unable to map " + position + " of " + store.currentFile());
+            if (PosixAPI.posix().msync(address, end - position, MSyncFlag.MS_SYNC) != 0)
+                throw new IORuntimeException("msync failed for " + store.currentFile());
+            position = end;
+        }
+    }
+
+    private void acquireStore(int newCycle) {
+        releaseStore();
+        store = queue.storeForCycle(newCycle, queue.epoch(), false, null);
+        if (store == null)
+            return;
+        bytes = store.bytes();
+        wire = queue.wireType().apply(bytes);
+        wire.usePadding(store.dataVersion() > 0);
+        cycle = newCycle;
+        syncedUpTo = 0;
+    }
+
+    private void releaseStore() {
+        if (bytes != null) {
+            bytes.releaseLast();
+            bytes = null;
+        }
+        wire = null;
+        if (store != null) {
+            queue.closeStore(store);
+            store = null;
+        }
+        cycle = Integer.MIN_VALUE;
+    }
+
+    @Override
+    protected synchronized void performClose() {
+        releaseStore();
+    }
+}
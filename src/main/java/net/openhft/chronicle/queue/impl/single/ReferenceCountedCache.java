@@ -9,9 +9,14 @@ import net.openhft.chronicle.core.util.ThrowingFunction;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.LinkedHashMap;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Function;
+import java.util.function.ToLongFunction;
 
 /**
  * A thread-safe, self-cleaning cache for managing {@link ReferenceCounted} and {@link Closeable} objects.
@@ -19,7 +24,17 @@ import java.util.function.Function;
  * This cache ensures that cached objects are reference-counted, and once the reference count
  * drops to one (held by this cache), the object will be automatically released.
  * The cache performs background cleanup to release resources when the last external reference is removed.
- *
+ * <p>
+ * The cache may instead be bounded, in which case objects no longer referenced outside the cache are kept for later
+ * lookups until the cache holds more than a maximum number of objects or a maximum total weight. The objects least
+ * recently looked up are then released first. Objects still referenced outside the cache are never released by it, so
+ * the bounds may be exceeded while they are in use. Each object is weighed when it is created and again once it is no
+ * longer referenced outside the cache, and the total weight is kept as objects are added and released.
+ * <p>
+ * Looking up an object already cached takes no lock, so many threads acquiring the same object at once, e.g. tailers
+ * moving to a new cycle together, do not queue behind each other. The cache's reference to an object is only ever
+ * released by the thread which removed it from the map, and a lookup reserves the object before transforming it, so
+ * an object being removed concurrently is either handed out still reserved or is skipped and created again.
  *
  * @param <K> The type of the cache key
  * @param <T> The type of the cached objects, which must implement both {@link ReferenceCounted} and {@link Closeable}
@@ -30,26 +45,58 @@ public class ReferenceCountedCache<K, T extends ReferenceCounted & Closeable, V,
         extends AbstractCloseable {
 
     // Cache to store objects against keys
-    private final Map<K, T> cache = new LinkedHashMap<>();
+    private final Map<K, Entry<T>> cache = new ConcurrentHashMap<>();
     // Function to transform a cached object into the desired return type
     private final Function<T, V> transformer;
     // Function to create a new object when it's not present in the cache
     private final ThrowingFunction<K, T, E> creator;
-    // Listener to handle reference count changes for objects
-    private final ReferenceChangeListener referenceChangeListener;
+    // Bounds on the objects kept once no longer referenced outside the cache
+    private final int maxEntries;
+    private final long maxWeight;
+    private final ToLongFunction<? super T> weigher;
+    private final Runnable evictIdle = this::evictIdle;
+    // Counts of lookups, objects created and unreferenced objects released to keep within bounds
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    // The total weight of the cached objects, as of when each was last weighed
+    private final LongAdder totalWeight = new LongAdder();
 
     /**
-     * Constructs a {@code ReferenceCountedCache} instance.
+     * Constructs a {@code ReferenceCountedCache} instance which releases each object as soon as it is no longer
+     * referenced outside the cache.
      *
      * @param transformer A function to transform a cached object into the return type.
      * @param creator     A function that creates a new object if it is not present in the cache.
      */
-    @SuppressWarnings("this-escape")
     public ReferenceCountedCache(final Function<T, V> transformer,
                                  final ThrowingFunction<K, T, E> creator) {
+        this(transformer, creator, 0, Long.MAX_VALUE, value -> 0);
+    }
+
+    /**
+     * Constructs a {@code ReferenceCountedCache} instance which keeps objects no longer referenced outside the cache
+     * while within bounds.
+     *
+     * @param transformer A function to transform a cached object into the return type.
+     * @param creator     A function that creates a new object if it is not present in the cache.
+     * @param maxEntries  The number of cached objects above which the least recently used unreferenced ones are released.
+     * @param maxWeight   The total weight of cached objects above which the least recently used unreferenced ones are released.
+     * @param weigher     A function giving the weight of a cached object, e.g. its size in bytes.
+     */
+    @SuppressWarnings("this-escape")
+    public ReferenceCountedCache(final Function<T, V> transformer,
+                                 final ThrowingFunction<K, T, E> creator,
+                                 final int maxEntries,
+                                 final long maxWeight,
+                                 final ToLongFunction<? super T> weigher) {
+        if (maxEntries < 0 || maxWeight < 0)
+            throw new IllegalArgumentException("Bounds must not be negative, maxEntries: " + maxEntries + ", maxWeight: " + maxWeight);
         this.transformer = transformer;
         this.creator = creator;
-        this.referenceChangeListener = new TriggerFlushOnLastReferenceRemoval();
+        this.maxEntries = maxEntries;
+        this.maxWeight = maxWeight;
+        this.weigher = weigher;
 
         singleThreadedCheckDisabled(true);
     }
@@ -66,23 +113,71 @@ public class ReferenceCountedCache<K, T extends ReferenceCounted & Closeable, V,
     V get(@NotNull final K key) throws E {
         throwExceptionIfClosed();
 
-        final V rv;
-        synchronized (cache) {
-            @Nullable T value = cache.get(key);
+        lookups.increment();
+        final ReferenceOwner lookup = ReferenceOwner.temporary("lookup");
+        for (; ; ) {
+            @Nullable Entry<T> entry = cache.get(key);
+            if (entry == null) {
+                entry = create(key);
+                // unreferenced objects may be kept, so the cache may now be over its bounds
+                if (maxEntries > 0)
+                    BackgroundResourceReleaser.run(evictIdle);
+            }
 
-            if (value == null) {
-                value = creator.apply(key);
-                value.reserveTransfer(INIT, this);
-                value.addReferenceChangeListener(referenceChangeListener);
-                //System.err.println("Reserved " + value.toString() + " by " + this);
-                cache.put(key, value);
+            final T value = entry.value;
+            // the cache's reference may be released concurrently, so hold one while the transformer adds its own
+            if (!value.tryReserve(lookup)) {
+                cache.remove(key, entry);
+                continue;
+            }
+            final V rv;
+            try {
+                rv = transformer.apply(value);
+            } finally {
+                value.release(lookup);
             }
+            entry.lastUsedNanos = System.nanoTime();
 
-            // this will add to the ref count and so needs to be done inside of sync block
-            rv = transformer.apply(value);
+            // the cache was closed while this was added, so performClose may not have seen it
+            if (isClosing() && cache.remove(key, entry))
+                releaseResource(entry);
+            return rv;
         }
+    }
 
-        return rv;
+    /**
+     * Creates and caches the object for a key, unless another thread does so first. Other threads looking up the same
+     * key wait for it to be created rather than creating it too.
+     *
+     * @param key The key to identify the object in the cache.
+     * @return The cached entry.
+     * @throws E If the object creation process encounters an error.
+     */
+    @SuppressWarnings("unchecked")
+    @NotNull
+    private Entry<T> create(@NotNull final K key) throws E {
+        try {
+            return cache.computeIfAbsent(key, this::newEntry);
+        } catch (CreationFailedException e) {
+            throw (E) e.getCause();
+        }
+    }
+
+    private Entry<T> newEntry(K key) {
+        final T value;
+        try {
+            value = creator.apply(key);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new CreationFailedException(t);
+        }
+        misses.increment();
+        value.reserveTransfer(INIT, this);
+        final Entry<T> entry = new Entry<>(value);
+        entry.reweigh(weigher, totalWeight);
+        value.addReferenceChangeListener(new TriggerFlushOnLastReferenceRemoval(entry));
+        return entry;
     }
 
     /**
@@ -91,23 +186,20 @@ public class ReferenceCountedCache<K, T extends ReferenceCounted & Closeable, V,
      */
     @Override
     protected void performClose() {
-        synchronized (cache) {
-            for (T value : cache.values()) {
-                releaseResource(value);
-            }
-            cache.clear();
+        for (K key : cache.keySet()) {
+            remove(key);
         }
     }
 
     /**
-     * Releases the resources of a cached object.
+     * Releases the resources of an object removed from the cache, and no longer counts its weight.
      *
-     * @param value The cached object to release.
+     * @param entry The removed entry of the object to release.
      */
-    private void releaseResource(T value) {
+    private void releaseResource(Entry<T> entry) {
+        entry.removed(totalWeight);
         try {
-            if (value != null)
-                value.release(this);
+            entry.value.release(this);
         } catch (Exception e) {
             Jvm.debug().on(getClass(), e);
         }
@@ -120,9 +212,161 @@ public class ReferenceCountedCache<K, T extends ReferenceCounted & Closeable, V,
      */
     public void remove(K key) {
         // harmless to call if cache is already closing/closed
+        final Entry<T> entry = cache.remove(key);
+        if (entry != null)
+            releaseResource(entry);
+    }
+
+    /**
+     * @return the number of lookups which found the object already cached
+     */
+    long hits() {
+        return Math.max(0, lookups.sum() - misses.sum());
+    }
+
+    /**
+     * @return the number of objects created because they were not cached
+     */
+    long misses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return the number of objects no longer referenced outside the cache which it released to keep within its bounds,
+     * not counting those released as soon as they are unreferenced when the cache keeps none
+     */
+    long evictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * @return the number of objects cached
+     */
+    int size() {
+        return cache.size();
+    }
+
+    /**
+     * @return the total weight of the objects cached, as of when each was created or was last no longer referenced
+     * outside the cache
+     */
+    long weight() {
+        return totalWeight.sum();
+    }
+
+    /**
+     * Sets the counts of hits, misses and evictions to zero. Counts recorded concurrently with a reset may be lost.
+     */
+    void resetCounts() {
+        lookups.reset();
+        misses.reset();
+        evictions.reset();
+    }
+
+    /**
+     * Releases the objects only this cache references, least recently used first, until the cache is within its
+     * bounds. With no room for unreferenced objects this releases them all. Garbagy but rare.
+     */
+    private void evictIdle() {
+        for (Entry<T> entry : cache.values()) {
+            if (entry.released)
+                entry.reweigh(weigher, totalWeight);
+        }
+        final boolean weighed = maxWeight != Long.MAX_VALUE;
+        int size = cache.size();
+        long weight = weighed ? weight() : 0;
+        if (size <= maxEntries && weight <= maxWeight)
+            return;
+
+        final List<Map.Entry<K, Entry<T>>> idle = new ArrayList<>();
+        for (Map.Entry<K, Entry<T>> mapEntry : cache.entrySet()) {
+            if (mapEntry.getValue().value.refCount() == 1)
+                idle.add(mapEntry);
+        }
+        if (maxEntries > 0 || weighed)
+            idle.sort(Comparator.comparingLong(mapEntry -> mapEntry.getValue().lastUsedNanos));
 
-        synchronized (cache) {
-            releaseResource(cache.remove(key));
+        for (Map.Entry<K, Entry<T>> mapEntry : idle) {
+            if (size <= maxEntries && weight <= maxWeight)
+                return;
+            final long valueWeight = mapEntry.getValue().weight();
+            if (evict(mapEntry.getKey(), mapEntry.getValue())) {
+                size--;
+                weight -= valueWeight;
+            }
+        }
+    }
+
+    /**
+     * Removes and releases an object only this cache references.
+     *
+     * @return whether the object was released
+     */
+    private boolean evict(K key, Entry<T> entry) {
+        if (entry.value.refCount() != 1 || !cache.remove(key, entry))
+            return false;
+        // reserved again between the check and the removal, so keep it cached if nothing has replaced it
+        if (entry.value.refCount() > 1 && cache.putIfAbsent(key, entry) == null)
+            return false;
+        releaseResource(entry);
+        // with no room for unreferenced objects, releasing one as soon as it is unreferenced isn't an eviction
+        if (maxEntries > 0)
+            evictions.increment();
+        return true;
+    }
+
+    /**
+     * A cached object, with when it was last looked up and its weight.
+     */
+    private static final class Entry<T> {
+        final T value;
+        volatile long lastUsedNanos;
+        // set once no longer referenced outside the cache, so it is weighed again
+        volatile boolean released;
+        // guarded by this
+        private long weight;
+        private boolean removed;
+
+        Entry(T value) {
+            this.value = value;
+            this.lastUsedNanos = System.nanoTime();
+        }
+
+        synchronized long weight() {
+            return weight;
+        }
+
+        /**
+         * Weighs the object again, adding the change to the total unless it has been removed from the cache.
+         */
+        synchronized void reweigh(ToLongFunction<? super T> weigher, LongAdder total) {
+            released = false;
+            if (removed)
+                return;
+            final long newWeight = weigher.applyAsLong(value);
+            total.add(newWeight - weight);
+            weight = newWeight;
+        }
+
+        /**
+         * Takes the weight of an object removed from the cache off the total, once.
+         */
+        synchronized void removed(LongAdder total) {
+            if (removed)
+                return;
+            removed = true;
+            total.add(-weight);
+        }
+    }
+
+    /**
+     * Carries a checked exception thrown by the creator out of {@link ConcurrentHashMap#computeIfAbsent}.
+     */
+    private static final class CreationFailedException extends RuntimeException {
+        private static final long serialVersionUID = 0L;
+
+        CreationFailedException(Throwable cause) {
+            super(cause);
         }
     }
 
@@ -130,31 +374,18 @@ public class ReferenceCountedCache<K, T extends ReferenceCounted & Closeable, V,
      * A listener to trigger cache cleanup when the last reference (besides this cache) is removed.
      */
     private class TriggerFlushOnLastReferenceRemoval implements ReferenceChangeListener {
+        private final Entry<T> entry;
 
-        private final Runnable bgCleanup = this::bgCleanup;
+        TriggerFlushOnLastReferenceRemoval(Entry<T> entry) {
+            this.entry = entry;
+        }
 
         @Override
         public void onReferenceRemoved(ReferenceCounted referenceCounted, ReferenceOwner referenceOwner) {
-            // If only this cache holds the reference, trigger background cleanup
+            // If only this cache holds the reference, weigh it again and trigger background cleanup
             if (referenceOwner != ReferenceCountedCache.this && referenceCounted.refCount() == 1) {
-                BackgroundResourceReleaser.run(bgCleanup);
-            }
-        }
-
-        /**
-         * Performs background cleanup to remove objects with no remaining references from the cache.
-         */
-        private void bgCleanup() {
-            // remove all which have been de-referenced by other than me. Garbagy but rare
-            synchronized (cache) {
-                cache.entrySet().removeIf(entry -> {
-                    T value = entry.getValue();
-                    int refCount = value.refCount();
-                    if (refCount == 1) {
-                        value.release(ReferenceCountedCache.this);
-                    }
-                    return refCount <= 1;
-                });
+                entry.released = true;
+                BackgroundResourceReleaser.run(evictIdle);
             }
         }
     }
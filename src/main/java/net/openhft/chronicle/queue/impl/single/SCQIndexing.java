@@ -711,8 +711,9 @@ class SCQIndexing extends AbstractCloseable implements Indexing, Demarshallable,
 
     /**
      * Returns the sequence number for a given position in the wire.
-     * If an exact match is found for the position, the corresponding index is returned;
-     * otherwise, a linear scan is performed to approximate the closest sequence.
+     * The last indexed entry at or before the position is found with a binary search of the index2index array and
+     * then of the secondary index it points to; if this isn't the position, a linear scan from the indexed entry
+     * finds the sequence.
      *
      * @param ec        The {@link ExcerptContext} used to navigate the queue.
      * @param position  The position for which the sequence is requested.
@@ -730,41 +731,42 @@ class SCQIndexing extends AbstractCloseable implements Indexing, Demarshallable,
             final LongArrayValues index2indexArr = getIndex2index(wire);
             int used2 = getUsedAsInt(index2indexArr);
 
-            // Outer loop: Iterate through index2index array to find the relevant secondary index.
-            Outer:
-            for (int index2 = used2 - 1; index2 >= 0; index2--) {
-                long secondaryAddress = getSecondaryAddress(wire, index2indexArr, index2);
-                if (secondaryAddress == 0)
+            // the last secondary index whose first entry is at or before the position, then the last entry in it
+            // at or before the position. A secondary index or entry of 0 is a hole, and is skipped.
+            int found2 = -1;
+            int low2 = 0;
+            int high2 = used2 - 1;
+            while (low2 <= high2) {
+                final int mid2 = (low2 + high2) >>> 1;
+                int index2 = mid2;
+                long firstPos = 0;
+                for (; index2 >= low2; index2--) {
+                    firstPos = firstPositionOf(wire, index2indexArr, index2);
+                    if (firstPos != 0)
+                        break;
+                }
+                if (index2 < low2) {
+                    low2 = mid2 + 1;
                     continue;
-
-                LongArrayValues indexValues = arrayForAddress(wire, secondaryAddress);
-                // TODO use a binary rather than linear search
-
-                // check the first one to see if any in the index is appropriate.
-                int used = getUsedAsInt(indexValues);
-                if (used == 0)
+                }
+                if (firstPos > position) {
+                    high2 = index2 - 1;
                     continue;
+                }
 
-                // Check if the first value in the index is appropriate.
-                long posN = indexValues.getVolatileValueAt(0);
-                assert posN >= 0;
-                if (posN > position)
-                    continue;
+                found2 = index2;
+                low2 = mid2 + 1;
+            }
 
-                // Inner loop: Search within the secondary index.
-                for (int index1 = used - 1; index1 >= 0; index1--) {
-                    long pos = indexValues.getVolatileValueAt(index1);
-                    // TODO pos shouldn't be 0, but holes in the index appear..
-                    if (pos == 0 || pos > position) {
-                        continue;
-                    }
-                    lastKnownAddress = pos;
-                    indexOfNext = ((long) index2 << (indexCountBits + indexSpacingBits)) + ((long) index1 << indexSpacingBits);
+            if (found2 >= 0) {
+                final LongArrayValues indexValues = arrayForAddress(wire, index2indexArr.getVolatileValueAt(found2));
+                final int index1 = lastAtOrBefore(indexValues, getUsedAsInt(indexValues), position);
+                if (index1 >= 0) {
+                    lastKnownAddress = indexValues.getVolatileValueAt(index1);
+                    indexOfNext = ((long) found2 << (indexCountBits + indexSpacingBits)) + ((long) index1 << indexSpacingBits);
 
                     if (lastKnownAddress == position)
                         return indexOfNext;
-
-                    break Outer;
                 }
             }
         } catch (IllegalStateException e) {
@@ -779,6 +781,61 @@ class SCQIndexing extends AbstractCloseable implements Indexing, Demarshallable,
         }
     }
 
+    /**
+     * Returns the position of the first excerpt in a secondary index, without creating the secondary index.
+     *
+     * @param wire           The wire the index is in.
+     * @param index2indexArr The index2index array.
+     * @param index2         The entry of the index2index array.
+     * @return The position, or 0 if the secondary index or its first entry has not been written.
+     */
+    private long firstPositionOf(@NotNull Wire wire, @NotNull LongArrayValues index2indexArr, int index2) {
+        final long secondaryAddress = index2indexArr.getVolatileValueAt(index2);
+        if (secondaryAddress == 0)
+            return 0;
+        final LongArrayValues indexValues = arrayForAddress(wire, secondaryAddress);
+        if (getUsedAsInt(indexValues) == 0)
+            return 0;
+        final long pos = indexValues.getVolatileValueAt(0);
+        assert pos >= 0;
+        return pos;
+    }
+
+    /**
+     * Binary searches the entries of an index for the last one at or before a position. Entries are in ascending
+     * order apart from holes of 0, which are skipped.
+     *
+     * @param indexValues The index.
+     * @param used        The number of entries used.
+     * @param position    The position.
+     * @return The entry, or -1 if there isn't one.
+     */
+    static int lastAtOrBefore(@NotNull LongArrayValues indexValues, int used, long position) {
+        int found = -1;
+        int low = 0;
+        int high = used - 1;
+        while (low <= high) {
+            final int mid = (low + high) >>> 1;
+            int index = mid;
+            long pos = 0;
+            for (; index >= low; index--) {
+                pos = indexValues.getVolatileValueAt(index);
+                if (pos != 0)
+                    break;
+            }
+            if (index < low) {
+                // only holes in low..mid
+                low = mid + 1;
+            } else if (pos <= position) {
+                found = index;
+                low = mid + 1;
+            } else {
+                high = index - 1;
+            }
+        }
+        return found;
+    }
+
     /**
      * Retrieves the number of entries used in the given {@link LongArrayValues}.
      * Validates that the number of entries is within the expected range.
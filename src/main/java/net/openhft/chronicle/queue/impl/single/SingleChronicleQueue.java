@@ -11,11 +11,13 @@ import net.openhft.chronicle.core.analytics.AnalyticsFacade;
 import net.openhft.chronicle.core.annotation.PackageLocal;
 import net.openhft.chronicle.core.announcer.Announcer;
 import net.openhft.chronicle.core.io.AbstractCloseable;
+import net.openhft.chronicle.core.io.ClosedIllegalStateException;
 import net.openhft.chronicle.core.io.Closeable;
 import net.openhft.chronicle.core.scoped.ScopedResource;
 import net.openhft.chronicle.core.threads.CleaningThreadLocal;
 import net.openhft.chronicle.core.threads.EventLoop;
 import net.openhft.chronicle.core.threads.InterruptedRuntimeException;
+import net.openhft.chronicle.core.threads.InvalidEventHandlerException;
 import net.openhft.chronicle.core.threads.OnDemandEventLoop;
 import net.openhft.chronicle.core.time.TimeProvider;
 import net.openhft.chronicle.core.util.StringUtils;
@@ -24,6 +26,7 @@ import net.openhft.chronicle.queue.*;
 import net.openhft.chronicle.queue.impl.*;
 import net.openhft.chronicle.queue.impl.single.namedtailer.IndexUpdater;
 import net.openhft.chronicle.queue.impl.single.namedtailer.IndexUpdaterFactory;
+import net.openhft.chronicle.queue.impl.single.namedtailer.TailerCommitPolicy;
 import net.openhft.chronicle.queue.impl.table.SingleTableStore;
 import net.openhft.chronicle.queue.internal.AnalyticsHolder;
 import net.openhft.chronicle.threads.DiskSpaceMonitor;
@@ -72,6 +75,8 @@ public class SingleChronicleQueue extends AbstractCloseable implements RollingCh
     public static final String INDEX_VERSION_FORMAT = "index.%s.version";
 
     private static final boolean SHOULD_CHECK_CYCLE = Jvm.getBoolean("chronicle.queue.checkrollcycle");
+    // beyond this many new cycles, listing the directory is cheaper than checking for each file
+    private static final int MAX_CYCLES_ADDED_INCREMENTALLY = 1024;
     static final int WARN_SLOW_APPENDER_MS = Jvm.getInteger("chronicle.queue.warnSlowAppenderMs", 100);
 
     @NotNull
@@ -89,6 +94,7 @@ public class SingleChronicleQueue extends AbstractCloseable implements RollingCh
     // Uses this.closers as a lock. concurrent read, locking for write.
     @SuppressWarnings("rawtypes")
     private final Map<BytesStore, LongValue> metaStoreMap = new ConcurrentHashMap<>();
+    private final CycleExcerptCounts excerptCounts = new CycleExcerptCounts();
     private final StoreSupplier storeSupplier;
     private final long epoch;
     private final boolean isBuffered;
@@ -99,6 +105,8 @@ public class SingleChronicleQueue extends AbstractCloseable implements RollingCh
     @NotNull
     private final Consumer<BytesRingBufferStats> onRingBufferStats;
     private final long bufferCapacity;
+    @Nullable
+    private final AsyncWriteBuffer asyncWriteBuffer;
     private final int indexSpacing;
     private final int indexCount;
     @NotNull
@@ -127,6 +135,11 @@ public class SingleChronicleQueue extends AbstractCloseable implements RollingCh
     @NotNull
     private final RollCycle rollCycle;
     final AppenderListener appenderListener;
+    // set when the payloads of excerpts are encoded by the appenders and decoded by the tailers of this queue
+    @Nullable
+    final Supplier<BiConsumer<BytesStore<?, ?>, Bytes<?>>> encodingSupplier;
+    @Nullable
+    final Supplier<BiConsumer<BytesStore<?, ?>, Bytes<?>>> decodingSupplier;
     protected int sourceId;
     private int cycleFileRenamed = -1;
     @NotNull
@@ -135,6 +148,18 @@ public class SingleChronicleQueue extends AbstractCloseable implements RollingCh
     private final long forceDirectoryListingRefreshIntervalMs;
     private final long[] chunkCount = {0};
     private final SyncMode syncMode;
+    private final long pretouchAheadBytes;
+    @Nullable
+    private final QueuePretoucher backgroundPretoucher;
+    @Nullable
+    private final CyclePrecreator cyclePrecreator;
+    @Nullable
+    private final QueueSyncer queueSyncer;
+    private final Map<String, KeyIndex> keyIndexes;
+    final TimestampIndex timestampIndex;
+    final boolean recordTimestamps;
+    @NotNull
+    private final TailerCommitPolicy tailerCommitPolicy;
 
     /**
      * Constructs a SingleChronicleQueue with the specified builder configuration.
@@ -152,7 +177,7 @@ public class SingleChronicleQueue extends AbstractCloseable implements RollingCh
             dateCache = new RollingResourcesCache(rollCycle, epoch, textToFile(builder), fileToText());
 
             storeFileListener = builder.storeFileListener();
-            storeSupplier = new StoreSupplier();
+            storeSupplier = new StoreSupplier(builder.maxMappedFiles(), builder.maxMappedBytes());
             pool = WireStorePool.withSupplier(storeSupplier, storeFileListener);
             isBuffered = BufferMode.Asynchronous == builder.writeBufferMode();
             path = builder.path();
@@ -178,13 +203,21 @@ public class SingleChronicleQueue extends AbstractCloseable implements RollingCh
             metaStore = builder.metaStore();
             doubleBuffer = builder.doubleBuffer();
             syncMode = builder.syncMode();
+            pretouchAheadBytes = builder.pretouchAheadBytes();
             if (metaStore.readOnly() && !builder.readOnly()) {
                 Jvm.warn().on(getClass(), "Forcing queue to be readOnly file=" + path);
                 // need to set this on builder as it is used elsewhere
                 builder.readOnly(metaStore.readOnly());
             }
             readOnly = builder.readOnly();
-            appenderListener = builder.appenderListener();
+            keyIndexes = createKeyIndexes(builder.keyIndexes());
+            timestampIndex = new TimestampIndex(this);
+            recordTimestamps = builder.timestampIndex() && !builder.readOnly();
+            tailerCommitPolicy = builder.tailerCommitPolicy();
+            appenderListener = withKeyIndexes(builder.appenderListener());
+            final boolean openSourceCoding = builder.openSourceCoding();
+            encodingSupplier = openSourceCoding ? builder.encodingSupplier() : null;
+            decodingSupplier = openSourceCoding ? builder.decodingSupplier() : null;
 
             if (metaStore.readOnly()) {
                 this.directoryListing = new FileSystemDirectoryListing(path, fileNameToCycleFunction(), time);
@@ -235,6 +268,39 @@ public class SingleChronicleQueue extends AbstractCloseable implements RollingCh
             AnalyticsHolder.instance().sendEvent("started", additionalEventParameters);
 
             singleThreadedCheckDisabled(true);
+
+            // the enterprise queue provides its own preloader
+            if (builder.hasPretouchIntervalMillis() && !readOnly && !SingleChronicleQueueBuilder.areEnterpriseFeaturesAvailable()) {
+                backgroundPretoucher = new QueuePretoucher(this, pretouchAheadBytes, builder.pretouchIntervalMillis());
+                eventLoop.addHandler(backgroundPretoucher);
+                eventLoop.start();
+            } else {
+                backgroundPretoucher = null;
+            }
+
+            if (builder.hasPrecreateLeadMillis() && !readOnly) {
+                cyclePrecreator = new CyclePrecreator(this, builder.precreateLeadMillis(), pretouchAheadBytes);
+                eventLoop.addHandler(cyclePrecreator);
+                eventLoop.start();
+            } else {
+                cyclePrecreator = null;
+            }
+
+            if (builder.hasAsyncMSync() && !readOnly) {
+                queueSyncer = new QueueSyncer(this, builder.asyncMSyncIntervalBytes(), builder.asyncMSyncIntervalMillis());
+                eventLoop.addHandler(queueSyncer);
+                eventLoop.start();
+            } else {
+                queueSyncer = null;
+            }
+
+            if (builder.openSourceWriteBuffer() && !readOnly) {
+                asyncWriteBuffer = new AsyncWriteBuffer(this, bufferCapacity, builder.drainerPriority(), builder.drainerTimeoutMS(), onRingBufferStats);
+                eventLoop.addHandler(asyncWriteBuffer);
+                eventLoop.start();
+            } else {
+                asyncWriteBuffer = null;
+            }
         } catch (Throwable t) {
             close();
             throw Jvm.rethrow(t);
@@ -345,7 +411,16 @@ public class SingleChronicleQueue extends AbstractCloseable implements RollingCh
     public void refreshDirectoryListing() {
         throwExceptionIfClosed();
 
+        forceRefreshDirectoryListing();
+    }
+
+    /**
+     * Lists the queue directory again, and the cycle files of the store supplier with it, so cycles deleted from the
+     * middle of the queue are no longer listed.
+     */
+    private void forceRefreshDirectoryListing() {
         directoryListing.refresh(true);
+        storeSupplier.relistCycleTree();
     }
 
     /**
@@ -371,10 +446,10 @@ public class SingleChronicleQueue extends AbstractCloseable implements RollingCh
     }
 
     /**
-     * Returns the last index that has been synchronized in milliseconds.
+     * Returns the last index that has been msync-ed to disk.
      * If synchronization is not enabled, returns -1.
      *
-     * @return the last synchronized index in milliseconds, or -1 if not available
+     * @return the last msync-ed index, or -1 if not available
      */
     @Override
     public long lastIndexMSynced() {
@@ -382,9 +457,9 @@ public class SingleChronicleQueue extends AbstractCloseable implements RollingCh
     }
 
     /**
-     * Updates the last index that has been synchronized in milliseconds.
+     * Updates the last index that has been msync-ed to disk.
      *
-     * @param lastIndexMSynced the new last synchronized index in milliseconds
+     * @param lastIndexMSynced the new last msync-ed index
      */
     @Override
     public void lastIndexMSynced(long lastIndexMSynced) {
@@ -392,6 +467,32 @@ public class SingleChronicleQueue extends AbstractCloseable implements RollingCh
             this.lastIndexMSynced.setMaxValue(lastIndexMSynced);
     }
 
+    /**
+     * Waits until an index has been msync-ed to disk, syncing immediately rather than waiting for the
+     * {@link #queueSyncer() background syncer}'s next interval.
+     *
+     * @param index         the index which needs to be durable
+     * @param timeoutMillis the maximum time to wait
+     * @return {@code true} if the index has been msync-ed, {@code false} if the timeout was reached first
+     * @throws IllegalStateException if the queue wasn't built with {@link SingleChronicleQueueBuilder#asyncMSync(long, long)}
+     */
+    public boolean awaitMSynced(long index, long timeoutMillis) {
+        if (queueSyncer == null)
+            throw new IllegalStateException("asyncMSync is not enabled for this queue");
+        final long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (lastIndexMSynced() < index) {
+            try {
+                if (!queueSyncer.sync(true))
+                    Jvm.nanoPause();
+            } catch (InvalidEventHandlerException e) {
+                throw new ClosedIllegalStateException("Queue closed while waiting for index " + Long.toHexString(index), e);
+            }
+            if (System.currentTimeMillis() > deadline)
+                return lastIndexMSynced() >= index;
+        }
+        return true;
+    }
+
     /**
      * Unsupported operation. Currently, clear is not implemented.
      */
@@ -579,6 +680,18 @@ public class SingleChronicleQueue extends AbstractCloseable implements RollingCh
         return this.isBuffered;
     }
 
+    /**
+     * Waits for the excerpts already appended to be written to the queue, when appends are buffered by
+     * {@link SingleChronicleQueueBuilder#writeBufferMode(BufferMode)}, for up to
+     * {@link SingleChronicleQueueBuilder#drainerTimeoutMS()}.
+     *
+     * @return true if they were all written, or appends are not buffered
+     */
+    @Override
+    public boolean awaitAsync() {
+        return asyncWriteBuffer == null || asyncWriteBuffer.awaitDrained();
+    }
+
     /**
      * Returns the event loop used by the queue.
      *
@@ -589,6 +702,46 @@ public class SingleChronicleQueue extends AbstractCloseable implements RollingCh
         return this.eventLoop;
     }
 
+    /**
+     * Returns the pretoucher running on the {@link #eventLoop()}, if the preloader was enabled with
+     * {@link SingleChronicleQueueBuilder#enablePreloader(long)}.
+     *
+     * @return the background pretoucher, or {@code null} if there isn't one
+     */
+    @Nullable
+    public QueuePretoucher backgroundPretoucher() {
+        return backgroundPretoucher;
+    }
+
+    /**
+     * Returns the handler creating the file of the next cycle ahead of the roll,
+     * enabled with {@link SingleChronicleQueueBuilder#precreateNextCycle(long)}.
+     *
+     * @return the cycle precreator, or {@code null} if there isn't one
+     */
+    @Nullable
+    public CyclePrecreator cyclePrecreator() {
+        return cyclePrecreator;
+    }
+
+    /**
+     * Returns the handler which msyncs written excerpts in the background,
+     * enabled with {@link SingleChronicleQueueBuilder#asyncMSync(long, long)}.
+     *
+     * @return the queue syncer, or {@code null} if there isn't one
+     */
+    @Nullable
+    public QueueSyncer queueSyncer() {
+        return queueSyncer;
+    }
+
+    /**
+     * @return how far ahead of the write position pretouchers created for this queue touch pages
+     */
+    long pretouchAheadBytes() {
+        return pretouchAheadBytes;
+    }
+
     /**
      * Constructs a new {@link ExcerptAppender} once the {@link #createAppenderCondition} is met.
      *
@@ -616,6 +769,18 @@ public class SingleChronicleQueue extends AbstractCloseable implements RollingCh
      */
     @NotNull
     protected ExcerptAppender constructAppender() {
+        if (asyncWriteBuffer != null)
+            return new AsyncAppender(this, asyncWriteBuffer);
+        return storeAppender();
+    }
+
+    /**
+     * Constructs an appender which writes directly to the queue files, even when appends are buffered.
+     *
+     * @return the new StoreAppender
+     */
+    @NotNull
+    StoreAppender storeAppender() {
         final WireStorePool newPool = WireStorePool.withSupplier(storeSupplier, storeFileListener);
         return new StoreAppender(this, newPool, checkInterrupts);
     }
@@ -699,6 +864,83 @@ public class SingleChronicleQueue extends AbstractCloseable implements RollingCh
         return writeLock;
     }
 
+    /**
+     * @return how often this queue's write lock was acquired by this process, and how long writers waited for and held
+     * it, once enabled with {@link WriteLockMetrics#recordHoldTimes(boolean)}. See
+     * {@link SingleChronicleQueueBuilder#writeLockMode(WriteLockMode)} for how writers wait.
+     */
+    @NotNull
+    public WriteLockMetrics writeLockMetrics() {
+        return writeLock instanceof TableStoreWriteLock ? ((TableStoreWriteLock) writeLock).metrics() : WriteLockMetrics.NONE;
+    }
+
+    /**
+     * @return how often this queue found a cycle file already mapped when acquiring its store, and how many cycle files
+     * it has mapped. See {@link SingleChronicleQueueBuilder#maxMappedFiles(int)} for how many unused files are kept
+     * mapped.
+     */
+    @NotNull
+    public MappedFileCacheMetrics mappedFileCacheMetrics() {
+        return storeSupplier.mappedFileCacheMetrics;
+    }
+
+    /**
+     * @return when named tailers of this queue write their index, see
+     * {@link SingleChronicleQueueBuilder#tailerCommitPolicy(TailerCommitPolicy)}
+     */
+    @NotNull
+    public TailerCommitPolicy tailerCommitPolicy() {
+        return tailerCommitPolicy;
+    }
+
+    /**
+     * @param name the name of a key index added with {@link SingleChronicleQueueBuilder#keyIndex(String, KeyExtractor)}
+     * @return the key index
+     * @throws IllegalArgumentException if the queue has no key index with that name
+     */
+    @NotNull
+    public KeyIndex keyIndex(@NotNull String name) {
+        final KeyIndex keyIndex = keyIndexes.get(name);
+        if (keyIndex == null)
+            throw new IllegalArgumentException("No key index named " + name + ", the key indexes are " + keyIndexes.keySet());
+        return keyIndex;
+    }
+
+    @NotNull
+    private Map<String, KeyIndex> createKeyIndexes(@NotNull Map<String, KeyExtractor> extractors) {
+        if (extractors.isEmpty())
+            return Collections.emptyMap();
+        final Map<String, KeyIndex> indexes = new LinkedHashMap<>();
+        extractors.forEach((name, extractor) -> indexes.put(name, new KeyIndex(this, name, extractor)));
+        return indexes;
+    }
+
+    /**
+     * @param listener the listener set on the builder, if any
+     * @return a listener adding each excerpt to the key indexes before calling {@code listener}
+     */
+    @Nullable
+    private AppenderListener withKeyIndexes(@Nullable AppenderListener listener) {
+        if (keyIndexes.isEmpty())
+            return listener;
+        final KeyIndex[] indexes = keyIndexes.values().toArray(new KeyIndex[0]);
+        return (wire, index) -> {
+            for (KeyIndex keyIndex : indexes)
+                keyIndex.onExcerpt(wire, index);
+            if (listener != null)
+                listener.onExcerpt(wire, index);
+        };
+    }
+
+    /**
+     * @param cycle the cycle
+     * @return the queue file of the cycle, which may not exist
+     */
+    @NotNull
+    File fileForCycle(int cycle) {
+        return dateCache.resourceFor(cycle).path;
+    }
+
     /**
      * @return the {@link WriteLock} that is used to lock appends. This is only used by Queue Enterprise
      * sink replication handlers. See Queue Enterprise docs for more details.
@@ -723,7 +965,7 @@ public class SingleChronicleQueue extends AbstractCloseable implements RollingCh
         IndexUpdater indexUpdater = IndexUpdaterFactory.createIndexUpdater(id, this); // NOSONAR
 
         // refresh the listing before creating the tailer
-        directoryListing.refresh(true);
+        forceRefreshDirectoryListing();
 
         // create the tailer based on up-to-date information.
         final StoreTailer storeTailer = new StoreTailer(this, pool, indexUpdater);
@@ -759,7 +1001,7 @@ public class SingleChronicleQueue extends AbstractCloseable implements RollingCh
     @Override
     @NotNull
     public LongValue indexForId(@NotNull String id) {
-        return this.metaStore.doWithExclusiveLock((ts) -> ts.acquireValueFor("index." + id, 0L));
+        return acquireMetaStoreValue("index." + id, 0L);
     }
 
     /**
@@ -770,7 +1012,22 @@ public class SingleChronicleQueue extends AbstractCloseable implements RollingCh
      */
     @NotNull
     public LongValue indexVersionForId(@NotNull String id) {
-        return this.metaStore.doWithExclusiveLock((ts) -> ts.acquireValueFor(String.format(INDEX_VERSION_FORMAT, id), -1L));
+        return acquireMetaStoreValue(String.format(INDEX_VERSION_FORMAT, id), -1L);
+    }
+
+    /**
+     * Acquires a value from the metadata store, only taking the exclusive file lock when the key has to be created.
+     *
+     * @param key          the key of the value
+     * @param defaultValue the value to initialise a new entry with
+     * @return a LongValue for the given key
+     */
+    @NotNull
+    private LongValue acquireMetaStoreValue(@NotNull String key, long defaultValue) {
+        final LongValue existing = metaStore.acquireExistingValueFor(key);
+        if (existing != null)
+            return existing;
+        return this.metaStore.doWithExclusiveLock((ts) -> ts.acquireValueFor(key, defaultValue));
     }
 
     /**
@@ -886,9 +1143,10 @@ public class SingleChronicleQueue extends AbstractCloseable implements RollingCh
 
             long upperSeqNum = rollCycle.toSequenceNumber(toIndex);
             long lowerSeqNum = rollCycle.toSequenceNumber(fromIndex);
+            int lastCycle = lastCycle();
 
             if (lowerCycle + 1 == upperCycle) {
-                long l = tailer.excerptsInCycle(lowerCycle);
+                long l = excerptsInCycle(tailer, lowerCycle, lastCycle);
                 result += (l - lowerSeqNum) + upperSeqNum;
                 return result;
             }
@@ -903,7 +1161,7 @@ public class SingleChronicleQueue extends AbstractCloseable implements RollingCh
             if (cycles.first() == lowerCycle) {
                 // because we are inclusive, for example  if we were at the end, then this
                 // is 1 except rather than zero
-                long l = tailer.excerptsInCycle(lowerCycle);
+                long l = excerptsInCycle(tailer, lowerCycle, lastCycle);
                 result += (l - lowerSeqNum);
             } else {
                 throw new IllegalStateException("Cycle not found, lower-cycle=" + Long.toHexString(lowerCycle));
@@ -920,7 +1178,7 @@ public class SingleChronicleQueue extends AbstractCloseable implements RollingCh
 
             final long[] array = cycles.stream().mapToLong(i -> i).toArray();
             for (int i = 1; i < array.length - 1; i++) {
-                long x = tailer.excerptsInCycle(Math.toIntExact(array[i]));
+                long x = excerptsInCycle(tailer, Math.toIntExact(array[i]), lastCycle);
                 result += x;
             }
 
@@ -928,6 +1186,46 @@ public class SingleChronicleQueue extends AbstractCloseable implements RollingCh
         }
     }
 
+    /**
+     * Returns the number of excerpts in a cycle, using the count recorded when the cycle was sealed rather than
+     * mapping and indexing the cycle file again.
+     *
+     * @param tailer    used to count the excerpts if no count was recorded
+     * @param cycle     the cycle to count
+     * @param lastCycle the last cycle of the queue, which is the only one which may still be written to
+     * @return the number of excerpts in the cycle, or -1 if the cycle could not be found
+     */
+    private long excerptsInCycle(@NotNull ExcerptTailer tailer, int cycle, int lastCycle) {
+        final long recorded = excerptCounts.get(cycle);
+        if (recorded != CycleExcerptCounts.NOT_RECORDED)
+            return recorded;
+        // e.g. sealed by another process, or before this queue was opened
+        final long excerpts = tailer.excerptsInCycle(cycle);
+        if (excerpts >= 0 && cycle < lastCycle)
+            excerptCounts.record(cycle, excerpts, firstCycle());
+        return excerpts;
+    }
+
+    /**
+     * Returns the number of excerpts recorded for a sealed cycle.
+     *
+     * @param cycle the cycle
+     * @return the recorded number of excerpts, or -1 if none was recorded
+     */
+    long recordedExcerptsInCycle(int cycle) {
+        return excerptCounts.get(cycle);
+    }
+
+    /**
+     * Records the number of excerpts in a cycle which has just been sealed with an EOF, and so can't change.
+     *
+     * @param cycle    the cycle which has been sealed
+     * @param excerpts the number of excerpts in the cycle
+     */
+    void recordExcerptsInCycle(int cycle, long excerpts) {
+        excerptCounts.record(cycle, excerpts, firstCycle());
+    }
+
     /**
      * Lists the cycles between the specified lower and upper cycle values.
      *
@@ -960,11 +1258,23 @@ public class SingleChronicleQueue extends AbstractCloseable implements RollingCh
      */
     @Override
     protected void performClose() {
+        // write what is still buffered first, as the drainer appends while closers are still open
+        if (asyncWriteBuffer != null) {
+            if (!asyncWriteBuffer.awaitDrained())
+                Jvm.warn().on(getClass(), "Closed before every excerpt in the asynchronous write buffer was written to " + fileAbsolutePath);
+            closeQuietly(asyncWriteBuffer);
+        }
         synchronized (closers) {
-            metaStoreMap.values().forEach(Closeable::closeQuietly);
-            metaStoreMap.clear();
+            closeQuietly(backgroundPretoucher, cyclePrecreator, queueSyncer);
+            // tailers and appenders first, as closing a named tailer may still write its index
             closers.forEach(Closeable::closeQuietly);
             closers.clear();
+            if (keyIndexes != null)
+                closeQuietly(keyIndexes.values());
+            closeQuietly(timestampIndex);
+            metaStoreMap.values().forEach(Closeable::closeQuietly);
+            metaStoreMap.clear();
+            excerptCounts.clear();
 
             // must be closed after closers.
             closeQuietly(
@@ -1042,13 +1352,63 @@ public class SingleChronicleQueue extends AbstractCloseable implements RollingCh
     }
 
     /**
-     * Returns the last index in the queue. This is a slow implementation that uses
-     * a {@link ExcerptTailer} to find the last non-metadata document.
+     * Returns the last index in the queue.
+     * <p>
+     * This is derived from the write position and sequence of the last cycle, only walking the excerpts
+     * written after the last recorded write position. If that is not possible, e.g. the last cycle has no
+     * data yet or the store predates the sequence encoding, it falls back to {@link #lastIndexByScanning()}.
      *
      * @return the last index in the queue, or -1 if no documents are found
      */
     @Override
     public long lastIndex() {
+        final long lastIndex = lastIndexFromStore();
+        return lastIndex == Long.MIN_VALUE ? lastIndexByScanning() : lastIndex;
+    }
+
+    /**
+     * Derives the last index from {@link SingleChronicleQueueStore#writePosition()} and the sequence stored
+     * alongside it. Any complete excerpts after the write position are walked, so a writer which has not
+     * yet published its position, or trailing metadata, is accounted for.
+     *
+     * @return the last index, -1 if there are no cycles, or {@link Long#MIN_VALUE} if it could not be derived
+     */
+    long lastIndexFromStore() {
+        throwExceptionIfClosed();
+
+        final int lastCycle = lastCycle();
+        if (lastCycle == Integer.MIN_VALUE)
+            return -1;
+
+        final SingleChronicleQueueStore store = storeForCycle(lastCycle, epoch, false, null);
+        if (store == null)
+            return Long.MIN_VALUE;
+        try {
+            final MappedBytes bytes = store.bytes();
+            try {
+                bytes.readLimitToCapacity();
+                final Wire wire = wireType.apply(bytes);
+                wire.usePadding(store.dataVersion() > 0);
+                // the sequence of the next excerpt to be written
+                final long nextSequence = store.moveToEndForRead(wire);
+                if (nextSequence <= 0)
+                    return Long.MIN_VALUE;
+                return rollCycle.toIndex(lastCycle, nextSequence - 1);
+            } finally {
+                bytes.releaseLast();
+            }
+        } finally {
+            closeStore(store);
+        }
+    }
+
+    /**
+     * Returns the last index in the queue. This is a slow implementation that uses
+     * a {@link ExcerptTailer} to find the last non-metadata document.
+     *
+     * @return the last index in the queue, or -1 if no documents are found
+     */
+    long lastIndexByScanning() {
         // This is a slow implementation that gets a Tailer/DocumentContext to find the last index
         try (final ExcerptTailer tailer = createTailer().direction(BACKWARD).toEnd()) {
             while (true) {
@@ -1101,7 +1461,10 @@ public class SingleChronicleQueue extends AbstractCloseable implements RollingCh
         }
 
         boolean force = now - directoryListing.lastRefreshTimeMS() >= forceDirectoryListingRefreshIntervalMs;
-        directoryListing.refresh(force);
+        if (force)
+            forceRefreshDirectoryListing();
+        else
+            directoryListing.refresh(false);
     }
 
     /**
@@ -1202,6 +1565,85 @@ public class SingleChronicleQueue extends AbstractCloseable implements RollingCh
         return mappedFile;
     }
 
+    /**
+     * Writes the header and index of the file for a cycle under its pre-created name, to be renamed to the cycle
+     * file when the cycle is first acquired for writing. The file is written under a temporary name first so that
+     * it is never seen partially written.
+     *
+     * @param cycle        the cycle to create the file for
+     * @param presizeBytes how many bytes of the file to touch so they are allocated
+     * @return {@code true} if the file was created, {@code false} if the cycle file or a pre-created file exists
+     * @throws IOException if the file could not be created
+     */
+    boolean precreateCycleFile(int cycle, long presizeBytes) throws IOException {
+        final File required = dateCache.resourceFor(cycle).path;
+        final File precreated = PrecreatedFiles.preCreatedFile(required);
+        if (required.exists() || precreated.exists())
+            return false;
+        final File building = new File(precreated.getParentFile(), precreated.getName() + "." + Jvm.getProcessId() + ".tmp");
+        if (!building.getParentFile().isDirectory() && !building.getParentFile().mkdirs())
+            throw new IOException("Unable to create directory " + building.getParentFile());
+
+        final MappedFile mappedFile = mappedFile(building);
+        final MappedBytes bytes = MappedBytes.mappedBytes(mappedFile);
+        mappedFile.release(INIT);
+        SingleChronicleQueueStore store = null;
+        try {
+            bytes.singleThreadedCheckDisabled(true);
+            final Wire wire = wireType.apply(bytes);
+            wire.headerNumber(rollCycle.toIndex(cycle, 0));
+            if (!wire.writeFirstHeader())
+                throw new IOException("Unexpected content in " + building);
+            store = storeFactory.apply(this, wire);
+            initialiseStore(wire, store);
+
+            // allocate the pages the first excerpts will be written to
+            final int pageSize = OS.pageSize();
+            final long end = Math.min(presizeBytes, OS.pageAlign(blockSize));
+            for (long position = OS.pageAlign(SPB_HEADER_SIZE); position < end; position += pageSize)
+                bytes.compareAndSwapLong(position, 0, 0);
+        } finally {
+            if (store != null)
+                store.close();
+            else
+                bytes.releaseLast();
+        }
+
+        if (!building.renameTo(precreated)) {
+            Jvm.debug().on(getClass(), "Unable to rename " + building + " to " + precreated);
+            if (!building.delete())
+                building.deleteOnExit();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Writes the index of a new store and publishes its header. All data structures are prepared before the header
+     * is published.
+     *
+     * @param wire      the wire of the new file, positioned after its first header
+     * @param wireStore the new store
+     */
+    private void initialiseStore(Wire wire, SingleChronicleQueueStore wireStore) {
+        wire.usePadding(wireStore.dataVersion() > 0);
+        wire.padToCacheAlign();
+        long headerEndPos = wire.bytes().writePosition();
+        wireStore.initIndex(wire);
+        wire.updateFirstHeader(headerEndPos);
+        wire.bytes().writePosition(SPB_HEADER_SIZE);
+    }
+
+    /**
+     * Returns the cycle it will be {@code millis} milliseconds from now.
+     *
+     * @param millis how far ahead to look
+     * @return the cycle at that time
+     */
+    int cycleAfter(long millis) {
+        return cycleCalculator.currentCycle(rollCycle, time, epoch - millis);
+    }
+
     /**
      * Returns whether the queue is in read-only mode.
      *
@@ -1339,26 +1781,6 @@ public class SingleChronicleQueue extends AbstractCloseable implements RollingCh
                 : bytes.append(key);
     }
 
-    /**
-     * A cached structure that stores cycle-related information, including the directory modification count
-     * and a map of cycle numbers to files.
-     */
-    private static final class CachedCycleTree {
-        private final long directoryModCount;
-        private final NavigableMap<Long, File> cachedCycleTree;
-
-        /**
-         * Constructs a CachedCycleTree with the specified directory modification count and cached cycle tree.
-         *
-         * @param directoryModCount the modification count of the directory
-         * @param cachedCycleTree   the cached map of cycles to files
-         */
-        CachedCycleTree(final long directoryModCount, final NavigableMap<Long, File> cachedCycleTree) {
-            this.directoryModCount = directoryModCount;
-            this.cachedCycleTree = cachedCycleTree;
-        }
-    }
-
     /**
      * StoreSupplier is responsible for supplying {@link SingleChronicleQueueStore} instances
      * for specific cycles. It manages the mapping of files to memory and caches these mappings.
@@ -1366,11 +1788,16 @@ public class SingleChronicleQueue extends AbstractCloseable implements RollingCh
      */
     class StoreSupplier extends AbstractCloseable implements WireStoreSupplier {
 
-        // A cached tree structure to store cycle-related data.
-        private final AtomicReference<CachedCycleTree> cachedTree = new AtomicReference<>();
+        // The cycle files of the queue, updated incrementally as the directory listing changes.
+        private final AtomicReference<CycleTree> cachedTree = new AtomicReference<>();
+        // Serialises updates to cachedTree, as successive trees share their arrays.
+        private final Object cycleTreeLock = new Object();
+        // Set when the directory listing has been explicitly refreshed, so the next tree is a full relist.
+        private volatile boolean relistRequested;
 
         // A cache for managing MappedFile and MappedBytes, used to map files into memory.
         private final ReferenceCountedCache<File, MappedFile, MappedBytes, IOException> mappedFileCache;
+        private final MappedFileCacheMetrics mappedFileCacheMetrics;
 
         // Indicates whether the queue path exists on disk.
         private boolean queuePathExists;
@@ -1378,11 +1805,18 @@ public class SingleChronicleQueue extends AbstractCloseable implements RollingCh
         /**
          * Constructor for StoreSupplier. It initializes the mapped file cache
          * and disables single-threaded checks.
+         *
+         * @param maxMappedFiles the number of mapped files above which unused ones are unmapped
+         * @param maxMappedBytes the total size of mapped files above which unused ones are unmapped
          */
-        private StoreSupplier() {
+        private StoreSupplier(int maxMappedFiles, long maxMappedBytes) {
             mappedFileCache = new ReferenceCountedCache<>(
                     MappedBytes::mappedBytes,
-                    SingleChronicleQueue.this::mappedFile);
+                    SingleChronicleQueue.this::mappedFile,
+                    maxMappedFiles,
+                    maxMappedBytes,
+                    mappedFile -> mappedFile.file().length());
+            mappedFileCacheMetrics = new MappedFileCacheMetrics(mappedFileCache);
             singleThreadedCheckDisabled(true);
         }
 
@@ -1416,8 +1850,8 @@ public class SingleChronicleQueue extends AbstractCloseable implements RollingCh
                 }
 
                 throwExceptionIfClosed();
-                if (createStrategy == CreateStrategy.CREATE && !path.exists() && !dateValue.pathExists)
-                    PrecreatedFiles.renamePreCreatedFileToRequiredFile(path);
+                final boolean precreated = createStrategy == CreateStrategy.CREATE && !path.exists() && !dateValue.pathExists
+                        && PrecreatedFiles.tryRenamePreCreatedFileToRequiredFile(path);
 
                 dateValue.pathExists = true;
 
@@ -1478,6 +1912,9 @@ public class SingleChronicleQueue extends AbstractCloseable implements RollingCh
                             mappedBytes.close();
                             throw t;
                         }
+                        // a pre-created file was created here, as far as everyone else is concerned
+                        if (precreated)
+                            onCycleFileCreated(cycle);
                     }
                 } catch (InternalError e) {
                     long pos = Objects.requireNonNull(((Bytes<?>) mappedBytes).bytesStore()).addressForRead(0);
@@ -1551,13 +1988,18 @@ public class SingleChronicleQueue extends AbstractCloseable implements RollingCh
          */
         @SuppressWarnings("deprecation")
         private void createIndexThenUpdateHeader(Wire wire, int cycle, SingleChronicleQueueStore wireStore) {
-            // Should very carefully prepare all data structures before publishing initial header
-            wire.usePadding(wireStore.dataVersion() > 0);
-            wire.padToCacheAlign();
-            long headerEndPos = wire.bytes().writePosition();
-            wireStore.initIndex(wire);
-            wire.updateFirstHeader(headerEndPos);
-            wire.bytes().writePosition(SPB_HEADER_SIZE);
+            initialiseStore(wire, wireStore);
+            onCycleFileCreated(cycle);
+        }
+
+        /**
+         * Notifies interested parties that the file for a cycle has just been created.
+         *
+         * @param cycle the cycle whose file was created
+         */
+        private void onCycleFileCreated(int cycle) {
+            // a count recorded for a previous file of this cycle no longer applies
+            excerptCounts.forget(cycle);
 
             // allow directoryListing to pick up the file immediately
             directoryListing.onFileCreated(path, cycle);
@@ -1591,14 +2033,17 @@ public class SingleChronicleQueue extends AbstractCloseable implements RollingCh
         }
 
         /**
-         * Returns a map of cycle files in the current directory. If necessary, it refreshes
-         * the directory listing and updates the cache.
+         * Returns the cycle files in the queue directory. When the directory listing has changed, the previous tree
+         * is brought up to date from the listing's lowest and highest cycles, only looking for files in the cycles
+         * added at either end. The directory is only listed again when forced, when explicitly refreshed, every
+         * {@code forceDirectoryListingRefreshIntervalMs}, or when the listing changed in a way that can't be
+         * applied incrementally.
          *
-         * @param force whether to forcefully refresh the directory listing
-         * @return a NavigableMap of cycle numbers and their corresponding files
+         * @param force whether to forcefully list the directory again
+         * @return the cycle files, by key
          */
         @NotNull
-        private NavigableMap<Long, File> cycleTree(final boolean force) {
+        private CycleTree cycleTree(final boolean force) {
 
             final File parentFile = path;
 
@@ -1606,35 +2051,87 @@ public class SingleChronicleQueue extends AbstractCloseable implements RollingCh
             if (!queuePathExists && !parentFile.exists())
                 throw new IllegalStateException("parentFile=" + parentFile.getName() + " does not exist");
 
-            CachedCycleTree cachedValue = cachedTree.get();
-            final long directoryModCount = directoryListing.modCount();
-            if (force || (cachedValue == null || directoryModCount == -1 || directoryModCount > cachedValue.directoryModCount)) {
-
-                final RollingResourcesCache dateCache = SingleChronicleQueue.this.dateCache;
-                final NavigableMap<Long, File> tree = new TreeMap<>();
-
-                final File[] files = parentFile.listFiles((File file) -> file.getPath().endsWith(SUFFIX));
-                if (files != null)
-                    for (File file : files)
-                        tree.put(dateCache.toLong(file), file);
-
-                cachedValue = new CachedCycleTree(directoryModCount, tree);
-
-                while (true) {
-                    final CachedCycleTree existing = cachedTree.get();
+            CycleTree cachedValue = cachedTree.get();
+            long directoryModCount = directoryListing.modCount();
+            if (!force && !relistRequested && cachedValue != null && directoryModCount != -1 && directoryModCount <= cachedValue.directoryModCount)
+                return cachedValue;
+
+            synchronized (cycleTreeLock) {
+                cachedValue = cachedTree.get();
+                directoryModCount = directoryListing.modCount();
+                if (!force && !relistRequested && cachedValue != null && directoryModCount != -1 && directoryModCount <= cachedValue.directoryModCount)
+                    return cachedValue;
+
+                final int minCycle = directoryListing.getMinCreatedCycle();
+                final int maxCycle = directoryListing.getMaxCreatedCycle();
+                final long now = time.currentTimeMillis();
+                CycleTree updated = null;
+                if (!force && !relistRequested && cachedValue != null && directoryModCount != -1
+                        && now - cachedValue.listedAtMillis < forceDirectoryListingRefreshIntervalMs)
+                    updated = updateCycleTree(cachedValue, directoryModCount, minCycle, maxCycle);
+                if (updated == null) {
+                    relistRequested = false;
+                    updated = listCycleTree(parentFile, directoryModCount, minCycle, maxCycle, now);
+                }
+                cachedTree.set(updated);
+                return updated;
+            }
+        }
 
-                    if (existing != null && existing.directoryModCount > cachedValue.directoryModCount) {
-                        break;
-                    }
+        /**
+         * Lists the queue directory, parsing the name of every cycle file.
+         */
+        @NotNull
+        private CycleTree listCycleTree(File parentFile, long directoryModCount, int minCycle, int maxCycle, long now) {
+            final RollingResourcesCache dateCache = SingleChronicleQueue.this.dateCache;
+            final NavigableMap<Long, File> tree = new TreeMap<>();
+
+            final File[] files = parentFile.listFiles((File file) -> file.getPath().endsWith(SUFFIX));
+            if (files != null)
+                for (File file : files)
+                    tree.put(dateCache.toLong(file), file);
+            return CycleTree.of(tree, directoryModCount, minCycle, maxCycle, now);
+        }
 
-                    if (cachedTree.compareAndSet(existing, cachedValue)) {
-                        break;
-                    }
-                    Jvm.nanoPause();
+        /**
+         * Applies a change in the directory listing's lowest and highest cycles to a tree.
+         *
+         * @return the updated tree, or {@code null} if the directory needs to be listed instead
+         */
+        @Nullable
+        private CycleTree updateCycleTree(CycleTree tree, long directoryModCount, int minCycle, int maxCycle) {
+            final boolean wasEmpty = tree.minCycle > tree.maxCycle;
+            if (minCycle > maxCycle)
+                return wasEmpty ? tree.withListingState(directoryModCount, minCycle, maxCycle) : null;
+            // files appearing before the first cycle, or the last cycle disappearing, are unusual
+            if (wasEmpty || minCycle < tree.minCycle || maxCycle < tree.maxCycle
+                    || maxCycle - tree.maxCycle > MAX_CYCLES_ADDED_INCREMENTALLY)
+                return null;
+
+            final RollingResourcesCache dateCache = SingleChronicleQueue.this.dateCache;
+            CycleTree updated = tree;
+            if (minCycle > tree.minCycle)
+                updated = updated.withoutKeysBelow(dateCache.toLong(dateCache.resourceFor(minCycle).path));
+            for (int cycle = Math.max(tree.maxCycle + 1, minCycle); cycle <= maxCycle; cycle++) {
+                final File file = dateCache.resourceFor(cycle).path;
+                if (!file.exists()) {
+                    // the listing says the last cycle exists, so it may not be visible yet
+                    if (cycle == maxCycle)
+                        return null;
+                    continue;
                 }
+                final long key = dateCache.toLong(file);
+                if (key > updated.lastKey())
+                    updated = updated.append(key, file);
             }
+            return updated.withListingState(directoryModCount, minCycle, maxCycle);
+        }
 
-            return cachedValue.cachedCycleTree;
+        /**
+         * Makes the next call to {@link #cycleTree(boolean)} list the directory again.
+         */
+        void relistCycleTree() {
+            relistRequested = true;
         }
 
         /**
@@ -1652,7 +2149,7 @@ public class SingleChronicleQueue extends AbstractCloseable implements RollingCh
             if (direction == NONE)
                 throw new AssertionError("direction is NONE");
             assert currentCycle >= 0 : "currentCycle=" + Integer.toHexString(currentCycle);
-            NavigableMap<Long, File> tree = cycleTree(false);
+            CycleTree tree = cycleTree(false);
             final File currentCycleFile = dateCache.resourceFor(currentCycle).path;
 
             // confirm the current cycle is in the min/max range, delay and refresh
@@ -1685,24 +2182,24 @@ public class SingleChronicleQueue extends AbstractCloseable implements RollingCh
 
             switch (direction) {
                 case FORWARD:
-                    return toCycle(tree.higherEntry(key));
+                    return toCycle(tree.higher(key));
                 case BACKWARD:
-                    return toCycle(tree.lowerEntry(key));
+                    return toCycle(tree.lower(key));
                 default:
                     throw new UnsupportedOperationException("Unsupported Direction");
             }
         }
 
         /**
-         * Converts a map entry to a cycle number.
+         * Converts a cycle file to a cycle number.
          *
-         * @param entry the map entry
-         * @return the cycle number, or -1 if the entry is null
+         * @param file the cycle file
+         * @return the cycle number, or -1 if the file is null
          */
-        private int toCycle(@Nullable Map.Entry<Long, File> entry) {
-            if (entry == null || entry.getValue() == null)
+        private int toCycle(@Nullable File file) {
+            if (file == null)
                 return -1;
-            return dateCache.parseCount(fileToText().apply(entry.getValue()));
+            return dateCache.parseCount(fileToText().apply(file));
         }
 
         /**
@@ -1716,12 +2213,12 @@ public class SingleChronicleQueue extends AbstractCloseable implements RollingCh
         public NavigableSet<Long> cycles(int lowerCycle, int upperCycle) {
             throwExceptionIfClosed();
 
-            final NavigableMap<Long, File> tree = cycleTree(false);
+            final CycleTree tree = cycleTree(false);
             final Long lowerKey = toKey(lowerCycle, "lowerCycle");
             final Long upperKey = toKey(upperCycle, "upperCycle");
             assert lowerKey != null;
             assert upperKey != null;
-            return tree.subMap(lowerKey, true, upperKey, true).navigableKeySet();
+            return tree.keysBetween(lowerKey, upperKey);
         }
 
         /**
@@ -19,6 +19,7 @@ import net.openhft.chronicle.core.util.ObjectUtils;
 import net.openhft.chronicle.core.util.Updater;
 import net.openhft.chronicle.queue.*;
 import net.openhft.chronicle.queue.impl.*;
+import net.openhft.chronicle.queue.impl.single.namedtailer.TailerCommitPolicy;
 import net.openhft.chronicle.queue.impl.table.ReadonlyTableStore;
 import net.openhft.chronicle.queue.impl.table.SingleTableBuilder;
 import net.openhft.chronicle.queue.internal.domestic.QueueOffsetSpec;
@@ -37,7 +38,10 @@ import java.nio.file.Path;
 import java.time.LocalTime;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Condition;
 import java.util.function.BiConsumer;
@@ -132,14 +136,24 @@ public class SingleChronicleQueueBuilder extends SelfDescribingMarshallable impl
     private int maxTailers;
     private AsyncBufferCreator bufferBytesStoreCreator;
     private Long pretouchIntervalMillis;
+    private Long pretouchAheadBytes;
+    private Long precreateLeadMillis;
+    private Long asyncMSyncIntervalBytes;
+    private Long asyncMSyncIntervalMillis;
     private LocalTime rollTime;
     private ZoneId rollTimeZone;
     private QueueOffsetSpec queueOffsetSpec;
     private boolean doubleBuffer;
+    private boolean timestampIndex;
     private Function<SingleChronicleQueue, Condition> createAppenderConditionCreator;
     private long forceDirectoryListingRefreshIntervalMs = 60_000;
     private AppenderListener appenderListener;
     private SyncMode syncMode;
+    private WriteLockMode writeLockMode;
+    private Map<String, KeyExtractor> keyIndexes;
+    private Integer maxMappedFiles;
+    private Long maxMappedBytes;
+    private TailerCommitPolicy tailerCommitPolicy;
 
     protected SingleChronicleQueueBuilder() {
     }
@@ -415,20 +429,43 @@ public class SingleChronicleQueueBuilder extends SelfDescribingMarshallable impl
         boolean result = false;
         if (readBufferMode != BufferMode.None)
             result = onlyAvailableInEnterprise("Buffering");
-        if (writeBufferMode != BufferMode.None)
+        if (writeBufferMode != BufferMode.None && !openSourceWriteBuffer())
             result = onlyAvailableInEnterprise("Buffering");
         if (rollTimeZone != null && !rollTimeZone.getId().equals("UTC") && !rollTimeZone.getId().equals("Z"))
             result = onlyAvailableInEnterprise("Non-UTC roll time zone");
-        if (encodingSupplier != null)
+        if (encodingSupplier != null && !openSourceCoding())
             result = onlyAvailableInEnterprise("Encoding");
         if (key != null)
             result = onlyAvailableInEnterprise("Encryption");
-        if (hasPretouchIntervalMillis())
-            result = onlyAvailableInEnterprise("Out of process pretouching");
 
         return result;
     }
 
+    /**
+     * Checks if appends are buffered by the open source {@link AsyncWriteBuffer}, i.e. only writes are buffered
+     * asynchronously and Chronicle Queue Enterprise is not available to buffer them.
+     *
+     * @return true if appends are buffered by the open source write buffer, false otherwise
+     */
+    boolean openSourceWriteBuffer() {
+        return writeBufferMode() == BufferMode.Asynchronous
+                && readBufferMode() == BufferMode.None
+                && ENTERPRISE_QUEUE_CONSTRUCTOR == null;
+    }
+
+    /**
+     * Checks if the payloads of excerpts are encoded with {@link #encodingSupplier()} and decoded with
+     * {@link #decodingSupplier()} by the open source appenders and tailers, i.e. coding suppliers are set without
+     * encryption and Chronicle Queue Enterprise is not available to apply them.
+     *
+     * @return true if the open source appenders and tailers apply the coding suppliers, false otherwise
+     */
+    boolean openSourceCoding() {
+        return encodingSupplier != null
+                && key == null
+                && ENTERPRISE_QUEUE_CONSTRUCTOR == null;
+    }
+
     /**
      * Logs a warning if a feature is only available in the enterprise version of Chronicle Queue.
      *
@@ -711,7 +748,7 @@ public class SingleChronicleQueueBuilder extends SelfDescribingMarshallable impl
      */
     @NotNull
     WriteLock writeLock() {
-        return readOnly() ? new ReadOnlyWriteLock() : new TableStoreWriteLock(metaStore, pauserSupplier(), timeoutMS() * 3 / 2);
+        return readOnly() ? new ReadOnlyWriteLock() : new TableStoreWriteLock(metaStore, pauserSupplier(), timeoutMS() * 3 / 2, TableStoreWriteLock.LOCK_KEY, writeLockMode());
     }
 
     /**
@@ -793,8 +830,9 @@ public class SingleChronicleQueueBuilder extends SelfDescribingMarshallable impl
     }
 
     /**
-     * Enables the preloader (also known as the pretoucher) for out-of-process use. This is an enterprise feature.
-     * The preloader will preload data into memory at regular intervals.
+     * Enables the preloader (also known as the pretoucher). The preloader runs on the queue's {@link #eventLoop()}
+     * and touches the pages ahead of the appenders' write position at regular intervals, so appenders don't have
+     * to wait for them to be mapped and allocated.
      *
      * @param pretouchIntervalMillis the interval in milliseconds between preload operations
      * @return the current builder instance for method chaining
@@ -823,6 +861,102 @@ public class SingleChronicleQueueBuilder extends SelfDescribingMarshallable impl
         return pretouchIntervalMillis != null;
     }
 
+    /**
+     * Sets how far ahead of the write position the pretoucher touches pages.
+     *
+     * @param pretouchAheadBytes the number of bytes ahead of the write position to touch
+     * @return the current builder instance for method chaining
+     */
+    public SingleChronicleQueueBuilder pretouchAheadBytes(final long pretouchAheadBytes) {
+        this.pretouchAheadBytes = pretouchAheadBytes;
+        return this;
+    }
+
+    /**
+     * Returns how far ahead of the write position the pretoucher touches pages.
+     * If not set, defaults to the smaller of the block size and 4 MB.
+     *
+     * @return the number of bytes ahead of the write position to touch
+     */
+    public long pretouchAheadBytes() {
+        return pretouchAheadBytes == null ? Math.min(blockSize(), 4L << 20) : pretouchAheadBytes;
+    }
+
+    /**
+     * Creates the file for the next cycle in the background, {@code leadMillis} before the queue rolls to it, so
+     * the first write in the new cycle doesn't pay for creating, sizing and indexing a new file. The pages of the
+     * new file up to {@link #pretouchAheadBytes()} are allocated as well.
+     *
+     * @param leadMillis how long before the end of a cycle to create the file for the next one
+     * @return the current builder instance for method chaining
+     */
+    public SingleChronicleQueueBuilder precreateNextCycle(final long leadMillis) {
+        this.precreateLeadMillis = leadMillis;
+        return this;
+    }
+
+    /**
+     * Returns how long before the end of a cycle the file for the next one is created.
+     * By default, next cycle files are not created in advance.
+     *
+     * @return the lead time in milliseconds
+     */
+    public long precreateLeadMillis() {
+        return precreateLeadMillis;
+    }
+
+    /**
+     * Checks if the file for the next cycle is to be created in advance.
+     *
+     * @return true if {@link #precreateNextCycle(long)} has been set, false otherwise
+     */
+    public boolean hasPrecreateLeadMillis() {
+        return precreateLeadMillis != null;
+    }
+
+    /**
+     * Msyncs written excerpts to disk on a background thread, once {@code intervalBytes} have been written or
+     * {@code intervalMillis} have passed since the last msync, whichever comes first. The last index msync-ed is
+     * available from {@link SingleChronicleQueue#lastIndexMSynced()}, and
+     * {@link SingleChronicleQueue#awaitMSynced(long, long)} waits for an index to be msync-ed.
+     *
+     * @param intervalBytes  the most bytes to leave unsynced
+     * @param intervalMillis the longest time to leave bytes unsynced
+     * @return the current builder instance for method chaining
+     */
+    public SingleChronicleQueueBuilder asyncMSync(final long intervalBytes, final long intervalMillis) {
+        this.asyncMSyncIntervalBytes = intervalBytes;
+        this.asyncMSyncIntervalMillis = intervalMillis;
+        return this;
+    }
+
+    /**
+     * Returns how many bytes can be written before they are msync-ed in the background.
+     *
+     * @return the interval in bytes
+     */
+    public long asyncMSyncIntervalBytes() {
+        return asyncMSyncIntervalBytes;
+    }
+
+    /**
+     * Returns how long written bytes can wait before they are msync-ed in the background.
+     *
+     * @return the interval in milliseconds
+     */
+    public long asyncMSyncIntervalMillis() {
+        return asyncMSyncIntervalMillis;
+    }
+
+    /**
+     * Checks if written excerpts are to be msync-ed in the background.
+     *
+     * @return true if {@link #asyncMSync(long, long)} has been set, false otherwise
+     */
+    public boolean hasAsyncMSync() {
+        return asyncMSyncIntervalBytes != null;
+    }
+
     /**
      * Sets the path for the queue using a string representation of the path.
      *
@@ -1011,7 +1145,7 @@ public class SingleChronicleQueueBuilder extends SelfDescribingMarshallable impl
     }
 
     /**
-     * @return BufferMode to use for writes. Only None is available is the OSS
+     * @return BufferMode to use for writes. Only None and Asynchronous are available in the OSS
      */
     @NotNull
     public BufferMode writeBufferMode() {
@@ -1022,6 +1156,12 @@ public class SingleChronicleQueueBuilder extends SelfDescribingMarshallable impl
     /**
      * When writeBufferMode is set to {@code Asynchronous}, uses a ring buffer to buffer appends, excerpts are written to the
      * Chronicle Queue using a background thread.
+     * <p>
+     * Without Chronicle Queue Enterprise, and with {@link #readBufferMode()} {@code None}, appenders copy each excerpt
+     * into an off-heap ring of {@link #bufferCapacity()} bytes shared by all appenders of the queue, which is written to
+     * the queue in batches by a handler on the {@link #eventLoop()} with {@link #drainerPriority()}. An appender waits up
+     * to {@link #drainerTimeoutMS()} for space in the ring. {@link ExcerptAppender#lastIndexAppended()} is not
+     * available, and {@link ChronicleQueue#awaitAsync()} waits for the excerpts appended to be written.
      * See also {@link #bufferCapacity()}
      * See also software.chronicle.enterprise.ring.EnterpriseRingBuffer
      *
@@ -1431,6 +1571,29 @@ public class SingleChronicleQueueBuilder extends SelfDescribingMarshallable impl
         return this;
     }
 
+    /**
+     * Checks if the time excerpts are written is recorded, for {@link net.openhft.chronicle.queue.ExcerptTailer#moveToTimestamp(long)}.
+     *
+     * @return true if the time excerpts are written is recorded, false otherwise
+     */
+    public boolean timestampIndex() {
+        return timestampIndex;
+    }
+
+    /**
+     * Records the time every excerpt added to the secondary index of its cycle is written, i.e. every index spacing
+     * excerpts, in a file next to the cycle's queue file. This lets
+     * {@link net.openhft.chronicle.queue.ExcerptTailer#moveToTimestamp(long)} find where to start reading from a time
+     * without reading the excerpts. Disabled by default.
+     *
+     * @param timestampIndex true to record the time excerpts are written
+     * @return the current builder instance for method chaining
+     */
+    public SingleChronicleQueueBuilder timestampIndex(boolean timestampIndex) {
+        this.timestampIndex = timestampIndex;
+        return this;
+    }
+
     /**
      * Returns the encoding supplier used by the queue, if set. The encoding supplier is responsible
      * for encoding data written to the queue.
@@ -1454,6 +1617,10 @@ public class SingleChronicleQueueBuilder extends SelfDescribingMarshallable impl
     /**
      * Sets both the encoding and decoding suppliers for the queue. Both suppliers must be set together;
      * if one is set to null, the other must also be null.
+     * <p>
+     * Each appender encodes the payload of every excerpt it writes, other than metadata, from the read position to
+     * the read limit of the first argument to the second, and each tailer decodes the payload of every excerpt it
+     * reads likewise. See {@link #compression(PayloadCodec, int)} for codecs which compress payloads.
      *
      * @param encodingSupplier the encoding supplier for writing data
      * @param decodingSupplier the decoding supplier for reading data
@@ -1470,6 +1637,21 @@ public class SingleChronicleQueueBuilder extends SelfDescribingMarshallable impl
         return this;
     }
 
+    /**
+     * Compresses the payload of each excerpt written with a codec, if at least {@code minSize} bytes long and the
+     * compressed payload is smaller. Excerpts written before compression was enabled, or which were not compressed,
+     * are read as they are, but compressed excerpts are only readable by a queue with a codec set.
+     * <p>
+     * Sets the {@link #codingSuppliers(Supplier, Supplier)}.
+     *
+     * @param codec   the codec to compress payloads with
+     * @param minSize the smallest payload to compress, see {@link PayloadCodec#DEFAULT_MIN_SIZE}
+     * @return the current builder instance for method chaining
+     */
+    public SingleChronicleQueueBuilder compression(@NotNull PayloadCodec codec, int minSize) {
+        return codingSuppliers(codec.encodingSupplier(minSize), PayloadCodec.decodingSupplier());
+    }
+
     /**
      * Returns the {@link SecretKeySpec} used for AES encryption, if set.
      *
@@ -1610,6 +1792,32 @@ public class SingleChronicleQueueBuilder extends SelfDescribingMarshallable impl
         return this;
     }
 
+    /**
+     * Adds a {@link KeyIndex} which indexes each excerpt appended by the queue by the key {@code extractor} reads from
+     * it. The index is available from {@link SingleChronicleQueue#keyIndex(String)}.
+     *
+     * @param name      the name of the index, used in the names of its files
+     * @param extractor reads the key of each excerpt
+     * @return the current builder instance for method chaining
+     */
+    public SingleChronicleQueueBuilder keyIndex(String name, KeyExtractor extractor) {
+        KeyIndex.checkName(name);
+        if (keyIndexes == null)
+            keyIndexes = new LinkedHashMap<>();
+        keyIndexes.put(name, extractor);
+        return this;
+    }
+
+    /**
+     * Returns the key extractor of each {@link KeyIndex} added with {@link #keyIndex(String, KeyExtractor)}, by name.
+     *
+     * @return the key indexes of the queue
+     */
+    @NotNull
+    public Map<String, KeyExtractor> keyIndexes() {
+        return keyIndexes == null ? Collections.emptyMap() : Collections.unmodifiableMap(keyIndexes);
+    }
+
     /**
      * Returns the {@link AppenderListener} currently set for the queue.
      *
@@ -1640,6 +1848,108 @@ public class SingleChronicleQueueBuilder extends SelfDescribingMarshallable impl
         return syncMode == null ? MappedFile.DEFAULT_SYNC_MODE : syncMode;
     }
 
+    /**
+     * Sets how writers wait while another thread or process holds the write lock.
+     *
+     * @param writeLockMode the write lock mode to set
+     * @return the current builder instance for method chaining
+     */
+    public SingleChronicleQueueBuilder writeLockMode(WriteLockMode writeLockMode) {
+        this.writeLockMode = writeLockMode;
+        return this;
+    }
+
+    /**
+     * Returns how writers wait while another thread or process holds the write lock.
+     * If not explicitly set, it defaults to {@link WriteLockMode#PAUSER}.
+     *
+     * @return the write lock mode for the queue
+     */
+    public WriteLockMode writeLockMode() {
+        return writeLockMode == null ? WriteLockMode.PAUSER : writeLockMode;
+    }
+
+    /**
+     * Keeps cycle files mapped once no tailer or appender is using them, so moving back to them does not map them
+     * again, until more than this many cycle files are mapped. The files least recently used are then unmapped first.
+     * Files in use are never unmapped, so more may be mapped while in use.
+     * <p>
+     * By default each cycle file is unmapped as soon as it is no longer used, unless {@link #maxMappedBytes(long)} is
+     * set.
+     *
+     * @param maxMappedFiles the number of mapped cycle files above which unused ones are unmapped
+     * @return the current builder instance for method chaining
+     */
+    public SingleChronicleQueueBuilder maxMappedFiles(int maxMappedFiles) {
+        if (maxMappedFiles < 0)
+            throw new IllegalArgumentException("maxMappedFiles must not be negative: " + maxMappedFiles);
+        this.maxMappedFiles = maxMappedFiles;
+        return this;
+    }
+
+    /**
+     * Returns the number of mapped cycle files above which unused ones are unmapped. If not explicitly set, it
+     * defaults to no limit if {@link #maxMappedBytes(long)} is set, and to zero otherwise, i.e. unused cycle files are
+     * unmapped straight away.
+     *
+     * @return the number of mapped cycle files above which unused ones are unmapped
+     */
+    public int maxMappedFiles() {
+        if (maxMappedFiles != null)
+            return maxMappedFiles;
+        return maxMappedBytes == null ? 0 : Integer.MAX_VALUE;
+    }
+
+    /**
+     * Keeps cycle files mapped once no tailer or appender is using them until the total size of the mapped cycle
+     * files is more than this. The files least recently used are then unmapped first. Files in use are never
+     * unmapped, so more may be mapped while in use.
+     *
+     * @param maxMappedBytes the total size of mapped cycle files above which unused ones are unmapped
+     * @return the current builder instance for method chaining
+     */
+    public SingleChronicleQueueBuilder maxMappedBytes(long maxMappedBytes) {
+        if (maxMappedBytes < 0)
+            throw new IllegalArgumentException("maxMappedBytes must not be negative: " + maxMappedBytes);
+        this.maxMappedBytes = maxMappedBytes;
+        return this;
+    }
+
+    /**
+     * Returns the total size of mapped cycle files above which unused ones are unmapped. If not explicitly set, there
+     * is no limit on the size, only on the number of files, see {@link #maxMappedFiles()}.
+     *
+     * @return the total size of mapped cycle files above which unused ones are unmapped
+     */
+    public long maxMappedBytes() {
+        return maxMappedBytes == null ? Long.MAX_VALUE : maxMappedBytes;
+    }
+
+    /**
+     * Sets when named tailers write their index to the queue's table store. By default the index is written for every
+     * excerpt read; writing it less often saves a write, and for replicated named tailers a lock shared between
+     * processes, per excerpt. A named tailer not closed carries on from the index last written, so reads the excerpts
+     * read since then again.
+     *
+     * @param tailerCommitPolicy when named tailers write their index
+     * @return the current builder instance for method chaining
+     * @see net.openhft.chronicle.queue.ExcerptTailer#commit()
+     */
+    public SingleChronicleQueueBuilder tailerCommitPolicy(@NotNull TailerCommitPolicy tailerCommitPolicy) {
+        this.tailerCommitPolicy = tailerCommitPolicy;
+        return this;
+    }
+
+    /**
+     * Returns when named tailers write their index, by default {@link TailerCommitPolicy#EVERY_EXCERPT}.
+     *
+     * @return when named tailers write their index
+     */
+    @NotNull
+    public TailerCommitPolicy tailerCommitPolicy() {
+        return tailerCommitPolicy == null ? TailerCommitPolicy.EVERY_EXCERPT : tailerCommitPolicy;
+    }
+
     /**
      * A default supplier for the {@link TimingPauser}, used when no explicit supplier is provided.
      * This implementation returns a {@link YieldingPauser} with a 500,000 nanosecond yield duration.
@@ -51,6 +51,9 @@ public class SingleChronicleQueueStore extends AbstractCloseable implements Wire
     private final transient Sequence sequence;
 
     private int cycle;
+    // looked up once, as archiving replaces the file rather than the file this store maps
+    @Nullable
+    private transient Boolean archived;
 
     /**
      * Constructor used by {@link net.openhft.chronicle.wire.Demarshallable} to create an instance of SingleChronicleQueueStore
@@ -569,6 +572,18 @@ public class SingleChronicleQueueStore extends AbstractCloseable implements Wire
         return cycle;
     }
 
+    /**
+     * Returns whether the file of this store has been archived by {@link CycleArchive}, so its payloads are compressed.
+     *
+     * @return true if the file has been archived
+     */
+    boolean archived() {
+        Boolean archived = this.archived;
+        if (archived == null)
+            this.archived = archived = CycleArchive.isArchived(file());
+        return archived;
+    }
+
     /**
      * Returns the current file being used by this store.
      *
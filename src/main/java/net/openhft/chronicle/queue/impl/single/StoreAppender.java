@@ -8,6 +8,7 @@ import net.openhft.chronicle.core.Jvm;
 import net.openhft.chronicle.core.StackTrace;
 import net.openhft.chronicle.core.annotation.UsedViaReflection;
 import net.openhft.chronicle.core.io.AbstractCloseable;
+import net.openhft.chronicle.core.io.Closeable;
 import net.openhft.chronicle.core.io.ClosedIllegalStateException;
 import net.openhft.chronicle.core.io.IORuntimeException;
 import net.openhft.chronicle.core.threads.InterruptedRuntimeException;
@@ -15,6 +16,7 @@ import net.openhft.chronicle.core.values.LongValue;
 import net.openhft.chronicle.queue.ChronicleQueue;
 import net.openhft.chronicle.queue.ExcerptAppender;
 import net.openhft.chronicle.queue.QueueSystemProperties;
+import net.openhft.chronicle.queue.RollCycle;
 import net.openhft.chronicle.queue.impl.ExcerptContext;
 import net.openhft.chronicle.queue.impl.WireStorePool;
 import net.openhft.chronicle.queue.impl.WireStoreSupplier;
@@ -30,7 +32,9 @@ import java.io.File;
 import java.io.IOException;
 import java.io.StreamCorruptedException;
 import java.nio.BufferOverflowException;
+import java.util.Arrays;
 import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
 
 import static net.openhft.chronicle.queue.impl.single.SingleChronicleQueue.WARN_SLOW_APPENDER_MS;
 import static net.openhft.chronicle.wire.Wires.*;
@@ -75,6 +79,13 @@ class StoreAppender extends AbstractCloseable
     private MicroToucher microtoucher = null;
     private Wire bufferWire = null;
     private int count = 0;
+    // encodes the payload of each excerpt if the queue has coding suppliers
+    @Nullable
+    private final BiConsumer<BytesStore<?, ?>, Bytes<?>> encoder;
+    // the payload of the last excerpt written before it was encoded
+    private Wire plainWire = null;
+    // the index and position of each excerpt of a batch to be indexed, reused between batches
+    private long[] batchIndexed = {};
 
     /**
      * Constructor for StoreAppender. Initializes the appender by finding the first open cycle
@@ -93,6 +104,7 @@ class StoreAppender extends AbstractCloseable
         this.writeLock = queue.writeLock();
         this.appendLock = queue.appendLock();
         this.context = new StoreAppenderContext();
+        this.encoder = queue.encodingSupplier == null ? null : queue.encodingSupplier.get();
         this.finalizer = Jvm.isResourceTracing() ? new Finalizer() : null;
 
         try {
@@ -240,6 +252,7 @@ class StoreAppender extends AbstractCloseable
         releaseBytesFor(wireForIndex);
         releaseBytesFor(wire);
         releaseBytesFor(bufferWire);
+        releaseBytesFor(plainWire);
 
         if (pretoucher != null)
             pretoucher.close();
@@ -250,11 +263,14 @@ class StoreAppender extends AbstractCloseable
         }
 
         storePool.close();
+        // the encoders of the built in codecs hold native memory
+        Closeable.closeQuietly(encoder);
 
         pretoucher = null;
         wireForIndex = null;
         wire = null;
         bufferWire = null;
+        plainWire = null;
     }
 
     /**
@@ -633,8 +649,7 @@ class StoreAppender extends AbstractCloseable
         for (; eofCycle < Math.min(queue.cycle(), cycle); ++eofCycle) {
             setCycle2(eofCycle, WireStoreSupplier.CreateStrategy.REINITIALIZE_EXISTING);
             if (wire != null) {
-                assert queue.writeLock().locked();
-                store.writeEOF(wire, timeoutMS());
+                writeEOF();
                 normalisedEOFsTo.setMaxValue(eofCycle);
             }
         }
@@ -752,23 +767,63 @@ class StoreAppender extends AbstractCloseable
         checkAppendLock();
         writeLock.lock();
         try {
-            int cycle = queue.cycle();
-            if (wire == null)
-                setWireIfNull(cycle);
-
-            if (this.cycle != cycle)
-                rollCycleTo(cycle);
-
+            toCurrentCycle();
             this.positionOfHeader = writeHeader(wire, (int) queue.overlapSize()); // writeHeader sets wire.byte().writePosition
-
-            assert isInsideHeader(wire);
-            beforeAppend(wire, wire.headerNumber() + 1);
-            Bytes<?> wireBytes = wire.bytes();
-            wireBytes.write(bytes);
-            wire.updateHeader(positionOfHeader, false, 0);
-            lastIndex(wire.headerNumber());
-            lastPosition = positionOfHeader;
+            writeExcerpt(bytes);
             store.writePosition(positionOfHeader);
+            // only writes to the index when the sequence falls on the index spacing
+            writeIndexForPosition(lastIndex, positionOfHeader);
+        } catch (StreamCorruptedException e) {
+            throw new AssertionError(e);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Writes each of the provided {@link BytesStore}s to the queue as a separate excerpt. The write lock is taken
+     * and the cycle checked once for the whole batch, so all the excerpts are written contiguously to the current
+     * cycle. The appender listener is called for each excerpt, while the store's write position and index are only
+     * updated once per batch, or per half a block for larger batches.
+     *
+     * @param batch  the excerpts to write
+     * @param offset the position in {@code batch} of the first excerpt to write
+     * @param length the number of excerpts to write
+     */
+    @Override
+    public void writeBytes(@NotNull final BytesStore<?, ?>[] batch, final int offset, final int length) {
+        if (offset < 0 || length < 0 || offset + length > batch.length)
+            throw new IndexOutOfBoundsException("offset: " + offset + ", length: " + length + ", batch.length: " + batch.length);
+        throwExceptionIfClosed();
+        checkAppendLock();
+        if (length == 0)
+            return;
+        writeLock.lock();
+        try {
+            toCurrentCycle();
+            final int safeLength = (int) queue.overlapSize();
+            final long publishEvery = queue.blockSize() / 2;
+            final long indexSpacingMask = store.indexing.indexSpacing() - 1;
+            final RollCycle rollCycle = queue.rollCycle();
+            long publishedPosition = store.writePosition();
+            int indexed = 0;
+            this.positionOfHeader = writeHeader(wire, safeLength);
+            for (int i = offset; ; ) {
+                writeExcerpt(batch[i]);
+                if (++i == offset + length)
+                    break;
+                if ((rollCycle.toSequenceNumber(lastIndex) & indexSpacingMask) == 0)
+                    indexed = batchIndexed(indexed, lastIndex, positionOfHeader);
+                if (positionOfHeader - publishedPosition >= publishEvery) {
+                    publishBatch(indexed);
+                    indexed = 0;
+                    publishedPosition = positionOfHeader;
+                }
+                final Bytes<?> bytes = wire.bytes();
+                bytes.writePosition(positionOfHeader + SPB_HEADER_SIZE + lengthOf(bytes.readVolatileInt(positionOfHeader)));
+                this.positionOfHeader = wire.enterHeader(safeLength);
+            }
+            publishBatch(indexed);
             writeIndexForPosition(lastIndex, positionOfHeader);
         } catch (StreamCorruptedException e) {
             throw new AssertionError(e);
@@ -777,6 +832,125 @@ class StoreAppender extends AbstractCloseable
         }
     }
 
+    /**
+     * Keeps the index and position of an excerpt of a batch which falls on the index spacing, to be indexed by
+     * {@link #publishBatch(int)}.
+     *
+     * @param indexed  the number of excerpts kept so far
+     * @param index    the index of the excerpt
+     * @param position the position of its header
+     * @return the number of excerpts kept
+     */
+    private int batchIndexed(final int indexed, final long index, final long position) {
+        if (2 * indexed + 2 > batchIndexed.length)
+            batchIndexed = Arrays.copyOf(batchIndexed, Math.max(16, batchIndexed.length * 2));
+        batchIndexed[2 * indexed] = index;
+        batchIndexed[2 * indexed + 1] = position;
+        return indexed + 1;
+    }
+
+    /**
+     * Moves the store's write position to the last excerpt written, and indexes the excerpts of the batch kept by
+     * {@link #batchIndexed(int, long, long)} since the last time.
+     *
+     * @param indexed the number of excerpts kept
+     * @throws StreamCorruptedException if the index is corrupted
+     */
+    private void publishBatch(final int indexed) throws StreamCorruptedException {
+        store.writePosition(positionOfHeader);
+        for (int i = 0; i < indexed; i++)
+            writeIndexForPosition(batchIndexed[2 * i], batchIndexed[2 * i + 1]);
+    }
+
+    /**
+     * Sets up the wire for, or rolls to, the queue's current cycle. Called while holding the write lock.
+     */
+    private void toCurrentCycle() {
+        int cycle = queue.cycle();
+        if (wire == null)
+            setWireIfNull(cycle);
+
+        if (this.cycle != cycle)
+            rollCycleTo(cycle);
+    }
+
+    /**
+     * Writes an excerpt with the provided payload after the header just entered at {@link #positionOfHeader}, and
+     * calls the appender listener. The caller updates the store's write position and index. Called while holding the
+     * write lock.
+     *
+     * @param bytes the payload
+     */
+    private void writeExcerpt(@NotNull final BytesStore<?, ?> bytes) {
+        assert isInsideHeader(wire);
+        beforeAppend(wire, wire.headerNumber() + 1);
+        writePayload(wire.bytes(), bytes);
+        wire.updateHeader(positionOfHeader, false, 0);
+        lastIndex(wire.headerNumber());
+        lastPosition = positionOfHeader;
+        if (queue.appenderListener != null)
+            callAppenderListener(bytes);
+    }
+
+    /**
+     * Calls the appender listener with the excerpt just written at {@link #positionOfHeader}, preserving the read and
+     * write positions of the wire.
+     *
+     * @param payload the payload of the excerpt before it was encoded
+     */
+    private void callAppenderListener(@NotNull final BytesStore<?, ?> payload) {
+        if (encoder != null) {
+            // the listener sees the payload before it was encoded
+            if (plainWire == null)
+                plainWire = queue.wireType().apply(Bytes.allocateElasticOnHeap());
+            plainWire.bytes().clear().write(payload);
+            queue.appenderListener.onExcerpt(plainWire, lastIndex);
+            return;
+        }
+        final Bytes<?> bytes = wire.bytes();
+        final long rp = bytes.readPosition();
+        final long wp = bytes.writePosition();
+        try {
+            bytes.readPosition(positionOfHeader + SPB_HEADER_SIZE);
+            queue.appenderListener.onExcerpt(wire, lastIndex);
+        } finally {
+            bytes.readPosition(rp);
+            bytes.writePosition(wp);
+        }
+    }
+
+    /**
+     * Writes the payload of an excerpt, encoded if the queue has coding suppliers.
+     *
+     * @param wireBytes the bytes of the wire to write to
+     * @param bytes     the payload
+     */
+    private void writePayload(@NotNull final Bytes<?> wireBytes, @NotNull final BytesStore<?, ?> bytes) {
+        if (encoder == null)
+            wireBytes.write(bytes);
+        else
+            encoder.accept(bytes, wireBytes);
+    }
+
+    /**
+     * Replaces the payload written after the header at {@link #positionOfHeader} with its encoding, keeping the
+     * payload in {@link #plainWire} for the appender listener.
+     *
+     * @param wireBytes the bytes of the wire the excerpt is being written to
+     */
+    private void encodePayload(@NotNull final Bytes<?> wireBytes) {
+        assert encoder != null;
+        if (plainWire == null)
+            plainWire = queue.wireType().apply(Bytes.allocateElasticOnHeap());
+        final Bytes<?> plain = plainWire.bytes();
+        final long start = positionOfHeader + SPB_HEADER_SIZE;
+        plain.clear();
+        plain.write(wireBytes, start, wireBytes.writePosition() - start);
+        wireBytes.readPosition(start);
+        wireBytes.writePosition(start);
+        encoder.accept(plain, wireBytes);
+    }
+
     /**
      * Checks if the current wire is inside a valid header. For certain wire types, this method
      * will validate if the current position is within a header.
@@ -966,10 +1140,8 @@ class StoreAppender extends AbstractCloseable
         if (this.cycle == cycle)
             throw new AssertionError();
 
-        if (!suppressEOF) {
-            assert queue.writeLock().locked();
-            store.writeEOF(wire, timeoutMS());
-        }
+        if (!suppressEOF)
+            writeEOF();
 
         int lastExistingCycle = queue.lastCycle();
 
@@ -982,6 +1154,24 @@ class StoreAppender extends AbstractCloseable
         }
     }
 
+    /**
+     * Seals the current cycle with an EOF and records how many excerpts it holds with the queue, so counting across
+     * the cycle later doesn't have to map it again.
+     */
+    private void writeEOF() {
+        assert queue.writeLock().locked();
+        long excerpts;
+        try {
+            excerpts = store.lastSequenceNumber(this) + 1;
+        } catch (StreamCorruptedException e) {
+            Jvm.warn().on(getClass(), "Unable to count the excerpts in cycle " + cycle, e);
+            excerpts = -1;
+        }
+        store.writeEOF(wire, timeoutMS());
+        if (excerpts >= 0)
+            queue.recordExcerptsInCycle(cycle, excerpts);
+    }
+
     /**
      * Writes the index for a given position in the queue. This method updates the sequence number
      * for the given index and associates it with the provided position.
@@ -993,6 +1183,8 @@ class StoreAppender extends AbstractCloseable
     void writeIndexForPosition(final long index, final long position) throws StreamCorruptedException {
         long sequenceNumber = queue.rollCycle().toSequenceNumber(index);
         store.setPositionForSequenceNumber(this, sequenceNumber, position);
+        if (queue.recordTimestamps && (sequenceNumber & (store.indexing.indexSpacing() - 1)) == 0)
+            queue.timestampIndex.record(index);
     }
 
     /**
@@ -1320,6 +1512,8 @@ class StoreAppender extends AbstractCloseable
             if (store == null) throw new NullPointerException("Store must not be null");
 
             try {
+                if (encoder != null && !metaData)
+                    encodePayload(wire.bytes());
                 wire.updateHeader(positionOfHeader, metaData, 0);
             } catch (IllegalStateException e) {
                 if (queue.isClosed())
@@ -1366,6 +1560,11 @@ class StoreAppender extends AbstractCloseable
          * The read and write positions of the wire are preserved during this operation.
          */
         private void callAppenderListener() {
+            if (encoder != null) {
+                // the listener sees the payload before it was encoded
+                queue.appenderListener.onExcerpt(plainWire, lastIndex);
+                return;
+            }
             final Bytes<?> bytes = wire.bytes();
             long rp = bytes.readPosition();
             long wp = bytes.writePosition();
@@ -14,6 +14,7 @@ import net.openhft.chronicle.core.io.AbstractCloseable;
 import net.openhft.chronicle.core.io.Closeable;
 import net.openhft.chronicle.core.pool.StringBuilderPool;
 import net.openhft.chronicle.core.scoped.ScopedResourcePool;
+import net.openhft.chronicle.core.time.SetTimeProvider;
 import net.openhft.chronicle.queue.*;
 import net.openhft.chronicle.queue.impl.ExcerptContext;
 import net.openhft.chronicle.queue.impl.WireStorePool;
@@ -26,6 +27,7 @@ import java.io.EOFException;
 import java.io.File;
 import java.io.StreamCorruptedException;
 import java.text.ParseException;
+import java.util.function.BiConsumer;
 
 import static net.openhft.chronicle.queue.TailerDirection.*;
 import static net.openhft.chronicle.queue.TailerState.*;
@@ -65,6 +67,14 @@ class StoreTailer extends AbstractCloseable
     private long indexAtCreation = Long.MIN_VALUE;
     private boolean readingDocumentFound = false;
     private boolean striding = false;
+    // decodes the payload of each excerpt if the queue has coding suppliers
+    @Nullable
+    private final BiConsumer<BytesStore<?, ?>, Bytes<?>> decoder;
+    // decodes the payloads of the current cycle, the queue's decoder or one for an archived cycle
+    @Nullable
+    private BiConsumer<BytesStore<?, ?>, Bytes<?>> cycleDecoder;
+    @Nullable
+    private BiConsumer<BytesStore<?, ?>, Bytes<?>> archiveDecoder;
 
     /**
      * Constructs a StoreTailer to read from the provided queue with the given store pool.
@@ -89,6 +99,7 @@ class StoreTailer extends AbstractCloseable
             this.queue = queue;
             this.storePool = storePool;
             this.indexUpdater = indexUpdater;
+            this.decoder = queue.decodingSupplier == null ? null : queue.decodingSupplier.get();
             this.setCycle(Integer.MIN_VALUE);
             this.index = 0;
 
@@ -170,28 +181,32 @@ class StoreTailer extends AbstractCloseable
         Closeable.closeQuietly(indexUpdater);
         // the wire ref count will be released here by setting it to null
         context.wire(null);
+        context.releaseDecodedWire();
         final Wire w0 = wireForIndex;
         if (w0 != null)
             w0.bytes().release(INIT);
         wireForIndex = null;
         releaseStore();
+        // the decoders of the built in codecs hold native memory
+        Closeable.closeQuietly(decoder, archiveDecoder);
     }
 
     @Override
     public Wire wire() {
         throwExceptionIfClosed();
 
-        return privateWire();
+        return context.wire();
     }
 
     /**
      * Retrieves the private wire associated with the tailer.
-     * This wire is the one used by the tailer's context for reading excerpts.
+     * This wire is the one used by the tailer's context for reading excerpts from the queue file, even while the
+     * context presents a decoded excerpt.
      *
      * @return The wire used by the tailer's context, or null if none is available
      */
     public @Nullable Wire privateWire() {
-        return context.wire();
+        return context.storeWire();
     }
 
     @Override
@@ -247,6 +262,90 @@ class StoreTailer extends AbstractCloseable
         return documentContext;
     }
 
+    /**
+     * Reads the excerpts available now in one pass over each cycle's mapped bytes, advancing the index once per run
+     * of complete excerpts rather than once per excerpt. Starting, rolling to the next cycle and reading in any
+     * direction other than {@link TailerDirection#FORWARD} go through {@link #readingDocument()} as usual.
+     *
+     * @param handler     to process each excerpt
+     * @param maxExcerpts the maximum number of excerpts to read
+     * @return the number of excerpts read
+     */
+    @Override
+    public int drain(@NotNull final ExcerptHandler handler, final int maxExcerpts) {
+        throwExceptionIfClosed();
+        if (direction != FORWARD || readAfterReplicaAcknowledged || decoder != null)
+            return ExcerptTailer.super.drain(handler, maxExcerpts);
+
+        int count = 0;
+        while (count < maxExcerpts) {
+            if (state == FOUND_IN_CYCLE && cycleDecoder == null && privateWire() != null) {
+                final int drained = drainInCycle(handler, maxExcerpts - count);
+                count += drained;
+                if (drained > 0)
+                    continue;
+            }
+            // at the start of the queue, the end of a cycle or nothing more to read
+            try (DocumentContext dc = readingDocument()) {
+                if (!dc.isPresent())
+                    break;
+                count++;
+                handler.onExcerpt(dc.index(), dc.wire());
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Reads complete excerpts from the current position in the current cycle, stopping at the first incomplete
+     * header or the end of the cycle.
+     *
+     * @param handler     to process each excerpt
+     * @param maxExcerpts the maximum number of excerpts to read
+     * @return the number of excerpts read
+     */
+    private int drainInCycle(@NotNull final ExcerptHandler handler, final int maxExcerpts) {
+        final Wire wire = privateWire();
+        final Bytes<?> bytes = wire.bytes();
+        final RollCycle rollCycle = queue.rollCycle();
+        final long firstIndex = index();
+        final int indexCycle = rollCycle.toCycle(firstIndex);
+        final long firstSeq = rollCycle.toSequenceNumber(firstIndex);
+        int count = 0;
+        try {
+            while (count < maxExcerpts) {
+                bytes.readLimitToCapacity();
+                switch (wire.readDataHeader(false)) {
+                    case DATA:
+                        break;
+                    case EOF:
+                        throw EOF_EXCEPTION;
+                    default:
+                        // not yet complete
+                        return count;
+                }
+                wire.readAndSetLength(bytes.readPosition());
+                final long end = bytes.readLimit();
+                try {
+                    handler.onExcerpt(rollCycle.toIndex(indexCycle, firstSeq + count), wire);
+                } finally {
+                    count++;
+                    bytes.readLimitToCapacity();
+                    bytes.readPosition(end);
+                }
+            }
+        } catch (EOFException eof) {
+            state = TailerState.END_OF_CYCLE;
+        } finally {
+            if (count > 0) {
+                lastReadIndex = rollCycle.toIndex(indexCycle, firstSeq + count - 1);
+                readingDocumentFound = true;
+                index0(rollCycle.toIndex(indexCycle, firstSeq + count));
+            }
+        }
+        return count;
+    }
+
     /**
      * Internal method to handle the reading of a document.
      *
@@ -272,10 +371,12 @@ class StoreTailer extends AbstractCloseable
             if (tryAgain)
                 next = next0(includeMetaData);
 
-            Wire wire = context.wire();
+            Wire wire = context.storeWire();
             if (wire != null && context.present(next)) {
                 Bytes<?> bytes = wire.bytes();
                 context.setStart(bytes.readPosition() - 4);
+                if (cycleDecoder != null && !context.isMetaData())
+                    context.decode(cycleDecoder, bytes);
                 readingDocumentFound = true;
                 this.lastReadIndex = this.index();
                 return context;
@@ -760,13 +861,24 @@ class StoreTailer extends AbstractCloseable
 
     /**
      * Retrieves the current index, which includes the cycle number.
-     * If an index updater is present, it retrieves the volatile value from it.
+     * If an index updater is present, it retrieves the index from it.
      *
      * @return The current index
      */
     @Override
     public long index() {
-        return indexUpdater == null ? this.index : indexUpdater.index().getValue();
+        return indexUpdater == null ? this.index : indexUpdater.currentIndex();
+    }
+
+    /**
+     * Writes the index of a named tailer to the queue's table store, if its
+     * {@link net.openhft.chronicle.queue.impl.single.namedtailer.TailerCommitPolicy} has not yet.
+     */
+    @Override
+    public void commit() {
+        throwExceptionIfClosed();
+        if (indexUpdater != null)
+            indexUpdater.commit();
     }
 
     /**
@@ -822,6 +934,48 @@ class StoreTailer extends AbstractCloseable
         return scanResult == FOUND;
     }
 
+    /**
+     * Moves the tailer to the first excerpt written at or after a time, using the times recorded by the queue's
+     * {@link TimestampIndex}. The cycle which was current at that time is found from the roll cycle, then the last
+     * excerpt recorded as written before the time is found by a binary search of the times recorded for that cycle.
+     *
+     * @param epochNanos the time in nanoseconds since the epoch
+     * @return true if there is an excerpt in or after the cycle which was current at that time
+     */
+    @Override
+    public boolean moveToTimestamp(final long epochNanos) {
+        throwExceptionIfClosed();
+        if (direction != FORWARD)
+            throw new IllegalStateException("moveToTimestamp can only be used reading " + FORWARD + ", not " + direction);
+
+        final int cycle = queue.cycle(new SetTimeProvider(epochNanos));
+        final int firstCycle = queue.firstCycle();
+        final int lastCycle = queue.lastCycle();
+        if (firstCycle > lastCycle || cycle > lastCycle) {
+            toEnd();
+            return false;
+        }
+        for (Long existing : queue.listCyclesBetween(Math.max(cycle, firstCycle), lastCycle)) {
+            final long before = existing == cycle
+                    ? queue.timestampIndex.lastIndexBefore(cycle, epochNanos)
+                    : TimestampIndex.NOT_FOUND;
+            if (before == TimestampIndex.NOT_FOUND) {
+                if (moveToCycle(existing.intValue()))
+                    return true;
+                continue;
+            }
+            if (moveToIndex(before)) {
+                // the excerpt found was written before the time, so skip it
+                try (DocumentContext dc = readingDocument()) {
+                    assert dc.isPresent();
+                }
+                return true;
+            }
+        }
+        toEnd();
+        return false;
+    }
+
     /**
      * Sets the wire's position if it is not null and returns whether the index was found.
      *
@@ -1093,6 +1247,19 @@ class StoreTailer extends AbstractCloseable
         return true;
     }
 
+    /**
+     * @param s the store of a cycle
+     * @return the decoder for the payloads of the cycle, if any
+     */
+    @Nullable
+    private BiConsumer<BytesStore<?, ?>, Bytes<?>> decoderFor(@NotNull SingleChronicleQueueStore s) {
+        if (decoder != null || !s.archived())
+            return decoder;
+        if (archiveDecoder == null)
+            archiveDecoder = PayloadCodec.decodingSupplier().get();
+        return archiveDecoder;
+    }
+
     /**
      * Resets the wire for both the main context and index, ensuring the wires are properly aligned with the store.
      * This is called when switching to a different cycle or when refreshing the wire state.
@@ -1108,6 +1275,7 @@ class StoreTailer extends AbstractCloseable
 
         final Wire wire2 = wireType.apply(bytes);
         wire2.usePadding(s.dataVersion() > 0);
+        cycleDecoder = decoderFor(s);
         final Wire wire = readAnywhere(wire2);
         assert !QueueSystemProperties.CHECK_INDEX || headerNumberCheck(wire);
         this.context.wire(wire);
@@ -1790,6 +1958,9 @@ class StoreTailer extends AbstractCloseable
      * Extends BinaryReadDocumentContext and adds methods for managing wire and metadata.
      */
     class StoreTailerContext extends BinaryReadDocumentContext {
+        private Wire decodedWire;
+        private boolean decoded = false;
+
         StoreTailerContext() {
             super(null);
         }
@@ -1819,6 +1990,7 @@ class StoreTailer extends AbstractCloseable
          */
         @Override
         public void close() {
+            decoded = false;
             if (rollbackIfNeeded())
                 return;
 
@@ -1828,6 +2000,53 @@ class StoreTailer extends AbstractCloseable
             super.close();
         }
 
+        /**
+         * Returns the wire of the excerpt being read, which holds the decoded payload if the queue has coding
+         * suppliers.
+         *
+         * @return The wire of the excerpt being read.
+         */
+        @Override
+        public Wire wire() {
+            return decoded ? decodedWire : wire;
+        }
+
+        /**
+         * Returns the wire reading the queue file, even while a decoded excerpt is being read.
+         *
+         * @return The wire reading the queue file.
+         */
+        @Nullable
+        Wire storeWire() {
+            return wire;
+        }
+
+        /**
+         * Decodes the payload of the excerpt being read, from the read position to the read limit of the queue
+         * file's bytes, so {@link #wire()} reads the decoded payload until the context is closed.
+         *
+         * @param decoder the decoder
+         * @param bytes   the bytes of the queue file
+         */
+        void decode(@NotNull final BiConsumer<BytesStore<?, ?>, Bytes<?>> decoder, @NotNull final Bytes<?> bytes) {
+            if (decodedWire == null)
+                decodedWire = queue.wireType().apply(Bytes.allocateElasticOnHeap());
+            final Bytes<?> decodedBytes = decodedWire.bytes();
+            decodedBytes.clear();
+            decoder.accept(bytes, decodedBytes);
+            decoded = true;
+        }
+
+        /**
+         * Releases the bytes decoded excerpts are read from.
+         */
+        void releaseDecodedWire() {
+            decoded = false;
+            if (decodedWire != null)
+                decodedWire.bytes().releaseLast();
+            decodedWire = null;
+        }
+
         /**
          * Updates the presence flag for the current document.
          *
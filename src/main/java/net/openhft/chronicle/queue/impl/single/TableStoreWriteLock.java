@@ -14,8 +14,10 @@ import net.openhft.chronicle.threads.TimingPauser;
 import net.openhft.chronicle.wire.UnrecoverableTimeoutException;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.LockSupport;
 import java.util.function.Supplier;
 
 import static net.openhft.chronicle.core.Jvm.warn;
@@ -28,13 +30,24 @@ import static net.openhft.chronicle.core.Jvm.warn;
  * after a timeout. This class supports forceful unlocking depending on the {@link UnlockMode}.
  * The write lock is used to protect write operations in Chronicle Queue, ensuring that only one thread or process
  * can write at a time.
+ *
+ * <p>How threads wait for the lock is set by its {@link WriteLockMode}. How often the lock is acquired by this process,
+ * and how long it is waited for and held, is recorded in its {@link #metrics()}.
  */
 public class TableStoreWriteLock extends AbstractTSQueueLock implements WriteLock, Closeable {
     private static final String STORE_LOCK_THREAD = "chronicle.store.lock.thread";
     private static final boolean storeLockThread = Jvm.getBoolean(STORE_LOCK_THREAD);
     public static final String APPEND_LOCK_KEY = "chronicle.append.lock";
-    private static final String LOCK_KEY = "chronicle.write.lock";
+    static final String LOCK_KEY = "chronicle.write.lock";
+    private static final int ADAPTIVE_SPINS = 100;
+    private static final int ADAPTIVE_YIELDS = 20;
+    private static final long ADAPTIVE_MIN_PARK_NS = 1_000;
+    private static final long ADAPTIVE_MAX_PARK_NS = 1_000_000;
     private final long timeout;
+    private final WriteLockMetrics metrics = new WriteLockMetrics();
+    // the threads of this process waiting for the lock in ADAPTIVE mode, otherwise null
+    private final ConcurrentLinkedQueue<Thread> waiters;
+    private long lockedAtNanos;
     private Thread lockedByThread = null;
     private StackTrace lockedHere;
 
@@ -47,8 +60,22 @@ public class TableStoreWriteLock extends AbstractTSQueueLock implements WriteLoc
      * @param lockKey The key used for identifying the lock.
      */
     public TableStoreWriteLock(final TableStore<?> tableStore, Supplier<TimingPauser> pauser, Long timeoutMs, final String lockKey) {
+        this(tableStore, pauser, timeoutMs, lockKey, WriteLockMode.PAUSER);
+    }
+
+    /**
+     * Constructs a {@code TableStoreWriteLock} with a specified table store, pauser, timeout, lock key and mode.
+     *
+     * @param tableStore The {@link TableStore} object used for acquiring and managing lock state.
+     * @param pauser A {@link Supplier} providing the {@link TimingPauser} instance for pausing between lock retries.
+     * @param timeoutMs The timeout in milliseconds to wait before giving up on acquiring the lock.
+     * @param lockKey The key used for identifying the lock.
+     * @param mode How threads wait for the lock.
+     */
+    public TableStoreWriteLock(final TableStore<?> tableStore, Supplier<TimingPauser> pauser, Long timeoutMs, final String lockKey, final WriteLockMode mode) {
         super(lockKey, tableStore, pauser);
         timeout = timeoutMs;
+        waiters = mode == WriteLockMode.ADAPTIVE ? new ConcurrentLinkedQueue<>() : null;
     }
 
     /**
@@ -75,6 +102,28 @@ public class TableStoreWriteLock extends AbstractTSQueueLock implements WriteLoc
 
         assert checkNotAlreadyLocked();
 
+        if (lock.compareAndSwapValue(UNLOCKED, PID)) {
+            acquired();
+            return;
+        }
+        // only a contended acquisition is timed
+        final long start = System.nanoTime();
+        if (waiters == null)
+            acquirePausing();
+        else
+            acquireAdaptively();
+        metrics.waited(System.nanoTime() - start);
+        acquired();
+    }
+
+    private void acquired() {
+        checkStoreLockThread();
+        metrics.acquired();
+        if (metrics.recordHoldTimes())
+            lockedAtNanos = System.nanoTime();
+    }
+
+    private void acquirePausing() {
         long currentLockValue = 0;
         TimingPauser tlPauser = pauser.get();
         try {
@@ -83,7 +132,6 @@ public class TableStoreWriteLock extends AbstractTSQueueLock implements WriteLoc
             while (!lock.compareAndSwapValue(UNLOCKED, PID)) {
                 currentLockValue = lockGetCurrentLockValue(tlPauser);
             }
-            checkStoreLockThread();
 
             // success
         } catch (TimeoutException e) {
@@ -93,6 +141,48 @@ public class TableStoreWriteLock extends AbstractTSQueueLock implements WriteLoc
         }
     }
 
+    /**
+     * Waits in line behind the other threads of this process, retrying the lock only once at the head of the line.
+     */
+    private void acquireAdaptively() {
+        final Thread thread = Thread.currentThread();
+        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+        waiters.add(thread);
+        try {
+            for (int attempt = 0; ; attempt++) {
+                if (waiters.peek() == thread && lock.compareAndSwapValue(UNLOCKED, PID))
+                    return;
+                if (thread.isInterrupted())
+                    throw new InterruptedRuntimeException("Interrupted for the lock file:" + path);
+                final long remaining = deadline - System.nanoTime();
+                if (remaining <= 0)
+                    break;
+                backOff(attempt, remaining);
+            }
+        } finally {
+            waiters.remove(thread);
+            wakeNextWaiter();
+        }
+        handleTimeoutEx(lock.getVolatileValue());
+    }
+
+    private static void backOff(int attempt, long remainingNanos) {
+        if (attempt < ADAPTIVE_SPINS) {
+            Jvm.nanoPause();
+        } else if (attempt < ADAPTIVE_SPINS + ADAPTIVE_YIELDS) {
+            Thread.yield();
+        } else {
+            final int parks = Math.min(attempt - ADAPTIVE_SPINS - ADAPTIVE_YIELDS, 10);
+            LockSupport.parkNanos(Math.min(remainingNanos, Math.min(ADAPTIVE_MIN_PARK_NS << parks, ADAPTIVE_MAX_PARK_NS)));
+        }
+    }
+
+    private void wakeNextWaiter() {
+        final Thread next = waiters.peek();
+        if (next != null)
+            LockSupport.unpark(next);
+    }
+
     private long lockGetCurrentLockValue(TimingPauser tlPauser) throws TimeoutException {
         if (Thread.currentThread().isInterrupted())
             throw new InterruptedRuntimeException("Interrupted for the lock file:" + path);
@@ -120,16 +210,23 @@ public class TableStoreWriteLock extends AbstractTSQueueLock implements WriteLoc
             throw new UnrecoverableTimeoutException(new IllegalStateException(warningMsg + UNLOCK_MAIN_MSG));
         else if (forceUnlockOnTimeoutWhen == UnlockMode.LOCKING_PROCESS_DEAD) {
             if (forceUnlockIfProcessIsDead())
-                lock();
+                reacquire();
             else
                 throw new UnrecoverableTimeoutException(new IllegalStateException(warningMsg + UNLOCK_MAIN_MSG));
         } else {
             warn().on(getClass(), warningMsg + UNLOCKING_FORCIBLY_MSG);
             forceUnlock(currentLockValue);
-            lock();
+            reacquire();
         }
     }
 
+    private void reacquire() {
+        if (waiters == null)
+            acquirePausing();
+        else
+            acquireAdaptively();
+    }
+
     @NotNull
     private String lockHandleTimeoutExCreateWarningMessage(String lockedBy) {
         return "Couldn't acquire write lock " +
@@ -174,7 +271,14 @@ public class TableStoreWriteLock extends AbstractTSQueueLock implements WriteLoc
     @Override
     public void unlock() {
         throwExceptionIfClosed();
-        if (!lock.compareAndSwapValue(PID, UNLOCKED)) {
+        if (lockedAtNanos != 0) {
+            metrics.released(System.nanoTime() - lockedAtNanos);
+            lockedAtNanos = 0;
+        }
+        final boolean unlocked = lock.compareAndSwapValue(PID, UNLOCKED);
+        if (waiters != null)
+            wakeNextWaiter();
+        if (!unlocked) {
             long value = lock.getVolatileValue();
             if (value == UNLOCKED)
                 warn().on(getClass(), "Write lock was already unlocked. For the " +
@@ -199,6 +303,14 @@ public class TableStoreWriteLock extends AbstractTSQueueLock implements WriteLoc
         return lock.getVolatileValue(UNLOCKED) != UNLOCKED;
     }
 
+    /**
+     * @return how often this process acquired the lock, and how long it waited for and held it
+     */
+    @NotNull
+    public WriteLockMetrics metrics() {
+        return metrics;
+    }
+
     /**
      * Forcefully unlocks the lock if it is held, without considering ownership.
      * This is primarily for internal use.
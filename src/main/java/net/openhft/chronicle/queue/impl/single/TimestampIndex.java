@@ -0,0 +1,95 @@
+/*
+ * Copyright 2013-2025 chronicle.software; SPDX-License-Identifier: Apache-2.0
+ */
+package net.openhft.chronicle.queue.impl.single;
+
+import net.openhft.chronicle.core.io.AbstractCloseable;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.File;
+
+/**
+ * Records when excerpts were written, so a tailer can find where to start reading from a time without reading the
+ * excerpts.
+ * <p>
+ * The time is recorded for every excerpt which is also added to the cycle's secondary index, i.e. every
+ * {@link SCQIndexing#indexSpacing()} excerpts, in a {@link KeyIndexFile} next to the cycle's queue file named
+ * {@code <cycle>}{@value #SUFFIX}, keyed by the time in nanoseconds. Times are recorded while holding the write lock,
+ * and never go backwards within a cycle even if the clocks of the writing processes differ, so each file is sorted
+ * by time and index. As with {@link KeyIndex}, at most {@value CycleSidecars#MAX_READERS} files are mapped for lookups.
+ * <p>
+ * Recording happens on the appending thread. Lookups are synchronized, and may be used by any thread.
+ */
+final class TimestampIndex extends AbstractCloseable {
+    static final String SUFFIX = ".tidx";
+    static final long NOT_FOUND = -1;
+
+    private final SingleChronicleQueue queue;
+    private final CycleSidecars files;
+
+    TimestampIndex(@NotNull SingleChronicleQueue queue) {
+        this.queue = queue;
+        this.files = new CycleSidecars(this::fileFor);
+        singleThreadedCheckDisabled(true);
+    }
+
+    /**
+     * Records the current time for an excerpt, called while the queue's write lock is held.
+     *
+     * @param index the index of the excerpt just written
+     */
+    void record(long index) {
+        if (isClosing())
+            return;
+        final KeyIndexFile appendFile = files.forAppending(queue.rollCycle().toCycle(index));
+        long timeNanos = queue.time().currentTimeNanos();
+        final long count = appendFile.count();
+        if (count > 0) {
+            if (appendFile.index(count - 1) >= index)
+                return;
+            timeNanos = Math.max(timeNanos, appendFile.key(count - 1));
+        }
+        appendFile.append(timeNanos, index);
+    }
+
+    /**
+     * Finds the last excerpt of a cycle recorded as written before a time. Every excerpt before it was written
+     * before the time too.
+     *
+     * @param cycle      the cycle
+     * @param epochNanos the time
+     * @return the index of the excerpt, or {@link #NOT_FOUND} if no excerpt of the cycle was recorded as written
+     * before the time
+     */
+    synchronized long lastIndexBefore(int cycle, long epochNanos) {
+        throwExceptionIfClosed();
+        final KeyIndexFile file = files.forReading(cycle);
+        if (file == null)
+            return NOT_FOUND;
+        long low = 0;
+        long high = file.count();
+        while (low < high) {
+            final long mid = (low + high) >>> 1;
+            if (file.key(mid) < epochNanos)
+                low = mid + 1;
+            else
+                high = mid;
+        }
+        return low == 0 ? NOT_FOUND : file.index(low - 1);
+    }
+
+    /**
+     * @param cycle the cycle
+     * @return the file the times of the cycle are recorded in
+     */
+    @NotNull
+    File fileFor(int cycle) {
+        final String cycleFile = queue.fileForCycle(cycle).getName();
+        return new File(queue.file(), cycleFile.substring(0, cycleFile.length() - SingleChronicleQueue.SUFFIX.length()) + SUFFIX);
+    }
+
+    @Override
+    protected synchronized void performClose() {
+        files.close();
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2013-2025 chronicle.software; SPDX-License-Identifier: Apache-2.0
+ */
+package net.openhft.chronicle.queue.impl.single;
+
+/**
+ * Counts how often a {@link TableStoreWriteLock} was acquired by this process, how long threads waited for it and how
+ * long they held it. Waits and holds by other processes are not included.
+ * <p>
+ * Acquiring the lock without waiting only increments a counter. Only waits are timed, and hold times are only timed
+ * once enabled with {@link #recordHoldTimes(boolean)}, as that reads the clock twice for every acquisition.
+ * <p>
+ * The counters are only updated while the lock is held, with plain writes, so they are consistent with each other when
+ * read by the thread holding the lock. Other threads may read them at any time, but may not see the latest counts.
+ */
+public final class WriteLockMetrics {
+    /**
+     * The metrics of a lock that is never acquired, such as that of a read only queue.
+     */
+    public static final WriteLockMetrics NONE = new WriteLockMetrics();
+
+    private long acquisitions;
+    private long contendedAcquisitions;
+    private long totalWaitNanos;
+    private long maxWaitNanos;
+    private long maxHoldNanos;
+    private volatile boolean recordHoldTimes;
+
+    /**
+     * Records an acquisition, called by the thread that acquired the lock.
+     */
+    void acquired() {
+        acquisitions++;
+    }
+
+    /**
+     * Records that the lock was held by someone else when a thread tried to acquire it, called by the thread once it
+     * has acquired the lock.
+     *
+     * @param waitNanos how long the thread waited
+     */
+    void waited(long waitNanos) {
+        contendedAcquisitions++;
+        totalWaitNanos += waitNanos;
+        if (waitNanos > maxWaitNanos)
+            maxWaitNanos = waitNanos;
+    }
+
+    /**
+     * Records a release, called by the thread holding the lock.
+     *
+     * @param holdNanos how long the lock was held
+     */
+    void released(long holdNanos) {
+        if (holdNanos > maxHoldNanos)
+            maxHoldNanos = holdNanos;
+    }
+
+    /**
+     * @return whether how long the lock is held is recorded
+     */
+    public boolean recordHoldTimes() {
+        return recordHoldTimes;
+    }
+
+    /**
+     * Sets whether how long the lock is held is recorded in {@link #maxHoldNanos()}, off by default.
+     *
+     * @param recordHoldTimes whether to record hold times
+     * @return this
+     */
+    public WriteLockMetrics recordHoldTimes(boolean recordHoldTimes) {
+        this.recordHoldTimes = recordHoldTimes;
+        return this;
+    }
+
+    /**
+     * @return the number of times the lock was acquired
+     */
+    public long acquisitions() {
+        return acquisitions;
+    }
+
+    /**
+     * @return the number of times the lock was held by someone else when a thread tried to acquire it
+     */
+    public long contendedAcquisitions() {
+        return contendedAcquisitions;
+    }
+
+    /**
+     * @return the total time threads waited for the lock, in nanoseconds
+     */
+    public long totalWaitNanos() {
+        return totalWaitNanos;
+    }
+
+    /**
+     * @return the longest time a thread waited for the lock, in nanoseconds
+     */
+    public long maxWaitNanos() {
+        return maxWaitNanos;
+    }
+
+    /**
+     * @return the longest time a thread held the lock, in nanoseconds, while hold times were recorded
+     */
+    public long maxHoldNanos() {
+        return maxHoldNanos;
+    }
+
+    /**
+     * Sets every counter to zero. Counts recorded concurrently with a reset may be lost.
+     */
+    public void reset() {
+        acquisitions = 0;
+        contendedAcquisitions = 0;
+        totalWaitNanos = 0;
+        maxWaitNanos = 0;
+        maxHoldNanos = 0;
+    }
+
+    @Override
+    public String toString() {
+        return "WriteLockMetrics{" +
+                "acquisitions=" + acquisitions +
+                ", contendedAcquisitions=" + contendedAcquisitions +
+                ", totalWaitNanos=" + totalWaitNanos +
+                ", maxWaitNanos=" + maxWaitNanos +
+                ", maxHoldNanos=" + maxHoldNanos +
+                '}';
+    }
+}
@@ -0,0 +1,21 @@
+/*
+ * Copyright 2013-2025 chronicle.software; SPDX-License-Identifier: Apache-2.0
+ */
+package net.openhft.chronicle.queue.impl.single;
+
+/**
+ * How a {@link TableStoreWriteLock} waits while another thread or process holds the lock.
+ */
+public enum WriteLockMode {
+    /**
+     * Every waiting thread retries the lock, pausing with the queue's {@link SingleChronicleQueueBuilder#pauserSupplier()}
+     * between attempts. This is the default.
+     */
+    PAUSER,
+    /**
+     * Waiting threads of this process queue up, and only the thread at the head of the queue retries the lock. It spins,
+     * then yields, then parks for increasing periods, and is woken when a thread of this process releases the lock.
+     * This avoids many writers retrying the lock at once when it is released.
+     */
+    ADAPTIVE
+}
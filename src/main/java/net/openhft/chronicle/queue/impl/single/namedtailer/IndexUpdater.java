@@ -36,4 +36,19 @@ public interface IndexUpdater extends Closeable {
      */
     LongValue index();
 
+    /**
+     * Retrieves the index of the named tailer, which may not have been written to {@link #index()} yet.
+     *
+     * @return the index of the named tailer
+     */
+    default long currentIndex() {
+        return index().getValue();
+    }
+
+    /**
+     * Writes the index of the named tailer to {@link #index()} if it has not been written yet.
+     */
+    default void commit() {
+    }
+
 }
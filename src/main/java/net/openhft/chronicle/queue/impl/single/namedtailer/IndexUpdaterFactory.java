@@ -25,7 +25,9 @@ public class IndexUpdaterFactory {
      * Creates an {@link IndexUpdater} based on the provided {@code tailerName} and {@code queue}.
      * <p>
      * If the tailer is unnamed, this method returns {@code null}. For replicated named tailers,
-     * a versioned updater is returned. Otherwise, a standard unversioned index updater is used.
+     * a versioned updater is returned. Otherwise, a standard unversioned index updater is used. Unless the queue's
+     * {@link TailerCommitPolicy} writes the index for every excerpt, the updater is wrapped in a
+     * {@link CoalescingIndexUpdater}.
      *
      * @param tailerName the name of the tailer, or {@code null} if unnamed
      * @param queue the {@link SingleChronicleQueue} instance
@@ -37,9 +39,11 @@ public class IndexUpdaterFactory {
             // A null index updater is used when a plain (unnamed) tailer is in use
             // Note this nullness is not ideal and needs to be tackled in a future refactor of StoreTailer
             return null;
-        } else if (tailerName.startsWith(SingleChronicleQueue.REPLICATED_NAMED_TAILER_PREFIX)) {
+        }
+        final IndexUpdater indexUpdater;
+        if (tailerName.startsWith(SingleChronicleQueue.REPLICATED_NAMED_TAILER_PREFIX)) {
             // Replicated named tailers use an additional version field updated on each index mutation
-            return new VersionedIndexUpdater(
+            indexUpdater = new VersionedIndexUpdater(
                     tailerName,
                     queue,
                     queue.indexForId(tailerName),
@@ -47,8 +51,10 @@ public class IndexUpdaterFactory {
             );
         } else {
             // Normal named tailers use a simple unversioned scheme
-            return new StandardIndexUpdater(queue.indexForId(tailerName));
+            indexUpdater = new StandardIndexUpdater(queue.indexForId(tailerName));
         }
+        final TailerCommitPolicy commitPolicy = queue.tailerCommitPolicy();
+        return commitPolicy.isEveryExcerpt() ? indexUpdater : new CoalescingIndexUpdater(indexUpdater, commitPolicy);
     }
 
     /**
@@ -164,4 +170,96 @@ public class IndexUpdaterFactory {
             return indexValue;
         }
     }
+
+    /**
+     * The {@code CoalescingIndexUpdater} class keeps the index of a named tailer locally, and only writes it with
+     * another {@link IndexUpdater} as its {@link TailerCommitPolicy} requires, on {@link #commit()}, and on close.
+     * This saves a write, and for replicated named tailers a lock shared between processes, for every excerpt read.
+     */
+    public static class CoalescingIndexUpdater implements IndexUpdater, Closeable {
+
+        private final IndexUpdater indexUpdater;
+        private final int excerpts;
+        private final long intervalNanos;
+        private long index;
+        private boolean pending = false;
+        private int updates = 0;
+        private long lastCommitNanos;
+
+        /**
+         * Constructs a new {@code CoalescingIndexUpdater} writing the index with the provided updater.
+         *
+         * @param indexUpdater the {@link IndexUpdater} which writes the index
+         * @param commitPolicy when to write the index
+         */
+        public CoalescingIndexUpdater(@NotNull IndexUpdater indexUpdater, @NotNull TailerCommitPolicy commitPolicy) {
+            this.indexUpdater = indexUpdater;
+            this.excerpts = commitPolicy.excerpts();
+            this.intervalNanos = commitPolicy.intervalNanos();
+            this.index = indexUpdater.index().getVolatileValue();
+            this.lastCommitNanos = System.nanoTime();
+        }
+
+        /**
+         * Writes the index if it has not been written yet, then closes the underlying updater.
+         *
+         * @throws IOException if an I/O error occurs
+         */
+        @Override
+        public void close() throws IOException {
+            try {
+                commit();
+            } finally {
+                indexUpdater.close();
+            }
+        }
+
+        /**
+         * Keeps the index, writing it if the commit policy requires.
+         *
+         * @param index the new index value
+         */
+        @Override
+        public void update(long index) {
+            this.index = index;
+            pending = true;
+            if ((excerpts > 0 && ++updates >= excerpts)
+                    || (intervalNanos > 0 && System.nanoTime() - lastCommitNanos >= intervalNanos))
+                commit();
+        }
+
+        /**
+         * Writes the index if it has not been written yet.
+         */
+        @Override
+        public void commit() {
+            if (!pending)
+                return;
+            indexUpdater.update(index);
+            pending = false;
+            updates = 0;
+            if (intervalNanos > 0)
+                lastCommitNanos = System.nanoTime();
+        }
+
+        /**
+         * Returns the index, which may not have been written yet.
+         *
+         * @return the index
+         */
+        @Override
+        public long currentIndex() {
+            return index;
+        }
+
+        /**
+         * Returns the index value last written.
+         *
+         * @return the {@link LongValue} the index is written to
+         */
+        @Override
+        public LongValue index() {
+            return indexUpdater.index();
+        }
+    }
 }
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2013-2025 chronicle.software; SPDX-License-Identifier: Apache-2.0
+ */
+package net.openhft.chronicle.queue.impl.single.namedtailer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * When a named tailer writes its index to the queue's table store, so it can carry on from there when it is created
+ * again.
+ * <p>
+ * By default the index is written every time the tailer moves, i.e. for every excerpt read, which for a replicated
+ * named tailer means taking a lock shared between processes. Other policies keep the index in the tailer and only
+ * write it every so many excerpts, after an interval, or when {@link net.openhft.chronicle.queue.ExcerptTailer#commit()}
+ * is called, and always when the tailer is closed. A named tailer which was not closed, e.g. because its process died,
+ * carries on from the index last written, so excerpts read since then are read again: delivery is at least once.
+ * <p>
+ * Until it is written, the index is not seen by other tailers with the same name.
+ */
+public final class TailerCommitPolicy {
+    /**
+     * Writes the index every time the tailer moves, the default.
+     */
+    public static final TailerCommitPolicy EVERY_EXCERPT = new TailerCommitPolicy(1, 0);
+    /**
+     * Only writes the index on {@link net.openhft.chronicle.queue.ExcerptTailer#commit()}, or when the tailer is
+     * closed.
+     */
+    public static final TailerCommitPolicy ON_COMMIT = new TailerCommitPolicy(0, 0);
+
+    private final int excerpts;
+    private final long intervalNanos;
+
+    private TailerCommitPolicy(int excerpts, long intervalNanos) {
+        this.excerpts = excerpts;
+        this.intervalNanos = intervalNanos;
+    }
+
+    /**
+     * @param excerpts how many times the tailer moves between writes of its index
+     * @return a policy writing the index every {@code excerpts} moves
+     * @throws IllegalArgumentException if {@code excerpts} isn't positive
+     */
+    public static TailerCommitPolicy everyExcerpts(int excerpts) {
+        return every(excerpts, 0, TimeUnit.MICROSECONDS);
+    }
+
+    /**
+     * @param interval the longest time between writes of the index, checked when the tailer moves
+     * @param unit     the unit of {@code interval}
+     * @return a policy writing the index once the interval has passed since it was last written
+     * @throws IllegalArgumentException if {@code interval} isn't positive
+     */
+    public static TailerCommitPolicy everyInterval(long interval, TimeUnit unit) {
+        return every(0, interval, unit);
+    }
+
+    /**
+     * @param excerpts how many times the tailer moves between writes of its index, or 0 for no limit
+     * @param interval the longest time between writes of the index, checked when the tailer moves, or 0 for no limit
+     * @param unit     the unit of {@code interval}
+     * @return a policy writing the index after whichever comes first
+     * @throws IllegalArgumentException if either is negative, or both are 0
+     */
+    public static TailerCommitPolicy every(int excerpts, long interval, TimeUnit unit) {
+        if (excerpts < 0 || interval < 0 || (excerpts == 0 && interval == 0))
+            throw new IllegalArgumentException("Invalid commit policy, excerpts: " + excerpts + ", interval: " + interval + " " + unit);
+        if (excerpts == 1)
+            return EVERY_EXCERPT;
+        return new TailerCommitPolicy(excerpts, unit.toNanos(interval));
+    }
+
+    /**
+     * @return how many times the tailer moves between writes of its index, or 0 for no limit
+     */
+    public int excerpts() {
+        return excerpts;
+    }
+
+    /**
+     * @return the longest time between writes of the index in nanoseconds, or 0 for no limit
+     */
+    public long intervalNanos() {
+        return intervalNanos;
+    }
+
+    /**
+     * @return true if the index is written every time the tailer moves
+     */
+    public boolean isEveryExcerpt() {
+        return excerpts == 1;
+    }
+
+    @Override
+    public String toString() {
+        return "TailerCommitPolicy{" +
+                "excerpts=" + excerpts +
+                ", intervalNanos=" + intervalNanos +
+                '}';
+    }
+}
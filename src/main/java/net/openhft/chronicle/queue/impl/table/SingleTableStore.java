@@ -3,6 +3,7 @@
  */
 package net.openhft.chronicle.queue.impl.table;
 
+import net.openhft.chronicle.bytes.Bytes;
 import net.openhft.chronicle.bytes.MappedBytes;
 import net.openhft.chronicle.bytes.MappedFile;
 import net.openhft.chronicle.core.Jvm;
@@ -12,7 +13,6 @@ import net.openhft.chronicle.core.io.AbstractCloseable;
 import net.openhft.chronicle.core.io.ClosedIllegalStateException;
 import net.openhft.chronicle.core.io.IORuntimeException;
 import net.openhft.chronicle.core.scoped.ScopedResource;
-import net.openhft.chronicle.core.util.StringUtils;
 import net.openhft.chronicle.core.values.LongValue;
 import net.openhft.chronicle.queue.impl.TableStore;
 import net.openhft.chronicle.queue.impl.single.MetaDataField;
@@ -28,7 +28,11 @@ import java.nio.channels.FileChannel;
 import java.nio.channels.FileLock;
 import java.nio.channels.OverlappingFileLockException;
 import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
@@ -60,6 +64,23 @@ public class SingleTableStore<T extends Metadata> extends AbstractCloseable impl
     private final MappedFile mappedFile;
     @NotNull
     private final Wire mappedWire;
+    /**
+     * Position of the content of each record scanned so far, keyed by the lower-cased key. Records are never moved
+     * once written, so a key found here can be bound again without scanning the file or taking the monitor.
+     */
+    private final Map<String, Long> keyPositions = new ConcurrentHashMap<>();
+    /**
+     * Position of the first header not yet added to {@link #keyPositions}, guarded by {@code this}.
+     */
+    private long scannedUpTo = 0;
+    /**
+     * The wire each thread binds values through, created on its first lookup, so binding takes no lock.
+     */
+    private final ThreadLocal<Wire> bindWire = new ThreadLocal<>();
+    /**
+     * The bytes of every thread's {@link #bindWire}, released on close.
+     */
+    private final Set<MappedBytes> bindBytes = ConcurrentHashMap.newKeySet();
 
     /**
      * Constructor for creating a {@code SingleTableStore} via deserialization using {@link Demarshallable}.
@@ -217,6 +238,9 @@ public class SingleTableStore<T extends Metadata> extends AbstractCloseable impl
 
     @Override
     protected void performClose() {
+        keyPositions.clear();
+        bindBytes.forEach(MappedBytes::releaseLast);
+        bindBytes.clear();
         mappedBytes.close();
     }
 
@@ -260,41 +284,82 @@ public class SingleTableStore<T extends Metadata> extends AbstractCloseable impl
     /**
      * Acquires a {@link LongValue} mapped to a specific key in the table store.
      * If the key does not exist, it will create a new entry with the specified default value.
+     * <p>
+     * Keys which have already been seen by this instance are resolved from an in-memory directory without
+     * scanning the file or taking the monitor, see {@link #acquireExistingValueFor(CharSequence)}.
      *
      * @param key          The key for the value to acquire.
      * @param defaultValue The default value to use if the key doesn't exist.
      * @return The acquired {@link LongValue}.
      */
     @Override
-    public synchronized LongValue acquireValueFor(CharSequence key, final long defaultValue) {
+    public LongValue acquireValueFor(CharSequence key, final long defaultValue) {
+        final LongValue existing = acquireExistingValueFor(key);
+        if (existing != null)
+            return existing;
+        return acquireOrCreateValueFor(key, defaultValue);
+    }
 
+    /**
+     * Acquires a {@link LongValue} for a key which already exists in the table store.
+     * <p>
+     * The lookup is a hash probe of the keys seen so far. Only on a miss is the monitor taken to scan
+     * the records appended since the last scan, e.g. by another process.
+     *
+     * @param key The key for the value to acquire.
+     * @return The acquired {@link LongValue}, or {@code null} if the key does not exist.
+     */
+    @Nullable
+    @Override
+    public LongValue acquireExistingValueFor(CharSequence key) {
         if (mappedBytes.isClosed())
             throw new ClosedIllegalStateException("Closed");
 
-        mappedBytes.reserve(this);
-        try {
-            mappedBytes.readPosition(0);
-            // if we set readLimit to realCapacity then we can run into DecoratedBufferUnderflowException: readLimit failed. Limit: xx > writeLimit: yy
-            // while reading from a TableStore which is being written to
-            mappedBytes.readLimit(Math.min(mappedBytes.writeLimit(), mappedBytes.realCapacity()));
-            while (mappedWire.readDataHeader()) {
-                final int header = mappedBytes.readVolatileInt();
-                if (Wires.isNotComplete(header))
-                    break;
-                final long readPosition = mappedBytes.readPosition();
-                final int length = Wires.lengthOf(header);
-                final ValueIn valueIn = readEventIfNameEquals(mappedWire, key);
-                if (valueIn != null) {
-                    return valueIn.int64ForBinding(null);
+        final String normalisedKey = normalise(key);
+        Long position = keyPositions.get(normalisedKey);
+        if (position == null) {
+            synchronized (this) {
+                mappedBytes.reserve(this);
+                try {
+                    scanNewKeys();
+                } finally {
+                    mappedBytes.release(this);
                 }
-                mappedBytes.readPosition(readPosition + length);
             }
+            position = keyPositions.get(normalisedKey);
+            if (position == null)
+                return null;
+        }
+        return bindValueAt(position);
+    }
+
+    /**
+     * Scans for the key once more and appends a new record with the default value if it is still missing.
+     *
+     * @param key          The key for the value to acquire.
+     * @param defaultValue The default value to use if the key doesn't exist.
+     * @return The acquired {@link LongValue}.
+     */
+    private synchronized LongValue acquireOrCreateValueFor(CharSequence key, final long defaultValue) {
+
+        if (mappedBytes.isClosed())
+            throw new ClosedIllegalStateException("Closed");
+
+        mappedBytes.reserve(this);
+        try {
+            scanNewKeys();
+            final String normalisedKey = normalise(key);
+            final Long position = keyPositions.get(normalisedKey);
+            if (position != null)
+                return bindValueAt(position);
+
             if (mappedBytes.isBackingFileReadOnly())
                 throw new IllegalStateException("key " + key + " does not exist in readOnly TableStore and cannot be created");
             mappedBytes.writeLimit(mappedBytes.realCapacity());
             long start = mappedBytes.readPosition();
             mappedBytes.writePosition(start);
             final long pos = mappedWire.enterHeader(256L);
+            final long contentPosition = mappedBytes.writePosition();
             final LongValue longValue = wireType.newLongReference().get();
             mappedWire.writeEventName(key).int64forBinding(defaultValue, longValue);
             mappedWire.writeAlignTo(Integer.BYTES, 0);
@@ -305,9 +370,11 @@ public class SingleTableStore<T extends Metadata> extends AbstractCloseable impl
             long endOfChunk = (start + chuckSize - 1) / chuckSize * chuckSize;
             if (end >= endOfChunk + overlapSize)
                 throw new IllegalStateException("Misaligned write");
+            keyPositions.putIfAbsent(normalisedKey, contentPosition);
+            scannedUpTo = end;
             return longValue;
 
-        } catch (StreamCorruptedException | EOFException e) {
+        } catch (StreamCorruptedException e) {
             throw new IORuntimeException(e);
 
         } finally {
@@ -315,16 +382,71 @@ public class SingleTableStore<T extends Metadata> extends AbstractCloseable impl
         }
     }
 
-    @Nullable
-    private static ValueIn readEventIfNameEquals(WireIn wireIn, CharSequence expected) {
+    /**
+     * Adds the keys of all complete records written since the last scan to {@link #keyPositions}.
+     * Leaves the read position of {@link #mappedBytes} where the next record is to be written.
+     * The caller must hold the monitor and a reservation on {@link #mappedBytes}.
+     */
+    private void scanNewKeys() {
+        assert Thread.holdsLock(this);
         try (ScopedResource<StringBuilder> stlSb = Wires.acquireStringBuilderScoped()) {
-            StringBuilder sb = stlSb.get();
-            final ValueIn valueIn = wireIn.readEventName(sb);
-            if (StringUtils.equalsCaseIgnore(expected, sb)) {
-                return valueIn;
+            final StringBuilder sb = stlSb.get();
+            // if we set readLimit to realCapacity then we can run into DecoratedBufferUnderflowException: readLimit failed. Limit: xx > writeLimit: yy
+            // while reading from a TableStore which is being written to
+            mappedBytes.readLimit(Math.min(mappedBytes.writeLimit(), mappedBytes.realCapacity()));
+            mappedBytes.readPosition(scannedUpTo);
+            while (mappedWire.readDataHeader()) {
+                final int header = mappedBytes.readVolatileInt();
+                if (Wires.isNotComplete(header))
+                    break;
+                final long readPosition = mappedBytes.readPosition();
+                final int length = Wires.lengthOf(header);
+                mappedWire.readEventName(sb);
+                // the first record wins if two processes raced to create the same key
+                keyPositions.putIfAbsent(normalise(sb), readPosition);
+                mappedBytes.readPosition(readPosition + length);
+                scannedUpTo = mappedBytes.readPosition();
             }
-            return null;
+
+        } catch (EOFException e) {
+            throw new IORuntimeException(e);
+        }
+    }
+
+    /**
+     * Binds a new {@link LongValue} to the record whose content starts at {@code position}.
+     * The values are bound through the calling thread's {@link #bindWire}, so this does not disturb, or need to hold,
+     * the shared {@link #mappedWire}, the monitor or any other lock.
+     *
+     * @param position The position of the content of the record, just after its header.
+     * @return The bound {@link LongValue}.
+     */
+    @NotNull
+    private LongValue bindValueAt(final long position) {
+        Wire wire = bindWire.get();
+        if (wire == null) {
+            throwExceptionIfClosed();
+            final MappedBytes bytes = MappedBytes.mappedBytes(mappedFile);
+            // released by whichever thread closes this
+            bytes.singleThreadedCheckDisabled(true);
+            bindBytes.add(bytes);
+            wire = wireType.apply(bytes);
+            bindWire.set(wire);
         }
+        final Bytes<?> bytes = wire.bytes();
+        try (ScopedResource<StringBuilder> stlSb = Wires.acquireStringBuilderScoped()) {
+            bytes.readLimit(bytes.realCapacity());
+            bytes.readPosition(position);
+            return wire.readEventName(stlSb.get()).int64ForBinding(null);
+        }
+    }
+
+    /**
+     * Keys are matched ignoring case.
+     */
+    @NotNull
+    private static String normalise(@NotNull CharSequence key) {
+        return key.toString().toLowerCase(Locale.ROOT);
     }
 
     @Override
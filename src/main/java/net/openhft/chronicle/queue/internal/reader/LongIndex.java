@@ -0,0 +1,87 @@
+/*
+ * Copyright 2013-2025 chronicle.software; SPDX-License-Identifier: Apache-2.0
+ */
+package net.openhft.chronicle.queue.internal.reader;
+
+import java.util.Arrays;
+
+/**
+ * Assigns dense ordinals, in insertion order, to {@code long} keys, using open addressing over primitive arrays
+ * so that looking up a key already added allocates nothing.
+ * <p>
+ * This is not thread-safe.
+ */
+public final class LongIndex {
+    private static final int MAX_LOAD_PERCENT = 50;
+
+    private long[] keys = new long[16];
+    // for each slot, the ordinal of its key plus one, or zero if the slot is empty
+    private int[] slots = new int[32];
+    private int size;
+
+    /**
+     * @param key the key to look up
+     * @return the ordinal of the key, or -1 if it hasn't been added
+     */
+    public int indexOf(long key) {
+        final int mask = slots.length - 1;
+        for (int slot = hash(key) & mask; ; slot = (slot + 1) & mask) {
+            final int ordinal = slots[slot] - 1;
+            if (ordinal < 0 || keys[ordinal] == key)
+                return ordinal;
+        }
+    }
+
+    /**
+     * Adds a key which hasn't been added before.
+     *
+     * @param key the key to add
+     * @return the ordinal of the key, which is the number of keys added before it
+     */
+    public int add(long key) {
+        assert indexOf(key) < 0;
+        if (size == keys.length)
+            keys = Arrays.copyOf(keys, size * 2);
+        if ((size + 1) * 100L > slots.length * (long) MAX_LOAD_PERCENT)
+            rehash(slots.length * 2);
+        keys[size] = key;
+        insert(key, size);
+        return size++;
+    }
+
+    /**
+     * @return the number of keys added
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param ordinal the ordinal of a key
+     * @return the key
+     */
+    public long keyAt(int ordinal) {
+        if (ordinal < 0 || ordinal >= size)
+            throw new IndexOutOfBoundsException("ordinal: " + ordinal + ", size: " + size);
+        return keys[ordinal];
+    }
+
+    private void rehash(int capacity) {
+        slots = new int[capacity];
+        for (int i = 0; i < size; i++)
+            insert(keys[i], i);
+    }
+
+    private void insert(long key, int ordinal) {
+        final int mask = slots.length - 1;
+        int slot = hash(key) & mask;
+        while (slots[slot] != 0)
+            slot = (slot + 1) & mask;
+        slots[slot] = ordinal + 1;
+    }
+
+    private static int hash(long key) {
+        final long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
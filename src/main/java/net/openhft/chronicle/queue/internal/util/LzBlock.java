@@ -0,0 +1,187 @@
+/*
+ * Copyright 2013-2025 chronicle.software; SPDX-License-Identifier: Apache-2.0
+ */
+package net.openhft.chronicle.queue.internal.util;
+
+import java.util.Arrays;
+
+/**
+ * A fast LZ77 block compressor for {@link net.openhft.chronicle.queue.PayloadCodec#LZ}, in the LZ4 block format.
+ * <p>
+ * Each sequence is a token byte holding the number of literals in its high four bits and the length of the match less
+ * four in its low four bits, either extended by bytes of 255 and a final byte less than 255 when 15, then the
+ * literals and the two byte little endian offset of the match. The last sequence has only literals. Matches are found
+ * with a hash table of the four bytes at each position, so compression is a single pass and decompression a copy.
+ */
+public final class LzBlock {
+    private static final int MIN_MATCH = 4;
+    private static final int HASH_LOG = 12;
+    private static final int LAST_LITERALS = 5;
+    private static final int MF_LIMIT = 12;
+    private static final int MAX_OFFSET = 0xFFFF;
+    private static final int RUN_MASK = 0xF;
+    // the last slot of a table holds the base its positions are stored from
+    private static final int BASE = 1 << HASH_LOG;
+
+    private LzBlock() {
+    }
+
+    /**
+     * @return a hash table for {@link #compress}, which may be reused by one thread at a time
+     */
+    public static int[] newTable() {
+        final int[] table = new int[BASE + 1];
+        table[BASE] = 1;
+        return table;
+    }
+
+    /**
+     * @param length the length of the data
+     * @return the largest the data can be once compressed
+     */
+    public static int maxCompressedLength(int length) {
+        return length + length / 255 + 16;
+    }
+
+    /**
+     * Compresses data.
+     *
+     * @param src    holds the data from its start
+     * @param length the length of the data
+     * @param dst    to write the compressed data to, at least {@link #maxCompressedLength(int)} long
+     * @param table  the hash table, see {@link #newTable()}
+     * @return the length of the compressed data
+     */
+    public static int compress(byte[] src, int length, byte[] dst, int[] table) {
+        final int base = nextBase(table, length);
+        int anchor = 0;
+        int ip = 0;
+        int op = 0;
+        final int limit = length - MF_LIMIT;
+        while (ip < limit) {
+            final int seq = readIntLE(src, ip);
+            final int hash = (seq * -1640531535) >>> (32 - HASH_LOG);
+            final int ref = table[hash] - base;
+            table[hash] = base + ip;
+            if (ref < 0 || ip - ref > MAX_OFFSET || readIntLE(src, ref) != seq) {
+                ip++;
+                continue;
+            }
+            int matchLength = MIN_MATCH;
+            final int maxMatch = length - LAST_LITERALS - ip;
+            while (matchLength < maxMatch && src[ref + matchLength] == src[ip + matchLength])
+                matchLength++;
+
+            op = writeSequence(src, anchor, ip - anchor, dst, op, ip - ref, matchLength);
+            ip += matchLength;
+            anchor = ip;
+        }
+        return writeSequence(src, anchor, length - anchor, dst, op, 0, 0);
+    }
+
+    /**
+     * Positions are stored in the table offset by a base which grows by the length of each input, so the positions of
+     * earlier inputs are below the base and the table needn't be cleared for each one, only when the base overflows.
+     */
+    private static int nextBase(int[] table, int length) {
+        int base = table[BASE];
+        if (base > Integer.MAX_VALUE - length) {
+            Arrays.fill(table, 0);
+            base = 1;
+        }
+        table[BASE] = base + length;
+        return base;
+    }
+
+    private static int writeSequence(byte[] src, int literalStart, int literals, byte[] dst, int op, int offset, int matchLength) {
+        final int tokenAt = op++;
+        int token = Math.min(literals, RUN_MASK) << 4;
+        if (literals >= RUN_MASK)
+            op = writeLength(dst, op, literals - RUN_MASK);
+        System.arraycopy(src, literalStart, dst, op, literals);
+        op += literals;
+        if (matchLength > 0) {
+            dst[op++] = (byte) offset;
+            dst[op++] = (byte) (offset >>> 8);
+            final int extra = matchLength - MIN_MATCH;
+            token |= Math.min(extra, RUN_MASK);
+            if (extra >= RUN_MASK)
+                op = writeLength(dst, op, extra - RUN_MASK);
+        }
+        dst[tokenAt] = (byte) token;
+        return op;
+    }
+
+    private static int writeLength(byte[] dst, int op, int length) {
+        for (; length >= 255; length -= 255)
+            dst[op++] = (byte) 255;
+        dst[op++] = (byte) length;
+        return op;
+    }
+
+    /**
+     * Decompresses data compressed by {@link #compress}.
+     *
+     * @param src    holds the compressed data from its start
+     * @param length the length of the compressed data
+     * @param dst    to write the data to
+     * @param max    the length of the data
+     * @return the length of the data decompressed
+     * @throws IllegalStateException if the compressed data is corrupt
+     */
+    public static int decompress(byte[] src, int length, byte[] dst, int max) {
+        int ip = 0;
+        int op = 0;
+        try {
+            while (ip < length) {
+                final int token = src[ip++] & 0xFF;
+                int literals = token >>> 4;
+                if (literals == RUN_MASK) {
+                    int b;
+                    do {
+                        b = src[ip++] & 0xFF;
+                        literals += b;
+                    } while (b == 255);
+                }
+                if (op + literals > max)
+                    throw corrupt();
+                System.arraycopy(src, ip, dst, op, literals);
+                ip += literals;
+                op += literals;
+                if (ip >= length)
+                    break;
+
+                final int offset = (src[ip] & 0xFF) | (src[ip + 1] & 0xFF) << 8;
+                ip += 2;
+                int matchLength = token & RUN_MASK;
+                if (matchLength == RUN_MASK) {
+                    int b;
+                    do {
+                        b = src[ip++] & 0xFF;
+                        matchLength += b;
+                    } while (b == 255);
+                }
+                matchLength += MIN_MATCH;
+                if (offset == 0 || offset > op || op + matchLength > max)
+                    throw corrupt();
+                // the match may overlap the bytes being written, so copy a byte at a time
+                for (int from = op - offset, end = op + matchLength; op < end; )
+                    dst[op++] = dst[from++];
+            }
+        } catch (ArrayIndexOutOfBoundsException e) {
+            throw corrupt();
+        }
+        return op;
+    }
+
+    private static IllegalStateException corrupt() {
+        return new IllegalStateException("Corrupt LZ compressed data");
+    }
+
+    private static int readIntLE(byte[] bytes, int offset) {
+        return (bytes[offset] & 0xFF)
+                | (bytes[offset + 1] & 0xFF) << 8
+                | (bytes[offset + 2] & 0xFF) << 16
+                | (bytes[offset + 3] & 0xFF) << 24;
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2013-2025 chronicle.software; SPDX-License-Identifier: Apache-2.0
+ */
+package net.openhft.chronicle.queue.internal.util;
+
+import net.openhft.chronicle.bytes.Bytes;
+import net.openhft.chronicle.bytes.BytesStore;
+import net.openhft.chronicle.queue.PayloadCodec;
+
+import java.util.function.BiConsumer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import static net.openhft.chronicle.queue.internal.util.PayloadEncoder.*;
+
+/**
+ * Decompresses the payloads written by a {@link PayloadEncoder}, whichever {@link PayloadCodec} compressed them.
+ * Payloads which don't start with a frame header, i.e. {@link PayloadEncoder#MAGIC}, a known codec id and a length
+ * consistent with the frame, weren't written in a frame, and are copied as they are.
+ * <p>
+ * Not thread safe; the supplier creates one for each tailer, which closes it when closed.
+ */
+public final class PayloadDecoder implements BiConsumer<BytesStore<?, ?>, Bytes<?>>, AutoCloseable {
+    private Inflater inflater;
+    private byte[] in = new byte[0];
+    private byte[] out = new byte[0];
+
+    /**
+     * Writes the payload from the read position to the read limit of {@code source} to {@code dest}, decompressed if
+     * it was compressed. Doesn't move the read position of {@code source}.
+     *
+     * @param source the payload as written
+     * @param dest   to write the payload to
+     * @throws IllegalStateException if the payload is corrupt or was compressed with an unknown codec
+     */
+    @Override
+    public void accept(BytesStore<?, ?> source, Bytes<?> dest) {
+        final long start = source.readPosition();
+        final long remaining = source.readRemaining();
+        if (!isFrame(source, start, remaining)) {
+            dest.write(source, start, remaining);
+            return;
+        }
+        final byte id = source.readByte(start + 4);
+        final int length = source.readInt(start + 5);
+        final int compressed = (int) (remaining - FRAME_HEADER_SIZE);
+        if (id == STORED) {
+            dest.write(source, start + FRAME_HEADER_SIZE, compressed);
+            return;
+        }
+        if (in.length < compressed)
+            in = new byte[compressed];
+        if (out.length < length)
+            out = new byte[length];
+        source.read(start + FRAME_HEADER_SIZE, in, 0, compressed);
+
+        final int decompressed = id == PayloadCodec.DEFLATE.id()
+                ? inflate(compressed, length)
+                : LzBlock.decompress(in, compressed, out, length);
+        if (decompressed != length)
+            throw new IllegalStateException("Corrupt compressed excerpt, expected " + length + " bytes but was " + decompressed);
+        dest.write(out, 0, length);
+    }
+
+    // a payload is only compressed if the frame is smaller than it, and a stored frame holds all of it
+    private static boolean isFrame(BytesStore<?, ?> source, long start, long remaining) {
+        if (remaining < FRAME_HEADER_SIZE || source.readInt(start) != MAGIC)
+            return false;
+        final byte id = source.readByte(start + 4);
+        final long length = source.readInt(start + 5);
+        if (id == STORED)
+            return length == remaining - FRAME_HEADER_SIZE;
+        return (id == PayloadCodec.DEFLATE.id() || id == PayloadCodec.LZ.id()) && length > remaining;
+    }
+
+    private int inflate(int compressed, int length) {
+        if (inflater == null)
+            inflater = new Inflater();
+        inflater.reset();
+        inflater.setInput(in, 0, compressed);
+        try {
+            int decompressed = 0;
+            while (decompressed < length && !inflater.finished()) {
+                final int n = inflater.inflate(out, decompressed, length - decompressed);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary()))
+                    break;
+                decompressed += n;
+            }
+            return decompressed;
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt compressed excerpt", e);
+        }
+    }
+
+    /**
+     * Releases the native memory of the {@link Inflater}, if any.
+     */
+    @Override
+    public void close() {
+        if (inflater != null)
+            inflater.end();
+    }
+}
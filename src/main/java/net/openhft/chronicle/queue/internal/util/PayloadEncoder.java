@@ -0,0 +1,122 @@
+/*
+ * Copyright 2013-2025 chronicle.software; SPDX-License-Identifier: Apache-2.0
+ */
+package net.openhft.chronicle.queue.internal.util;
+
+import net.openhft.chronicle.bytes.Bytes;
+import net.openhft.chronicle.bytes.BytesStore;
+import net.openhft.chronicle.queue.PayloadCodec;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.function.BiConsumer;
+import java.util.zip.Deflater;
+
+/**
+ * Compresses the payload of each excerpt with a {@link PayloadCodec}, for
+ * {@link net.openhft.chronicle.queue.impl.single.SingleChronicleQueueBuilder#codingSuppliers}.
+ * <p>
+ * A compressed payload is written as a frame: the four byte {@link #MAGIC}, a byte identifying the codec, the four
+ * byte length of the payload and the compressed payload. Payloads smaller than the minimum size, or which don't get
+ * smaller, are written as they are, so a queue may hold compressed and uncompressed excerpts, and excerpts written
+ * before compression was enabled stay readable. A payload which happens to start with the magic number is written in
+ * a frame marked as {@link #STORED}, so it isn't mistaken for a compressed one.
+ * <p>
+ * Payloads written without an encoder aren't framed, so one which starts with the magic number could still be taken
+ * for a frame. {@link PayloadDecoder} only takes it for one if the codec id is known and the length is consistent with
+ * the frame, and otherwise reads it as written, so only a payload which also starts with a valid frame header is
+ * misread. Queues which may hold such payloads should write them all with an encoder.
+ * <p>
+ * Not thread safe; the supplier creates one for each appender, which closes it when closed.
+ */
+public final class PayloadEncoder implements BiConsumer<BytesStore<?, ?>, Bytes<?>>, AutoCloseable {
+    /**
+     * Starts every frame, the bytes {@code 8F 8F 43 5A} read as a little endian int.
+     */
+    public static final int MAGIC = 0x5A438F8F;
+    public static final byte STORED = 0;
+    public static final int FRAME_HEADER_SIZE = 9;
+
+    @NotNull
+    private final PayloadCodec codec;
+    private final int minSize;
+    private final Deflater deflater;
+    private final int[] table;
+    private byte[] in = new byte[0];
+    private byte[] out = new byte[0];
+
+    /**
+     * @param codec   the codec to compress payloads with
+     * @param minSize the smallest payload to compress
+     */
+    public PayloadEncoder(@NotNull PayloadCodec codec, int minSize) {
+        this.codec = codec;
+        this.minSize = Math.max(minSize, FRAME_HEADER_SIZE + 1);
+        this.deflater = codec == PayloadCodec.DEFLATE ? new Deflater(Deflater.BEST_SPEED) : null;
+        this.table = codec == PayloadCodec.LZ ? LzBlock.newTable() : null;
+    }
+
+    /**
+     * Writes the payload from the read position to the read limit of {@code source} to {@code dest}, compressed if
+     * that makes it smaller. Doesn't move the read position of {@code source}.
+     *
+     * @param source the payload
+     * @param dest   to write it to
+     */
+    @Override
+    public void accept(BytesStore<?, ?> source, Bytes<?> dest) {
+        final long start = source.readPosition();
+        final long remaining = source.readRemaining();
+        if (remaining >= minSize && remaining <= Integer.MAX_VALUE / 2) {
+            final int length = (int) remaining;
+            if (in.length < length)
+                in = new byte[length];
+            source.read(start, in, 0, length);
+            final int compressed = codec == PayloadCodec.DEFLATE ? deflate(length) : lz(length);
+            if (compressed >= 0 && compressed + FRAME_HEADER_SIZE < length) {
+                dest.writeInt(MAGIC);
+                dest.writeByte(codec.id());
+                dest.writeInt(length);
+                dest.write(out, 0, compressed);
+                return;
+            }
+        }
+        if (remaining >= 4 && source.readInt(start) == MAGIC) {
+            dest.writeInt(MAGIC);
+            dest.writeByte(STORED);
+            dest.writeInt((int) remaining);
+        }
+        dest.write(source, start, remaining);
+    }
+
+    // the compressed length, or -1 if no smaller than the payload
+    private int deflate(int length) {
+        if (out.length < length)
+            out = new byte[length];
+        deflater.reset();
+        deflater.setInput(in, 0, length);
+        deflater.finish();
+        int compressed = 0;
+        while (!deflater.finished()) {
+            if (compressed == length)
+                return -1;
+            compressed += deflater.deflate(out, compressed, length - compressed);
+        }
+        return compressed;
+    }
+
+    private int lz(int length) {
+        final int max = LzBlock.maxCompressedLength(length);
+        if (out.length < max)
+            out = new byte[max];
+        return LzBlock.compress(in, length, out, table);
+    }
+
+    /**
+     * Releases the native memory of the {@link Deflater}, if any.
+     */
+    @Override
+    public void close() {
+        if (deflater != null)
+            deflater.end();
+    }
+}
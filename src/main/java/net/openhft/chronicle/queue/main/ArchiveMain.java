@@ -0,0 +1,77 @@
+/*
+ * Copyright 2013-2025 chronicle.software; SPDX-License-Identifier: Apache-2.0
+ */
+package net.openhft.chronicle.queue.main;
+
+import net.openhft.chronicle.queue.PayloadCodec;
+import net.openhft.chronicle.queue.impl.single.CycleArchive;
+import net.openhft.chronicle.queue.impl.single.SingleChronicleQueue;
+import net.openhft.chronicle.queue.impl.single.SingleChronicleQueueBuilder;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.File;
+import java.io.PrintStream;
+
+/**
+ * Archives every sealed cycle of an existing queue with {@link CycleArchive}, compressing the payloads of every cycle
+ * but the last which ends with an EOF and hasn't been archived yet.
+ * <p>
+ * Usage: {@code ArchiveMain <queue dir> [DEFLATE|LZ] [min size]}, by default {@link PayloadCodec#DEFLATE} and
+ * {@link PayloadCodec#DEFAULT_MIN_SIZE}. No process should append to the cycles being archived while it runs.
+ */
+public final class ArchiveMain {
+
+    private ArchiveMain() {
+    }
+
+    /**
+     * @param args the queue directory, and optionally the codec and the smallest payload to compress
+     */
+    public static void main(String[] args) {
+        if (args.length < 1 || args.length > 3) {
+            System.err.println("Usage: ArchiveMain <queue dir> [DEFLATE|LZ] [min size]");
+            System.exit(1);
+        }
+        final File path = new File(args[0]);
+        if (!path.isDirectory()) {
+            System.err.println("Path argument must be a queue directory");
+            System.exit(1);
+        }
+        final PayloadCodec codec = args.length > 1 ? PayloadCodec.valueOf(args[1]) : PayloadCodec.DEFLATE;
+        final int minSize = args.length > 2 ? Integer.parseInt(args[2]) : PayloadCodec.DEFAULT_MIN_SIZE;
+        archive(path, codec, minSize, System.out);
+    }
+
+    /**
+     * Archives every cycle of a queue but the last, which ends with an EOF and hasn't been archived yet.
+     *
+     * @param path    the queue directory
+     * @param codec   compresses the payloads
+     * @param minSize the smallest payload to compress
+     * @param out     where to report each cycle archived or skipped
+     * @return the number of cycles archived
+     */
+    public static int archive(@NotNull File path, @NotNull PayloadCodec codec, int minSize, @NotNull PrintStream out) {
+        try (SingleChronicleQueue queue = SingleChronicleQueueBuilder.binary(path).build()) {
+            final int firstCycle = queue.firstCycle();
+            final int lastCycle = queue.lastCycle();
+            if (firstCycle >= lastCycle)
+                return 0;
+            int cycles = 0;
+            for (Long cycle : queue.listCyclesBetween(firstCycle, lastCycle - 1)) {
+                if (CycleArchive.isArchived(queue, cycle.intValue()))
+                    continue;
+                if (!CycleArchive.isSealed(queue, cycle.intValue())) {
+                    out.println("Skipped cycle " + cycle + ", which does not end with an EOF");
+                    continue;
+                }
+                final long excerpts = CycleArchive.archive(queue, cycle.intValue(), codec, minSize);
+                if (excerpts == 0)
+                    continue;
+                out.println("Archived cycle " + cycle + ", " + excerpts + " excerpts");
+                cycles++;
+            }
+            return cycles;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2013-2025 chronicle.software; SPDX-License-Identifier: Apache-2.0
+ */
+package net.openhft.chronicle.queue.main;
+
+import net.openhft.chronicle.core.util.ObjectUtils;
+import net.openhft.chronicle.queue.impl.single.KeyExtractor;
+import net.openhft.chronicle.queue.impl.single.KeyIndex;
+import net.openhft.chronicle.queue.impl.single.SingleChronicleQueue;
+import net.openhft.chronicle.queue.impl.single.SingleChronicleQueueBuilder;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.File;
+import java.io.PrintStream;
+
+/**
+ * Rebuilds or seals the {@link KeyIndex} of every cycle of an existing queue.
+ * <p>
+ * Usage: {@code KeyIndexMain <queue dir> <index name> <key extractor class>} indexes every excerpt again, using a
+ * {@link KeyExtractor} with a no-argument constructor. No process should append to the queue while it runs.
+ * <p>
+ * {@code KeyIndexMain <queue dir> <index name> --seal} sorts the index of every cycle but the last, without reading
+ * the excerpts.
+ */
+public final class KeyIndexMain {
+    private static final String SEAL = "--seal";
+
+    private KeyIndexMain() {
+    }
+
+    /**
+     * @param args the queue directory, the index name, and the key extractor class or {@code --seal}
+     */
+    public static void main(String[] args) {
+        if (args.length != 3) {
+            System.err.println("Usage: KeyIndexMain <queue dir> <index name> <key extractor class>|" + SEAL);
+            System.exit(1);
+        }
+        final File path = new File(args[0]);
+        if (!path.isDirectory()) {
+            System.err.println("Path argument must be a queue directory");
+            System.exit(1);
+        }
+        if (SEAL.equals(args[2])) {
+            seal(path, args[1], System.out);
+        } else {
+            rebuild(path, args[1], newExtractor(args[2]), System.out);
+        }
+    }
+
+    @NotNull
+    private static KeyExtractor newExtractor(String className) {
+        try {
+            return (KeyExtractor) ObjectUtils.newInstance(Class.forName(className));
+        } catch (ClassNotFoundException e) {
+            throw new IllegalArgumentException("Key extractor class not found: " + className, e);
+        }
+    }
+
+    /**
+     * Indexes every excerpt of every cycle of a queue again.
+     *
+     * @param path      the queue directory
+     * @param name      the name of the index
+     * @param extractor reads the key of each excerpt
+     * @param out       where to report each cycle rebuilt
+     * @return the number of cycles rebuilt
+     */
+    public static int rebuild(@NotNull File path, @NotNull String name, @NotNull KeyExtractor extractor, @NotNull PrintStream out) {
+        try (SingleChronicleQueue queue = SingleChronicleQueueBuilder.binary(path).keyIndex(name, extractor).build()) {
+            final KeyIndex keyIndex = queue.keyIndex(name);
+            final int firstCycle = queue.firstCycle();
+            final int lastCycle = queue.lastCycle();
+            if (firstCycle > lastCycle)
+                return 0;
+            int cycles = 0;
+            for (Long cycle : queue.listCyclesBetween(firstCycle, lastCycle)) {
+                keyIndex.rebuild(cycle.intValue());
+                out.println("Rebuilt " + keyIndex.fileFor(cycle.intValue()));
+                cycles++;
+            }
+            return cycles;
+        }
+    }
+
+    /**
+     * Sorts the index of every cycle of a queue but the last.
+     *
+     * @param path the queue directory
+     * @param name the name of the index
+     * @param out  where to report each cycle sealed
+     * @return the number of cycles sealed
+     */
+    public static int seal(@NotNull File path, @NotNull String name, @NotNull PrintStream out) {
+        try (SingleChronicleQueue queue = SingleChronicleQueueBuilder.binary(path).keyIndex(name, wire -> KeyExtractor.NO_KEY).build()) {
+            final KeyIndex keyIndex = queue.keyIndex(name);
+            final int firstCycle = queue.firstCycle();
+            final int lastCycle = queue.lastCycle();
+            if (firstCycle >= lastCycle)
+                return 0;
+            int cycles = 0;
+            for (Long cycle : queue.listCyclesBetween(firstCycle, lastCycle - 1)) {
+                if (!keyIndex.fileFor(cycle.intValue()).exists())
+                    continue;
+                keyIndex.seal(cycle.intValue());
+                out.println("Sealed " + keyIndex.fileFor(cycle.intValue()));
+                cycles++;
+            }
+            return cycles;
+        }
+    }
+}
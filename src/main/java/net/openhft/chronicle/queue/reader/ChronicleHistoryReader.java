@@ -8,6 +8,7 @@ import net.openhft.chronicle.core.Jvm;
 import net.openhft.chronicle.core.util.Histogram;
 import net.openhft.chronicle.queue.ChronicleQueue;
 import net.openhft.chronicle.queue.ExcerptTailer;
+import net.openhft.chronicle.queue.RollCycle;
 import net.openhft.chronicle.queue.impl.single.SingleChronicleQueue;
 import net.openhft.chronicle.queue.impl.single.SingleChronicleQueueBuilder;
 import net.openhft.chronicle.queue.util.ToolsUtil;
@@ -17,9 +18,17 @@ import org.jetbrains.annotations.NotNull;
 import java.io.Closeable;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
@@ -31,6 +40,13 @@ import java.util.stream.Collectors;
  * This class allows the user to read messages from a Chronicle Queue and process them with the help of
  * histograms and timing windows. Various options such as progress reporting, time unit settings, and
  * histogram management are available for customization.
+ * <p>
+ * Histograms are looked up by a {@code long} key packing the kind of timing with the ordinals of the method and
+ * source IDs involved, so processing a message allocates nothing once its histograms exist. They are only named,
+ * and added to {@link #histos}, when the data is output or returned.
+ * <p>
+ * With {@link #withParallelism(int)} each cycle is read on its own thread into its own histograms, which are then
+ * merged in cycle order.
  */
 public class ChronicleHistoryReader implements HistoryReader, Closeable {
 
@@ -53,6 +69,10 @@ public class ChronicleHistoryReader implements HistoryReader, Closeable {
     protected int lastHistosSize = 0;
     protected ExcerptTailer tailer;
 
+    private final HistogramTable histogramTable = new HistogramTable(this::histogram, this::methodIdToName);
+    private int histosNamed = 0;
+    private int parallelism = 1;
+
     static {
         ToolsUtil.warnIfResourceTracing();
     }
@@ -159,6 +179,25 @@ public class ChronicleHistoryReader implements HistoryReader, Closeable {
         return this;
     }
 
+    /**
+     * Sets the number of threads to read the queue with. When more than one, each cycle is read by its own tailer
+     * on a fork-join pool into histograms of its own, which are merged in cycle order. The histograms, and any
+     * windowed output, are the same as when read by a single thread.
+     * <p>
+     * Reading in parallel applies when neither {@link #parselet()} nor {@link #processMessage(CharSequence, MessageHistory)}
+     * have been overridden, as both depend on the state of a single reader. Otherwise the queue is read by a single thread.
+     * {@link #histogram()} and {@link #methodIdToName(long)} are called from the reading threads.
+     *
+     * @param parallelism The number of threads to read with
+     * @return The current instance of {@link ChronicleHistoryReader}
+     */
+    public ChronicleHistoryReader withParallelism(int parallelism) {
+        if (parallelism < 1)
+            throw new IllegalArgumentException("parallelism: " + parallelism);
+        this.parallelism = parallelism;
+        return this;
+    }
+
     /**
      * Creates and returns a new {@link ChronicleQueue} instance if the current tailer is null or closed.
      * Otherwise, returns the current tailer's queue. This method throws an exception if the base path does not exist.
@@ -203,12 +242,24 @@ public class ChronicleHistoryReader implements HistoryReader, Closeable {
      */
     @Override
     public Map<String, Histogram> readChronicle() {
-        createQueue();
+        final ChronicleQueue queue = createQueue();
         resetHistos();
+        if (canReadInParallel(queue))
+            readInParallel((SingleChronicleQueue) queue);
+        else
+            readSequentially();
 
+        nameHistos();
+        return histos;
+    }
+
+    /**
+     * Reads the queue from the tailer's position to its end with a single method reader.
+     */
+    private void readSequentially() {
         // we have to create MR every time so that it refers to our MessageHistory
         final WireParselet parselet = parselet();
-        final FieldNumberParselet fieldNumberParselet = (methodId, wire) -> parselet.accept(methodIdToName(methodId), wire.read());
+        final FieldNumberParselet fieldNumberParselet = (methodId, wire) -> parselet.accept(histogramTable.methodIdName(methodId), wire.read());
         final MessageHistory prev = MessageHistory.get();
         MessageHistory.emptyHistory();
         try (final MethodReader mr = new VanillaMethodReader(tailer, true, parselet, fieldNumberParselet, null, parselet)) {
@@ -221,8 +272,209 @@ public class ChronicleHistoryReader implements HistoryReader, Closeable {
         } finally {
             MessageHistory.set(prev);
         }
+    }
 
-        return histos;
+    /**
+     * @return {@code true} if the configuration allows cycles to be read independently of each other
+     */
+    private boolean canReadInParallel(ChronicleQueue queue) {
+        return parallelism > 1
+                && queue instanceof SingleChronicleQueue
+                && !overrides("parselet")
+                && !overrides("processMessage", CharSequence.class, MessageHistory.class);
+    }
+
+    private boolean overrides(String name, Class<?>... parameterTypes) {
+        for (Class<?> c = getClass(); c != ChronicleHistoryReader.class; c = c.getSuperclass()) {
+            try {
+                c.getDeclaredMethod(name, parameterTypes);
+                return true;
+            } catch (NoSuchMethodException e) {
+                // check the superclass
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Reads the queue from the tailer's position to its current end, reading each cycle with its own tailer on a
+     * fork-join pool. At most {@code 2 * parallelism} cycles are buffered at a time, and each cycle's histograms are
+     * merged once every earlier cycle has been, replaying the measurement windows as a single reader would see them.
+     * The tailer is left after the last message read, so the next call continues from there.
+     */
+    private void readInParallel(SingleChronicleQueue queue) {
+        skipIgnored();
+        final RollCycle rollCycle = queue.rollCycle();
+        final int lastCycle = queue.lastCycle();
+        if (lastCycle == Integer.MIN_VALUE)
+            return;
+        final long startIndex = Math.max(tailer.index(), queue.firstIndex());
+        final int firstCycle = rollCycle.toCycle(startIndex);
+
+        final ForkJoinPool pool = new ForkJoinPool(parallelism);
+        final AtomicBoolean finished = new AtomicBoolean();
+        long lastReadIndex = -1;
+        try {
+            final Deque<ForkJoinTask<CycleHistograms>> pending = new ArrayDeque<>();
+            final Iterator<Long> cycles = queue.listCyclesBetween(firstCycle, lastCycle).iterator();
+            while (!Thread.currentThread().isInterrupted()) {
+                while (pending.size() < 2 * parallelism && cycles.hasNext()) {
+                    final int cycle = cycles.next().intValue();
+                    final long from = cycle == firstCycle ? startIndex : rollCycle.toIndex(cycle, 0);
+                    pending.add(pool.submit(() -> readCycle(queue, cycle, from, finished)));
+                }
+                final ForkJoinTask<CycleHistograms> next = pending.poll();
+                if (next == null)
+                    break;
+                final CycleHistograms cycleHistograms = next.join();
+                merge(cycleHistograms);
+                lastReadIndex = Math.max(lastReadIndex, cycleHistograms.lastReadIndex);
+            }
+        } finally {
+            // stop any reads still running before returning
+            finished.set(true);
+            pool.shutdown();
+            awaitTermination(pool);
+        }
+        if (lastReadIndex >= 0 && tailer.moveToIndex(lastReadIndex)) {
+            try (DocumentContext dc = tailer.readingDocument()) {
+                // move past the last message read
+            }
+        }
+    }
+
+    /**
+     * Skips the messages still to be ignored, as these are counted from the start of the first read.
+     */
+    private void skipIgnored() {
+        while (counter < ignore) {
+            try (DocumentContext dc = tailer.readingDocument()) {
+                if (!dc.isPresent())
+                    return;
+            }
+            ++counter;
+        }
+    }
+
+    private static void awaitTermination(ForkJoinPool pool) {
+        try {
+            if (!pool.awaitTermination(1, TimeUnit.MINUTES))
+                Jvm.warn().on(ChronicleHistoryReader.class, "Parallel reads did not finish");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Reads one cycle from {@code fromIndex} with a tailer of its own, starting a new set of histograms at each
+     * message which could end a measurement window.
+     *
+     * @param queue     The queue being read
+     * @param cycle     The cycle to read
+     * @param fromIndex The index in the cycle to start reading at
+     * @param finished  Set once the results are no longer needed
+     * @return The histograms of the cycle
+     */
+    private CycleHistograms readCycle(SingleChronicleQueue queue, int cycle, long fromIndex, AtomicBoolean finished) {
+        final RollCycle rollCycle = queue.rollCycle();
+        final CycleHistograms cycleHistograms = new CycleHistograms();
+        if (finished.get())
+            return cycleHistograms;
+        try (final ExcerptTailer cycleTailer = queue.createTailer()) {
+            if (!cycleTailer.moveToIndex(fromIndex))
+                return cycleHistograms;
+            // the tailer reads on into the next cycle, which has a task of its own
+            final WireParselet parselet = (methodName, v) -> {
+                v.skipValue();
+                if (rollCycle.toCycle(cycleTailer.index()) != cycle)
+                    return;
+                final MessageHistory history = MessageHistory.get();
+                if (history != null)
+                    cycleHistograms.record(methodName, history);
+            };
+            final FieldNumberParselet fieldNumberParselet = (methodId, wire) -> parselet.accept(cycleHistograms.current.methodIdName(methodId), wire.read());
+            MessageHistory.emptyHistory();
+            try (final MethodReader mr = new VanillaMethodReader(cycleTailer, true, parselet, fieldNumberParselet, null, parselet)) {
+                while (!finished.get() && mr.readOne()) {
+                    final long index = cycleTailer.lastReadIndex();
+                    if (rollCycle.toCycle(index) != cycle)
+                        break;
+                    cycleHistograms.messages++;
+                    cycleHistograms.lastReadIndex = index;
+                }
+            }
+        } finally {
+            MessageHistory.clear();
+        }
+        return cycleHistograms;
+    }
+
+    /**
+     * Adds the histograms of a cycle to {@link #histos}, outputting and resetting them at the end of each measurement
+     * window as {@link #parselet()} does.
+     */
+    private void merge(CycleHistograms cycleHistograms) {
+        nameHistos();
+        for (int i = 0; i < cycleHistograms.segments.size(); i++) {
+            final HistogramTable segment = cycleHistograms.segments.get(i);
+            for (int h = 0; h < segment.size(); h++)
+                histos.computeIfAbsent(segment.nameAt(h), name -> histogram()).add(segment.histogramAt(h));
+            if (i < cycleHistograms.windowCounts.size()) {
+                final long windowCount = cycleHistograms.windowCounts.get(i);
+                if (windowCount > lastWindowCount) {
+                    windowPassed();
+                    lastWindowCount = windowCount;
+                }
+                if (i == 0 && firstTimeStampNanos == 0)
+                    firstTimeStampNanos = cycleHistograms.firstTimeStampNanos;
+            }
+        }
+        final long before = counter;
+        counter += cycleHistograms.messages;
+        if (progress && before / 1_000_000L != counter / 1_000_000L)
+            Jvm.debug().on(getClass(), "Progress: " + counter);
+    }
+
+    /**
+     * The histograms of a cycle, collected by one parallel read.
+     * <p>
+     * Whether a message ends a measurement window depends on the windows of the messages before it, which may be in
+     * earlier cycles. So a new set of histograms, a segment, is started after every message whose window is later
+     * than any before it in the cycle, and {@link #merge(CycleHistograms)} decides which of these end a window.
+     */
+    private final class CycleHistograms {
+        private final List<HistogramTable> segments = new ArrayList<>();
+        // the window of the message ending each segment but the last
+        private final List<Long> windowCounts = new ArrayList<>();
+        private HistogramTable current;
+        private long maxWindowCount = Long.MIN_VALUE;
+        private long firstTimeStampNanos = 0;
+        private long messages = 0;
+        private long lastReadIndex = -1;
+
+        CycleHistograms() {
+            startSegment();
+        }
+
+        private void startSegment() {
+            current = new HistogramTable(ChronicleHistoryReader.this::histogram, ChronicleHistoryReader.this::methodIdToName);
+            segments.add(current);
+        }
+
+        void record(CharSequence methodName, MessageHistory history) {
+            recordTimings(methodName, history, current);
+            if (history.timings() > 0 && measurementWindowNanos > 0) {
+                final long firstTiming = history.timing(0);
+                final long windowCount = firstTiming / measurementWindowNanos;
+                if (windowCount > maxWindowCount) {
+                    windowCounts.add(windowCount);
+                    maxWindowCount = windowCount;
+                    startSegment();
+                }
+                if (firstTimeStampNanos == 0)
+                    firstTimeStampNanos = firstTiming;
+            }
+        }
     }
 
     /**
@@ -241,6 +493,7 @@ public class ChronicleHistoryReader implements HistoryReader, Closeable {
      */
     @Override
     public void outputData() {
+        nameHistos();
         if (summaryOutputOffset != SUMMARY_OUTPUT_UNSET)
             printSummary();
         else
@@ -371,8 +624,20 @@ public class ChronicleHistoryReader implements HistoryReader, Closeable {
      * @param history    The {@link MessageHistory} for the message
      */
     protected void processMessage(CharSequence methodName, MessageHistory history) {
-        CharSequence extraHistoId = histosByMethod ? (SEPARATOR + methodName) : "";
+        recordTimings(methodName, history, histogramTable);
+    }
+
+    /**
+     * Records the timings of a message in a set of histograms.
+     *
+     * @param methodName The name of the method being processed
+     * @param history    The {@link MessageHistory} for the message
+     * @param table      The histograms to record in
+     */
+    private void recordTimings(CharSequence methodName, MessageHistory history, HistogramTable table) {
+        final int method = histosByMethod ? table.methodOrdinal(methodName) : 0;
         long lastTime = 0;
+        int lastSource = 0;
         // if the tailer has recordHistory (sourceId != 0) then the MessageHistory will be
         // written with a single timing and nothing else. This is then carried through
         int firstWriteOffset = history.timings() - (history.sources() * 2);
@@ -381,27 +646,36 @@ public class ChronicleHistoryReader implements HistoryReader, Closeable {
             return;
         }
         for (int sourceIndex = 0; sourceIndex < history.sources(); sourceIndex++) {
-            String histoId = Integer.toString(history.sourceId(sourceIndex)) + extraHistoId;
-            Histogram histo = histos.computeIfAbsent(histoId, s -> histogram());
+            final int source = table.sourceOrdinal(history.sourceId(sourceIndex));
+            Histogram histo = table.histogramFor(HistogramTable.COMPONENT, method, 0, source);
             long receivedByThisComponent = history.timing((2 * sourceIndex) + firstWriteOffset);
             long processedByThisComponent = history.timing((2 * sourceIndex) + firstWriteOffset + 1);
             histo.sample((double) (processedByThisComponent - receivedByThisComponent));
             if (lastTime == 0 && firstWriteOffset > 0) {
-                Histogram histo1 = histos.computeIfAbsent("startTo" + histoId, s -> histogram());
+                Histogram histo1 = table.histogramFor(HistogramTable.START_TO, method, 0, source);
                 histo1.sample((double) (receivedByThisComponent - history.timing(0)));
             } else if (lastTime != 0) {
-                Histogram histo1 = histos.computeIfAbsent(history.sourceId(sourceIndex - 1) + "to" + histoId, s -> histogram());
+                Histogram histo1 = table.histogramFor(HistogramTable.HOP, method, lastSource, source);
                 // here we are comparing System.nanoTime across processes. YMMV
                 histo1.sample((double) (receivedByThisComponent - lastTime));
             }
             lastTime = processedByThisComponent;
+            lastSource = source;
         }
         if (history.sources() > 1) {
-            Histogram histoE2E = histos.computeIfAbsent("endToEnd", s -> histogram());
+            Histogram histoE2E = table.histogramFor(HistogramTable.END_TO_END, 0, 0, 0);
             histoE2E.sample((double) (history.timing(history.timings() - 1) - history.timing(0)));
         }
     }
 
+    /**
+     * Adds the histograms created since this was last called to {@link #histos}, by name, in the order they were created.
+     */
+    private void nameHistos() {
+        for (; histosNamed < histogramTable.size(); histosNamed++)
+            histos.put(histogramTable.nameAt(histosNamed), histogramTable.histogramAt(histosNamed));
+    }
+
     /**
      * Handles when a measurement window has passed, outputting the data and resetting histograms.
      */
@@ -414,6 +688,7 @@ public class ChronicleHistoryReader implements HistoryReader, Closeable {
      * Resets all histograms to their initial state.
      */
     private void resetHistos() {
+        histogramTable.reset();
         histos.values().forEach(Histogram::reset);
     }
 
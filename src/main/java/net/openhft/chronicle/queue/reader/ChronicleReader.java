@@ -6,10 +6,13 @@ package net.openhft.chronicle.queue.reader;
 import net.openhft.chronicle.core.Jvm;
 import net.openhft.chronicle.queue.ChronicleQueue;
 import net.openhft.chronicle.queue.ExcerptTailer;
+import net.openhft.chronicle.queue.RollCycle;
 import net.openhft.chronicle.queue.TailerDirection;
 import net.openhft.chronicle.queue.impl.StoreFileListener;
 import net.openhft.chronicle.queue.impl.single.BinarySearch;
+import net.openhft.chronicle.queue.impl.single.CycleKeyCache;
 import net.openhft.chronicle.queue.impl.single.NotComparableException;
+import net.openhft.chronicle.queue.impl.single.SingleChronicleQueue;
 import net.openhft.chronicle.queue.impl.single.SingleChronicleQueueBuilder;
 import net.openhft.chronicle.queue.internal.reader.InternalDummyMethodReaderQueueEntryHandler;
 import net.openhft.chronicle.queue.internal.reader.MessageCountingMessageConsumer;
@@ -26,8 +29,17 @@ import org.jetbrains.annotations.NotNull;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.format.DateTimeParseException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
@@ -46,6 +58,10 @@ import static net.openhft.chronicle.queue.TailerDirection.FORWARD;
  */
 public class ChronicleReader implements Reader {
     private static final long UNSET_VALUE = Long.MIN_VALUE;
+    // matches handed from a parallel scan to the writing thread at a time
+    private static final int CHUNK_SIZE = 1024;
+    // chunks a parallel scan may buffer before it waits for the writing thread
+    private static final int MAX_CHUNKS = 4;
 
     private final List<Pattern> inclusionRegex = new ArrayList<>();
     private final List<Pattern> exclusionRegex = new ArrayList<>();
@@ -63,6 +79,8 @@ public class ChronicleReader implements Reader {
     private boolean displayIndex = true;
     private Class<?> methodReaderInterface;
     private BinarySearchComparator binarySearch;
+    // first comparable excerpt of each cycle, kept across binary searches by this reader
+    private final CycleKeyCache cycleKeyCache = new CycleKeyCache();
     private String arg;
     private boolean showMessageHistory;
     private volatile boolean running = true;
@@ -71,6 +89,7 @@ public class ChronicleReader implements Reader {
     private ContentBasedLimiter contentBasedLimiter;
     private String limiterArg;
     private String tailerId = null;
+    private int parallelism = 1;
 
     static {
         ToolsUtil.warnIfResourceTracing();
@@ -87,6 +106,10 @@ public class ChronicleReader implements Reader {
     public void execute() {
         configureContentBasedLimiter();
         validateArgs();
+        if (canReadInParallel()) {
+            executeInParallel();
+            return;
+        }
         long lastObservedTailIndex;
         long highestReachedIndex = 0L;
         boolean isFirstIteration = true;
@@ -237,7 +260,18 @@ public class ChronicleReader implements Reader {
      * @return The head of the chain of message consumers
      */
     private MessageConsumer createMessageConsumers() {
-        MessageConsumer tail = this::writeToSink;
+        return createMessageConsumers(this::writeToSink);
+    }
+
+    /**
+     * Creates a chain of message consumers according to the configured inclusion and exclusion patterns,
+     * ending in the given sink.
+     *
+     * @param sink The consumer receiving the messages which pass the filters
+     * @return The head of the chain of message consumers
+     */
+    private MessageConsumer createMessageConsumers(MessageConsumer sink) {
+        MessageConsumer tail = sink;
         if (!exclusionRegex.isEmpty()) {
             tail = new PatternFilterMessageConsumer(exclusionRegex, false, tail);
         }
@@ -284,6 +318,25 @@ public class ChronicleReader implements Reader {
         return this;
     }
 
+    /**
+     * Sets the number of threads used to read the queue. With more than one thread, each cycle in the range being
+     * read is scanned and filtered by its own tailer on a pool of that many threads, and the results are written to the message
+     * sink in index order.
+     * <p>
+     * Reading in parallel applies when reading forwards through the existing contents of the queue, i.e. not when
+     * tailing, reading in reverse, or using a named tailer, custom plugin or content-based limiter. Otherwise the
+     * queue is read by a single thread.
+     *
+     * @param parallelism The number of threads to read with
+     * @return The current instance of {@link ChronicleReader}
+     */
+    public ChronicleReader withParallelism(int parallelism) {
+        if (parallelism < 1)
+            throw new IllegalArgumentException("parallelism: " + parallelism);
+        this.parallelism = parallelism;
+        return this;
+    }
+
     /**
      * Sets the consumer for handling messages processed by the {@link ChronicleReader}.
      *
@@ -413,6 +466,8 @@ public class ChronicleReader implements Reader {
     /**
      * Configures a binary search comparator for the reader.
      * <p>This method dynamically loads a binary search class and allows it to configure itself by passing the current {@link ChronicleReader} instance.
+     * The first comparable excerpt of each cycle is cached by this reader, so subsequent searches with the same
+     * comparator type over the same queue only read the cycles they haven't seen before.
      *
      * @param binarySearchClass The fully qualified class name of the binary search comparator
      * @return The current instance of {@link ChronicleReader}
@@ -641,7 +696,7 @@ public class ChronicleReader implements Reader {
         TailerDirection originalDirection = tailer.direction();
         tailer.direction(FORWARD);
         final Wire key = binarySearch.wireKey();
-        long rv = BinarySearch.search(tailer, key, binarySearch);
+        long rv = BinarySearch.search(tailer, key, binarySearch, cycleKeyCache);
         if (rv == -1) {
             tailer.toStart();
         } else if (rv < 0) {
@@ -748,7 +803,7 @@ public class ChronicleReader implements Reader {
      * @throws IllegalArgumentException if the base path does not exist
      */
     @NotNull
-    private ChronicleQueue createQueue() {
+    private SingleChronicleQueue createQueue() {
         if (!Files.exists(basePath)) {
             throw new IllegalArgumentException(String.format("Path '%s' does not exist (absolute path '%s')", basePath, basePath.toAbsolutePath()));
         }
@@ -759,6 +814,214 @@ public class ChronicleReader implements Reader {
                 .build();
     }
 
+    /**
+     * @return {@code true} if the configuration allows cycles to be read independently of each other
+     */
+    private boolean canReadInParallel() {
+        return parallelism > 1
+                && !tailInputSource
+                && tailerDirection == FORWARD
+                && tailerId == null
+                && customPlugin == null
+                && contentBasedLimiter == null;
+    }
+
+    /**
+     * Reads the queue from the configured start position to its current end, scanning each cycle with its own
+     * tailer on a pool of {@code parallelism} threads. At most {@code 2 * parallelism} cycles are scanned at a time,
+     * each handing its matches over in chunks, and each cycle's matches are written to the sink in index order once
+     * every earlier cycle has been written.
+     * <p>
+     * The scans are started in cycle order, so the cycle being written always has a thread scanning it, and the scans
+     * of later cycles wait once they have buffered {@link #MAX_CHUNKS} chunks.
+     */
+    private void executeInParallel() {
+        final ExecutorService pool = Executors.newFixedThreadPool(parallelism);
+        final AtomicBoolean finished = new AtomicBoolean();
+        try (final SingleChronicleQueue queue = createQueue();
+             final ExcerptTailer tailer = queue.createTailer()) {
+            try {
+                MessageHistory.emptyHistory();
+                moveToSpecifiedPosition(queue, tailer, true);
+                final RollCycle rollCycle = queue.rollCycle();
+                final int lastCycle = queue.lastCycle();
+                if (lastCycle == Integer.MIN_VALUE)
+                    return;
+                final long startIndex = Math.max(tailer.index(), queue.firstIndex());
+                final int firstCycle = rollCycle.toCycle(startIndex);
+
+                final Deque<CycleMatches> pending = new ArrayDeque<>();
+                final Iterator<Long> cycles = queue.listCyclesBetween(firstCycle, lastCycle).iterator();
+                long written = 0;
+                reading:
+                while (running && !Thread.currentThread().isInterrupted()) {
+                    while (pending.size() < 2 * parallelism && cycles.hasNext()) {
+                        final int cycle = cycles.next().intValue();
+                        final long from = cycle == firstCycle ? startIndex : rollCycle.toIndex(cycle, 0);
+                        final CycleMatches matches = new CycleMatches(finished);
+                        pool.execute(() -> scanCycle(queue, cycle, from, matches));
+                        pending.add(matches);
+                    }
+                    final CycleMatches matches = pending.poll();
+                    if (matches == null)
+                        break;
+                    for (Chunk chunk; (chunk = matches.next()) != Chunk.END; ) {
+                        for (int i = 0; i < chunk.size && (matchLimit <= 0 || written < matchLimit); i++, written++)
+                            writeToSink(chunk.indexes[i], chunk.texts[i]);
+                        if (matchLimit > 0 && written >= matchLimit)
+                            break reading;
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                // stop any scans still running before the queue is closed
+                finished.set(true);
+                pool.shutdown();
+                awaitTermination(pool);
+            }
+        } finally {
+            MessageHistory.clear();
+        }
+    }
+
+    /**
+     * Waits for the scans of a parallel read to finish.
+     *
+     * @param pool The pool running the scans
+     */
+    private static void awaitTermination(ExecutorService pool) {
+        try {
+            if (!pool.awaitTermination(1, TimeUnit.MINUTES))
+                Jvm.warn().on(ChronicleReader.class, "Parallel scans did not finish");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Reads one cycle from {@code fromIndex} with a tailer of its own, handing the messages passing the filters to
+     * {@code matches}. No more than the match limit are handed over, as no cycle can contribute more than that to the
+     * output. The end of the cycle, or the failure to read it, is always handed over last.
+     *
+     * @param queue     The queue being read
+     * @param cycle     The cycle to read
+     * @param fromIndex The index in the cycle to start reading at
+     * @param matches   Receives the matching messages of the cycle, in index order
+     */
+    private void scanCycle(SingleChronicleQueue queue, int cycle, long fromIndex, CycleMatches matches) {
+        Throwable failure = null;
+        try {
+            if (!matches.finished.get())
+                scanCycle0(queue, cycle, fromIndex, matches);
+        } catch (Throwable t) {
+            failure = t;
+        } finally {
+            matches.end(failure);
+        }
+    }
+
+    private void scanCycle0(SingleChronicleQueue queue, int cycle, long fromIndex, CycleMatches matches) {
+        final RollCycle rollCycle = queue.rollCycle();
+        MessageHistory.emptyHistory();
+        try (final ExcerptTailer tailer = queue.createTailer()) {
+            if (!tailer.moveToIndex(fromIndex))
+                return;
+            // the tailer reads on into the next cycle, which has a task of its own
+            final MessageConsumer inCycle = createMessageConsumers(matches);
+            final MessageCountingMessageConsumer messageConsumer = new MessageCountingMessageConsumer(matchLimit,
+                    (index, text) -> rollCycle.toCycle(index) == cycle && inCycle.consume(index, text));
+            final QueueEntryReader queueEntryReader = createQueueEntryReader(tailer, messageConsumer);
+            while (!matches.finished.get()
+                    && queueEntryReader.read()
+                    && rollCycle.toCycle(tailer.lastReadIndex()) == cycle
+                    && !messageConsumer.matchLimitReached()) {
+                // keep reading
+            }
+        } finally {
+            MessageHistory.clear();
+        }
+    }
+
+    /**
+     * The messages of a cycle which passed the filters, handed from one parallel scan to the writing thread in chunks
+     * of at most {@link #CHUNK_SIZE} messages. At most {@link #MAX_CHUNKS} chunks are buffered, after which the scan
+     * waits for the writing thread rather than holding the rest of the cycle in memory.
+     */
+    private static final class CycleMatches implements MessageConsumer {
+        private final BlockingQueue<Chunk> chunks = new ArrayBlockingQueue<>(MAX_CHUNKS);
+        private final AtomicBoolean finished;
+        // only used by the scanning thread
+        private Chunk chunk = new Chunk(CHUNK_SIZE);
+        private volatile Throwable failure;
+
+        CycleMatches(AtomicBoolean finished) {
+            this.finished = finished;
+        }
+
+        @Override
+        public boolean consume(long index, String message) {
+            chunk.indexes[chunk.size] = index;
+            chunk.texts[chunk.size++] = message;
+            if (chunk.size == CHUNK_SIZE) {
+                handOver(chunk);
+                chunk = new Chunk(CHUNK_SIZE);
+            }
+            return true;
+        }
+
+        /**
+         * Hands over the last chunk of the cycle followed by {@link Chunk#END}.
+         *
+         * @param failure Why the cycle could not be read, or {@code null}
+         */
+        void end(Throwable failure) {
+            this.failure = failure;
+            if (chunk.size > 0)
+                handOver(chunk);
+            handOver(Chunk.END);
+        }
+
+        /**
+         * Waits for the next chunk of the cycle.
+         *
+         * @return The next chunk, or {@link Chunk#END} once the whole cycle has been handed over
+         * @throws IllegalStateException if the cycle could not be read
+         */
+        Chunk next() throws InterruptedException {
+            final Chunk next = chunks.take();
+            if (next == Chunk.END && failure != null)
+                throw new IllegalStateException("Failed to read the queue", failure);
+            return next;
+        }
+
+        private void handOver(Chunk chunk) {
+            try {
+                while (!finished.get() && !chunks.offer(chunk, 10, TimeUnit.MILLISECONDS)) {
+                    // wait for the writing thread, unless it has stopped
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * A chunk of the matching messages of a cycle, in index order.
+     */
+    private static final class Chunk {
+        static final Chunk END = new Chunk(0);
+
+        final long[] indexes;
+        final String[] texts;
+        int size;
+
+        Chunk(int capacity) {
+            indexes = new long[capacity];
+            texts = new String[capacity];
+        }
+    }
+
     /**
      * Stops the reader, halting any further processing of the queue.
      */
@@ -0,0 +1,173 @@
+/*
+ * Copyright 2013-2025 chronicle.software; SPDX-License-Identifier: Apache-2.0
+ */
+package net.openhft.chronicle.queue.reader;
+
+import net.openhft.chronicle.core.util.Histogram;
+import net.openhft.chronicle.queue.internal.reader.LongIndex;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.function.LongFunction;
+import java.util.function.Supplier;
+
+/**
+ * The histograms of a {@link ChronicleHistoryReader}, looked up by a {@code long} key packing the kind of timing
+ * with the ordinals of the method and source IDs involved, so that finding the histogram for a timing allocates
+ * nothing once it exists. Histograms are only named when asked for.
+ * <p>
+ * This is not thread-safe; a reader reading in parallel uses one table per thread.
+ */
+final class HistogramTable {
+    // the kinds of timing, in the top bits of a key
+    static final int COMPONENT = 1;
+    static final int START_TO = 2;
+    static final int HOP = 3;
+    static final int END_TO_END = 4;
+    private static final int KIND_SHIFT = 60;
+    private static final int METHOD_SHIFT = 40;
+    private static final int FROM_SHIFT = 20;
+    private static final int MAX_ORDINAL = (1 << 20) - 1;
+
+    private final Supplier<Histogram> histogramSupplier;
+    private final LongFunction<String> methodIdToName;
+    private final LongIndex histoKeys = new LongIndex();
+    private Histogram[] histograms = new Histogram[16];
+    private final LongIndex sourceIds = new LongIndex();
+    private final LongIndex methodIds = new LongIndex();
+    private String[] methodIdNames = new String[16];
+    private String[] methodNames = new String[16];
+    private int[] methodNameHashes = new int[16];
+    private int methodNameCount = 0;
+
+    /**
+     * @param histogramSupplier creates the histograms
+     * @param methodIdToName    names method IDs, called once per ID
+     */
+    HistogramTable(@NotNull Supplier<Histogram> histogramSupplier, @NotNull LongFunction<String> methodIdToName) {
+        this.histogramSupplier = histogramSupplier;
+        this.methodIdToName = methodIdToName;
+    }
+
+    /**
+     * Returns the histogram for a kind of timing, creating it the first time it is needed.
+     *
+     * @param kind   the kind of timing
+     * @param method the ordinal of the method plus one, or zero if histograms are not by method
+     * @param from   the ordinal of the source the timing is from, for a hop between sources
+     * @param to     the ordinal of the source the timing is for
+     * @return the histogram
+     */
+    Histogram histogramFor(int kind, int method, int from, int to) {
+        final long key = (long) kind << KIND_SHIFT | (long) method << METHOD_SHIFT | (long) from << FROM_SHIFT | to;
+        int ordinal = histoKeys.indexOf(key);
+        if (ordinal < 0) {
+            ordinal = histoKeys.add(key);
+            if (ordinal == histograms.length)
+                histograms = Arrays.copyOf(histograms, ordinal * 2);
+            histograms[ordinal] = histogramSupplier.get();
+        }
+        return histograms[ordinal];
+    }
+
+    /**
+     * @param sourceId a source ID
+     * @return the ordinal of the source ID
+     */
+    int sourceOrdinal(int sourceId) {
+        final int ordinal = sourceIds.indexOf(sourceId);
+        if (ordinal >= 0)
+            return ordinal;
+        if (sourceIds.size() > MAX_ORDINAL)
+            throw new IllegalStateException("Too many sourceIds: " + sourceIds.size());
+        return sourceIds.add(sourceId);
+    }
+
+    /**
+     * Returns the ordinal plus one of a method name, comparing it with the names seen before without copying it.
+     *
+     * @param methodName a method name
+     * @return the ordinal of the method name plus one
+     */
+    int methodOrdinal(CharSequence methodName) {
+        int hash = 0;
+        for (int i = 0; i < methodName.length(); i++)
+            hash = 31 * hash + methodName.charAt(i);
+        for (int i = 0; i < methodNameCount; i++)
+            if (methodNameHashes[i] == hash && methodNames[i].contentEquals(methodName))
+                return i + 1;
+        if (methodNameCount >= MAX_ORDINAL)
+            throw new IllegalStateException("Too many method names: " + methodNameCount);
+        if (methodNameCount == methodNames.length) {
+            methodNames = Arrays.copyOf(methodNames, methodNameCount * 2);
+            methodNameHashes = Arrays.copyOf(methodNameHashes, methodNameCount * 2);
+        }
+        methodNames[methodNameCount] = methodName.toString();
+        methodNameHashes[methodNameCount] = hash;
+        return ++methodNameCount;
+    }
+
+    /**
+     * @param methodId a method ID
+     * @return the name of the method ID, named only the first time it is seen
+     */
+    String methodIdName(long methodId) {
+        int ordinal = methodIds.indexOf(methodId);
+        if (ordinal < 0) {
+            ordinal = methodIds.add(methodId);
+            if (ordinal == methodIdNames.length)
+                methodIdNames = Arrays.copyOf(methodIdNames, ordinal * 2);
+            methodIdNames[ordinal] = methodIdToName.apply(methodId);
+        }
+        return methodIdNames[ordinal];
+    }
+
+    /**
+     * @return the number of histograms, in the order they were created
+     */
+    int size() {
+        return histoKeys.size();
+    }
+
+    /**
+     * @param ordinal the ordinal of a histogram
+     * @return the histogram
+     */
+    Histogram histogramAt(int ordinal) {
+        return histograms[ordinal];
+    }
+
+    /**
+     * @param ordinal the ordinal of a histogram
+     * @return the name of the histogram, as output by {@link ChronicleHistoryReader}
+     */
+    String nameAt(int ordinal) {
+        final long key = histoKeys.keyAt(ordinal);
+        final int kind = (int) (key >>> KIND_SHIFT);
+        if (kind == END_TO_END)
+            return "endToEnd";
+        final int method = (int) (key >>> METHOD_SHIFT) & MAX_ORDINAL;
+        final int from = (int) (key >>> FROM_SHIFT) & MAX_ORDINAL;
+        final int to = (int) key & MAX_ORDINAL;
+        final String histoId = (int) sourceIds.keyAt(to)
+                + (method == 0 ? "" : ChronicleHistoryReader.SEPARATOR + methodNames[method - 1]);
+        switch (kind) {
+            case COMPONENT:
+                return histoId;
+            case START_TO:
+                return "startTo" + histoId;
+            case HOP:
+                return (int) sourceIds.keyAt(from) + "to" + histoId;
+            default:
+                throw new IllegalStateException("Unknown kind " + kind);
+        }
+    }
+
+    /**
+     * Resets all the histograms.
+     */
+    void reset() {
+        for (int i = 0; i < size(); i++)
+            histograms[i].reset();
+    }
+}
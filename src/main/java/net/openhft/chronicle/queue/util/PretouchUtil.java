@@ -7,6 +7,7 @@ import net.openhft.chronicle.core.threads.EventHandler;
 import net.openhft.chronicle.core.util.ObjectUtils;
 import net.openhft.chronicle.queue.ChronicleQueue;
 import net.openhft.chronicle.queue.impl.single.Pretoucher;
+import net.openhft.chronicle.queue.impl.single.QueuePretoucher;
 import net.openhft.chronicle.queue.impl.single.SingleChronicleQueue;
 import net.openhft.chronicle.queue.impl.single.SingleChronicleQueueBuilder;
 import org.jetbrains.annotations.NotNull;
@@ -16,7 +17,7 @@ import org.jetbrains.annotations.NotNull;
  * <p>
  * This class provides a factory-based mechanism to support both enterprise and non-enterprise pretoucher functionality.
  * If enterprise features are available, it attempts to load the enterprise implementation, otherwise, it falls back
- * to a basic implementation.
+ * to {@link QueuePretoucher}.
  */
 public final class PretouchUtil {
     private static final PretoucherFactory INSTANCE;
@@ -28,8 +29,7 @@ public final class PretouchUtil {
             instance = (PretoucherFactory) ObjectUtils.newInstance(clazz);
             assert SingleChronicleQueueBuilder.areEnterpriseFeaturesAvailable();
         } catch (Exception e) {
-            instance = new PretouchFactoryEmpty();
-            SingleChronicleQueueBuilder.onlyAvailableInEnterprise("Pretoucher");
+            instance = new PretouchFactoryOpenSource();
         }
         INSTANCE = instance;
     }
@@ -55,33 +55,30 @@ public final class PretouchUtil {
     }
 
     /**
-     * Fallback factory class for non-enterprise environments.
-     * <p>
-     * Provides basic implementations for creating {@link EventHandler} and {@link Pretoucher} when enterprise features
-     * are not available.
+     * Factory used when enterprise features are not available, creating {@link QueuePretoucher}s.
      */
-    private static class PretouchFactoryEmpty implements PretoucherFactory {
+    private static class PretouchFactoryOpenSource implements PretoucherFactory {
 
         /**
-         * Returns a no-op {@link EventHandler} that does nothing.
+         * Creates a {@link QueuePretoucher} to be run on an event loop.
          *
          * @param queue The {@link SingleChronicleQueue} instance
-         * @return A no-op {@link EventHandler}
+         * @return A {@link QueuePretoucher} for the queue
          */
         @Override
         public EventHandler createEventHandler(@NotNull final SingleChronicleQueue queue) {
-            return () -> false;
+            return new QueuePretoucher(queue);
         }
 
         /**
-         * Creates a basic {@link Pretoucher} for the specified {@link SingleChronicleQueue}.
+         * Creates a {@link QueuePretoucher} for the specified {@link SingleChronicleQueue}.
          *
          * @param queue The {@link SingleChronicleQueue} instance
-         * @return A basic {@link Pretoucher} instance
+         * @return A {@link QueuePretoucher} for the queue
          */
         @Override
         public Pretoucher createPretoucher(@NotNull final SingleChronicleQueue queue) {
-            return queue.createPretoucher();
+            return new QueuePretoucher(queue);
         }
     }
 }
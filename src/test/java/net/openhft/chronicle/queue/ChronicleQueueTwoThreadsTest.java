@@ -20,7 +20,6 @@ import java.util.concurrent.atomic.AtomicLong;
 
 import static net.openhft.chronicle.queue.rollcycles.SparseRollCycles.SMALL_DAILY;
 import static org.junit.Assert.assertEquals;
-import static org.junit.Assume.assumeTrue;
 
 @RequiredForClient
 public class ChronicleQueueTwoThreadsTest extends QueueTestCommon {
@@ -47,13 +46,11 @@ public class ChronicleQueueTwoThreadsTest extends QueueTestCommon {
 
     @Test
     public void testBufferedShortRun() throws InterruptedException {
-        assumeBufferingAvailable();
         doTest(BufferMode.Asynchronous, false, false, 1_000);
     }
 
     @Test
     public void testBufferedHeapBytes() throws InterruptedException {
-        assumeBufferingAvailable();
         doTest(BufferMode.Asynchronous, true, true, 512);
     }
 
@@ -159,9 +156,4 @@ public class ChronicleQueueTwoThreadsTest extends QueueTestCommon {
             throw ise;
         }
     }
-
-    private static void assumeBufferingAvailable() {
-        assumeTrue("BufferMode.Asynchronous requires Chronicle Queue Enterprise",
-                SingleChronicleQueueBuilder.areEnterpriseFeaturesAvailable());
-    }
 }
@@ -7,12 +7,14 @@ import net.openhft.chronicle.core.Jvm;
 import net.openhft.chronicle.queue.impl.single.SingleChronicleQueueBuilder;
 import net.openhft.chronicle.queue.reader.ChronicleReader;
 import net.openhft.chronicle.wire.WireType;
+import org.apache.commons.cli.Options;
 import org.jetbrains.annotations.NotNull;
 import org.junit.Test;
 
 import java.io.ByteArrayOutputStream;
 import java.io.PrintStream;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 public class ChronicleReaderMainCliTest extends QueueTestCommon {
@@ -101,8 +103,29 @@ public class ChronicleReaderMainCliTest extends QueueTestCommon {
         assertTrue(reader.wireTypeSnapshot == WireType.TEXT);
     }
 
+    @Test
+    public void invalidParallelismPrintsUsage() {
+        final java.io.File dir = getTmpDir();
+        for (String parallelism : new String[]{"two", "0"}) {
+            TestChronicleReaderMain main = new TestChronicleReaderMain();
+
+            main.run(new String[]{"-d", dir.getAbsolutePath(), "-p", parallelism});
+
+            assertEquals(1, main.exitStatus);
+            assertTrue(main.usageMessage, main.usageMessage.contains(parallelism));
+        }
+    }
+
     private static final class TestChronicleReaderMain extends ChronicleReaderMain {
         final RecordingChronicleReader reader = new RecordingChronicleReader();
+        int exitStatus = -1;
+        String usageMessage;
+
+        @Override
+        protected void printHelpAndExit(Options options, int status, String message) {
+            exitStatus = status;
+            usageMessage = message;
+        }
 
         @Override
         protected ChronicleReader chronicleReader() {
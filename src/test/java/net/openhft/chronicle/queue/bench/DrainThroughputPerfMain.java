@@ -0,0 +1,103 @@
+/*
+ * Copyright 2013-2025 chronicle.software; SPDX-License-Identifier: Apache-2.0
+ */
+package net.openhft.chronicle.queue.bench;
+
+import net.openhft.affinity.AffinityLock;
+import net.openhft.chronicle.bytes.Bytes;
+import net.openhft.chronicle.bytes.BytesStore;
+import net.openhft.chronicle.core.OS;
+import net.openhft.chronicle.core.io.BackgroundResourceReleaser;
+import net.openhft.chronicle.core.io.IOTools;
+import net.openhft.chronicle.core.util.Time;
+import net.openhft.chronicle.queue.ChronicleQueue;
+import net.openhft.chronicle.queue.ExcerptAppender;
+import net.openhft.chronicle.queue.ExcerptTailer;
+import net.openhft.chronicle.wire.DocumentContext;
+
+import static net.openhft.chronicle.queue.rollcycles.SparseRollCycles.LARGE_HOURLY_XSPARSE;
+
+/**
+ * Compares the read throughput of {@link ExcerptTailer#readingDocument()} with {@link ExcerptTailer#drain}
+ * over the same queue, written as in {@link ThroughputPerfMain}.
+ */
+public class DrainThroughputPerfMain {
+    private static final int TIME = Integer.getInteger("time", 10);
+    private static final int SIZE = Integer.getInteger("size", 40);
+    private static final int BATCH = Integer.getInteger("batch", 1024);
+    private static final String PATH = System.getProperty("path", OS.TMP);
+    private static final long blockSizeMB = Long.getLong("blockSizeMB", OS.isSparseFileSupported() ? 512L << 10 : 256L);
+
+    public static void main(String[] args) {
+        String base = PATH + "/delete-" + Time.uniqueId() + ".me";
+        long count = 0;
+        BytesStore<?, ?> nbs = BytesStore.nativeStoreWithFixedCapacity(SIZE);
+        AffinityLock lock = AffinityLock.acquireCore();
+        try (ChronicleQueue q = ChronicleQueue.singleBuilder(base)
+                .rollCycle(LARGE_HOURLY_XSPARSE)
+                .blockSize(blockSizeMB << 20)
+                .build();
+             ExcerptAppender appender = q.createAppender()) {
+
+            long start = System.nanoTime();
+            do {
+                try (DocumentContext dc = appender.writingDocument()) {
+                    dc.wire().bytes().write(nbs);
+                }
+                count++;
+            } while (start + TIME * 1e9 > System.nanoTime());
+        }
+        nbs.releaseLast();
+
+        Bytes<?> bytes = Bytes.allocateElasticDirect(SIZE);
+        try (ChronicleQueue q = ChronicleQueue.singleBuilder(base)
+                .rollCycle(LARGE_HOURLY_XSPARSE)
+                .blockSize(blockSizeMB << 20)
+                .build()) {
+            for (int run = 0; run < 3; run++) {
+                long start = System.nanoTime();
+                try (ExcerptTailer tailer = q.createTailer()) {
+                    for (long i = 0; i < count; i++) {
+                        try (DocumentContext dc = tailer.readingDocument()) {
+                            bytes.clear();
+                            bytes.write(dc.wire().bytes());
+                        }
+                    }
+                }
+                long mid = System.nanoTime();
+
+                long drained = 0;
+                try (ExcerptTailer tailer = q.createTailer()) {
+                    int read;
+                    while ((read = tailer.drain((index, wire) -> {
+                        bytes.clear();
+                        bytes.write(wire.bytes());
+                    }, BATCH)) > 0)
+                        drained += read;
+                }
+                long end = System.nanoTime();
+                if (drained != count)
+                    throw new AssertionError("drained " + drained + " of " + count);
+
+                report("readingDocument", count, mid - start);
+                report("drain", count, end - mid);
+            }
+        }
+        bytes.releaseLast();
+        lock.close();
+
+        System.out.println("-Dtime=" + TIME +
+                " -Dsize=" + SIZE +
+                " -Dbatch=" + BATCH +
+                " -Dpath=" + PATH +
+                " - DblockSizeMB=" + blockSizeMB);
+        BackgroundResourceReleaser.releasePendingResources();
+        System.gc(); // make sure its cleaned up for windows to delete.
+        IOTools.deleteDirWithFiles(base, 2);
+    }
+
+    private static void report(String method, long count, long time) {
+        System.out.printf("Reading %,d messages with %s took %.3f seconds, at a rate of %,d per second, with an average latency of %,d ns%n",
+                count, method, time / 1e9, (long) (1e9 * count / time), time / count);
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2013-2025 chronicle.software; SPDX-License-Identifier: Apache-2.0
+ */
+package net.openhft.chronicle.queue.bench;
+
+import net.openhft.chronicle.bytes.BytesStore;
+import net.openhft.chronicle.core.io.IOTools;
+import net.openhft.chronicle.jlbh.JLBH;
+import net.openhft.chronicle.jlbh.JLBHOptions;
+import net.openhft.chronicle.jlbh.JLBHTask;
+import net.openhft.chronicle.jlbh.TeamCityHelper;
+import net.openhft.chronicle.queue.ExcerptAppender;
+import net.openhft.chronicle.queue.impl.single.SingleChronicleQueue;
+
+import static net.openhft.chronicle.queue.impl.single.SingleChronicleQueueBuilder.single;
+
+/**
+ * Measures the time to append a tick of small messages, either one {@code writeBytes} call per message or a
+ * single {@link ExcerptAppender#writeBytes(BytesStore[], int, int)} call per tick.
+ * <p>
+ * Run with {@code -Dbatch=false} to write the messages one at a time for comparison.
+ */
+public class QueueBatchAppendJLBHBenchmark implements JLBHTask {
+    private static final String PATH = System.getProperty("path", "batch-append");
+    private static final boolean BATCH = Boolean.parseBoolean(System.getProperty("batch", "true"));
+    private static final int MESSAGES_PER_TICK = Integer.getInteger("messagesPerTick", 32);
+    private static final int MESSAGE_SIZE = Integer.getInteger("messageSize", 64);
+    private static final int ITERATIONS = 500_000;
+    private final BytesStore<?, ?>[] tick = new BytesStore[MESSAGES_PER_TICK];
+    private SingleChronicleQueue queue;
+    private ExcerptAppender appender;
+    private JLBH jlbh;
+
+    static {
+        System.setProperty("disable.thread.safety", "true");
+        System.setProperty("jvm.resource.tracing", "false");
+    }
+
+    public static void main(String[] args) {
+        JLBHOptions lth = new JLBHOptions()
+                .warmUpIterations(50_000)
+                .iterations(ITERATIONS)
+                .throughput(50_000)
+                .recordOSJitter(false)
+                .accountForCoordinatedOmission(false)
+                .skipFirstRun(true)
+                .runs(5)
+                .jlbhTask(new QueueBatchAppendJLBHBenchmark());
+        new JLBH(lth).start();
+    }
+
+    @Override
+    public void init(JLBH jlbh) {
+        System.out.println("-Dpath=" + PATH + " -Dbatch=" + BATCH + " -DmessagesPerTick=" + MESSAGES_PER_TICK + " -DmessageSize=" + MESSAGE_SIZE);
+        IOTools.deleteDirWithFiles(PATH, 10);
+
+        for (int i = 0; i < tick.length; i++) {
+            final BytesStore<?, ?> message = BytesStore.nativeStore(MESSAGE_SIZE);
+            message.zeroOut(0, MESSAGE_SIZE);
+            tick[i] = message;
+        }
+        queue = single(PATH).build();
+        appender = queue.createAppender();
+        this.jlbh = jlbh;
+    }
+
+    @Override
+    public void run(long startTimeNS) {
+        if (BATCH) {
+            appender.writeBytes(tick, 0, tick.length);
+        } else {
+            for (BytesStore<?, ?> message : tick)
+                appender.writeBytes(message);
+        }
+        jlbh.sample(System.nanoTime() - startTimeNS);
+    }
+
+    @Override
+    public void complete() {
+        appender.close();
+        queue.close();
+        for (BytesStore<?, ?> message : tick)
+            message.releaseLast();
+        TeamCityHelper.teamCityStatsLastRun(getClass().getSimpleName(), jlbh, ITERATIONS, System.out);
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2013-2025 chronicle.software; SPDX-License-Identifier: Apache-2.0
+ */
+package net.openhft.chronicle.queue.bench;
+
+import net.openhft.chronicle.bytes.BytesStore;
+import net.openhft.chronicle.core.io.IOTools;
+import net.openhft.chronicle.jlbh.JLBH;
+import net.openhft.chronicle.jlbh.JLBHOptions;
+import net.openhft.chronicle.jlbh.JLBHTask;
+import net.openhft.chronicle.jlbh.TeamCityHelper;
+import net.openhft.chronicle.queue.ExcerptAppender;
+import net.openhft.chronicle.queue.impl.single.SingleChronicleQueue;
+import net.openhft.chronicle.queue.impl.single.SingleChronicleQueueBuilder;
+
+import static net.openhft.chronicle.queue.rollcycles.TestRollCycles.TEST_SECONDLY;
+
+/**
+ * Measures append latency on a queue which rolls every second, so the outliers include the cost of creating the
+ * file for each new cycle.
+ * <p>
+ * Run with {@code -Dprecreate=false} to create each cycle file on the critical path for comparison.
+ */
+public class RollLatencyJLBHBenchmark implements JLBHTask {
+    private static final String PATH = System.getProperty("path", "roll-latency");
+    private static final boolean PRECREATE = Boolean.parseBoolean(System.getProperty("precreate", "true"));
+    private static final long LEAD_MILLIS = Long.getLong("leadMillis", 250);
+    private static final int MESSAGE_SIZE = Integer.getInteger("messageSize", 256);
+    private static final int THROUGHPUT = 20_000;
+    private static final int ITERATIONS = THROUGHPUT * 30;
+    private BytesStore<?, ?> message;
+    private SingleChronicleQueue queue;
+    private ExcerptAppender appender;
+    private JLBH jlbh;
+
+    static {
+        System.setProperty("disable.thread.safety", "true");
+        System.setProperty("jvm.resource.tracing", "false");
+    }
+
+    public static void main(String[] args) {
+        JLBHOptions lth = new JLBHOptions()
+                .warmUpIterations(50_000)
+                .iterations(ITERATIONS)
+                .throughput(THROUGHPUT)
+                .recordOSJitter(false)
+                .accountForCoordinatedOmission(false)
+                .skipFirstRun(true)
+                .runs(4)
+                .jlbhTask(new RollLatencyJLBHBenchmark());
+        new JLBH(lth).start();
+    }
+
+    @Override
+    public void init(JLBH jlbh) {
+        System.out.println("-Dpath=" + PATH + " -Dprecreate=" + PRECREATE + " -DleadMillis=" + LEAD_MILLIS + " -DmessageSize=" + MESSAGE_SIZE);
+        IOTools.deleteDirWithFiles(PATH, 10);
+
+        message = BytesStore.nativeStore(MESSAGE_SIZE);
+        message.zeroOut(0, MESSAGE_SIZE);
+        final SingleChronicleQueueBuilder builder = SingleChronicleQueueBuilder.single(PATH)
+                .rollCycle(TEST_SECONDLY);
+        if (PRECREATE)
+            builder.precreateNextCycle(LEAD_MILLIS);
+        queue = builder.build();
+        appender = queue.createAppender();
+        this.jlbh = jlbh;
+    }
+
+    @Override
+    public void run(long startTimeNS) {
+        appender.writeBytes(message);
+        jlbh.sample(System.nanoTime() - startTimeNS);
+    }
+
+    @Override
+    public void complete() {
+        appender.close();
+        queue.close();
+        message.releaseLast();
+        IOTools.deleteDirWithFiles(PATH, 10);
+        TeamCityHelper.teamCityStatsLastRun(getClass().getSimpleName(), jlbh, ITERATIONS, System.out);
+    }
+}
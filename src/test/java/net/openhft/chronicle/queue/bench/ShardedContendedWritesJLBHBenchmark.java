@@ -0,0 +1,142 @@
+/*
+ * Copyright 2013-2025 chronicle.software; SPDX-License-Identifier: Apache-2.0
+ */
+package net.openhft.chronicle.queue.bench;
+
+import net.openhft.chronicle.bytes.BytesStore;
+import net.openhft.chronicle.core.io.Closeable;
+import net.openhft.chronicle.core.io.IOTools;
+import net.openhft.chronicle.core.util.NanoSampler;
+import net.openhft.chronicle.jlbh.JLBH;
+import net.openhft.chronicle.jlbh.JLBHOptions;
+import net.openhft.chronicle.jlbh.JLBHTask;
+import net.openhft.chronicle.jlbh.TeamCityHelper;
+import net.openhft.chronicle.queue.ExcerptAppender;
+import net.openhft.chronicle.queue.ExcerptTailer;
+import net.openhft.chronicle.queue.RollCycles;
+import net.openhft.chronicle.queue.impl.sharded.MergedTailer;
+import net.openhft.chronicle.queue.impl.sharded.ShardedAppender;
+import net.openhft.chronicle.queue.impl.sharded.ShardedChronicleQueue;
+import net.openhft.chronicle.queue.impl.single.SingleChronicleQueue;
+import net.openhft.chronicle.queue.impl.single.SingleChronicleQueueBuilder;
+import net.openhft.chronicle.wire.DocumentContext;
+
+import java.io.File;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static net.openhft.chronicle.queue.bench.BenchmarkUtils.join;
+
+/**
+ * Measures the write latency of several threads appending at once, and the latency until all their excerpts have been
+ * read, either sharing one queue and its write lock, or each writing to its own shard of a
+ * {@link ShardedChronicleQueue} read by a {@link MergedTailer}.
+ * <p>
+ * Run with {@code -Dsharded=false} to share one queue, and {@code -Dwriters=n} to change the number of writers.
+ */
+public class ShardedContendedWritesJLBHBenchmark implements JLBHTask {
+    private static final String PATH = System.getProperty("path", "sharded-contended");
+    private static final boolean SHARDED = Boolean.parseBoolean(System.getProperty("sharded", "true"));
+    private static final int WRITERS = Integer.getInteger("writers", 4);
+    private static final int MESSAGE_SIZE = Integer.getInteger("messageSize", 256);
+    private static final int ITERATIONS = 100_000;
+
+    private Closeable queue;
+    private Supplier<DocumentContext> reader;
+    private Closeable tailer;
+    private JLBH jlbh;
+    private final AtomicInteger toWrite = new AtomicInteger();
+    private final Thread[] writers = new Thread[WRITERS];
+    private volatile boolean stopped = false;
+
+    public static void main(String[] args) {
+        JLBHOptions lth = new JLBHOptions()
+                .warmUpIterations(50_000)
+                .iterations(ITERATIONS)
+                .throughput(10_000)
+                .recordOSJitter(false)
+                .accountForCoordinatedOmission(false)
+                .skipFirstRun(true)
+                .runs(3)
+                .jlbhTask(new ShardedContendedWritesJLBHBenchmark());
+        new JLBH(lth).start();
+    }
+
+    @Override
+    public void init(JLBH jlbh) {
+        System.out.println("-Dpath=" + PATH + " -Dsharded=" + SHARDED + " -Dwriters=" + WRITERS + " -DmessageSize=" + MESSAGE_SIZE);
+        IOTools.deleteDirWithFiles(PATH, 10);
+        this.jlbh = jlbh;
+
+        final Supplier<Supplier<DocumentContext>> appenders;
+        if (SHARDED) {
+            final ShardedChronicleQueue sharded = ShardedChronicleQueue.of(new File(PATH), WRITERS,
+                    b -> b.rollCycle(RollCycles.FAST_DAILY));
+            final MergedTailer mergedTailer = sharded.createTailer();
+            final AtomicInteger group = new AtomicInteger();
+            appenders = () -> {
+                final ShardedAppender appender = sharded.createAppender(group.getAndIncrement());
+                return appender::writingDocument;
+            };
+            reader = mergedTailer::readingDocument;
+            tailer = mergedTailer;
+            queue = sharded;
+        } else {
+            final SingleChronicleQueue single = SingleChronicleQueueBuilder.single(PATH).rollCycle(RollCycles.FAST_DAILY).build();
+            final ExcerptTailer singleTailer = single.createTailer();
+            appenders = () -> {
+                final ExcerptAppender appender = single.createAppender();
+                return appender::writingDocument;
+            };
+            reader = singleTailer::readingDocument;
+            tailer = singleTailer;
+            queue = single;
+        }
+
+        for (int w = 0; w < WRITERS; w++) {
+            final NanoSampler probe = jlbh.addProbe("write" + w);
+            writers[w] = new Thread(() -> {
+                final Supplier<DocumentContext> appender = appenders.get();
+                final BytesStore<?, ?> message = BytesStore.nativeStore(MESSAGE_SIZE);
+                message.zeroOut(0, MESSAGE_SIZE);
+                try {
+                    while (!stopped) {
+                        if (toWrite.get() <= 0 || toWrite.decrementAndGet() < 0)
+                            continue;
+                        final long start = System.nanoTime();
+                        try (DocumentContext dc = appender.get()) {
+                            dc.wire().write("message").bytes(message);
+                        }
+                        probe.sampleNanos(System.nanoTime() - start);
+                    }
+                } finally {
+                    message.releaseLast();
+                }
+            }, "writer" + w);
+            writers[w].start();
+        }
+    }
+
+    @Override
+    public void run(long startTimeNS) {
+        toWrite.set(WRITERS);
+        int read = 0;
+        while (read < WRITERS) {
+            try (DocumentContext dc = reader.get()) {
+                if (dc.isPresent())
+                    read++;
+            }
+        }
+        jlbh.sampleNanos(System.nanoTime() - startTimeNS);
+    }
+
+    @Override
+    public void complete() {
+        stopped = true;
+        for (Thread writer : writers)
+            join(writer);
+        tailer.close();
+        queue.close();
+        TeamCityHelper.teamCityStatsLastRun(getClass().getSimpleName(), jlbh, ITERATIONS, System.out);
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2013-2025 chronicle.software; SPDX-License-Identifier: Apache-2.0
+ */
+package net.openhft.chronicle.queue.bench;
+
+import net.openhft.chronicle.core.OS;
+import net.openhft.chronicle.core.io.IOTools;
+import net.openhft.chronicle.core.time.SetTimeProvider;
+import net.openhft.chronicle.core.util.Time;
+import net.openhft.chronicle.queue.ExcerptAppender;
+import net.openhft.chronicle.queue.ExcerptTailer;
+import net.openhft.chronicle.queue.impl.single.SingleChronicleQueue;
+import net.openhft.chronicle.queue.impl.single.SingleChronicleQueueBuilder;
+import net.openhft.chronicle.wire.DocumentContext;
+
+import java.util.Arrays;
+import java.util.concurrent.CyclicBarrier;
+
+import static net.openhft.chronicle.queue.rollcycles.TestRollCycles.TEST_SECONDLY;
+
+/**
+ * Measures how long tailers take to move to the next cycle when many of them cross each roll at the same moment, so
+ * they all acquire the same store from the shared mapped file cache together.
+ * <p>
+ * Every tailer reads every excerpt, with all tailers released together at the start of each cycle. Only the reads
+ * which move to a new cycle are timed.
+ */
+public class TailerRollPerfMain {
+    private static final int TAILERS = Integer.getInteger("tailers", 200);
+    private static final int CYCLES = Integer.getInteger("cycles", 100);
+    private static final int PER_CYCLE = Integer.getInteger("perCycle", 10);
+    private static final int RUNS = Integer.getInteger("runs", 5);
+    private static final String PATH = System.getProperty("path", OS.TMP);
+
+    static {
+        System.setProperty("jvm.resource.tracing", "false");
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        System.out.println("-Dtailers=" + TAILERS + " -Dcycles=" + CYCLES + " -DperCycle=" + PER_CYCLE + " -Druns=" + RUNS);
+        String base = PATH + "/delete-" + Time.uniqueId() + ".me";
+        SetTimeProvider timeProvider = new SetTimeProvider("2020/10/19T01:01:01");
+        try (SingleChronicleQueue queue = SingleChronicleQueueBuilder.binary(base)
+                .rollCycle(TEST_SECONDLY)
+                .timeProvider(timeProvider)
+                .build()) {
+            try (ExcerptAppender appender = queue.createAppender()) {
+                for (int c = 0; c < CYCLES; c++) {
+                    for (int i = 0; i < PER_CYCLE; i++)
+                        appender.writeText("message-" + c + "-" + i);
+                    timeProvider.advanceMillis(1_000);
+                }
+            }
+
+            for (int run = 0; run < RUNS; run++) {
+                long[][] rollNanos = new long[TAILERS][CYCLES];
+                CyclicBarrier barrier = new CyclicBarrier(TAILERS);
+                Thread[] threads = new Thread[TAILERS];
+                for (int t = 0; t < TAILERS; t++) {
+                    long[] times = rollNanos[t];
+                    threads[t] = new Thread(() -> readAll(queue, barrier, times), "tailer-" + t);
+                    threads[t].start();
+                }
+                long start = System.nanoTime();
+                for (Thread thread : threads)
+                    thread.join();
+                long elapsed = System.nanoTime() - start;
+
+                long[] all = Arrays.stream(rollNanos).flatMapToLong(Arrays::stream).sorted().toArray();
+                System.out.printf("Run %d: %,d rolls in %.1f ms, roll read latency us 50%%: %.1f, 99%%: %.1f, 99.9%%: %.1f, max: %.1f%n",
+                        run, all.length, elapsed / 1e6,
+                        percentile(all, 0.5), percentile(all, 0.99), percentile(all, 0.999), all[all.length - 1] / 1e3);
+            }
+        } finally {
+            IOTools.deleteDirWithFiles(base, 2);
+        }
+    }
+
+    private static void readAll(SingleChronicleQueue queue, CyclicBarrier barrier, long[] rollNanos) {
+        try (ExcerptTailer tailer = queue.createTailer()) {
+            int rolls = 0;
+            int lastCycle = Integer.MIN_VALUE;
+            for (int read = 0; read < CYCLES * PER_CYCLE; read++) {
+                // line up all the tailers before each one moves to a new cycle
+                if (read % PER_CYCLE == 0)
+                    barrier.await();
+                long start = System.nanoTime();
+                try (DocumentContext dc = tailer.readingDocument()) {
+                    if (!dc.isPresent())
+                        throw new AssertionError("missing excerpt " + read);
+                    int cycle = queue.rollCycle().toCycle(dc.index());
+                    if (cycle != lastCycle) {
+                        rollNanos[rolls++] = System.nanoTime() - start;
+                        lastCycle = cycle;
+                    }
+                }
+            }
+        } catch (Exception e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private static double percentile(long[] sorted, double fraction) {
+        return sorted[(int) Math.min(sorted.length - 1, sorted.length * fraction)] / 1e3;
+    }
+}
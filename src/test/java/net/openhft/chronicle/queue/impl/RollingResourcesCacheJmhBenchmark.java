@@ -0,0 +1,93 @@
+/*
+ * Copyright 2013-2025 chronicle.software; SPDX-License-Identifier: Apache-2.0
+ */
+package net.openhft.chronicle.queue.impl;
+
+import net.openhft.chronicle.queue.RollCycle;
+import net.openhft.chronicle.queue.RollCycles;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+import static net.openhft.chronicle.queue.impl.single.SingleChronicleQueue.SUFFIX;
+
+/**
+ * Compares the arithmetic conversion of cycle file names against the {@link java.time.format.DateTimeFormatter}
+ * it replaces, on the conversions made when listing the directory of a queue with many cycle files.
+ */
+@Fork(value = 1, warmups = 1)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RollingResourcesCacheJmhBenchmark {
+    private static final int FILES = 1_000;
+
+    @Param({"true", "false"})
+    public boolean arithmetic;
+
+    @Param({"FAST_HOURLY", "FAST_DAILY"})
+    public String rollCycle;
+
+    private RollingResourcesCache cache;
+    private int firstCycle;
+    private File[] files;
+    private String[] names;
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(RollingResourcesCacheJmhBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        final RollCycle cycle = RollCycles.valueOf(rollCycle);
+        final File dir = new File("queue");
+        cache = new RollingResourcesCache(cycle, 0,
+                name -> new File(dir, name + SUFFIX),
+                file -> file.getName().substring(0, file.getName().length() - SUFFIX.length()),
+                arithmetic);
+        firstCycle = cycle.current(System::currentTimeMillis, 0) - FILES;
+        files = new File[FILES];
+        names = new String[FILES];
+        for (int i = 0; i < FILES; i++) {
+            final RollingResourcesCache.Resource resource = cache.resourceFor(firstCycle + i);
+            files[i] = resource.path;
+            names[i] = resource.text;
+        }
+    }
+
+    /**
+     * Keys every cycle file, as a listing of the directory does.
+     */
+    @Benchmark
+    public long toLong() {
+        long sum = 0;
+        for (File file : files)
+            sum += cache.toLong(file);
+        return sum;
+    }
+
+    @Benchmark
+    public long parseCount() {
+        long sum = 0;
+        for (String name : names)
+            sum += cache.parseCount(name);
+        return sum;
+    }
+
+    /**
+     * Names more cycles than are cached, so most lookups format a name.
+     */
+    @Benchmark
+    public long resourceFor() {
+        long sum = 0;
+        for (int i = 0; i < FILES; i++)
+            sum += cache.resourceFor(firstCycle + i).text.length();
+        return sum;
+    }
+}
@@ -5,6 +5,7 @@ package net.openhft.chronicle.queue.impl;
 
 import net.openhft.chronicle.queue.QueueTestCommon;
 import net.openhft.chronicle.queue.RollCycle;
+import net.openhft.chronicle.queue.RollCycles;
 import net.openhft.chronicle.queue.harness.WeeklyRollCycle;
 import net.openhft.chronicle.queue.rollcycles.TestRollCycles;
 import org.junit.Test;
@@ -349,6 +350,29 @@ public class RollingResourcesCacheTest extends QueueTestCommon {
         assertEquals(expectedLong, cache.toLong(resource.path));
     }
 
+    @Test
+    public void arithmeticConversionMatchesFormatter() {
+        final Random random = new Random(SEED);
+        final long twoHundredYears = TimeUnit.DAYS.toMillis(200 * 365);
+        for (RollCycle rollCycle : RollCycles.all()) {
+            // the weekly formats are only converted by the formatter
+            if (FixedDateFormatCodec.forFormat(rollCycle.format()) == null)
+                continue;
+            for (long epoch : new long[]{0, AM_EPOCH, PM_EPOCH, POSITIVE_RELATIVE_EPOCH, NEGATIVE_RELATIVE_EPOCH}) {
+                final RollingResourcesCache arithmetic = new RollingResourcesCache(rollCycle, epoch, File::new, File::getName, true);
+                final RollingResourcesCache formatted = new RollingResourcesCache(rollCycle, epoch, File::new, File::getName, false);
+                final int maxCycle = (int) Math.min(Integer.MAX_VALUE, twoHundredYears / rollCycle.lengthInMillis());
+                for (int i = 0; i < 500; i++) {
+                    final int cycle = random.nextInt(maxCycle);
+                    final String name = formatted.resourceFor(cycle).text;
+                    assertEquals(rollCycle.format(), name, arithmetic.resourceFor(cycle).text);
+                    assertEquals(name, formatted.parseCount(name), arithmetic.parseCount(name));
+                    assertEquals(name, formatted.toLong(new File(name)), arithmetic.toLong(new File(name)));
+                }
+            }
+        }
+    }
+
     private RollingResourcesCache newCache(File dir) {
         return new RollingResourcesCache(
                 TestRollCycles.TEST_SECONDLY,
@@ -96,4 +96,44 @@ public class TableStoreTest extends QueueTestCommon {
             assertThrows(IllegalStateException.class, () -> table.acquireValueFor("d"));
         }
     }
+
+    @Test
+    public void acquireExistingValueForSeesKeysAddedByAnotherInstance() throws IOException {
+
+        final File file = tempDir("table");
+        file.mkdir();
+
+        final File tempFile = Files.createTempFile(file.toPath(), "table", SingleTableStore.SUFFIX).toFile();
+
+        try (TableStore<Metadata.NoMeta> table1 = SingleTableBuilder.binary(tempFile, Metadata.NoMeta.INSTANCE).build();
+             TableStore<Metadata.NoMeta> table2 = SingleTableBuilder.binary(tempFile, Metadata.NoMeta.INSTANCE).build()) {
+            assertNull(table1.acquireExistingValueFor("a"));
+
+            try (LongValue a = table2.acquireValueFor("a", 1);
+                 LongValue a1 = table1.acquireExistingValueFor("a");
+                 LongValue upper = table1.acquireExistingValueFor("A")) {
+                assertNotNull(a1);
+                assertNotNull(upper);
+                assertEquals(1, a1.getVolatileValue());
+                a.setVolatileValue(2);
+                assertEquals(2, a1.getVolatileValue());
+                assertEquals(2, upper.getVolatileValue());
+            }
+            // found again as given, bound through the same bytes as the values before
+            try (LongValue upper = table1.acquireExistingValueFor("A")) {
+                assertNotNull(upper);
+                assertEquals(2, upper.getVolatileValue());
+            }
+
+            for (int i = 0; i < 500; i++)
+                try (LongValue value = table1.acquireValueFor("key." + i, i)) {
+                    assertEquals(i, value.getVolatileValue());
+                }
+            for (int i = 0; i < 500; i++)
+                try (LongValue value = table2.acquireExistingValueFor("key." + i)) {
+                    assertNotNull(value);
+                    assertEquals(i, value.getVolatileValue());
+                }
+        }
+    }
 }
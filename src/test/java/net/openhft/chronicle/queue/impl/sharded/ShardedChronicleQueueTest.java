@@ -0,0 +1,116 @@
+/*
+ * Copyright 2013-2025 chronicle.software; SPDX-License-Identifier: Apache-2.0
+ */
+package net.openhft.chronicle.queue.impl.sharded;
+
+import net.openhft.chronicle.core.time.SetTimeProvider;
+import net.openhft.chronicle.queue.QueueTestCommon;
+import net.openhft.chronicle.wire.DocumentContext;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.*;
+
+public class ShardedChronicleQueueTest extends QueueTestCommon {
+
+    @Test
+    public void excerptsAreMergedByTheTimeTheyWereWritten() {
+        final SetTimeProvider timeProvider = new SetTimeProvider("2020/10/19T01:01:01");
+        try (ShardedChronicleQueue queue = ShardedChronicleQueue.of(getTmpDir(), 3,
+                b -> b.testBlockSize().timeProvider(timeProvider));
+             ShardedAppender a0 = queue.createAppender(0);
+             ShardedAppender a1 = queue.createAppender(1);
+             ShardedAppender a2 = queue.createAppender(5);
+             MergedTailer tailer = queue.createTailer()) {
+            assertEquals(2, a2.shard());
+
+            final ShardedAppender[] order = {a1, a0, a0, a2, a1, a2, a2, a0};
+            for (int i = 0; i < order.length; i++) {
+                timeProvider.advanceMicros(1);
+                order[i].writeText("msg" + i);
+            }
+
+            long lastTime = Long.MIN_VALUE;
+            for (int i = 0; i < order.length; i++) {
+                assertEquals("msg" + i, tailer.readText());
+                assertEquals(order[i].shard(), tailer.lastReadShard());
+                assertTrue(tailer.lastReadTime() > lastTime);
+                lastTime = tailer.lastReadTime();
+            }
+            assertNull(tailer.readText());
+
+            // excerpts written after the tailer caught up are still read in order
+            timeProvider.advanceMicros(1);
+            a2.writeText("late2");
+            timeProvider.advanceMicros(1);
+            a0.writeText("late0");
+            assertEquals("late2", tailer.readText());
+            assertEquals("late0", tailer.readText());
+            assertNull(tailer.readText());
+
+            tailer.toStart();
+            assertEquals("msg0", tailer.readText());
+            tailer.toEnd();
+            assertNull(tailer.readText());
+        }
+    }
+
+    @Test
+    public void readingDocumentSkipsTheTime() {
+        try (ShardedChronicleQueue queue = ShardedChronicleQueue.of(getTmpDir(), 2, b -> b.testBlockSize());
+             ShardedAppender appender = queue.createAppender(1);
+             MergedTailer tailer = queue.createTailer()) {
+            appender.writeDocument(w -> w.write("say").text("hello"));
+            try (DocumentContext dc = tailer.readingDocument()) {
+                assertTrue(dc.isPresent());
+                assertEquals("hello", dc.wire().read("say").text());
+            }
+            assertEquals(appender.lastIndexAppended(), tailer.lastReadIndex());
+            try (DocumentContext dc = tailer.readingDocument()) {
+                assertFalse(dc.isPresent());
+            }
+        }
+    }
+
+    @Test
+    public void writersInEachGroupKeepTheirOrder() throws InterruptedException {
+        final int writers = 4;
+        final int perWriter = 2_000;
+        try (ShardedChronicleQueue queue = ShardedChronicleQueue.of(getTmpDir(), writers, b -> b.testBlockSize())) {
+            final CountDownLatch start = new CountDownLatch(1);
+            final List<Thread> threads = new ArrayList<>();
+            for (int w = 0; w < writers; w++) {
+                final int writer = w;
+                final Thread thread = new Thread(() -> {
+                    try (ShardedAppender appender = queue.createAppender(writer)) {
+                        start.await();
+                        for (int i = 0; i < perWriter; i++)
+                            appender.writeText(writer + ":" + i);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+                thread.start();
+                threads.add(thread);
+            }
+            start.countDown();
+            for (Thread thread : threads)
+                thread.join();
+
+            final int[] next = new int[writers];
+            try (MergedTailer tailer = queue.createTailer()) {
+                for (String text; (text = tailer.readText()) != null; ) {
+                    final String[] parts = text.split(":");
+                    final int writer = Integer.parseInt(parts[0]);
+                    assertEquals(writer, tailer.lastReadShard());
+                    assertEquals(next[writer]++, Integer.parseInt(parts[1]));
+                }
+            }
+            for (int count : next)
+                assertEquals(perWriter, count);
+        }
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright 2013-2025 chronicle.software; SPDX-License-Identifier: Apache-2.0
+ */
+package net.openhft.chronicle.queue.impl.single;
+
+import net.openhft.chronicle.bytes.Bytes;
+import net.openhft.chronicle.core.Jvm;
+import net.openhft.chronicle.queue.BufferMode;
+import net.openhft.chronicle.queue.ExcerptAppender;
+import net.openhft.chronicle.queue.ExcerptTailer;
+import net.openhft.chronicle.queue.QueueTestCommon;
+import net.openhft.chronicle.wire.DocumentContext;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeFalse;
+
+public class AsyncWriteBufferTest extends QueueTestCommon {
+    private static final int THREADS = 4;
+    private static final int PER_THREAD = 5_000;
+
+    @Test
+    public void writesTheExcerptsOfEveryThreadInTheOrderEachAppendedThem() throws InterruptedException {
+        final AtomicLong ringCapacity = new AtomicLong();
+        try (SingleChronicleQueue queue = queue(getTmpDir())
+                .onRingBufferStats(stats -> ringCapacity.set(stats.capacity()))
+                .build()) {
+            assertTrue(queue.buffered());
+            final List<Thread> threads = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                final int thread = t;
+                threads.add(new Thread(() -> {
+                    try (ExcerptAppender appender = queue.createAppender()) {
+                        for (int i = 0; i < PER_THREAD; i++) {
+                            try (DocumentContext dc = appender.writingDocument()) {
+                                dc.wire().write("thread").int32(thread).write("seq").int32(i);
+                            }
+                        }
+                    }
+                }, "appender-" + t));
+            }
+            threads.forEach(Thread::start);
+            for (Thread thread : threads)
+                thread.join();
+
+            assertTrue(queue.awaitAsync());
+            // everything appended has been written, so can be read straight away
+            final int[] next = new int[THREADS];
+            try (ExcerptTailer tailer = queue.createTailer()) {
+                for (int i = 0; i < THREADS * PER_THREAD; i++) {
+                    try (DocumentContext dc = tailer.readingDocument()) {
+                        assertTrue(dc.isPresent());
+                        final int thread = dc.wire().read("thread").int32();
+                        assertEquals(next[thread]++, dc.wire().read("seq").int32());
+                    }
+                }
+                try (DocumentContext dc = tailer.readingDocument()) {
+                    assertFalse(dc.isPresent());
+                }
+            }
+
+            for (int i = 0; i < 30 && ringCapacity.get() == 0; i++)
+                Jvm.pause(100);
+            assertEquals(queue.bufferCapacity(), ringCapacity.get());
+        }
+    }
+
+    @Test
+    public void closingTheQueueWritesWhatIsStillBuffered() {
+        final File dir = getTmpDir();
+        try (SingleChronicleQueue queue = queue(dir).build();
+             ExcerptAppender appender = queue.createAppender()) {
+            final Bytes<?> bytes = Bytes.allocateElasticOnHeap();
+            for (int i = 0; i < 1_000; i++) {
+                bytes.clear().append("excerpt ").append(i);
+                appender.writeBytes(bytes);
+            }
+            bytes.releaseLast();
+        }
+        try (SingleChronicleQueue queue = SingleChronicleQueueBuilder.binary(dir).testBlockSize().build();
+             ExcerptTailer tailer = queue.createTailer()) {
+            final Bytes<?> bytes = Bytes.allocateElasticOnHeap();
+            for (int i = 0; i < 1_000; i++) {
+                bytes.clear();
+                assertTrue(tailer.readBytes(bytes));
+                assertEquals("excerpt " + i, bytes.toString());
+            }
+            assertFalse(tailer.readBytes(bytes));
+            bytes.releaseLast();
+        }
+    }
+
+    @Test
+    public void indexesAreUnavailableUntilDrained() {
+        try (SingleChronicleQueue queue = queue(getTmpDir()).build();
+             ExcerptAppender appender = queue.createAppender()) {
+            appender.writeText("hello");
+            assertThrows(IndexNotAvailableException.class, appender::lastIndexAppended);
+            assertTrue(queue.awaitAsync());
+            try (ExcerptTailer tailer = queue.createTailer()) {
+                assertEquals("hello", tailer.readText());
+            }
+        }
+    }
+
+    @Test
+    public void drainedExcerptsAreAddedToKeyIndexes() {
+        final int orders = 2_000;
+        try (SingleChronicleQueue queue = queue(getTmpDir())
+                .keyIndex("orderId", wire -> wire.read("orderId").int64())
+                .build();
+             ExcerptAppender appender = queue.createAppender()) {
+            for (int i = 0; i < orders; i++) {
+                final long orderId = i % 100 + 1;
+                appender.writeDocument(w -> w.write("orderId").int64(orderId));
+            }
+            assertTrue(queue.awaitAsync());
+
+            final KeyIndex keyIndex = queue.keyIndex("orderId");
+            try (ExcerptTailer tailer = queue.createTailer()) {
+                for (long orderId = 1; orderId <= 100; orderId++) {
+                    final long[] indexes = keyIndex.lookup(orderId);
+                    assertEquals(orders / 100, indexes.length);
+                    for (long index : indexes) {
+                        assertTrue(tailer.moveToIndex(index));
+                        try (DocumentContext dc = tailer.readingDocument()) {
+                            assertEquals(orderId, dc.wire().read("orderId").int64());
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void rejectsAnExcerptLargerThanHalfTheBuffer() {
+        try (SingleChronicleQueue queue = queue(getTmpDir()).build();
+             ExcerptAppender appender = queue.createAppender()) {
+            final Bytes<?> bytes = Bytes.allocateElasticOnHeap();
+            bytes.writeSkip(queue.bufferCapacity() / 2 + 1);
+            assertThrows(IllegalArgumentException.class, () -> appender.writeBytes(bytes));
+            bytes.releaseLast();
+        }
+    }
+
+    private static SingleChronicleQueueBuilder queue(File dir) {
+        assumeFalse("Chronicle Queue Enterprise provides its own asynchronous mode",
+                SingleChronicleQueueBuilder.areEnterpriseFeaturesAvailable());
+        // a small buffer, so writers wrap around it and wait for the drainer
+        return SingleChronicleQueueBuilder.binary(dir)
+                .testBlockSize()
+                .writeBufferMode(BufferMode.Asynchronous)
+                .bufferCapacity(16 << 10);
+    }
+}
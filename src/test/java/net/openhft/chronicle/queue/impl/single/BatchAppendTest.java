@@ -0,0 +1,126 @@
+/*
+ * Copyright 2013-2025 chronicle.software; SPDX-License-Identifier: Apache-2.0
+ */
+package net.openhft.chronicle.queue.impl.single;
+
+import net.openhft.chronicle.bytes.Bytes;
+import net.openhft.chronicle.bytes.BytesStore;
+import net.openhft.chronicle.queue.ExcerptAppender;
+import net.openhft.chronicle.queue.ExcerptTailer;
+import net.openhft.chronicle.queue.QueueTestCommon;
+import net.openhft.chronicle.wire.DocumentContext;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class BatchAppendTest extends QueueTestCommon {
+
+    @Test
+    public void batchIsWrittenAsSeparateIndexedExcerpts() {
+        final int batches = 10;
+        final int batchSize = 25;
+        try (SingleChronicleQueue queue = SingleChronicleQueueBuilder.binary(getTmpDir())
+                .testBlockSize()
+                .indexSpacing(4)
+                .build();
+             ExcerptAppender appender = queue.createAppender()) {
+            final BytesStore<?, ?>[] batch = new BytesStore[batchSize];
+            for (int b = 0; b < batches; b++) {
+                for (int i = 0; i < batchSize; i++)
+                    batch[i] = Bytes.from("msg-" + (b * batchSize + i));
+                appender.writeBytes(batch);
+            }
+            final long lastIndex = appender.lastIndexAppended();
+
+            try (ExcerptTailer tailer = queue.createTailer()) {
+                final long firstIndex = tailer.toStart().index();
+                assertEquals(batches * batchSize - 1, lastIndex - firstIndex);
+                for (int i = 0; i < batches * batchSize; i++) {
+                    try (DocumentContext dc = tailer.readingDocument()) {
+                        assertTrue(dc.isPresent());
+                        assertEquals(firstIndex + i, dc.index());
+                        assertEquals("msg-" + i, dc.wire().bytes().toString());
+                    }
+                }
+
+                // the index written during the batch is usable for random access
+                for (int i = batches * batchSize - 1; i >= 0; i -= 7) {
+                    assertTrue(tailer.moveToIndex(firstIndex + i));
+                    assertEquals("msg-" + i, readNext(tailer));
+                }
+            }
+            assertEquals(lastIndex, queue.lastIndex());
+        }
+    }
+
+    @Test
+    public void eachExcerptOfABatchIsSeenByTheAppenderListener() {
+        // more than a block, so the write position is published part way through the batch
+        final int batchSize = (int) (2 * SingleChronicleQueueBuilder.SMALL_BLOCK_SIZE / 100);
+        final List<String> heard = new ArrayList<>();
+        try (SingleChronicleQueue queue = SingleChronicleQueueBuilder.binary(getTmpDir())
+                .testBlockSize()
+                .indexSpacing(4)
+                .appenderListener((wire, index) -> heard.add(index + ":" + wire.bytes()))
+                .build();
+             ExcerptAppender appender = queue.createAppender()) {
+            final BytesStore<?, ?>[] batch = new BytesStore[batchSize];
+            final List<String> expected = new ArrayList<>();
+            final char[] padding = new char[90];
+            Arrays.fill(padding, '.');
+            for (int i = 0; i < batchSize; i++)
+                batch[i] = Bytes.from("msg-" + i + new String(padding));
+            appender.writeBytes(batch);
+            appender.writeText("after");
+            final long lastIndex = appender.lastIndexAppended();
+
+            try (ExcerptTailer tailer = queue.createTailer()) {
+                final long firstIndex = tailer.toStart().index();
+                for (int i = 0; i < batchSize; i++)
+                    expected.add((firstIndex + i) + ":" + batch[i]);
+                assertEquals(expected, heard.subList(0, batchSize));
+                assertEquals(batchSize + 1, heard.size());
+
+                assertEquals(batchSize, lastIndex - firstIndex);
+                for (int i = batchSize - 1; i >= 0; i -= 13) {
+                    assertTrue(tailer.moveToIndex(firstIndex + i));
+                    assertEquals(batch[i].toString(), readNext(tailer));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void writesOnlyTheRequestedRange() {
+        try (SingleChronicleQueue queue = SingleChronicleQueueBuilder.binary(getTmpDir()).testBlockSize().build();
+             ExcerptAppender appender = queue.createAppender()) {
+            final BytesStore<?, ?>[] batch = {Bytes.from("a"), Bytes.from("b"), Bytes.from("c"), Bytes.from("d")};
+            appender.writeBytes(batch, 1, 2);
+            appender.writeBytes(batch, 0, 0);
+
+            try (ExcerptTailer tailer = queue.createTailer()) {
+                assertEquals("b", readNext(tailer));
+                assertEquals("c", readNext(tailer));
+                assertNull(readNext(tailer));
+            }
+        }
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void rejectsRangeOutsideTheBatch() {
+        try (SingleChronicleQueue queue = SingleChronicleQueueBuilder.binary(getTmpDir()).testBlockSize().build();
+             ExcerptAppender appender = queue.createAppender()) {
+            appender.writeBytes(new BytesStore[]{Bytes.from("a")}, 1, 1);
+        }
+    }
+
+    private static String readNext(ExcerptTailer tailer) {
+        try (DocumentContext dc = tailer.readingDocument()) {
+            return dc.isPresent() ? dc.wire().bytes().toString() : null;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2013-2025 chronicle.software; SPDX-License-Identifier: Apache-2.0
+ */
+package net.openhft.chronicle.queue.impl.single;
+
+import net.openhft.chronicle.bytes.Bytes;
+import net.openhft.chronicle.core.time.SetTimeProvider;
+import net.openhft.chronicle.queue.ExcerptAppender;
+import net.openhft.chronicle.queue.ExcerptTailer;
+import net.openhft.chronicle.queue.QueueTestCommon;
+import net.openhft.chronicle.wire.DocumentContext;
+import net.openhft.chronicle.wire.Wire;
+import net.openhft.chronicle.wire.WireType;
+import org.junit.Test;
+
+import java.util.Comparator;
+
+import static net.openhft.chronicle.queue.rollcycles.TestRollCycles.TEST_SECONDLY;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class BinarySearchAcrossCyclesTest extends QueueTestCommon {
+    private static final int CYCLES = 20;
+    private static final int PER_CYCLE = 5;
+
+    private static final Comparator<Wire> COMPARATOR = (o1, o2) -> {
+        final long readPositionO1 = o1.bytes().readPosition();
+        final long readPositionO2 = o2.bytes().readPosition();
+        try {
+            return Long.compare(o1.read("key").int64(), o2.read("key").int64());
+        } finally {
+            o1.bytes().readPosition(readPositionO1);
+            o2.bytes().readPosition(readPositionO2);
+        }
+    };
+
+    @Test
+    public void findsEveryKeyWithAndWithoutACache() {
+        final SetTimeProvider timeProvider = new SetTimeProvider();
+        final long[] indexes = new long[CYCLES * PER_CYCLE];
+        try (SingleChronicleQueue queue = SingleChronicleQueueBuilder.binary(getTmpDir())
+                .rollCycle(TEST_SECONDLY)
+                .timeProvider(timeProvider)
+                .testBlockSize()
+                .build();
+             ExcerptAppender appender = queue.createAppender()) {
+            for (int c = 0; c < CYCLES; c++) {
+                for (int i = 0; i < PER_CYCLE; i++) {
+                    final int key = c * PER_CYCLE + i;
+                    try (DocumentContext dc = appender.writingDocument()) {
+                        dc.wire().write("key").int64(key * 2L);
+                    }
+                    indexes[key] = appender.lastIndexAppended();
+                }
+                timeProvider.advanceMillis(1000);
+            }
+
+            final CycleKeyCache cache = new CycleKeyCache();
+            try (ExcerptTailer tailer = queue.createTailer()) {
+                int cached = -1;
+                for (int pass = 0; pass < 2; pass++) {
+                    for (int key = 0; key < indexes.length; key++) {
+                        final Wire wire = toWire(key * 2L);
+                        assertEquals(indexes[key], BinarySearch.search(tailer, wire, COMPARATOR));
+                        assertEquals(indexes[key], BinarySearch.search(tailer, wire, COMPARATOR, cache));
+                    }
+                    // the first cycle is never compared, and the second pass finds everything in the cache
+                    assertTrue(cache.size() < CYCLES);
+                    if (pass == 1)
+                        assertEquals(cached, cache.size());
+                    cached = cache.size();
+                }
+
+                // keys falling between excerpts give an approximate index
+                for (int key = 0; key < indexes.length; key++)
+                    assertTrue(BinarySearch.search(tailer, toWire(key * 2L + 1), COMPARATOR, cache) < 0);
+            }
+        }
+    }
+
+    private static Wire toWire(long key) {
+        final Wire wire = WireType.BINARY.apply(Bytes.allocateElasticOnHeap());
+        wire.write("key").int64(key);
+        return wire;
+    }
+}
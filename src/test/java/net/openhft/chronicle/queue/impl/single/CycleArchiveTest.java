@@ -0,0 +1,197 @@
+/*
+ * Copyright 2013-2025 chronicle.software; SPDX-License-Identifier: Apache-2.0
+ */
+package net.openhft.chronicle.queue.impl.single;
+
+import net.openhft.chronicle.core.time.SetTimeProvider;
+import net.openhft.chronicle.queue.ExcerptAppender;
+import net.openhft.chronicle.queue.ExcerptTailer;
+import net.openhft.chronicle.queue.PayloadCodec;
+import net.openhft.chronicle.queue.QueueTestCommon;
+import net.openhft.chronicle.queue.TailerDirection;
+import net.openhft.chronicle.queue.main.ArchiveMain;
+import net.openhft.chronicle.queue.rollcycles.TestRollCycles;
+import net.openhft.chronicle.wire.DocumentContext;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.Assert.*;
+
+public class CycleArchiveTest extends QueueTestCommon {
+    private static final int CYCLES = 3;
+    private static final int EXCERPTS_PER_CYCLE = 100;
+    private static final String ID = "id";
+    private static final KeyExtractor ID_EXTRACTOR = wire -> wire.read(ID).int64();
+
+    @Test
+    public void archivedCyclesReadAsWrittenWithoutACodec() {
+        final File dir = getTmpDir();
+        final SetTimeProvider timeProvider = new SetTimeProvider("2020/10/19T01:01:01");
+        final Map<Long, String> written = new TreeMap<>();
+        final List<Integer> cycles = new ArrayList<>();
+        final List<Long> lengths = new ArrayList<>();
+        final List<Long> lastTimestamped = new ArrayList<>();
+        try (SingleChronicleQueue queue = SingleChronicleQueueBuilder.binary(dir)
+                .testBlockSize()
+                .rollCycle(TestRollCycles.TEST_SECONDLY)
+                .timeProvider(timeProvider)
+                .keyIndex(ID, ID_EXTRACTOR)
+                .timestampIndex(true)
+                .build();
+             ExcerptAppender appender = queue.createAppender()) {
+            // compressible and short excerpts over three cycles
+            for (int c = 0; c < CYCLES; c++) {
+                if (c > 0)
+                    timeProvider.advanceMillis(1_000);
+                for (int i = 0; i < EXCERPTS_PER_CYCLE; i++) {
+                    final StringBuilder text = new StringBuilder("excerpt-").append(c).append('-').append(i);
+                    if (i % 3 != 0) {
+                        for (int j = 0; j < 20; j++)
+                            text.append(" {\"side\":\"BUY\",\"qty\":").append(j * 100).append('}');
+                    }
+                    final String s = text.toString();
+                    final long id = written.size() + 1;
+                    appender.writeDocument(w -> w.write(ID).int64(id).write("text").text(s));
+                    written.put(appender.lastIndexAppended(), s);
+                }
+            }
+            for (Long cycle : queue.listCyclesBetween(queue.firstCycle(), queue.lastCycle())) {
+                cycles.add(cycle.intValue());
+                lengths.add(queue.fileForCycle(cycle.intValue()).length());
+                lastTimestamped.add(queue.timestampIndex.lastIndexBefore(cycle.intValue(), Long.MAX_VALUE));
+            }
+        }
+        assertEquals(CYCLES, cycles.size());
+
+        final PrintStream out = new PrintStream(new ByteArrayOutputStream());
+        assertEquals(CYCLES - 1, ArchiveMain.archive(dir, PayloadCodec.LZ, 64, out));
+        assertEquals(0, ArchiveMain.archive(dir, PayloadCodec.LZ, 64, out));
+
+        try (SingleChronicleQueue queue = SingleChronicleQueueBuilder.binary(dir)
+                .testBlockSize()
+                .rollCycle(TestRollCycles.TEST_SECONDLY)
+                .timeProvider(timeProvider)
+                .keyIndex(ID, ID_EXTRACTOR)
+                .timestampIndex(true)
+                .build()) {
+            for (int i = 0; i < CYCLES; i++) {
+                final boolean sealed = i < CYCLES - 1;
+                assertEquals(sealed, CycleArchive.isArchived(queue, cycles.get(i)));
+                if (sealed)
+                    assertTrue(queue.fileForCycle(cycles.get(i)).length() < lengths.get(i));
+            }
+            assertFalse(new File(dir, "archiving.tmp").exists());
+
+            try (ExcerptTailer tailer = queue.createTailer()) {
+                for (int cycle : cycles)
+                    assertEquals(EXCERPTS_PER_CYCLE, tailer.excerptsInCycle(cycle));
+
+                assertEquals(new ArrayList<>(written.values()), readAll(tailer));
+
+                tailer.direction(TailerDirection.BACKWARD).toEnd();
+                final List<String> backwards = readAll(tailer);
+                Collections.reverse(backwards);
+                assertEquals(new ArrayList<>(written.values()), backwards);
+
+                tailer.direction(TailerDirection.FORWARD);
+                for (Map.Entry<Long, String> entry : written.entrySet()) {
+                    assertTrue(tailer.moveToIndex(entry.getKey()));
+                    try (DocumentContext dc = tailer.readingDocument()) {
+                        assertTrue(dc.isPresent());
+                        assertEquals((long) entry.getKey(), dc.index());
+                        assertEquals(entry.getValue(), dc.wire().read("text").text());
+                    }
+                }
+
+                // the sidecars record indexes, which the archived cycles keep
+                final KeyIndex keyIndex = queue.keyIndex(ID);
+                long id = 1;
+                for (Map.Entry<Long, String> entry : written.entrySet())
+                    assertArrayEquals(new long[]{entry.getKey()}, keyIndex.lookup(id++));
+                for (int i = 0; i < CYCLES; i++) {
+                    final long index = queue.timestampIndex.lastIndexBefore(cycles.get(i), Long.MAX_VALUE);
+                    assertEquals((long) lastTimestamped.get(i), index);
+                    assertNotEquals(TimestampIndex.NOT_FOUND, index);
+                    assertTrue(tailer.moveToIndex(index));
+                    try (DocumentContext dc = tailer.readingDocument()) {
+                        assertEquals(written.get(index), dc.wire().read("text").text());
+                    }
+                }
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void theLastCycleIsNotSealed() {
+        final SetTimeProvider timeProvider = new SetTimeProvider("2020/10/19T01:01:01");
+        try (SingleChronicleQueue queue = SingleChronicleQueueBuilder.binary(getTmpDir())
+                .testBlockSize()
+                .rollCycle(TestRollCycles.TEST_SECONDLY)
+                .timeProvider(timeProvider)
+                .build();
+             ExcerptAppender appender = queue.createAppender()) {
+            appender.writeDocument(w -> w.write("text").text("last"));
+            CycleArchive.archive(queue, queue.lastCycle(), PayloadCodec.LZ, 64);
+        }
+    }
+
+    @Test
+    public void cyclesWithoutAnEOFAreNotArchived() throws IOException {
+        final File dir = getTmpDir();
+        final File saved = getTmpDir();
+        assertTrue(saved.mkdirs());
+        final SetTimeProvider timeProvider = new SetTimeProvider("2020/10/19T01:01:01");
+        final File unsealed;
+        final int cycle;
+        try (SingleChronicleQueue queue = SingleChronicleQueueBuilder.binary(dir)
+                .testBlockSize()
+                .rollCycle(TestRollCycles.TEST_SECONDLY)
+                .timeProvider(timeProvider)
+                .build();
+             ExcerptAppender appender = queue.createAppender()) {
+            appender.writeDocument(w -> w.write("text").text("first"));
+            cycle = appender.cycle();
+            unsealed = queue.fileForCycle(cycle);
+            Files.copy(unsealed.toPath(), new File(saved, unsealed.getName()).toPath());
+            timeProvider.advanceMillis(1_000);
+            appender.writeDocument(w -> w.write("text").text("second"));
+            assertTrue(CycleArchive.isSealed(queue, cycle));
+        }
+        // as if the appender had stopped before it rolled from the cycle
+        Files.copy(new File(saved, unsealed.getName()).toPath(), unsealed.toPath(), StandardCopyOption.REPLACE_EXISTING);
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals(0, ArchiveMain.archive(dir, PayloadCodec.LZ, 64, new PrintStream(out)));
+        assertTrue(out.toString(), out.toString().contains("Skipped cycle " + cycle));
+        try (SingleChronicleQueue queue = SingleChronicleQueueBuilder.binary(dir)
+                .testBlockSize()
+                .rollCycle(TestRollCycles.TEST_SECONDLY)
+                .build()) {
+            assertFalse(CycleArchive.isSealed(queue, cycle));
+            assertFalse(CycleArchive.isArchived(queue, cycle));
+            assertThrows(IllegalArgumentException.class, () -> CycleArchive.archive(queue, cycle, PayloadCodec.LZ, 64));
+        }
+    }
+
+    private static List<String> readAll(ExcerptTailer tailer) {
+        final List<String> read = new ArrayList<>();
+        for (; ; ) {
+            try (DocumentContext dc = tailer.readingDocument()) {
+                if (!dc.isPresent())
+                    return read;
+                read.add(dc.wire().read("text").text());
+            }
+        }
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2013-2025 chronicle.software; SPDX-License-Identifier: Apache-2.0
+ */
+package net.openhft.chronicle.queue.impl.single;
+
+import net.openhft.chronicle.core.threads.InvalidEventHandlerException;
+import net.openhft.chronicle.core.time.SetTimeProvider;
+import net.openhft.chronicle.queue.ExcerptAppender;
+import net.openhft.chronicle.queue.ExcerptTailer;
+import net.openhft.chronicle.queue.QueueTestCommon;
+import org.junit.Test;
+
+import java.io.File;
+
+import static net.openhft.chronicle.queue.rollcycles.TestRollCycles.TEST_SECONDLY;
+import static org.junit.Assert.*;
+
+public class CyclePrecreatorTest extends QueueTestCommon {
+
+    @Test
+    public void nextCycleIsCreatedAheadOfTheRollAndUsedByTheAppender() throws InvalidEventHandlerException {
+        final SetTimeProvider timeProvider = new SetTimeProvider("2020/10/19T01:01:01");
+        final File dir = getTmpDir();
+        try (SingleChronicleQueue queue = SingleChronicleQueueBuilder.binary(dir)
+                .rollCycle(TEST_SECONDLY)
+                .timeProvider(timeProvider)
+                .testBlockSize()
+                .precreateNextCycle(200)
+                .build();
+             ExcerptAppender appender = queue.createAppender()) {
+            final CyclePrecreator precreator = queue.cyclePrecreator();
+            assertNotNull(precreator);
+
+            appender.writeText("first");
+            final int firstCycle = queue.cycle();
+
+            // too early
+            timeProvider.advanceMillis(500);
+            assertFalse(precreator.precreate());
+            assertEquals(0, filesEndingWith(dir, ".precreated"));
+
+            timeProvider.advanceMillis(400);
+            precreator.precreate();
+            assertEquals(1, filesEndingWith(dir, ".precreated"));
+            assertEquals(1, filesEndingWith(dir, SingleChronicleQueue.SUFFIX));
+            assertEquals(1, precreator.filesPrecreated());
+            assertFalse(precreator.precreate());
+
+            // readers don't see the next cycle until it is written to
+            assertEquals(firstCycle, queue.lastCycle());
+
+            timeProvider.advanceMillis(100);
+            appender.writeText("second");
+            assertEquals(firstCycle + 1, queue.lastCycle());
+            assertEquals(0, filesEndingWith(dir, ".precreated"));
+            assertEquals(2, filesEndingWith(dir, SingleChronicleQueue.SUFFIX));
+            assertEquals(2, queue.entryCount());
+
+            try (ExcerptTailer tailer = queue.createTailer()) {
+                assertEquals("first", tailer.readText());
+                assertEquals("second", tailer.readText());
+                assertEquals(firstCycle + 1, queue.rollCycle().toCycle(tailer.lastReadIndex()));
+                assertNull(tailer.readText());
+            }
+        }
+    }
+
+    @Test
+    public void readOnlyQueuesDoNotPrecreate() {
+        final File dir = getTmpDir();
+        try (SingleChronicleQueue queue = SingleChronicleQueueBuilder.binary(dir).testBlockSize().build();
+             ExcerptAppender appender = queue.createAppender()) {
+            appender.writeText("hello");
+        }
+        try (SingleChronicleQueue queue = SingleChronicleQueueBuilder.binary(dir)
+                .testBlockSize()
+                .readOnly(true)
+                .precreateNextCycle(1000)
+                .build()) {
+            assertNull(queue.cyclePrecreator());
+        }
+    }
+
+    private static int filesEndingWith(File dir, String suffix) {
+        final File[] files = dir.listFiles((d, name) -> name.endsWith(suffix));
+        return files == null ? 0 : files.length;
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2013-2025 chronicle.software; SPDX-License-Identifier: Apache-2.0
+ */
+package net.openhft.chronicle.queue.impl.single;
+
+import net.openhft.chronicle.core.OS;
+import net.openhft.chronicle.core.time.SetTimeProvider;
+import net.openhft.chronicle.queue.ExcerptAppender;
+import net.openhft.chronicle.queue.QueueTestCommon;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.NavigableSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import static net.openhft.chronicle.queue.rollcycles.TestRollCycles.TEST_SECONDLY;
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeFalse;
+
+public class CycleTreeTest extends QueueTestCommon {
+
+    @Test
+    public void appendsAndDropsWithoutLosingOrder() {
+        final TreeMap<Long, File> listing = new TreeMap<>();
+        for (long key = 10; key < 40; key += 3)
+            listing.put(key, new File(key + ".cq4"));
+        CycleTree tree = CycleTree.of(listing, 1, 10, 37, 0);
+        final TreeMap<Long, File> expected = new TreeMap<>(listing);
+
+        for (long key = 40; key < 200; key += 2) {
+            final CycleTree before = tree;
+            final int sizeBefore = before.size();
+            tree = tree.append(key, new File(key + ".cq4"));
+            expected.put(key, new File(key + ".cq4"));
+            // earlier views are unaffected
+            assertEquals(sizeBefore, before.size());
+            if (key % 20 == 0) {
+                tree = tree.withoutKeysBelow(key - 50);
+                expected.headMap(key - 50).clear();
+            }
+            assertEquals(expected.size(), tree.size());
+        }
+
+        for (long key = 0; key < 210; key++) {
+            assertEquals(expected.get(key), tree.get(key));
+            assertEquals(value(expected.higherKey(key), expected), tree.higher(key));
+            assertEquals(value(expected.lowerKey(key), expected), tree.lower(key));
+        }
+        assertEquals(expected.lastKey().longValue(), tree.lastKey());
+        assertEquals(new TreeSet<>(expected.subMap(100L, true, 150L, true).keySet()), tree.keysBetween(100, 150));
+    }
+
+    @Test
+    public void cyclesStayInStepWithTheDirectory() {
+        // deletes a mapped file
+        assumeFalse(OS.isWindows());
+        final SetTimeProvider timeProvider = new SetTimeProvider("2020/10/19T01:01:01");
+        try (SingleChronicleQueue queue = SingleChronicleQueueBuilder.binary(getTmpDir())
+                .rollCycle(TEST_SECONDLY)
+                .timeProvider(timeProvider)
+                .testBlockSize()
+                .build();
+             ExcerptAppender appender = queue.createAppender()) {
+            final int[] cycles = new int[50];
+            for (int i = 0; i < cycles.length; i++) {
+                appender.writeText("cycle " + i);
+                cycles[i] = queue.cycle();
+                assertEquals(i + 1, queue.listCyclesBetween(cycles[0], cycles[i]).size());
+                timeProvider.advanceMillis(i % 7 == 0 ? 3_000 : 1_000);
+            }
+            assertEquals(toSet(cycles), queue.listCyclesBetween(cycles[0], cycles[cycles.length - 1]));
+
+            // a file removed from the middle is picked up when the listing is refreshed
+            final SingleChronicleQueueStore store = queue.storeForCycle(cycles[20], queue.epoch(), false, null);
+            final File middle = store.currentFile();
+            queue.closeStore(store);
+            assertTrue(middle.delete());
+            queue.refreshDirectoryListing();
+            final int[] remaining = Arrays.stream(cycles).filter(c -> c != cycles[20]).toArray();
+            assertEquals(toSet(remaining), queue.listCyclesBetween(cycles[0], cycles[cycles.length - 1]));
+
+            // and when a tailer is created
+            deleteCycle(queue, cycles[30]);
+            queue.createTailer().close();
+            final int[] remaining2 = Arrays.stream(remaining).filter(c -> c != cycles[30]).toArray();
+            assertEquals(toSet(remaining2), queue.listCyclesBetween(cycles[0], cycles[cycles.length - 1]));
+
+            // and by the periodic forced refresh
+            deleteCycle(queue, cycles[40]);
+            timeProvider.advanceMillis(60_000);
+            queue.firstCycle();
+            final int[] remaining3 = Arrays.stream(remaining2).filter(c -> c != cycles[40]).toArray();
+            assertEquals(toSet(remaining3), queue.listCyclesBetween(cycles[0], cycles[cycles.length - 1]));
+        }
+    }
+
+    private static void deleteCycle(SingleChronicleQueue queue, int cycle) {
+        final SingleChronicleQueueStore store = queue.storeForCycle(cycle, queue.epoch(), false, null);
+        final File file = store.currentFile();
+        queue.closeStore(store);
+        assertTrue(file.delete());
+    }
+
+    private static NavigableSet<Long> toSet(int[] cycles) {
+        final NavigableSet<Long> set = new TreeSet<>();
+        for (int cycle : cycles)
+            set.add((long) cycle);
+        return set;
+    }
+
+    private static File value(Long key, TreeMap<Long, File> map) {
+        return key == null ? null : map.get(key);
+    }
+}
@@ -0,0 +1,232 @@
+/*
+ * Copyright 2013-2025 chronicle.software; SPDX-License-Identifier: Apache-2.0
+ */
+package net.openhft.chronicle.queue.impl.single;
+
+import net.openhft.chronicle.core.time.SetTimeProvider;
+import net.openhft.chronicle.queue.ExcerptAppender;
+import net.openhft.chronicle.queue.ExcerptTailer;
+import net.openhft.chronicle.queue.QueueTestCommon;
+import net.openhft.chronicle.queue.main.KeyIndexMain;
+import net.openhft.chronicle.queue.rollcycles.TestRollCycles;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.Assert.*;
+
+public class KeyIndexTest extends QueueTestCommon {
+    private static final String ORDER_ID = "orderId";
+    private static final KeyExtractor ORDER_ID_EXTRACTOR = wire -> {
+        final long orderId = wire.read(ORDER_ID).int64();
+        return orderId == 0 ? KeyExtractor.NO_KEY : orderId;
+    };
+    private static final long[] ORDER_IDS = {50, 10, 30, 10, 70, 20, 30, 30, 90, 10, 60, 40};
+
+    @Test
+    public void findsExcerptsByKeyAcrossCycles() {
+        final File dir = getTmpDir();
+        final Map<Long, List<Long>> expected = new TreeMap<>();
+        try (SingleChronicleQueue queue = SingleChronicleQueueBuilder.binary(dir)
+                .testBlockSize()
+                .rollCycle(TestRollCycles.TEST_SECONDLY)
+                .timeProvider(new SetTimeProvider("2020/10/19T01:01:01"))
+                .keyIndex(ORDER_ID, ORDER_ID_EXTRACTOR)
+                .build();
+             ExcerptAppender appender = queue.createAppender()) {
+            write(queue, appender, expected);
+            final KeyIndex keyIndex = queue.keyIndex(ORDER_ID);
+
+            assertFoundAsWritten(keyIndex, expected);
+            assertIndexesHaveKeys(queue, keyIndex.range(15, 45), 20, 30, 30, 30, 40);
+            assertEquals(0, keyIndex.lookup(11).length);
+            assertEquals(0, keyIndex.range(45, 45).length);
+
+            // excerpts appended after a lookup are found by the next lookup
+            appender.writeDocument(w -> w.write(ORDER_ID).int64(11));
+            assertArrayEquals(new long[]{appender.lastIndexAppended()}, keyIndex.lookup(11));
+        }
+    }
+
+    @Test
+    public void sealedAndRebuiltIndexesFindTheSameExcerpts() {
+        final File dir = getTmpDir();
+        final Map<Long, List<Long>> expected = new TreeMap<>();
+        final List<File> indexFiles = new ArrayList<>();
+        try (SingleChronicleQueue queue = SingleChronicleQueueBuilder.binary(dir)
+                .testBlockSize()
+                .rollCycle(TestRollCycles.TEST_SECONDLY)
+                .timeProvider(new SetTimeProvider("2020/10/19T01:01:01"))
+                .keyIndex(ORDER_ID, ORDER_ID_EXTRACTOR)
+                .build();
+             ExcerptAppender appender = queue.createAppender()) {
+            write(queue, appender, expected);
+            final KeyIndex keyIndex = queue.keyIndex(ORDER_ID);
+            for (Long cycle : queue.listCyclesBetween(queue.firstCycle(), queue.lastCycle()))
+                indexFiles.add(keyIndex.fileFor(cycle.intValue()));
+            assertEquals(3, indexFiles.size());
+            for (File file : indexFiles)
+                assertTrue(file.getName(), file.exists() && file.getName().endsWith('.' + ORDER_ID + KeyIndex.SUFFIX));
+        }
+
+        final PrintStream out = new PrintStream(new ByteArrayOutputStream());
+        assertEquals(2, KeyIndexMain.seal(dir, ORDER_ID, out));
+        try (SingleChronicleQueue queue = SingleChronicleQueueBuilder.binary(dir)
+                .testBlockSize()
+                .rollCycle(TestRollCycles.TEST_SECONDLY)
+                .keyIndex(ORDER_ID, ORDER_ID_EXTRACTOR)
+                .build()) {
+            assertFoundAsWritten(queue.keyIndex(ORDER_ID), expected);
+        }
+
+        for (File file : indexFiles)
+            assertTrue(file.delete());
+        try (SingleChronicleQueue queue = SingleChronicleQueueBuilder.binary(dir)
+                .testBlockSize()
+                .rollCycle(TestRollCycles.TEST_SECONDLY)
+                .keyIndex(ORDER_ID, ORDER_ID_EXTRACTOR)
+                .build()) {
+            assertEquals(0, queue.keyIndex(ORDER_ID).lookup(10).length);
+        }
+
+        assertEquals(3, KeyIndexMain.rebuild(dir, ORDER_ID, ORDER_ID_EXTRACTOR, out));
+        try (SingleChronicleQueue queue = SingleChronicleQueueBuilder.binary(dir)
+                .testBlockSize()
+                .rollCycle(TestRollCycles.TEST_SECONDLY)
+                .keyIndex(ORDER_ID, ORDER_ID_EXTRACTOR)
+                .build()) {
+            assertFoundAsWritten(queue.keyIndex(ORDER_ID), expected);
+        }
+    }
+
+    @Test
+    public void cyclesRolledFromAreSealedAndFewReadersAreKept() {
+        final SetTimeProvider timeProvider = new SetTimeProvider("2020/10/19T01:01:01");
+        final int cycles = CycleSidecars.MAX_READERS + 4;
+        try (SingleChronicleQueue queue = SingleChronicleQueueBuilder.binary(getTmpDir())
+                .testBlockSize()
+                .rollCycle(TestRollCycles.TEST_SECONDLY)
+                .timeProvider(timeProvider)
+                .keyIndex(ORDER_ID, ORDER_ID_EXTRACTOR)
+                .build();
+             ExcerptAppender appender = queue.createAppender()) {
+            final KeyIndex keyIndex = queue.keyIndex(ORDER_ID);
+            final List<Long> expected = new ArrayList<>();
+            for (int i = 0; i < cycles; i++) {
+                if (i > 0)
+                    timeProvider.advanceMillis(1_000);
+                appender.writeDocument(w -> w.write(ORDER_ID).int64(10));
+                expected.add(appender.lastIndexAppended());
+            }
+            assertEquals(expected, toList(keyIndex.lookup(10)));
+            assertTrue(keyIndex.readers() <= CycleSidecars.MAX_READERS);
+
+            final List<Long> rolledFrom = new ArrayList<>(queue.listCyclesBetween(queue.firstCycle(), queue.lastCycle() - 1));
+            assertEquals(cycles - 1, rolledFrom.size());
+            for (Long cycle : rolledFrom) {
+                try (KeyIndexFile file = KeyIndexFile.forReading(keyIndex.fileFor(cycle.intValue()))) {
+                    assertNotNull(file);
+                    assertTrue(file.sorted());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void lookupsOnlyOpenTheCyclesWhichCanHoldTheKey() throws IOException {
+        final SetTimeProvider timeProvider = new SetTimeProvider("2020/10/19T01:01:01");
+        final int cycles = CycleSidecars.MAX_READERS + 8;
+        try (SingleChronicleQueue queue = SingleChronicleQueueBuilder.binary(getTmpDir())
+                .testBlockSize()
+                .rollCycle(TestRollCycles.TEST_SECONDLY)
+                .timeProvider(timeProvider)
+                .keyIndex(ORDER_ID, ORDER_ID_EXTRACTOR)
+                .build();
+             ExcerptAppender appender = queue.createAppender()) {
+            final KeyIndex keyIndex = queue.keyIndex(ORDER_ID);
+            final long[] lastIndexes = new long[cycles];
+            for (int i = 0; i < cycles; i++) {
+                if (i > 0)
+                    timeProvider.advanceMillis(1_000);
+                for (int k = 1; k <= 3; k++) {
+                    final long orderId = 100L * i + k;
+                    appender.writeDocument(w -> w.write(ORDER_ID).int64(orderId));
+                }
+                lastIndexes[i] = appender.lastIndexAppended();
+            }
+            assertEquals(3 * cycles, keyIndex.range(Long.MIN_VALUE, Long.MAX_VALUE).length);
+            assertEquals(CycleSidecars.MAX_READERS, keyIndex.readers());
+
+            // a lookup which opened the file of any other cycle before the last would fail
+            final int cycle = cycles - 2;
+            final List<Long> others = new ArrayList<>(queue.listCyclesBetween(queue.firstCycle(), queue.lastCycle() - 1));
+            others.remove(Long.valueOf(queue.rollCycle().toCycle(lastIndexes[cycle])));
+            for (Long other : others) {
+                try (RandomAccessFile raf = new RandomAccessFile(keyIndex.fileFor(other.intValue()), "rw")) {
+                    raf.writeLong(0);
+                }
+            }
+            assertArrayEquals(new long[]{lastIndexes[cycle]}, keyIndex.lookup(100L * cycle + 3));
+            assertEquals(0, keyIndex.lookup(100L * cycle + 50).length);
+            assertEquals(CycleSidecars.MAX_READERS, keyIndex.readers());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsNamesWhichAreNotSafeInFileNames() {
+        SingleChronicleQueueBuilder.binary(getTmpDir()).keyIndex("../orderId", ORDER_ID_EXTRACTOR);
+    }
+
+    // writes the order ids over three cycles, with excerpts without an order id in between
+    private static void write(SingleChronicleQueue queue, ExcerptAppender appender, Map<Long, List<Long>> expected) {
+        final SetTimeProvider timeProvider = (SetTimeProvider) queue.time();
+        for (int i = 0; i < ORDER_IDS.length; i++) {
+            if (i > 0 && i % 4 == 0)
+                timeProvider.advanceMillis(1_000);
+            final long orderId = ORDER_IDS[i];
+            appender.writeDocument(w -> w.write(ORDER_ID).int64(orderId).write("qty").int32(100));
+            expected.computeIfAbsent(orderId, k -> new ArrayList<>()).add(appender.lastIndexAppended());
+            appender.writeDocument(w -> w.write("heartbeat").text(""));
+        }
+    }
+
+    private static void assertFoundAsWritten(KeyIndex keyIndex, Map<Long, List<Long>> expected) {
+        final List<Long> all = new ArrayList<>();
+        expected.forEach((orderId, indexes) -> {
+            assertEquals(orderId.toString(), indexes.toString(), toList(keyIndex.lookup(orderId)).toString());
+            all.addAll(indexes);
+        });
+        all.sort(null);
+        assertEquals(all, toList(keyIndex.range(Long.MIN_VALUE, Long.MAX_VALUE)));
+    }
+
+    private static void assertIndexesHaveKeys(SingleChronicleQueue queue, long[] indexes, long... orderIds) {
+        assertEquals(orderIds.length, indexes.length);
+        try (ExcerptTailer tailer = queue.createTailer()) {
+            final List<Long> found = new ArrayList<>();
+            for (long index : indexes) {
+                assertTrue(tailer.moveToIndex(index));
+                tailer.readDocument(w -> found.add(w.read(ORDER_ID).int64()));
+            }
+            found.sort(null);
+            final List<Long> sorted = toList(orderIds);
+            sorted.sort(null);
+            assertEquals(sorted, found);
+        }
+    }
+
+    private static List<Long> toList(long[] values) {
+        final List<Long> list = new ArrayList<>();
+        for (long value : values)
+            list.add(value);
+        return list;
+    }
+}
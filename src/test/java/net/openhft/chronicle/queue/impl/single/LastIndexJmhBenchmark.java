@@ -0,0 +1,79 @@
+/*
+ * Copyright 2013-2025 chronicle.software; SPDX-License-Identifier: Apache-2.0
+ */
+package net.openhft.chronicle.queue.impl.single;
+
+import net.openhft.chronicle.core.OS;
+import net.openhft.chronicle.core.io.IOTools;
+import net.openhft.chronicle.queue.ExcerptAppender;
+import net.openhft.chronicle.queue.RollCycles;
+import net.openhft.chronicle.wire.DocumentContext;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+import static net.openhft.chronicle.core.io.Closeable.closeQuietly;
+
+/**
+ * Compares {@link SingleChronicleQueue#lastIndex()} against the tailer based scan it replaced,
+ * with and without metadata written after the last excerpt.
+ */
+@Fork(value = 1, warmups = 1)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LastIndexJmhBenchmark {
+
+    @Param({"1000", "1000000"})
+    public int entries;
+
+    @Param({"0", "16"})
+    public int trailingMetaData;
+
+    private File queuePath;
+    private SingleChronicleQueue queue;
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(LastIndexJmhBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        queuePath = Paths.get(OS.getTarget(), LastIndexJmhBenchmark.class.getSimpleName()).toFile();
+        IOTools.deleteDirWithFiles(queuePath);
+        queue = SingleChronicleQueueBuilder.binary(queuePath)
+                .rollCycle(RollCycles.FAST_DAILY)
+                .build();
+        try (ExcerptAppender appender = queue.createAppender()) {
+            for (int i = 0; i < entries; i++)
+                appender.writeText(Integer.toString(i));
+            for (int i = 0; i < trailingMetaData; i++)
+                try (DocumentContext dc = appender.writingDocument(true)) {
+                    dc.wire().write("meta").int32(i);
+                }
+        }
+    }
+
+    @Benchmark
+    public long lastIndex() {
+        return queue.lastIndex();
+    }
+
+    @Benchmark
+    public long lastIndexByScanning() {
+        return queue.lastIndexByScanning();
+    }
+
+    @TearDown(Level.Trial)
+    public void complete() {
+        closeQuietly(queue);
+        IOTools.deleteDirWithFiles(queuePath);
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2013-2025 chronicle.software; SPDX-License-Identifier: Apache-2.0
+ */
+package net.openhft.chronicle.queue.impl.single;
+
+import net.openhft.chronicle.core.time.SetTimeProvider;
+import net.openhft.chronicle.queue.ExcerptAppender;
+import net.openhft.chronicle.queue.QueueTestCommon;
+import net.openhft.chronicle.wire.DocumentContext;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static net.openhft.chronicle.queue.rollcycles.TestRollCycles.TEST_SECONDLY;
+import static org.junit.Assert.assertEquals;
+
+public class LastIndexTest extends QueueTestCommon {
+
+    @Test
+    public void emptyQueue() {
+        try (SingleChronicleQueue queue = SingleChronicleQueueBuilder.binary(getTmpDir()).testBlockSize().build()) {
+            assertEquals(-1, queue.lastIndexFromStore());
+            assertEquals(-1, queue.lastIndex());
+        }
+    }
+
+    @Test
+    public void lastIndexMatchesScanning() {
+        try (SingleChronicleQueue queue = SingleChronicleQueueBuilder.binary(getTmpDir()).testBlockSize().build();
+             ExcerptAppender appender = queue.createAppender()) {
+            for (int i = 0; i < 1000; i++) {
+                appender.writeText("msg-" + i);
+                assertEquals(appender.lastIndexAppended(), queue.lastIndexFromStore());
+                assertEquals(queue.lastIndexByScanning(), queue.lastIndex());
+            }
+        }
+    }
+
+    @Test
+    public void trailingMetaDataIsSkipped() {
+        try (SingleChronicleQueue queue = SingleChronicleQueueBuilder.binary(getTmpDir()).testBlockSize().build();
+             ExcerptAppender appender = queue.createAppender()) {
+            appender.writeText("first");
+            appender.writeText("second");
+            final long expected = appender.lastIndexAppended();
+            for (int i = 0; i < 3; i++)
+                try (DocumentContext dc = appender.writingDocument(true)) {
+                    dc.wire().write("meta").int32(i);
+                }
+
+            assertEquals(expected, queue.lastIndexFromStore());
+            assertEquals(expected, queue.lastIndex());
+        }
+    }
+
+    @Test
+    public void fallsBackWhenLastCycleHasNoData() {
+        final SetTimeProvider timeProvider = new SetTimeProvider();
+        try (SingleChronicleQueue queue = SingleChronicleQueueBuilder.binary(getTmpDir())
+                .rollCycle(TEST_SECONDLY)
+                .timeProvider(timeProvider)
+                .testBlockSize()
+                .build();
+             ExcerptAppender appender = queue.createAppender()) {
+            appender.writeText("first");
+            appender.writeText("second");
+            final long expected = appender.lastIndexAppended();
+
+            timeProvider.advanceMillis(TimeUnit.SECONDS.toMillis(2));
+            try (DocumentContext dc = appender.writingDocument(true)) {
+                dc.wire().write("meta").int32(1);
+            }
+
+            assertEquals(Long.MIN_VALUE, queue.lastIndexFromStore());
+            assertEquals(expected, queue.lastIndex());
+        }
+    }
+}
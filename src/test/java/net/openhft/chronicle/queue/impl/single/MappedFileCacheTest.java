@@ -0,0 +1,86 @@
+/*
+ * Copyright 2013-2025 chronicle.software; SPDX-License-Identifier: Apache-2.0
+ */
+package net.openhft.chronicle.queue.impl.single;
+
+import net.openhft.chronicle.core.io.BackgroundResourceReleaser;
+import net.openhft.chronicle.core.time.SetTimeProvider;
+import net.openhft.chronicle.queue.ExcerptAppender;
+import net.openhft.chronicle.queue.ExcerptTailer;
+import net.openhft.chronicle.queue.QueueTestCommon;
+import net.openhft.chronicle.queue.rollcycles.TestRollCycles;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class MappedFileCacheTest extends QueueTestCommon {
+    private static final int CYCLES = 5;
+
+    @Test
+    public void unmapsCycleFilesOnceUnusedByDefault() {
+        try (SingleChronicleQueue queue = queue(SingleChronicleQueueBuilder.binary(getTmpDir()))) {
+            writeAndReadEveryCycle(queue);
+
+            final MappedFileCacheMetrics metrics = queue.mappedFileCacheMetrics();
+            assertEquals(0, metrics.mappedFiles());
+            assertEquals(0, metrics.mappedBytes());
+            // unmapped as soon as unused, which isn't an eviction
+            assertEquals(metrics.toString(), 0, metrics.evictions());
+        }
+    }
+
+    @Test
+    public void keepsUpToMaxMappedFilesOnceUnused() {
+        try (SingleChronicleQueue queue = queue(SingleChronicleQueueBuilder.binary(getTmpDir()).maxMappedFiles(2))) {
+            writeAndReadEveryCycle(queue);
+
+            final MappedFileCacheMetrics metrics = queue.mappedFileCacheMetrics();
+            assertEquals(2, metrics.mappedFiles());
+            assertTrue(metrics.toString(), metrics.mappedBytes() > 0);
+            assertTrue(metrics.toString(), metrics.evictions() >= CYCLES - 2);
+
+            // the two most recent cycles are still mapped, so reading them again maps nothing
+            final long misses = metrics.misses();
+            try (ExcerptTailer tailer = queue.createTailer()) {
+                tailer.moveToCycle(queue.lastCycle() - 1);
+                assertNotNull(tailer.readText());
+                tailer.moveToCycle(queue.lastCycle());
+                assertNotNull(tailer.readText());
+            }
+            assertEquals(misses, metrics.misses());
+
+            metrics.reset();
+            assertEquals(0, metrics.hits());
+            assertEquals(0, metrics.misses());
+            assertEquals(0, metrics.evictions());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsANegativeBound() {
+        SingleChronicleQueueBuilder.binary(getTmpDir()).maxMappedBytes(-1);
+    }
+
+    private static SingleChronicleQueue queue(SingleChronicleQueueBuilder builder) {
+        return builder
+                .testBlockSize()
+                .rollCycle(TestRollCycles.TEST_SECONDLY)
+                .timeProvider(new SetTimeProvider("2020/10/19T01:01:01"))
+                .build();
+    }
+
+    private static void writeAndReadEveryCycle(SingleChronicleQueue queue) {
+        final SetTimeProvider timeProvider = (SetTimeProvider) queue.time();
+        try (ExcerptAppender appender = queue.createAppender()) {
+            for (int i = 0; i < CYCLES; i++) {
+                appender.writeText("cycle " + i);
+                timeProvider.advanceMillis(1_000);
+            }
+        }
+        try (ExcerptTailer tailer = queue.createTailer()) {
+            for (int i = 0; i < CYCLES; i++)
+                assertEquals("cycle " + i, tailer.readText());
+        }
+        BackgroundResourceReleaser.releasePendingResources();
+    }
+}
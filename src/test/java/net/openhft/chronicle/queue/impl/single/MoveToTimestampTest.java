@@ -0,0 +1,142 @@
+/*
+ * Copyright 2013-2025 chronicle.software; SPDX-License-Identifier: Apache-2.0
+ */
+package net.openhft.chronicle.queue.impl.single;
+
+import net.openhft.chronicle.core.time.SetTimeProvider;
+import net.openhft.chronicle.queue.ExcerptAppender;
+import net.openhft.chronicle.queue.ExcerptTailer;
+import net.openhft.chronicle.queue.QueueTestCommon;
+import net.openhft.chronicle.queue.TailerDirection;
+import net.openhft.chronicle.queue.rollcycles.TestRollCycles;
+import net.openhft.chronicle.wire.DocumentContext;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class MoveToTimestampTest extends QueueTestCommon {
+    private static final int INDEX_SPACING = 4;
+    private static final int EXCERPTS = 250;
+    private static final long STEP_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    @Test
+    public void movesToTheFirstExcerptWrittenAtOrAfterATime() {
+        final SetTimeProvider timeProvider = new SetTimeProvider("2020/10/19T01:01:01");
+        try (SingleChronicleQueue queue = SingleChronicleQueueBuilder.binary(getTmpDir())
+                .testBlockSize()
+                .rollCycle(TestRollCycles.TEST_SECONDLY)
+                .indexSpacing(INDEX_SPACING)
+                .timeProvider(timeProvider)
+                .timestampIndex(true)
+                .build();
+             ExcerptAppender appender = queue.createAppender();
+             ExcerptTailer tailer = queue.createTailer()) {
+            final List<Long> times = new ArrayList<>();
+            final List<Long> indexes = new ArrayList<>();
+            write(appender, timeProvider, times, indexes);
+            assertTrue("spans cycles", queue.lastCycle() - queue.firstCycle() >= 2);
+
+            for (int i = 0; i < EXCERPTS; i += 7) {
+                for (long offset : new long[]{-1, 0, 1}) {
+                    final long time = times.get(i) + offset;
+                    final int expected = offset > 0 ? i + 1 : i;
+                    if (expected == EXCERPTS)
+                        continue;
+                    assertTrue(tailer.moveToTimestamp(time));
+                    assertSkipsToExcerpt(tailer, indexes, times, expected, time);
+                }
+            }
+
+            assertTrue(tailer.moveToTimestamp(times.get(0) - STEP_NANOS));
+            assertEquals((long) indexes.get(0), readIndex(tailer, times));
+
+            assertFalse(tailer.moveToTimestamp(times.get(EXCERPTS - 1) + TimeUnit.DAYS.toNanos(1)));
+            try (DocumentContext dc = tailer.readingDocument()) {
+                assertFalse(dc.isPresent());
+            }
+            appender.writeDocument(w -> w.write("ts").int64(timeProvider.currentTimeNanos()));
+            try (DocumentContext dc = tailer.readingDocument()) {
+                assertTrue(dc.isPresent());
+                assertEquals(appender.lastIndexAppended(), dc.index());
+            }
+        }
+    }
+
+    @Test
+    public void movesToTheStartOfTheCycleWhenTimesAreNotRecorded() {
+        final SetTimeProvider timeProvider = new SetTimeProvider("2020/10/19T01:01:01");
+        final File dir = getTmpDir();
+        try (SingleChronicleQueue queue = SingleChronicleQueueBuilder.binary(dir)
+                .testBlockSize()
+                .rollCycle(TestRollCycles.TEST_SECONDLY)
+                .indexSpacing(INDEX_SPACING)
+                .timeProvider(timeProvider)
+                .timestampIndex(false)
+                .build();
+             ExcerptAppender appender = queue.createAppender();
+             ExcerptTailer tailer = queue.createTailer()) {
+            final List<Long> times = new ArrayList<>();
+            final List<Long> indexes = new ArrayList<>();
+            write(appender, timeProvider, times, indexes);
+
+            final long time = times.get(150);
+            final int cycle = queue.rollCycle().toCycle(indexes.get(150));
+            assertTrue(tailer.moveToTimestamp(time));
+            try (DocumentContext dc = tailer.readingDocument()) {
+                assertTrue(dc.isPresent());
+                assertEquals(queue.rollCycle().toIndex(cycle, 0), dc.index());
+            }
+            assertEquals(0, dir.list((d, name) -> name.endsWith(TimestampIndex.SUFFIX)).length);
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void onlyMovesForwards() {
+        try (SingleChronicleQueue queue = SingleChronicleQueueBuilder.binary(getTmpDir())
+                .testBlockSize()
+                .rollCycle(TestRollCycles.TEST_SECONDLY)
+                .indexSpacing(INDEX_SPACING)
+                .timeProvider(new SetTimeProvider())
+                .timestampIndex(true)
+                .build();
+             ExcerptTailer tailer = queue.createTailer()) {
+            tailer.direction(TailerDirection.BACKWARD).moveToTimestamp(0);
+        }
+    }
+
+    private static void write(ExcerptAppender appender, SetTimeProvider timeProvider, List<Long> times, List<Long> indexes) {
+        for (int i = 0; i < EXCERPTS; i++) {
+            timeProvider.advanceNanos(STEP_NANOS);
+            final long time = timeProvider.currentTimeNanos();
+            appender.writeDocument(w -> w.write("ts").int64(time));
+            times.add(time);
+            indexes.add(appender.lastIndexAppended());
+        }
+    }
+
+    // reads up to the expected excerpt, checking only excerpts written before the time are read first
+    private static void assertSkipsToExcerpt(ExcerptTailer tailer, List<Long> indexes, List<Long> times, int expected, long time) {
+        for (int skipped = 0; ; skipped++) {
+            assertTrue("read too many excerpts before the time", skipped < INDEX_SPACING);
+            final long index = readIndex(tailer, times);
+            final int read = indexes.indexOf(index);
+            assertTrue(read <= expected);
+            if (read == expected)
+                return;
+            assertTrue(times.get(read) < time);
+        }
+    }
+
+    private static long readIndex(ExcerptTailer tailer, List<Long> times) {
+        try (DocumentContext dc = tailer.readingDocument()) {
+            assertTrue(dc.isPresent());
+            assertTrue(times.contains(dc.wire().read("ts").int64()));
+            return dc.index();
+        }
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright 2013-2025 chronicle.software; SPDX-License-Identifier: Apache-2.0
+ */
+package net.openhft.chronicle.queue.impl.single;
+
+import net.openhft.chronicle.bytes.Bytes;
+import net.openhft.chronicle.queue.ExcerptAppender;
+import net.openhft.chronicle.queue.ExcerptTailer;
+import net.openhft.chronicle.queue.PayloadCodec;
+import net.openhft.chronicle.queue.QueueTestCommon;
+import net.openhft.chronicle.queue.internal.util.PayloadDecoder;
+import net.openhft.chronicle.queue.internal.util.PayloadEncoder;
+import net.openhft.chronicle.wire.DocumentContext;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class PayloadCompressionTest extends QueueTestCommon {
+    private static final int EXCERPTS = 200;
+
+    @Test
+    public void deflateShrinksTheQueueAndReadsBack() {
+        assertShrinksAndReadsBack(PayloadCodec.DEFLATE);
+    }
+
+    @Test
+    public void lzShrinksTheQueueAndReadsBack() {
+        assertShrinksAndReadsBack(PayloadCodec.LZ);
+    }
+
+    @Test
+    public void readsExcerptsWrittenBeforeCompressionWasEnabled() {
+        final File dir = getTmpDir();
+        final List<String> expected = new ArrayList<>();
+        try (SingleChronicleQueue queue = SingleChronicleQueueBuilder.binary(dir).testBlockSize().build();
+             ExcerptAppender appender = queue.createAppender()) {
+            write(appender, expected, 0, 10);
+        }
+        try (SingleChronicleQueue queue = SingleChronicleQueueBuilder.binary(dir)
+                .testBlockSize()
+                .compression(PayloadCodec.LZ, 64)
+                .build();
+             ExcerptAppender appender = queue.createAppender()) {
+            // a payload which starts with the magic number of a compressed one is marked as stored, so reads back as written
+            final Bytes<?> magic = Bytes.allocateElasticOnHeap();
+            magic.writeInt(PayloadEncoder.MAGIC).append(" stored");
+            appender.writeBytes(magic);
+            magic.releaseLast();
+            write(appender, expected, 10, 20);
+
+            try (ExcerptTailer tailer = queue.createTailer()) {
+                for (int i = 0; i < 10; i++)
+                    assertEquals(expected.get(i), tailer.readText());
+                try (DocumentContext dc = tailer.readingDocument()) {
+                    assertTrue(dc.isPresent());
+                    final Bytes<?> bytes = dc.wire().bytes();
+                    assertEquals(PayloadEncoder.MAGIC, bytes.readInt());
+                    assertEquals(" stored", bytes.toString());
+                }
+                for (int i = 10; i < 20; i++)
+                    assertEquals(expected.get(i), tailer.readText());
+            }
+        }
+    }
+
+    @Test
+    public void codecsRoundTripPayloadsOfAllSizes() {
+        final Random random = new Random(1);
+        final Bytes<?> payload = Bytes.allocateElasticOnHeap();
+        final Bytes<?> encoded = Bytes.allocateElasticOnHeap();
+        final Bytes<?> decoded = Bytes.allocateElasticOnHeap();
+        try (PayloadDecoder decoder = new PayloadDecoder()) {
+            for (PayloadCodec codec : PayloadCodec.values()) {
+                try (PayloadEncoder encoder = new PayloadEncoder(codec, 16)) {
+                    for (int length = 0; length < 70_000; length = length * 3 / 2 + 1) {
+                        payload.clear();
+                        // runs of repeated and random bytes, so some matches overlap and some data doesn't compress
+                        while (payload.writePosition() < length) {
+                            final int run = Math.min(1 + random.nextInt(40), length - (int) payload.writePosition());
+                            final byte b = (byte) random.nextInt();
+                            final boolean repeat = random.nextBoolean();
+                            for (int i = 0; i < run; i++)
+                                payload.writeByte(repeat ? b : (byte) random.nextInt());
+                        }
+                        encoded.clear();
+                        encoder.accept(payload, encoded);
+                        decoded.clear();
+                        decoder.accept(encoded, decoded);
+                        assertTrue(codec + " length " + length, payload.contentEquals(decoded));
+                        assertEquals(0, payload.readPosition());
+                    }
+                }
+            }
+        } finally {
+            payload.releaseLast();
+            encoded.releaseLast();
+            decoded.releaseLast();
+        }
+    }
+
+    @Test
+    public void unframedPayloadsStartingWithTheMagicNumberReadAsWritten() {
+        final Bytes<?> payload = Bytes.allocateElasticOnHeap();
+        final Bytes<?> decoded = Bytes.allocateElasticOnHeap();
+        try (PayloadDecoder decoder = new PayloadDecoder()) {
+            // an unknown codec id
+            payload.writeInt(PayloadEncoder.MAGIC).append(" unframed");
+            decoder.accept(payload, decoded);
+            assertTrue(payload.contentEquals(decoded));
+
+            // a known codec id, but a length no longer than the payload
+            payload.clear();
+            decoded.clear();
+            payload.writeInt(PayloadEncoder.MAGIC).writeByte(PayloadCodec.LZ.id()).writeInt(4).append(" unframed");
+            decoder.accept(payload, decoded);
+            assertTrue(payload.contentEquals(decoded));
+        } finally {
+            payload.releaseLast();
+            decoded.releaseLast();
+        }
+    }
+
+    private void assertShrinksAndReadsBack(PayloadCodec codec) {
+        final List<String> expected = new ArrayList<>();
+        final long uncompressedEnd;
+        try (SingleChronicleQueue queue = SingleChronicleQueueBuilder.binary(getTmpDir()).testBlockSize().build();
+             StoreAppender appender = (StoreAppender) queue.createAppender()) {
+            write(appender, expected, 0, EXCERPTS);
+            uncompressedEnd = appender.lastPosition;
+        }
+
+        expected.clear();
+        try (SingleChronicleQueue queue = SingleChronicleQueueBuilder.binary(getTmpDir())
+                .testBlockSize()
+                .compression(codec, 64)
+                .build();
+             StoreAppender appender = (StoreAppender) queue.createAppender();
+             ExcerptTailer tailer = queue.createTailer()) {
+            write(appender, expected, 0, EXCERPTS);
+            assertTrue(uncompressedEnd + " vs " + appender.lastPosition, appender.lastPosition < uncompressedEnd * 9 / 10);
+
+            for (String text : expected)
+                assertEquals(text, tailer.readText());
+            assertNull(tailer.readText());
+        }
+    }
+
+    // multi-leg FIX like messages, with every fifth one too small to compress
+    private static void write(ExcerptAppender appender, List<String> expected, int from, int to) {
+        for (int i = from; i < to; i++) {
+            final String text = i % 5 == 0
+                    ? "hb" + i
+                    : "8=FIX.4.4|9=178|35=D|49=CLIENT12|56=BROKER|34=" + i + "|52=20201019-01:01:01.000|11=ORDER" + i
+                    + "|21=1|55=IBM|54=1|60=20201019-01:01:01.000|38=100|40=2|44=" + (100 + i) + "|59=0|10=128|"
+                    + "|58=client order " + i + " for account ACCOUNT12 via BROKER desk|555=4"
+                    + "|600=IBM|602=IBM" + i + "|624=1|687=100|654=LEG1|566=" + (100 + i)
+                    + "|600=IBM|602=IBM" + (i + 1) + "|624=2|687=100|654=LEG2|566=" + (101 + i)
+                    + "|600=IBM|602=IBM" + (i + 2) + "|624=1|687=200|654=LEG3|566=" + (102 + i)
+                    + "|600=IBM|602=IBM" + (i + 3) + "|624=2|687=200|654=LEG4|566=" + (103 + i) + '|';
+            appender.writeText(text);
+            expected.add(text);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2013-2025 chronicle.software; SPDX-License-Identifier: Apache-2.0
+ */
+package net.openhft.chronicle.queue.impl.single;
+
+import net.openhft.chronicle.core.Jvm;
+import net.openhft.chronicle.core.OS;
+import net.openhft.chronicle.core.threads.InvalidEventHandlerException;
+import net.openhft.chronicle.queue.ExcerptAppender;
+import net.openhft.chronicle.queue.QueueTestCommon;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeFalse;
+
+public class QueuePretoucherTest extends QueueTestCommon {
+
+    @Test
+    public void touchesPagesAheadOfTheWritePosition() throws InvalidEventHandlerException {
+        final long ahead = 16L * OS.pageSize();
+        try (SingleChronicleQueue queue = SingleChronicleQueueBuilder.binary(getTmpDir())
+                .testBlockSize()
+                .build();
+             ExcerptAppender appender = queue.createAppender();
+             QueuePretoucher pretoucher = new QueuePretoucher(queue, ahead, 0)) {
+            pretoucher.execute();
+            assertEquals("nothing to touch before the first cycle exists", 0, pretoucher.pagesTouched());
+
+            appender.writeText("hello");
+            pretoucher.execute();
+            final long touched = pretoucher.pagesTouched();
+            assertTrue(touched >= 16);
+            assertTrue(pretoucher.bytesAhead() >= ahead - OS.pageSize());
+
+            // nothing more to do until the appender moves on
+            pretoucher.execute();
+            assertEquals(touched, pretoucher.pagesTouched());
+
+            final byte[] page = new byte[OS.pageSize()];
+            for (int i = 0; i < 8; i++)
+                appender.writeBytes(b -> b.write(page));
+            pretoucher.execute();
+            assertTrue(pretoucher.pagesTouched() > touched);
+            assertTrue(pretoucher.bytesAhead() >= ahead - OS.pageSize());
+        }
+    }
+
+    @Test(expected = InvalidEventHandlerException.class)
+    public void stopsWhenClosed() throws InvalidEventHandlerException {
+        try (SingleChronicleQueue queue = SingleChronicleQueueBuilder.binary(getTmpDir()).testBlockSize().build()) {
+            final QueuePretoucher pretoucher = new QueuePretoucher(queue);
+            pretoucher.close();
+            pretoucher.execute();
+        }
+    }
+
+    @Test
+    public void preloaderRunsOnTheEventLoop() {
+        assumeFalse(SingleChronicleQueueBuilder.areEnterpriseFeaturesAvailable());
+        try (SingleChronicleQueue queue = SingleChronicleQueueBuilder.binary(getTmpDir())
+                .testBlockSize()
+                .enablePreloader(1)
+                .build();
+             ExcerptAppender appender = queue.createAppender()) {
+            final QueuePretoucher pretoucher = queue.backgroundPretoucher();
+            assertNotNull(pretoucher);
+            appender.writeText("hello");
+
+            final long end = System.currentTimeMillis() + 5_000;
+            while (pretoucher.pagesTouched() == 0 && System.currentTimeMillis() < end)
+                Jvm.pause(10);
+            assertTrue(pretoucher.pagesTouched() > 0);
+        }
+    }
+}
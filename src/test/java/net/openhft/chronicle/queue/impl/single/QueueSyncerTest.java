@@ -0,0 +1,82 @@
+/*
+ * Copyright 2013-2025 chronicle.software; SPDX-License-Identifier: Apache-2.0
+ */
+package net.openhft.chronicle.queue.impl.single;
+
+import net.openhft.chronicle.core.time.SetTimeProvider;
+import net.openhft.chronicle.queue.ExcerptAppender;
+import net.openhft.chronicle.queue.QueueTestCommon;
+import org.junit.Test;
+
+import static net.openhft.chronicle.queue.rollcycles.TestRollCycles.TEST_SECONDLY;
+import static org.junit.Assert.*;
+
+public class QueueSyncerTest extends QueueTestCommon {
+
+    @Test
+    public void awaitMSyncedReturnsOnceTheIndexIsSynced() {
+        final SetTimeProvider timeProvider = new SetTimeProvider("2020/10/19T01:01:01");
+        try (SingleChronicleQueue queue = SingleChronicleQueueBuilder.binary(getTmpDir())
+                .rollCycle(TEST_SECONDLY)
+                .timeProvider(timeProvider)
+                .testBlockSize()
+                .asyncMSync(1 << 20, 60_000)
+                .build();
+             ExcerptAppender appender = queue.createAppender()) {
+            final QueueSyncer syncer = queue.queueSyncer();
+            assertNotNull(syncer);
+            assertEquals(-1, queue.lastIndexMSynced());
+
+            for (int i = 0; i < 10; i++)
+                appender.writeText("hello " + i);
+            final long first = appender.lastIndexAppended();
+            assertTrue(queue.awaitMSynced(first, 5_000));
+            assertEquals(first, queue.lastIndexMSynced());
+            assertTrue(syncer.syncs() > 0);
+            assertTrue(syncer.bytesSynced() > 0);
+
+            // excerpts left in the previous cycle are synced before the new cycle
+            appender.writeText("last in cycle");
+            final long lastInCycle = appender.lastIndexAppended();
+            timeProvider.advanceMillis(1_000);
+            appender.writeText("next cycle");
+            final long next = appender.lastIndexAppended();
+            assertTrue(queue.awaitMSynced(next, 5_000));
+            assertTrue(queue.lastIndexMSynced() >= lastInCycle);
+            assertEquals(next, queue.lastIndexMSynced());
+        }
+    }
+
+    @Test
+    public void cyclesRolledPastBetweenSyncsAreSynced() {
+        final SetTimeProvider timeProvider = new SetTimeProvider("2020/10/19T01:01:01");
+        try (SingleChronicleQueue queue = SingleChronicleQueueBuilder.binary(getTmpDir())
+                .rollCycle(TEST_SECONDLY)
+                .timeProvider(timeProvider)
+                .testBlockSize()
+                .asyncMSync(1 << 20, 60_000)
+                .build();
+             ExcerptAppender appender = queue.createAppender()) {
+            final QueueSyncer syncer = queue.queueSyncer();
+            appender.writeText("first cycle");
+            assertTrue(queue.awaitMSynced(appender.lastIndexAppended(), 5_000));
+            final long syncs = syncer.syncs();
+
+            timeProvider.advanceMillis(1_000);
+            appender.writeText("rolled past");
+            timeProvider.advanceMillis(1_000);
+            appender.writeText("last cycle");
+            assertTrue(queue.awaitMSynced(appender.lastIndexAppended(), 5_000));
+            // the cycle in between and the last cycle
+            assertTrue(syncer.syncs() - syncs >= 2);
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void awaitMSyncedRequiresAsyncMSync() {
+        try (SingleChronicleQueue queue = SingleChronicleQueueBuilder.binary(getTmpDir()).testBlockSize().build()) {
+            assertNull(queue.queueSyncer());
+            queue.awaitMSynced(0, 1);
+        }
+    }
+}
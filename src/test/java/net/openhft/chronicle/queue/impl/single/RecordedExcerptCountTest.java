@@ -0,0 +1,86 @@
+/*
+ * Copyright 2013-2025 chronicle.software; SPDX-License-Identifier: Apache-2.0
+ */
+package net.openhft.chronicle.queue.impl.single;
+
+import net.openhft.chronicle.core.time.SetTimeProvider;
+import net.openhft.chronicle.queue.ExcerptAppender;
+import net.openhft.chronicle.queue.ExcerptTailer;
+import net.openhft.chronicle.queue.QueueTestCommon;
+import org.junit.Test;
+
+import java.io.File;
+
+import static net.openhft.chronicle.queue.rollcycles.TestRollCycles.TEST_SECONDLY;
+import static org.junit.Assert.assertEquals;
+
+public class RecordedExcerptCountTest extends QueueTestCommon {
+
+    @Test
+    public void countsOfCyclesAreRecordedWhenSealed() {
+        final SetTimeProvider timeProvider = new SetTimeProvider();
+        final int[] perCycle = {3, 1, 7, 2};
+        final int[] cycles = new int[perCycle.length];
+        final File dir = getTmpDir();
+        try (SingleChronicleQueue queue = SingleChronicleQueueBuilder.binary(dir)
+                .rollCycle(TEST_SECONDLY)
+                .timeProvider(timeProvider)
+                .testBlockSize()
+                .build();
+             ExcerptAppender appender = queue.createAppender()) {
+            for (int c = 0; c < perCycle.length; c++) {
+                for (int i = 0; i < perCycle[c]; i++)
+                    appender.writeText("msg-" + c + "-" + i);
+                cycles[c] = appender.cycle();
+                timeProvider.advanceMillis(1000);
+            }
+            // every cycle but the last was sealed when the appender rolled from it
+            for (int c = 0; c < perCycle.length - 1; c++)
+                assertEquals(perCycle[c], queue.recordedExcerptsInCycle(cycles[c]));
+            assertEquals(-1, queue.recordedExcerptsInCycle(cycles[perCycle.length - 1]));
+            assertEquals(3 + 1 + 7 + 2, queue.entryCount());
+
+            // a queue which didn't seal the cycles counts them once
+            try (SingleChronicleQueue reader = SingleChronicleQueueBuilder.binary(dir)
+                    .rollCycle(TEST_SECONDLY)
+                    .timeProvider(timeProvider)
+                    .testBlockSize()
+                    .readOnly(true)
+                    .build();
+                 ExcerptTailer tailer = reader.createTailer()) {
+                for (int cycle : cycles)
+                    assertEquals(-1, reader.recordedExcerptsInCycle(cycle));
+                final long first = tailer.toStart().index();
+                final long end = tailer.toEnd().index();
+                assertEquals(3 + 1 + 7 + 2, reader.countExcerpts(first, end));
+                for (int c = 0; c < perCycle.length - 1; c++)
+                    assertEquals(perCycle[c], reader.recordedExcerptsInCycle(cycles[c]));
+                assertEquals(-1, reader.recordedExcerptsInCycle(cycles[perCycle.length - 1]));
+            }
+        }
+    }
+
+    @Test
+    public void countsAreKeptForEveryCycleAndDroppedForDeletedCycles() {
+        try (SingleChronicleQueue queue = SingleChronicleQueueBuilder.binary(getTmpDir())
+                .rollCycle(TEST_SECONDLY)
+                .timeProvider(new SetTimeProvider())
+                .testBlockSize()
+                .build();
+             ExcerptAppender appender = queue.createAppender()) {
+            appender.writeText("first");
+            final int cycle = appender.cycle();
+
+            queue.recordExcerptsInCycle(cycle - 1, 5);
+            assertEquals(-1, queue.recordedExcerptsInCycle(cycle - 1));
+
+            // e.g. a month of minutely cycles
+            final int cycles = 31 * 24 * 60;
+            for (int i = cycles - 1; i >= 0; i--)
+                queue.recordExcerptsInCycle(cycle + i, i);
+            for (int i = 0; i < cycles; i++)
+                assertEquals(i, queue.recordedExcerptsInCycle(cycle + i));
+            assertEquals(-1, queue.recordedExcerptsInCycle(cycle + cycles));
+        }
+    }
+}
@@ -5,6 +5,7 @@ package net.openhft.chronicle.queue.impl.single;
 
 import net.openhft.chronicle.core.Jvm;
 import net.openhft.chronicle.core.io.AbstractReferenceCounted;
+import net.openhft.chronicle.core.io.BackgroundResourceReleaser;
 import net.openhft.chronicle.core.io.Closeable;
 import net.openhft.chronicle.core.io.ReferenceCounted;
 import net.openhft.chronicle.core.io.ReferenceOwner;
@@ -15,6 +16,8 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
@@ -93,6 +96,106 @@ class ReferenceCountedCacheTest extends QueueTestCommon {
         otherReservation.release();
     }
 
+    @Test
+    void shouldCreateOneObjectWhenManyThreadsGetTheSameKeyTogether() throws InterruptedException, ExecutionException {
+        final int numThreads = 8;
+        final ExecutorService executorService = Executors.newFixedThreadPool(numThreads);
+        try {
+            final CyclicBarrier barrier = new CyclicBarrier(numThreads);
+            final List<Future<Reservation>> futures = new ArrayList<>();
+            for (int i = 0; i < numThreads; i++) {
+                futures.add(executorService.submit(() -> {
+                    barrier.await();
+                    return cache.get(1);
+                }));
+            }
+            final List<Reservation> reservations = new ArrayList<>();
+            for (Future<Reservation> future : futures)
+                reservations.add(future.get());
+            Assertions.assertEquals(1, createdCount.get());
+            for (Reservation reservation : reservations) {
+                Assertions.assertSame(reservations.get(0).referenceCounted, reservation.referenceCounted);
+                reservation.release();
+            }
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    @Test
+    void shouldThrowTheCreatorsCheckedException() {
+        try (ReferenceCountedCache<Integer, TestReferenceCounted, Reservation, IOException> failing =
+                     new ReferenceCountedCache<>(Reservation::new, id -> {
+                         throw new FileNotFoundException("missing " + id);
+                     })) {
+            Assertions.assertThrows(FileNotFoundException.class, () -> failing.get(1));
+        }
+    }
+
+    @Test
+    void shouldKeepUnreferencedObjectsWithinBoundsReleasingTheLeastRecentlyUsedFirst() {
+        try (ReferenceCountedCache<Integer, TestReferenceCounted, Reservation, RuntimeException> bounded =
+                     new ReferenceCountedCache<>(Reservation::new, id -> new TestReferenceCounted(), 2, Long.MAX_VALUE, value -> 1)) {
+            final Reservation first = bounded.get(1);
+            first.release();
+            Jvm.pause(1);
+            bounded.get(2).release();
+            Jvm.pause(1);
+            final Reservation firstAgain = bounded.get(1);
+            Assertions.assertSame(first.referenceCounted, firstAgain.referenceCounted);
+            firstAgain.release();
+            Jvm.pause(1);
+            bounded.get(3).release();
+            BackgroundResourceReleaser.releasePendingResources();
+
+            Assertions.assertEquals(2, bounded.size());
+            Assertions.assertEquals(2, bounded.weight());
+            Assertions.assertEquals(1, bounded.evictions());
+            Assertions.assertEquals(1, releasedCount.get());
+            Assertions.assertEquals(3, bounded.misses());
+            Assertions.assertEquals(1, bounded.hits());
+
+            final Reservation firstStillCached = bounded.get(1);
+            Assertions.assertSame(first.referenceCounted, firstStillCached.referenceCounted);
+            firstStillCached.release();
+            Assertions.assertEquals(3, createdCount.get());
+        }
+    }
+
+    @Test
+    void shouldWeighObjectsWhenCreatedAndOnceUnreferenced() {
+        final AtomicInteger size = new AtomicInteger(10);
+        try (ReferenceCountedCache<Integer, TestReferenceCounted, Reservation, RuntimeException> bounded =
+                     new ReferenceCountedCache<>(Reservation::new, id -> new TestReferenceCounted(), 2, Long.MAX_VALUE, value -> size.get())) {
+            final Reservation first = bounded.get(1);
+            Assertions.assertEquals(10, bounded.weight());
+
+            // grows while referenced, weighed again once released
+            size.set(30);
+            bounded.get(2).release();
+            BackgroundResourceReleaser.releasePendingResources();
+            Assertions.assertEquals(40, bounded.weight());
+            first.release();
+            BackgroundResourceReleaser.releasePendingResources();
+            Assertions.assertEquals(60, bounded.weight());
+
+            bounded.remove(1);
+            Assertions.assertEquals(30, bounded.weight());
+        }
+    }
+
+    @Test
+    void shouldNotCountReleasesAsEvictionsWhenKeepingNoUnreferencedObjects() {
+        cache.get(1).release();
+        cache.get(2).release();
+        BackgroundResourceReleaser.releasePendingResources();
+
+        Assertions.assertEquals(0, cache.size());
+        Assertions.assertEquals(0, cache.weight());
+        Assertions.assertEquals(2, releasedCount.get());
+        Assertions.assertEquals(0, cache.evictions());
+    }
+
     private static class ReferenceGetter implements Runnable, ReferenceOwner {
 
         private final int numResources;
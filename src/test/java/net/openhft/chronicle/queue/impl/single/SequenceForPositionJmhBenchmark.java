@@ -0,0 +1,89 @@
+/*
+ * Copyright 2013-2025 chronicle.software; SPDX-License-Identifier: Apache-2.0
+ */
+package net.openhft.chronicle.queue.impl.single;
+
+import net.openhft.chronicle.core.OS;
+import net.openhft.chronicle.core.io.IOTools;
+import net.openhft.chronicle.queue.RollCycles;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.io.StreamCorruptedException;
+import java.nio.file.Paths;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static net.openhft.chronicle.core.io.Closeable.closeQuietly;
+
+/**
+ * Measures {@link SingleChronicleQueueStore#sequenceForPosition} for excerpts spread over a cycle, by how much of
+ * the cycle's index is filled.
+ */
+@Fork(value = 1, warmups = 1)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SequenceForPositionJmhBenchmark {
+    private static final int INDEX_COUNT = 256;
+    private static final int INDEX_SPACING = 16;
+    private static final int LOOKUPS = 1 << 10;
+
+    @Param({"1", "10", "50", "100"})
+    public int fillPercent;
+
+    private File queuePath;
+    private SingleChronicleQueue queue;
+    private StoreTailer tailer;
+    private SingleChronicleQueueStore store;
+    private final long[] positions = new long[LOOKUPS];
+    private int next;
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SequenceForPositionJmhBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        queuePath = Paths.get(OS.getTarget(), SequenceForPositionJmhBenchmark.class.getSimpleName()).toFile();
+        IOTools.deleteDirWithFiles(queuePath);
+        queue = SingleChronicleQueueBuilder.binary(queuePath)
+                .rollCycle(RollCycles.FAST_DAILY)
+                .indexCount(INDEX_COUNT)
+                .indexSpacing(INDEX_SPACING)
+                .build();
+        // the last excerpt of a full index is left out, so the cycle doesn't need another index2index entry
+        final int entries = (int) ((long) INDEX_COUNT * INDEX_COUNT * INDEX_SPACING * fillPercent / 100) - 1;
+        final long[] written = new long[entries];
+        try (StoreAppender appender = (StoreAppender) queue.createAppender()) {
+            for (int i = 0; i < entries; i++) {
+                appender.writeText(Integer.toString(i));
+                written[i] = appender.lastPosition;
+            }
+        }
+        final Random random = new Random(1);
+        for (int i = 0; i < LOOKUPS; i++)
+            positions[i] = written[random.nextInt(entries)];
+
+        tailer = (StoreTailer) queue.createTailer().toStart();
+        final int cycle = queue.firstCycle();
+        tailer.moveToIndex(queue.rollCycle().toIndex(cycle, 0));
+        store = queue.storeForCycle(cycle, queue.epoch(), false, null);
+    }
+
+    @Benchmark
+    public long sequenceForPosition() throws StreamCorruptedException {
+        return store.sequenceForPosition(tailer, positions[next++ & (LOOKUPS - 1)], true);
+    }
+
+    @TearDown(Level.Trial)
+    public void complete() {
+        closeQuietly(store, tailer, queue);
+        IOTools.deleteDirWithFiles(queuePath);
+    }
+}
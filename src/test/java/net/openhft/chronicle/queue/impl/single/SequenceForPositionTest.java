@@ -0,0 +1,56 @@
+/*
+ * Copyright 2013-2025 chronicle.software; SPDX-License-Identifier: Apache-2.0
+ */
+package net.openhft.chronicle.queue.impl.single;
+
+import net.openhft.chronicle.queue.QueueTestCommon;
+import net.openhft.chronicle.wire.DocumentContext;
+import org.junit.Test;
+
+import java.io.StreamCorruptedException;
+
+import static org.junit.Assert.assertEquals;
+
+public class SequenceForPositionTest extends QueueTestCommon {
+    private static final int INDEX_COUNT = 8;
+    private static final int INDEX_SPACING = 2;
+
+    @Test
+    public void findsTheSequenceOfEveryExcerptWithAPartlyFilledIndex() throws StreamCorruptedException {
+        assertFindsEverySequence(INDEX_COUNT * INDEX_SPACING * 3 + 5);
+    }
+
+    @Test
+    public void findsTheSequenceOfEveryExcerptWithAFullIndex() throws StreamCorruptedException {
+        assertFindsEverySequence(INDEX_COUNT * INDEX_COUNT * INDEX_SPACING);
+    }
+
+    private void assertFindsEverySequence(int excerpts) throws StreamCorruptedException {
+        try (SingleChronicleQueue queue = SingleChronicleQueueBuilder.binary(getTmpDir())
+                .testBlockSize()
+                .indexCount(INDEX_COUNT)
+                .indexSpacing(INDEX_SPACING)
+                .build();
+             StoreAppender appender = (StoreAppender) queue.createAppender();
+             StoreTailer tailer = (StoreTailer) queue.createTailer()) {
+            final long[] positions = new long[excerpts];
+            for (int i = 0; i < excerpts; i++) {
+                final int n = i;
+                appender.writeDocument(w -> w.write("n").int32(n));
+                positions[i] = appender.lastPosition;
+                // metadata between excerpts must not be counted
+                if (i % 5 == 0)
+                    try (DocumentContext dc = appender.writingDocument(true)) {
+                        dc.wire().write("meta").int32(n);
+                    }
+            }
+
+            final int cycle = appender.cycle();
+            tailer.moveToIndex(queue.rollCycle().toIndex(cycle, 0));
+            try (SingleChronicleQueueStore store = queue.storeForCycle(cycle, queue.epoch(), false, null)) {
+                for (int i = 0; i < excerpts; i++)
+                    assertEquals(i, store.sequenceForPosition(tailer, positions[i], true));
+            }
+        }
+    }
+}
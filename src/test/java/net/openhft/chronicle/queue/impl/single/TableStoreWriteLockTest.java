@@ -7,6 +7,7 @@ import net.openhft.chronicle.core.Jvm;
 import net.openhft.chronicle.core.io.Closeable;
 import net.openhft.chronicle.core.io.IOTools;
 import net.openhft.chronicle.core.threads.InterruptedRuntimeException;
+import net.openhft.chronicle.queue.ExcerptAppender;
 import net.openhft.chronicle.queue.QueueTestCommon;
 import net.openhft.chronicle.queue.impl.TableStore;
 import net.openhft.chronicle.queue.impl.table.Metadata;
@@ -20,6 +21,7 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.io.File;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.util.Collection;
@@ -208,6 +210,125 @@ public class TableStoreWriteLockTest extends QueueTestCommon {
         assertTrue(true); // if we got here without an exception, the test passes
     }
 
+    @Test(timeout = 15_000)
+    public void adaptiveLockPreventsConcurrentAcquisition() throws InterruptedException {
+        final int numThreads = Math.min(6, Runtime.getRuntime().availableProcessors());
+        final int iterations = 30;
+        final AtomicBoolean lockIsAcquired = new AtomicBoolean(false);
+        try (final TableStoreWriteLock testLock = createTestLock(tableStore, 10_000, WriteLockMode.ADAPTIVE)) {
+            testLock.metrics().recordHoldTimes(true);
+            ExecutorService executorService = Executors.newFixedThreadPool(numThreads);
+            CyclicBarrier barrier = new CyclicBarrier(numThreads);
+            final Collection<Future<?>> futures = IntStream.range(0, numThreads)
+                    .mapToObj(v -> executorService.submit(new LockAcquirer(testLock, lockIsAcquired, iterations, barrier)))
+                    .collect(Collectors.toList());
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    throw new AssertionError(e);
+                }
+            }
+            Threads.shutdown(executorService);
+
+            final WriteLockMetrics metrics = testLock.metrics();
+            assertEquals(numThreads * iterations, metrics.acquisitions());
+            assertTrue(metrics.maxHoldNanos() >= TimeUnit.MILLISECONDS.toNanos(10));
+            assertFalse(testLock.locked());
+        }
+    }
+
+    @Test(timeout = 5_000)
+    public void adaptiveLockWillThrowIllegalStateExceptionIfInterruptedWhileWaitingForLock() throws InterruptedException {
+        try (final TableStoreWriteLock testLock = createTestLock(tableStore, 5_000, WriteLockMode.ADAPTIVE)) {
+            testLock.lock();
+            AtomicBoolean threwException = new AtomicBoolean(false);
+            Thread t = new Thread(() -> {
+                try {
+                    testLock.lock();
+                } catch (IllegalStateException e) {
+                    threwException.set(true);
+                }
+            });
+            t.start();
+            Jvm.pause(10);
+            t.interrupt();
+            t.join();
+            assertTrue(threwException.get());
+        }
+    }
+
+    @Test(timeout = 5_000, expected = UnrecoverableTimeoutException.class)
+    public void adaptiveLockWillThrowExceptionAfterTimeout() throws InterruptedException {
+        System.setProperty("queue.force.unlock.mode", "NEVER");
+        try (final TableStoreWriteLock testLock = createTestLock(tableStore, 50, WriteLockMode.ADAPTIVE)) {
+            Thread t = new Thread(testLock::lock);
+            t.start();
+            t.join();
+            testLock.lock();
+            fail("Should have thrown trying to lock()");
+        } finally {
+            System.clearProperty("queue.force.unlock.mode");
+        }
+    }
+
+    @Test(timeout = 5_000)
+    public void metricsRecordWaitsAndHolds() throws InterruptedException {
+        for (WriteLockMode mode : WriteLockMode.values()) {
+            try (final TableStoreWriteLock testLock = createTestLock(tableStore, 1_000, mode)) {
+                final WriteLockMetrics metrics = testLock.metrics();
+                testLock.lock();
+                testLock.unlock();
+                assertEquals(1, metrics.acquisitions());
+                assertEquals(0, metrics.contendedAcquisitions());
+                assertEquals(0, metrics.totalWaitNanos());
+                // hold times are only recorded once enabled
+                assertEquals(0, metrics.maxHoldNanos());
+                metrics.recordHoldTimes(true);
+
+                testLock.lock();
+                final CountDownLatch waiting = new CountDownLatch(1);
+                final Thread waiter = new Thread(() -> {
+                    waiting.countDown();
+                    testLock.lock();
+                    testLock.unlock();
+                });
+                waiter.start();
+                waiting.await();
+                Jvm.pause(20);
+                testLock.unlock();
+                waiter.join();
+
+                assertEquals(3, metrics.acquisitions());
+                assertEquals(1, metrics.contendedAcquisitions());
+                assertTrue(metrics.maxWaitNanos() >= TimeUnit.MILLISECONDS.toNanos(10));
+                assertEquals(metrics.maxWaitNanos(), metrics.totalWaitNanos());
+                assertTrue(metrics.maxHoldNanos() >= TimeUnit.MILLISECONDS.toNanos(20));
+
+                metrics.reset();
+                assertEquals(0, metrics.acquisitions());
+                assertEquals(0, metrics.maxHoldNanos());
+            }
+        }
+    }
+
+    @Test(timeout = 5_000)
+    public void queueExposesWriteLockMetrics() {
+        final File dir = getTmpDir();
+        try (SingleChronicleQueue queue = SingleChronicleQueueBuilder.binary(dir)
+                .testBlockSize()
+                .writeLockMode(WriteLockMode.ADAPTIVE)
+                .build();
+             ExcerptAppender appender = queue.createAppender()) {
+            appender.writeText("hello");
+            appender.writeText("world");
+            assertEquals(2, queue.writeLockMetrics().acquisitions());
+        }
+        try (SingleChronicleQueue queue = SingleChronicleQueueBuilder.binary(dir).readOnly(true).build()) {
+            assertSame(WriteLockMetrics.NONE, queue.writeLockMetrics());
+        }
+    }
+
     @Test(timeout = 5_000)
     public void forceUnlockIfProcessIsDeadWillFailWhenLockingProcessIsAlive() throws IOException, TimeoutException, InterruptedException {
         Process lockingProcess = runLockingProcess(true);
@@ -260,6 +381,11 @@ public class TableStoreWriteLockTest extends QueueTestCommon {
         return new TableStoreWriteLock(tableStore, Pauser::balanced, timeoutMilliseconds, TEST_LOCK_NAME);
     }
 
+    @NotNull
+    private static TableStoreWriteLock createTestLock(TableStore<Metadata.NoMeta> tableStore, long timeoutMilliseconds, WriteLockMode mode) {
+        return new TableStoreWriteLock(tableStore, Pauser::balanced, timeoutMilliseconds, TEST_LOCK_NAME, mode);
+    }
+
     private Process runLockingProcess(boolean releaseAfterInterrupt) {
         return JavaProcessBuilder.create(LockAndHoldUntilInterrupted.class)
                 .withProgramArguments(tableStore.file().getAbsolutePath(), String.valueOf(releaseAfterInterrupt)).start();
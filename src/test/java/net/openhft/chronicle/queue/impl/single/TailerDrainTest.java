@@ -0,0 +1,96 @@
+/*
+ * Copyright 2013-2025 chronicle.software; SPDX-License-Identifier: Apache-2.0
+ */
+package net.openhft.chronicle.queue.impl.single;
+
+import net.openhft.chronicle.core.time.SetTimeProvider;
+import net.openhft.chronicle.queue.ExcerptAppender;
+import net.openhft.chronicle.queue.ExcerptTailer;
+import net.openhft.chronicle.queue.QueueTestCommon;
+import net.openhft.chronicle.wire.DocumentContext;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static net.openhft.chronicle.queue.rollcycles.TestRollCycles.TEST_SECONDLY;
+import static org.junit.Assert.assertEquals;
+
+public class TailerDrainTest extends QueueTestCommon {
+
+    @Test
+    public void drainMatchesReadingDocumentAcrossCycles() {
+        final SetTimeProvider timeProvider = new SetTimeProvider();
+        final List<Long> indexes = new ArrayList<>();
+        try (SingleChronicleQueue queue = SingleChronicleQueueBuilder.binary(getTmpDir())
+                .rollCycle(TEST_SECONDLY)
+                .timeProvider(timeProvider)
+                .testBlockSize()
+                .build();
+             ExcerptAppender appender = queue.createAppender()) {
+            for (int i = 0; i < 500; i++) {
+                write(appender, "msg-" + i);
+                indexes.add(appender.lastIndexAppended());
+                if (i % 50 == 0)
+                    try (DocumentContext dc = appender.writingDocument(true)) {
+                        dc.wire().write("meta").int32(i);
+                    }
+                if (i % 120 == 119)
+                    timeProvider.advanceMillis(1000);
+            }
+
+            final List<Long> drainedIndexes = new ArrayList<>();
+            final List<String> drained = new ArrayList<>();
+            try (ExcerptTailer tailer = queue.createTailer()) {
+                int total = 0;
+                int read;
+                while ((read = tailer.drain((index, wire) -> {
+                    drainedIndexes.add(index);
+                    drained.add(wire.getValueIn().text());
+                }, 64)) > 0) {
+                    assertEquals(Math.min(64, 500 - total), read);
+                    total += read;
+                }
+                assertEquals(500, total);
+                assertEquals(indexes.get(499), tailer.lastReadIndex());
+                assertEquals(0, tailer.drain((index, wire) -> drained.add("unexpected"), 64));
+
+                // the tailer carries on from where the drain finished
+                write(appender, "after");
+                try (DocumentContext dc = tailer.readingDocument()) {
+                    assertEquals("after", dc.wire().getValueIn().text());
+                    assertEquals(appender.lastIndexAppended(), dc.index());
+                }
+            }
+
+            assertEquals(indexes, drainedIndexes);
+            for (int i = 0; i < 500; i++)
+                assertEquals("msg-" + i, drained.get(i));
+        }
+    }
+
+    @Test
+    public void drainContinuesAfterReadingDocument() {
+        try (SingleChronicleQueue queue = SingleChronicleQueueBuilder.binary(getTmpDir()).testBlockSize().build();
+             ExcerptAppender appender = queue.createAppender();
+             ExcerptTailer tailer = queue.createTailer()) {
+            for (int i = 0; i < 10; i++)
+                write(appender, "msg-" + i);
+
+            try (DocumentContext dc = tailer.readingDocument()) {
+                assertEquals("msg-0", dc.wire().getValueIn().text());
+            }
+            final List<String> drained = new ArrayList<>();
+            assertEquals(3, tailer.drain((index, wire) -> drained.add(wire.getValueIn().text()), 3));
+            try (DocumentContext dc = tailer.readingDocument()) {
+                assertEquals("msg-4", dc.wire().getValueIn().text());
+            }
+            assertEquals(5, tailer.drain((index, wire) -> drained.add(wire.getValueIn().text()), 100));
+            assertEquals("[msg-1, msg-2, msg-3, msg-5, msg-6, msg-7, msg-8, msg-9]", drained.toString());
+        }
+    }
+
+    private static void write(ExcerptAppender appender, String text) {
+        appender.writeDocument(w -> w.getValueOut().text(text));
+    }
+}
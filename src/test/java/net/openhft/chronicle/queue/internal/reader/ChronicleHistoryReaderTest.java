@@ -13,16 +13,21 @@ import net.openhft.chronicle.queue.QueueTestCommon;
 import net.openhft.chronicle.queue.impl.single.SingleChronicleQueue;
 import net.openhft.chronicle.queue.reader.ChronicleHistoryReader;
 import net.openhft.chronicle.wire.*;
+import com.sun.management.ThreadMXBean;
 import org.jetbrains.annotations.NotNull;
 import org.junit.Assert;
 import org.junit.Test;
 
 import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
 
 public class ChronicleHistoryReaderTest extends QueueTestCommon {
 
@@ -265,6 +270,54 @@ public class ChronicleHistoryReaderTest extends QueueTestCommon {
         }
     }
 
+    @Test
+    public void processingMessagesDoesNotAllocate() {
+        final ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        // written by source 1, then read and written by source 2
+        final VanillaMessageHistory history = new VanillaMessageHistory();
+        history.addTiming(1_000);
+        history.addSource(1, 11);
+        history.addTiming(2_000);
+        history.addTiming(3_000);
+        history.addSource(2, 22);
+        history.addTiming(5_000);
+        history.addTiming(8_000);
+
+        final List<String> output = new ArrayList<>();
+        final StringBuilder methodName = new StringBuilder();
+        try (ProcessingHistoryReader reader = new ProcessingHistoryReader()) {
+            reader.withHistosByMethod(true).withMessageSink(output::add);
+            final int messages = 100_000;
+            for (int i = 0; i < messages; i++)
+                reader.process(methodName, i % 2 == 0 ? "say" : "shout", history);
+
+            final long threadId = Thread.currentThread().getId();
+            final long before = threads.getThreadAllocatedBytes(threadId);
+            for (int i = 0; i < messages; i++)
+                reader.process(methodName, i % 2 == 0 ? "say" : "shout", history);
+            final long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+            // allow for the measurement itself, but not for anything per message
+            assertTrue("allocated " + allocated + " bytes", allocated < 1_000);
+
+            reader.outputData();
+            assertEquals("sourceId               1_say startTo1_say        2_say     1to2_say     endToEnd      1_shout startTo1_shout      2_shout   1to2_shout ",
+                    output.get(1));
+            assertEquals("count:                100000       100000       100000       100000       200000       100000       100000       100000       100000 ",
+                    output.get(2));
+        }
+    }
+
+    static class ProcessingHistoryReader extends ChronicleHistoryReader {
+        void process(StringBuilder methodName, String name, MessageHistory history) {
+            methodName.setLength(0);
+            methodName.append(name);
+            processMessage(methodName, history);
+        }
+    }
+
     @NotNull
     private SingleChronicleQueue queue(File queuePath1, int sourceId) {
         return ChronicleQueue.singleBuilder(queuePath1).testBlockSize().sourceId(sourceId).build();
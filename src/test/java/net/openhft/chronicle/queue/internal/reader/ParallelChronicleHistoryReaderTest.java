@@ -0,0 +1,146 @@
+/*
+ * Copyright 2013-2025 chronicle.software; SPDX-License-Identifier: Apache-2.0
+ */
+package net.openhft.chronicle.queue.internal.reader;
+
+import net.openhft.chronicle.bytes.MethodReader;
+import net.openhft.chronicle.core.OS;
+import net.openhft.chronicle.core.time.SetTimeProvider;
+import net.openhft.chronicle.queue.ChronicleQueue;
+import net.openhft.chronicle.queue.QueueTestCommon;
+import net.openhft.chronicle.queue.reader.ChronicleHistoryReader;
+import net.openhft.chronicle.wire.MessageHistory;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+import java.util.function.UnaryOperator;
+
+import static net.openhft.chronicle.queue.rollcycles.TestRollCycles.TEST_SECONDLY;
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeFalse;
+
+public class ParallelChronicleHistoryReaderTest extends QueueTestCommon {
+    private static final int PER_CYCLE = 10;
+
+    private final SetTimeProvider timeProvider = new SetTimeProvider("2020/10/19T01:01:01");
+    private File queuePath1;
+    private File queuePath2;
+    private File queuePath3;
+    private int written;
+    private long startIndex;
+
+    @Before
+    public void writeQueues() {
+        // the reader opens queues read-only
+        assumeFalse(OS.isWindows());
+        // this is because there is no way to tell CHR to open a queue with a particular sourceId
+        expectException("Overriding sourceId from existing metadata, was 0, overriding to");
+
+        final ChronicleHistoryReaderTest.SetTimeMessageHistory mh = new ChronicleHistoryReaderTest.SetTimeMessageHistory();
+        mh.addSourceDetails(true);
+        MessageHistory.set(mh);
+
+        queuePath1 = getTmpDir();
+        queuePath2 = getTmpDir();
+        queuePath3 = getTmpDir();
+        write(120);
+    }
+
+    /**
+     * Writes messages through two components, rolling the last queue every {@link #PER_CYCLE} messages.
+     */
+    private void write(int messages) {
+        try (ChronicleQueue q1 = ChronicleQueue.singleBuilder(queuePath1).testBlockSize().sourceId(1).build();
+             ChronicleQueue q2 = ChronicleQueue.singleBuilder(queuePath2).testBlockSize().sourceId(2).build();
+             ChronicleQueue q3 = ChronicleQueue.singleBuilder(queuePath3).testBlockSize().sourceId(3)
+                     .rollCycle(TEST_SECONDLY).timeProvider(timeProvider).build()) {
+            final ChronicleHistoryReaderTest.DummyListener writer1 = q1.methodWriterBuilder(ChronicleHistoryReaderTest.DummyListener.class).get();
+            final ChronicleHistoryReaderTest.DummyListener writer2 = q2.methodWriterBuilder(ChronicleHistoryReaderTest.DummyListener.class).get();
+            final ChronicleHistoryReaderTest.DummyListener writer3 = q3.methodWriterBuilder(ChronicleHistoryReaderTest.DummyListener.class).get();
+            final MethodReader reader1 = q1.createTailer().toEnd().methodReader(writer2);
+            final MethodReader reader2 = q2.createTailer().toEnd().methodReader(writer3);
+
+            for (int i = 0; i < messages; i++, written++) {
+                if (written % PER_CYCLE == 0)
+                    // leave a gap in the cycles
+                    timeProvider.advanceMillis(written == 6 * PER_CYCLE ? 3_000 : 1_000);
+                writer1.say("hello " + written);
+                assertTrue(reader1.readOne());
+                assertTrue(reader2.readOne());
+                if (written == 2 * PER_CYCLE + 7)
+                    startIndex = q3.lastIndex();
+            }
+        }
+    }
+
+    @Test
+    public void parallelReadMatchesSequentialRead() {
+        assertSameOutput(r -> r);
+        assertSameOutput(r -> r.withHistosByMethod(true));
+    }
+
+    @Test
+    public void parallelReadMatchesSequentialMeasurementWindows() {
+        assertSameOutput(r -> r.withMeasurementWindow(500));
+        assertSameOutput(r -> r.withMeasurementWindow(130).withSummaryOutput(-1));
+    }
+
+    @Test
+    public void parallelReadIgnoresTheSameMessages() {
+        assertSameOutput(r -> r.withIgnore(25));
+        assertSameOutput(r -> r.withIgnore(33).withMeasurementWindow(500));
+    }
+
+    @Test
+    public void parallelReadStartsAtStartIndex() {
+        assertSameOutput(r -> r.withStartIndex(startIndex));
+    }
+
+    @Test
+    public void parallelReadContinuesFromWhereTheLastReadFinished() {
+        final String[] sequential = readTwice(1);
+        assertTrue(sequential[1].contains("count:                    35 "));
+        for (int parallelism : new int[]{2, 5}) {
+            final String[] parallel = readTwice(parallelism);
+            assertEquals(sequential[0], parallel[0]);
+            assertEquals(sequential[1], parallel[1]);
+        }
+    }
+
+    private String[] readTwice(int parallelism) {
+        final StringBuilder output = new StringBuilder();
+        try (ChronicleHistoryReader reader = reader(output, parallelism)) {
+            reader.execute();
+            final String first = output.toString();
+            output.setLength(0);
+            write(35);
+            reader.execute();
+            return new String[]{first, output.toString()};
+        }
+    }
+
+    private void assertSameOutput(UnaryOperator<ChronicleHistoryReader> configuration) {
+        final String sequential = read(configuration, 1);
+        assertFalse(sequential.isEmpty());
+        for (int parallelism : new int[]{2, 3, 7})
+            assertEquals(sequential, read(configuration, parallelism));
+    }
+
+    private String read(UnaryOperator<ChronicleHistoryReader> configuration, int parallelism) {
+        final StringBuilder output = new StringBuilder();
+        try (ChronicleHistoryReader reader = configuration.apply(reader(output, parallelism))) {
+            reader.execute();
+        }
+        return output.toString();
+    }
+
+    private ChronicleHistoryReader reader(StringBuilder output, int parallelism) {
+        return new ChronicleHistoryReader()
+                .withBasePath(queuePath3.toPath())
+                .withTimeUnit(TimeUnit.MICROSECONDS)
+                .withMessageSink(s -> output.append(s).append('\n'))
+                .withParallelism(parallelism);
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2013-2025 chronicle.software; SPDX-License-Identifier: Apache-2.0
+ */
+package net.openhft.chronicle.queue.internal.reader;
+
+import net.openhft.chronicle.core.OS;
+import net.openhft.chronicle.core.time.SetTimeProvider;
+import net.openhft.chronicle.queue.ChronicleQueue;
+import net.openhft.chronicle.queue.QueueTestCommon;
+import net.openhft.chronicle.queue.impl.single.SingleChronicleQueueBuilder;
+import net.openhft.chronicle.queue.reader.ChronicleReader;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.UnaryOperator;
+
+import static net.openhft.chronicle.queue.rollcycles.TestRollCycles.TEST_SECONDLY;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assume.assumeFalse;
+
+public class ParallelChronicleReaderTest extends QueueTestCommon {
+    private static final int CYCLES = 12;
+    private static final int PER_CYCLE = 25;
+
+    private Path dataDir;
+    private long startIndex;
+
+    @Before
+    public void writeQueue() {
+        // the reader opens queues read-only
+        assumeFalse(OS.isWindows());
+
+        dataDir = getTmpDir().toPath();
+        final SetTimeProvider timeProvider = new SetTimeProvider("2020/10/19T01:01:01");
+        try (final ChronicleQueue queue = SingleChronicleQueueBuilder.binary(dataDir)
+                .rollCycle(TEST_SECONDLY)
+                .timeProvider(timeProvider)
+                .testBlockSize()
+                .build()) {
+            final Say say = queue.methodWriter(Say.class);
+            for (int c = 0; c < CYCLES; c++) {
+                // leave a gap in the cycles
+                timeProvider.advanceMillis(c == CYCLES / 2 ? 3_000 : 1_000);
+                for (int i = 0; i < PER_CYCLE; i++) {
+                    say.say((i % 3 == 0 ? "fizz " : "buzz ") + (c * PER_CYCLE + i));
+                    if (c == 2 && i == 7)
+                        startIndex = queue.lastIndex();
+                }
+            }
+        }
+    }
+
+    @Test
+    public void parallelReadMatchesSequentialRead() {
+        assertSameOutput(r -> r);
+    }
+
+    @Test
+    public void parallelReadAppliesFilters() {
+        assertSameOutput(r -> r.withInclusionRegex("fizz").withExclusionRegex("1[0-9]\\b"));
+    }
+
+    @Test
+    public void parallelReadHonoursMatchLimit() {
+        assertSameOutput(r -> r.withInclusionRegex("buzz").withMatchLimit(37));
+        assertSameOutput(r -> r.withMatchLimit(1));
+    }
+
+    @Test
+    public void parallelReadStartsAtStartIndex() {
+        assertSameOutput(r -> r.withStartIndex(startIndex));
+        assertSameOutput(r -> r.historyRecords(60));
+    }
+
+    @Test
+    public void parallelReadAsMethodReader() {
+        assertSameOutput(r -> r.asMethodReader(Say.class.getName()).withInclusionRegex("fizz"));
+    }
+
+    private void assertSameOutput(UnaryOperator<ChronicleReader> configuration) {
+        final List<String> sequential = read(configuration, 1);
+        assertFalse(sequential.isEmpty());
+        for (int parallelism : new int[]{2, 4, 7})
+            assertEquals(sequential, read(configuration, parallelism));
+    }
+
+    private List<String> read(UnaryOperator<ChronicleReader> configuration, int parallelism) {
+        final List<String> output = new ArrayList<>();
+        configuration.apply(new ChronicleReader()
+                        .withBasePath(dataDir)
+                        .withMessageSink(output::add)
+                        .withParallelism(parallelism))
+                .execute();
+        return output;
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2013-2025 chronicle.software; SPDX-License-Identifier: Apache-2.0
+ */
+package net.openhft.chronicle.queue.namedtailer;
+
+import net.openhft.chronicle.core.values.LongValue;
+import net.openhft.chronicle.queue.ExcerptAppender;
+import net.openhft.chronicle.queue.ExcerptTailer;
+import net.openhft.chronicle.queue.QueueTestCommon;
+import net.openhft.chronicle.queue.impl.single.SingleChronicleQueue;
+import net.openhft.chronicle.queue.impl.single.SingleChronicleQueueBuilder;
+import net.openhft.chronicle.queue.impl.single.namedtailer.TailerCommitPolicy;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class NamedTailerCommitPolicyTest extends QueueTestCommon {
+
+    @Test
+    public void indexIsOnlyWrittenOnCommitOrClose() {
+        final File dir = getTmpDir();
+        try (SingleChronicleQueue queue = SingleChronicleQueueBuilder.binary(dir)
+                .testBlockSize()
+                .tailerCommitPolicy(TailerCommitPolicy.ON_COMMIT)
+                .build();
+             ExcerptAppender appender = queue.createAppender();
+             LongValue persisted = queue.indexForId("named")) {
+            for (int i = 0; i < 6; i++)
+                appender.writeText("msg" + i);
+
+            try (ExcerptTailer tailer = queue.createTailer("named")) {
+                assertEquals("msg0", tailer.readText());
+                assertEquals("msg1", tailer.readText());
+                tailer.commit();
+                final long committed = tailer.index();
+                assertEquals(committed, persisted.getVolatileValue());
+
+                assertEquals("msg2", tailer.readText());
+                assertNotEquals(tailer.index(), persisted.getVolatileValue());
+                assertEquals(committed, persisted.getVolatileValue());
+
+                // a tailer with the same name only sees what was committed, so reads msg2 again
+                try (ExcerptTailer replay = queue.createTailer("named")) {
+                    assertEquals("msg2", replay.readText());
+                }
+                assertEquals("msg3", tailer.readText());
+            }
+
+            try (ExcerptTailer tailer = queue.createTailer("named")) {
+                assertEquals("msg4", tailer.readText());
+            }
+        }
+    }
+
+    @Test
+    public void replicatedIndexIsWrittenEveryFewExcerpts() {
+        final String name = SingleChronicleQueue.REPLICATED_NAMED_TAILER_PREFIX + "named";
+        try (SingleChronicleQueue queue = SingleChronicleQueueBuilder.binary(getTmpDir())
+                .testBlockSize()
+                .tailerCommitPolicy(TailerCommitPolicy.everyExcerpts(5))
+                .build();
+             ExcerptAppender appender = queue.createAppender()) {
+            for (int i = 0; i < 20; i++)
+                appender.writeText("msg" + i);
+
+            try (ExcerptTailer tailer = queue.createTailer(name);
+                 LongValue version = queue.indexVersionForId(name)) {
+                final long initialVersion = version.getVolatileValue();
+                for (int i = 0; i < 20; i++)
+                    assertEquals("msg" + i, tailer.readText());
+                final long versions = version.getVolatileValue() - initialVersion;
+                assertTrue("versions " + versions, versions > 0 && versions <= 5);
+
+                tailer.commit();
+                try (LongValue persisted = queue.indexForId(name)) {
+                    assertEquals(tailer.index(), persisted.getVolatileValue());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void indexIsWrittenWhenOnlyTheQueueIsClosed() {
+        final File dir = getTmpDir();
+        final SingleChronicleQueue queue = SingleChronicleQueueBuilder.binary(dir)
+                .testBlockSize()
+                .tailerCommitPolicy(TailerCommitPolicy.ON_COMMIT)
+                .build();
+        try (ExcerptAppender appender = queue.createAppender()) {
+            for (int i = 0; i < 4; i++)
+                appender.writeText("msg" + i);
+        }
+        final ExcerptTailer tailer = queue.createTailer("named");
+        assertEquals("msg0", tailer.readText());
+        assertEquals("msg1", tailer.readText());
+        // closing the queue closes the tailer, which writes the index it has not committed
+        queue.close();
+        assertTrue(tailer.isClosed());
+
+        try (SingleChronicleQueue reopened = SingleChronicleQueueBuilder.binary(dir)
+                .testBlockSize()
+                .tailerCommitPolicy(TailerCommitPolicy.ON_COMMIT)
+                .build();
+             ExcerptTailer named = reopened.createTailer("named")) {
+            assertEquals("msg2", named.readText());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsAPolicyWhichNeverWrites() {
+        TailerCommitPolicy.every(0, 0, TimeUnit.MICROSECONDS);
+    }
+}